@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.Criterion;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.setup.DependencyAnalysis;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.testcase.factories.RandomLengthTestFactory;
+import org.evosuite.utils.Randomness;
+
+/**
+ * Common set up of the benchmarks: every benchmark starts from the default
+ * properties and the same seed, so that two runs (eg, of two releases) work on
+ * the same tests.
+ */
+final class BenchmarkSetup {
+
+	/** Seed of {@link Randomness} for all the benchmarks */
+	static final long SEED = 42;
+
+	private BenchmarkSetup() {
+	}
+
+	/**
+	 * Resets the properties, the classloader of the SUT and the seed
+	 */
+	static void reset() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		Properties.getInstance().resetToDefaults();
+		Properties.TARGET_CLASS = "";
+		TestGenerationContext.getInstance().resetContext();
+		ClassReInitializer.resetSingleton();
+		Randomness.setSeed(SEED);
+	}
+
+	/**
+	 * Instruments and analyses a sample CUT for branch coverage, so that tests
+	 * can be generated for it
+	 *
+	 * @param targetClass
+	 *            the fully qualified name of a class of the EvosuiteTest
+	 *            samples
+	 */
+	static void setUpTargetClass(String targetClass) throws ClassNotFoundException {
+		reset();
+		Properties.TARGET_CLASS = targetClass;
+		Properties.CRITERION = new Criterion[] { Criterion.BRANCH };
+		Properties.ASSERTIONS = false;
+		ExecutionTracer.enableTraceCalls();
+
+		String classPath = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		DependencyAnalysis.analyzeClass(targetClass, Arrays.asList(classPath));
+		Randomness.setSeed(SEED);
+	}
+
+	/**
+	 * @return random tests for the current target class
+	 */
+	static List<TestChromosome> generateTests(int numberOfTests) {
+		RandomLengthTestFactory factory = new RandomLengthTestFactory();
+		List<TestChromosome> tests = new ArrayList<TestChromosome>(numberOfTests);
+		for (int i = 0; i < numberOfTests; i++) {
+			tests.add(factory.getChromosome());
+		}
+		return tests;
+	}
+
+	static void tearDown() {
+		TestGenerationContext.getInstance().resetContext();
+		ClassReInitializer.resetSingleton();
+		Properties.getInstance().resetToDefaults();
+	}
+}
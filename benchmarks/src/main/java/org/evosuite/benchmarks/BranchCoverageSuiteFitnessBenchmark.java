@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.coverage.branch.BranchCoverageSuiteFitness;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import regression.branchenhancement.example.ColtExample;
+
+/**
+ * Cost of computing the branch coverage fitness of a test suite from the
+ * traces of its tests. The tests are executed once during the set up, so the
+ * benchmark measures the fitness computation and not the execution.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BranchCoverageSuiteFitnessBenchmark {
+
+	private static final int NUMBER_OF_TESTS = 20;
+
+	private TestSuiteChromosome suite;
+
+	private BranchCoverageSuiteFitness fitness;
+
+	@Setup(Level.Trial)
+	public void setUp() throws ClassNotFoundException {
+		BenchmarkSetup.setUpTargetClass(ColtExample.class.getName());
+		suite = new TestSuiteChromosome();
+		for (TestChromosome test : BenchmarkSetup.generateTests(NUMBER_OF_TESTS)) {
+			suite.addTest(test);
+		}
+		fitness = new BranchCoverageSuiteFitness();
+		// executes the tests, and keeps their results
+		fitness.getFitness(suite);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkSetup.tearDown();
+	}
+
+	@Benchmark
+	public double getFitness() {
+		return fitness.getFitness(suite);
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.TestGenerationContext;
+import org.evosuite.symbolic.ConcolicExecution;
+import org.evosuite.symbolic.PathCondition;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.variable.VariableReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import regression.stringconstraints.example.StringConstraintExample;
+
+/**
+ * Cost of executing a test in the symbolic VM and collecting its path
+ * condition, as done by DSE for every test it explores
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ConcolicExecutionBenchmark {
+
+	private DefaultTestCase test;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		BenchmarkSetup.setUpTargetClass(StringConstraintExample.class.getName());
+
+		Class<?> targetClass = TestGenerationContext.getInstance().getClassLoaderForSUT()
+				.loadClass(StringConstraintExample.class.getName());
+		Constructor<?> constructor = targetClass.getConstructor();
+		Method method = targetClass.getMethod("method", String.class, String.class, String.class);
+
+		// goes through all the branches of the method
+		StringBuilder var0 = new StringBuilder();
+		for (int i = 0; i < 97; i++) {
+			var0.append('x');
+		}
+		var0.append("foo");
+
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference callee = builder.appendConstructor(constructor);
+		VariableReference string0 = builder.appendStringPrimitive(var0.toString());
+		VariableReference string1 = builder.appendStringPrimitive("foo");
+		VariableReference string2 = builder.appendStringPrimitive("xfoo");
+		builder.appendMethod(callee, method, string0, string1, string2);
+		test = builder.getDefaultTestCase();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkSetup.tearDown();
+	}
+
+	@Benchmark
+	public int executeConcolic() {
+		PathCondition pathCondition = ConcolicExecution.executeConcolic((DefaultTestCase) test.clone());
+		return pathCondition.size();
+	}
+}
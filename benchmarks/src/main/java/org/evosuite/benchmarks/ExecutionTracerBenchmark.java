@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.testcase.execution.ExecutionTrace;
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.utils.Randomness;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the calls that the instrumented code makes on each branch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ExecutionTracerBenchmark {
+
+	private static final int CALLS = 1024;
+
+	/** Number of distinct branch ids that are passed */
+	@Param({ "16", "1024" })
+	public int branches;
+
+	private int[] values;
+
+	private int[] otherValues;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BenchmarkSetup.reset();
+		values = new int[CALLS];
+		otherValues = new int[CALLS];
+		for (int i = 0; i < CALLS; i++) {
+			values[i] = Randomness.nextInt(-1000, 1000);
+			otherValues[i] = Randomness.nextInt(-1000, 1000);
+		}
+		ExecutionTracer.enable();
+		ExecutionTracer.setThread(Thread.currentThread());
+	}
+
+	@Setup(Level.Iteration)
+	public void clearTrace() {
+		ExecutionTracer.getExecutionTracer().clear();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ExecutionTracer.getExecutionTracer().clear();
+		BenchmarkSetup.tearDown();
+	}
+
+	@Benchmark
+	public ExecutionTrace passedBranchOneOperand() {
+		for (int i = 0; i < CALLS; i++) {
+			ExecutionTracer.passedBranch(values[i], Opcodes.IFLT, i % branches, i);
+		}
+		return ExecutionTracer.getExecutionTracer().getTrace();
+	}
+
+	@Benchmark
+	public ExecutionTrace passedBranchTwoOperands() {
+		for (int i = 0; i < CALLS; i++) {
+			ExecutionTracer.passedBranch(values[i], otherValues[i], Opcodes.IF_ICMPLE, i % branches, i);
+		}
+		return ExecutionTracer.getExecutionTracer().getTrace();
+	}
+}
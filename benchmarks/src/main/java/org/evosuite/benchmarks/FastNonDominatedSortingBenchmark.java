@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.coverage.branch.BranchCoverageFactory;
+import org.evosuite.coverage.branch.BranchCoverageTestFitness;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
+import org.evosuite.ga.operators.ranking.RankBasedPreferenceSorting;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.utils.Randomness;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import regression.branchenhancement.example.ColtExample;
+
+/**
+ * Cost of ranking a population on the branch goals of a CUT, as done by MOSA
+ * on each generation. The fitness values are random, so that the population
+ * has several fronts. {@link #pairwiseRankingAssignment()} is the pairwise
+ * algorithm of Deb et al., which the ranking functions used before the
+ * efficient non-dominated sort, as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FastNonDominatedSortingBenchmark {
+
+	@Param({ "50", "200" })
+	public int populationSize;
+
+	private List<TestChromosome> population;
+
+	private Set<FitnessFunction<TestChromosome>> goals;
+
+	@Setup(Level.Trial)
+	public void setUp() throws ClassNotFoundException {
+		BenchmarkSetup.setUpTargetClass(ColtExample.class.getName());
+
+		goals = new LinkedHashSet<FitnessFunction<TestChromosome>>();
+		for (BranchCoverageTestFitness goal : new BranchCoverageFactory().getCoverageGoals()) {
+			goals.add(goal);
+		}
+
+		population = BenchmarkSetup.generateTests(populationSize);
+		for (TestChromosome test : population) {
+			for (FitnessFunction<TestChromosome> goal : goals) {
+				test.setFitness(goal, Randomness.nextInt(10) / 10.0);
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkSetup.tearDown();
+	}
+
+	@Benchmark
+	public int computeRankingAssignment() {
+		FastNonDominatedSorting<TestChromosome> sorting = new FastNonDominatedSorting<TestChromosome>();
+		sorting.computeRankingAssignment(population, goals);
+		return sorting.getNumberOfSubfronts();
+	}
+
+	@Benchmark
+	public int computePreferenceRankingAssignment() {
+		RankBasedPreferenceSorting<TestChromosome> sorting = new RankBasedPreferenceSorting<TestChromosome>();
+		sorting.computeRankingAssignment(population, goals);
+		return sorting.getNumberOfSubfronts();
+	}
+
+	@Benchmark
+	public int pairwiseRankingAssignment() {
+		int size = population.size();
+		double[][] fitness = new double[size][];
+		for (int p = 0; p < size; p++) {
+			fitness[p] = new double[goals.size()];
+			int i = 0;
+			for (FitnessFunction<TestChromosome> goal : goals) {
+				fitness[p][i++] = population.get(p).getFitness(goal);
+			}
+		}
+
+		int[] dominateMe = new int[size];
+		int[][] iDominate = new int[size][size];
+		int[] numDominated = new int[size];
+		for (int p = 0; p < size - 1; p++) {
+			for (int q = p + 1; q < size; q++) {
+				int flag = compareDominance(fitness[p], fitness[q]);
+				if (flag == -1) {
+					iDominate[p][numDominated[p]++] = q;
+					dominateMe[q]++;
+				} else if (flag == 1) {
+					iDominate[q][numDominated[q]++] = p;
+					dominateMe[p]++;
+				}
+			}
+		}
+
+		int numFronts = 0;
+		int[] front = new int[size];
+		int frontSize = 0;
+		for (int p = 0; p < size; p++) {
+			if (dominateMe[p] == 0) {
+				front[frontSize++] = p;
+			}
+		}
+		while (frontSize > 0) {
+			numFronts++;
+			int[] next = new int[size];
+			int nextSize = 0;
+			for (int k = 0; k < frontSize; k++) {
+				int p = front[k];
+				for (int d = 0; d < numDominated[p]; d++) {
+					if (--dominateMe[iDominate[p][d]] == 0) {
+						next[nextSize++] = iDominate[p][d];
+					}
+				}
+			}
+			front = next;
+			frontSize = nextSize;
+		}
+		return numFronts;
+	}
+
+	private static int compareDominance(double[] row1, double[] row2) {
+		boolean dominate1 = false;
+		boolean dominate2 = false;
+		for (int i = 0; i < row1.length; i++) {
+			int flag = Double.compare(row1[i], row2[i]);
+			if (flag < 0) {
+				dominate1 = true;
+			} else if (flag > 0) {
+				dominate2 = true;
+			}
+			if (dominate1 && dominate2) {
+				return 0;
+			}
+		}
+		if (dominate1 == dominate2) {
+			return 0;
+		}
+		return dominate1 ? -1 : 1;
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Statements per second when calling constructors and methods the way
+ * ConstructorStatement and MethodStatement do, with plain reflection
+ * (before) and with the cached method handles of GenericMethod and
+ * GenericConstructor (after)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StatementInvocationBenchmark {
+
+	private static final int STATEMENTS = 5;
+
+	private GenericConstructor listConstructor;
+	private GenericMethod add;
+	private GenericMethod get;
+	private GenericMethod append;
+	private GenericMethod max;
+
+	private final Object[] capacity = new Object[] { 16 };
+	private final Object[] element = new Object[] { "foo" };
+	private final Object[] index = new Object[] { 0 };
+	private final Object[] number = new Object[] { 42 };
+	private final Object[] numbers = new Object[] { 3, 7 };
+
+	private StringBuilder builder;
+
+	@Setup(Level.Trial)
+	public void setUp() throws NoSuchMethodException {
+		listConstructor = new GenericConstructor(ArrayList.class.getConstructor(int.class), ArrayList.class);
+		add = new GenericMethod(ArrayList.class.getMethod("add", Object.class), ArrayList.class);
+		get = new GenericMethod(ArrayList.class.getMethod("get", int.class), ArrayList.class);
+		append = new GenericMethod(StringBuilder.class.getMethod("append", int.class), StringBuilder.class);
+		max = new GenericMethod(Math.class.getMethod("max", int.class, int.class), Math.class);
+	}
+
+	@Setup(Level.Iteration)
+	public void resetBuilder() {
+		builder = new StringBuilder();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STATEMENTS)
+	public void reflection(Blackhole blackhole) throws Exception {
+		List<?> list = (List<?>) listConstructor.getConstructor().newInstance(capacity);
+		add.getMethod().invoke(list, element);
+		blackhole.consume(get.getMethod().invoke(list, index));
+		if (builder.length() > 1000) {
+			builder.setLength(0);
+		}
+		blackhole.consume(append.getMethod().invoke(builder, number));
+		blackhole.consume(max.getMethod().invoke(null, numbers));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STATEMENTS)
+	public void methodHandles(Blackhole blackhole) throws Exception {
+		List<?> list = (List<?>) listConstructor.newInstance(capacity);
+		add.invoke(list, element);
+		blackhole.consume(get.invoke(list, index));
+		if (builder.length() > 1000) {
+			builder.setLength(0);
+		}
+		blackhole.consume(append.invoke(builder, number));
+		blackhole.consume(max.invoke(null, numbers));
+	}
+}
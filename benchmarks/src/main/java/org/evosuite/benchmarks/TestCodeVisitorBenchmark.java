@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestCodeVisitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import regression.branchenhancement.example.ColtExample;
+
+/**
+ * Cost of printing tests as Java code, as done when writing the test suite and
+ * for every string representation of a test
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TestCodeVisitorBenchmark {
+
+	private static final int NUMBER_OF_TESTS = 50;
+
+	private List<TestChromosome> tests;
+
+	@Setup(Level.Trial)
+	public void setUp() throws ClassNotFoundException {
+		BenchmarkSetup.setUpTargetClass(ColtExample.class.getName());
+		tests = BenchmarkSetup.generateTests(NUMBER_OF_TESTS);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkSetup.tearDown();
+	}
+
+	@Benchmark
+	public void printTests(Blackhole blackhole) {
+		for (TestChromosome test : tests) {
+			TestCodeVisitor visitor = new TestCodeVisitor();
+			test.getTestCase().accept(visitor);
+			blackhole.consume(visitor.getCode());
+		}
+	}
+}
@@ -153,6 +153,15 @@ public class Properties {
 	@Parameter(key = "computation_graph_call_depth", group = "Test Creation", description = "how depth the call hierarchy to analyze when constructing computation graph")
 	public static int COMPUTATION_GRAPH_METHOD_CALL_DEPTH = 5;
 	
+	@Parameter(key = "legitimization_budget", group = "Test Creation", description = "Maximum time (in milliseconds) spent on legitimizing a synthesized test")
+	public static long LEGITIMIZATION_BUDGET = 5000;
+	
+	@Parameter(key = "legitimization_max_executions", group = "Test Creation", description = "Maximum number of test executions spent on legitimizing a synthesized test")
+	public static int LEGITIMIZATION_MAX_EXECUTIONS = 2000;
+	
+	@Parameter(key = "legitimization_cache", group = "Test Creation", description = "Reuse legitimized tests for later syntheses of the same branch and partial computation graph")
+	public static boolean LEGITIMIZATION_CACHE = true;
+	
 	@Parameter(key = "chop_carved_exceptions", group = "Test Creation", description = "If a carved test throws an exception, either chop it off, or drop it")
 	public static boolean CHOP_CARVED_EXCEPTIONS = true;
 
@@ -417,6 +426,16 @@ public class Properties {
 	@Parameter(key = "dse_variable_resets", group = "DSE", description = "Times DSE resets the int and real variables with random values")
 	public static int DSE_VARIABLE_RESETS = 2;
 
+	@Parameter(key = "dse_solver_cache_size", group = "DSE", description = "Maximum number of constraint systems whose solver result is cached")
+	@IntValue(min = 1)
+	public static int DSE_SOLVER_CACHE_SIZE = 10000;
+
+	@Parameter(key = "dse_solver_process_pool", group = "DSE", description = "Keep the Z3/CVC4 processes running between queries and solve the queries incrementally, instead of launching a new process for each query")
+	public static boolean DSE_SOLVER_PROCESS_POOL = false;
+
+	@Parameter(key = "dse_incremental_exploration", group = "DSE", description = "Keep a prefix tree of the explored path conditions, and do not solve again the negations of branch conditions whose outcome is known")
+	public static boolean DSE_INCREMENTAL_EXPLORATION = false;
+
 	public enum DSEType {
 		/** apply DSE per statement */
 		STATEMENT,
@@ -595,6 +614,18 @@ public class Properties {
 		INDIVIDUALS, TESTS, STATEMENTS;
 	}
 
+	@Parameter(key = "novelty_neighbours", group = "Search Algorithm", description = "Number of nearest neighbours used to compute the novelty of an individual in novelty search")
+	@IntValue(min = 1)
+	public static int NOVELTY_NEIGHBOURS = 15;
+
+	@Parameter(key = "novelty_threshold", group = "Search Algorithm", description = "Minimum novelty for an individual to be added to the novelty archive")
+	@DoubleValue(min = 0.0, max = 1.0)
+	public static double NOVELTY_THRESHOLD = 0.1;
+
+	@Parameter(key = "novelty_archive_size", group = "Search Algorithm", description = "Maximum number of behaviours kept in the novelty archive; the oldest ones are dropped first")
+	@IntValue(min = 0)
+	public static int NOVELTY_ARCHIVE_SIZE = 1000;
+
 	@Parameter(key = "population_limit", group = "Search Algorithm", description = "What to use as limit for the population size")
 	public static PopulationLimit POPULATION_LIMIT = PopulationLimit.INDIVIDUALS;
 
@@ -981,7 +1012,8 @@ public class Properties {
     public static boolean MINIMIZE_SORT = true;
 
 
-	@Parameter(key = "minimize_skip_coincidental", group = "Output", description = "Minimize test suite after generation")
+	@Parameter(key = "minimize_skip_coincidental", group = "Output", description = "Deprecated: has no effect, goals covered coincidentally by a minimized test are always skipped")
+	@Deprecated
 	public static boolean MINIMIZE_SKIP_COINCIDENTAL = true;
 
 	@Parameter(key = "minimize_old", group = "Output", description = "Minimize test suite using old algorithm")
@@ -1189,6 +1221,12 @@ public class Properties {
 	@Parameter(key = "inheritance_file", description = "Cached version of inheritance tree")
 	public static String INHERITANCE_FILE = "";
 
+	@Parameter(key = "classpath_index_dir", description = "Folder in which to keep an index of the jar files on the classpath, reused across runs as long as the jars do not change. No index is used if empty")
+	public static String CLASSPATH_INDEX_DIR = "";
+
+	@Parameter(key = "instrumentation_cache_dir", description = "Folder in which to keep the instrumented bytecode of classes that are not analyzed for coverage, reused across runs as long as the classes and the instrumentation settings do not change. No cache is used if empty")
+	public static String INSTRUMENTATION_CACHE_DIR = "";
+
 	@Parameter(key = "branch_eval", description = "Jeremy's branch evaluation")
 	public static boolean BRANCH_EVAL = false;
 
@@ -1383,6 +1421,16 @@ public class Properties {
     @Parameter(key = "max_loop_iterations", group = "Test Execution", description = "Max number of iterations allowed per loop. A negative value means no check is done.")
     public static long MAX_LOOP_ITERATIONS = RuntimeSettings.maxNumberOfIterationsPerLoop;
 
+	@Parameter(key = "array_execution_trace", group = "Test Execution", description = "Store branch distances and coverage counts of the execution trace in primitive arrays indexed by branch id")
+	public static boolean ARRAY_EXECUTION_TRACE = false;
+
+	@Parameter(key = "parallel_execution_lanes", group = "Test Execution", description = "Number of isolated lanes used to execute the tests of a population concurrently; 1 executes all tests sequentially")
+	@IntValue(min = 1)
+	public static int PARALLEL_EXECUTION_LANES = 1;
+
+	@Parameter(key = "incremental_execution", group = "Test Execution", description = "Resume the execution of a test after the statements it shares with the last execution of the test it was derived from, if these are deterministic and free of side effects")
+	public static boolean INCREMENTAL_EXECUTION = false;
+
     // ---------------------------------------------------------------
 	// Debugging
 
@@ -1538,6 +1586,9 @@ public class Properties {
 	@Parameter(key = "regression_diversity", group = "Runtime", description = "Include diversity fitness measurement")
 	public static boolean REGRESSION_DIVERSITY = false;
 
+	@Parameter(key = "regression_concurrent_execution", group = "Runtime", description = "Execute the tests on the original and on the regression class loader concurrently, using the parallel execution lanes")
+	public static boolean REGRESSION_CONCURRENT_EXECUTION = false;
+
     @Parameter(key = "regression_skip_similar", group = "Runtime", description = "Skip running EvosuiteR on similar classes")
     public static boolean REGRESSION_SKIP_SIMILAR = false;
 
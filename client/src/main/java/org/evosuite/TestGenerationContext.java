@@ -34,6 +34,7 @@ import org.evosuite.coverage.branch.BranchPool;
 import org.evosuite.coverage.dataflow.DefUsePool;
 import org.evosuite.coverage.mutation.MutationPool;
 import org.evosuite.coverage.mutation.MutationTimeoutStoppingCondition;
+import org.evosuite.ga.FitnessFunctionIndex;
 import org.evosuite.ga.archive.Archive;
 import org.evosuite.ga.stoppingconditions.GlobalTimeStoppingCondition;
 import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
@@ -62,6 +63,7 @@ import org.evosuite.testcarver.extraction.CarvingManager;
 import org.evosuite.testcase.execution.ExecutionTracer;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.testcase.synthesizer.TestCaseLegitimizer;
 import org.evosuite.utils.ArrayUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -209,6 +211,9 @@ public class TestGenerationContext {
 		TestCaseExecutor.initExecutor();
 
 		Archive.getArchiveInstance().reset();
+		FitnessFunctionIndex.getInstance().reset();
+		// The legitimized templates refer to classes of the previous class loader
+		TestCaseLegitimizer.resetSingleton();
 
 		// Constant pool
 		ConstantPoolManager.getInstance().reset();
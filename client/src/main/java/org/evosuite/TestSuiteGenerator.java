@@ -61,6 +61,7 @@ import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.statistics.StatisticsSender;
 import org.evosuite.strategy.TestGenerationStrategy;
 import org.evosuite.symbolic.DSEStats;
+import org.evosuite.symbolic.solver.SmtSolverPool;
 import org.evosuite.testcase.ConstantInliner;
 import org.evosuite.testcase.DefaultTestCase;
 import org.evosuite.testcase.TestCase;
@@ -543,6 +544,8 @@ public class TestSuiteGenerator {
 
 		DSEStats.getInstance().trackSolverStatistics();
 
+		SmtSolverPool.getInstance().shutdown();
+
 		if (Properties.DSE_PROBABILITY > 0.0 && Properties.LOCAL_SEARCH_RATE > 0
 				&& Properties.LOCAL_SEARCH_PROBABILITY > 0.0) {
 			DSEStats.getInstance().logStatistics();
@@ -0,0 +1,396 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.classpath;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.evosuite.Properties;
+import org.evosuite.utils.MD5;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Persistent index of the jar files on the classpath, shared across
+ * different runs (and different client JVMs) through the folder set in
+ * {@link Properties#CLASSPATH_INDEX_DIR}.
+ * </p>
+ * 
+ * <p>
+ * For each jar, the index contains the names of all its class files and the
+ * metadata needed to build the inheritance tree (access flags, superclass,
+ * interfaces and methods). Index files are keyed by path, size and last
+ * modification time of the jar, so a changed jar gets a new index file, and
+ * only changed jars are re-analyzed. Index files are memory-mapped when read.
+ * </p>
+ */
+public class ClassPathIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ClassPathIndex.class);
+
+	private static final int MAGIC = 0x45564349;
+
+	private static final int VERSION = 1;
+
+	private static final ClassPathIndex singleton = new ClassPathIndex();
+
+	/**
+	 * Key -> absolute path, size and last modification time of a jar file
+	 * <p>
+	 * Value -> the index of its content
+	 */
+	private final Map<String, JarIndex> jars = new ConcurrentHashMap<>();
+
+	private ClassPathIndex() {
+	}
+
+	public static ClassPathIndex getInstance() {
+		return singleton;
+	}
+
+	/**
+	 * Forget the indexes loaded in this JVM. The index files are not deleted
+	 */
+	public void resetCache() {
+		jars.clear();
+	}
+
+	public static boolean isEnabled() {
+		return Properties.CLASSPATH_INDEX_DIR != null && !Properties.CLASSPATH_INDEX_DIR.isEmpty();
+	}
+
+	/**
+	 * Metadata of a class, as read from its bytecode
+	 */
+	public static class ClassMetadata {
+
+		/** Internal name, eg org/some/Foo */
+		public final String name;
+
+		public final int access;
+
+		/** Internal name of the superclass, {@code null} for java/lang/Object */
+		public final String superName;
+
+		public final List<String> interfaces;
+
+		public final List<String> methodNames;
+
+		public final List<String> methodDescriptors;
+
+		public ClassMetadata(String name, int access, String superName, List<String> interfaces,
+				List<String> methodNames, List<String> methodDescriptors) {
+			this.name = name;
+			this.access = access;
+			this.superName = superName;
+			this.interfaces = interfaces;
+			this.methodNames = methodNames;
+			this.methodDescriptors = methodDescriptors;
+		}
+
+		@SuppressWarnings("unchecked")
+		public static ClassMetadata fromClassNode(ClassNode cn) {
+			List<String> names = new ArrayList<>(cn.methods.size());
+			List<String> descriptors = new ArrayList<>(cn.methods.size());
+			for (Object m : cn.methods) {
+				MethodNode mn = (MethodNode) m;
+				names.add(mn.name);
+				descriptors.add(mn.desc);
+			}
+			return new ClassMetadata(cn.name, cn.access, cn.superName,
+					new ArrayList<String>(cn.interfaces), names, descriptors);
+		}
+	}
+
+	/**
+	 * Index of a single jar file
+	 */
+	public static class JarIndex {
+
+		private final List<String> classNames;
+
+		private final Map<String, ClassMetadata> classes;
+
+		private JarIndex(List<String> classNames, Map<String, ClassMetadata> classes) {
+			this.classNames = Collections.unmodifiableList(classNames);
+			this.classes = classes;
+		}
+
+		/**
+		 * @return the names (eg foo.Foo) of all the class files in the jar, in
+		 *         the order they are stored
+		 */
+		public List<String> getClassNames() {
+			return classNames;
+		}
+
+		/**
+		 * @param className
+		 *            a fully qualifying name, eg org.some.Foo
+		 * @return {@code null} if the class could not be analyzed
+		 */
+		public ClassMetadata getClassMetadata(String className) {
+			return classes.get(className);
+		}
+	}
+
+	/**
+	 * Return the index of the given jar file, reading it from the index folder
+	 * if the jar did not change since it was written, or analyzing the jar
+	 * otherwise
+	 * 
+	 * @param jarPath
+	 * @return {@code null} if the index is disabled or the jar cannot be read
+	 */
+	public JarIndex getJarIndex(String jarPath) {
+		if (!isEnabled()) {
+			return null;
+		}
+
+		File jar = new File(jarPath).getAbsoluteFile();
+		if (!jar.isFile()) {
+			return null;
+		}
+
+		String path = jar.getPath();
+		long size = jar.length();
+		long lastModified = jar.lastModified();
+
+		String key = path + File.pathSeparator + size + File.pathSeparator + lastModified;
+		JarIndex index = jars.get(key);
+		if (index != null) {
+			return index;
+		}
+
+		File indexFile = new File(Properties.CLASSPATH_INDEX_DIR, MD5.hash(key) + ".idx");
+
+		if (indexFile.exists()) {
+			try {
+				index = read(indexFile, path, size, lastModified);
+			} catch (IOException | RuntimeException e) {
+				logger.warn("Ignoring invalid classpath index file " + indexFile + ": " + e);
+			}
+		}
+
+		if (index == null) {
+			try {
+				index = analyze(jar);
+			} catch (IOException e) {
+				logger.warn("Failed to analyze jar file " + path + ": " + e.getMessage());
+				return null;
+			}
+			try {
+				write(indexFile, index, path, size, lastModified);
+			} catch (IOException e) {
+				logger.warn("Failed to write classpath index file " + indexFile + ": " + e.getMessage());
+			}
+		}
+
+		jars.put(key, index);
+		return index;
+	}
+
+	private static JarIndex analyze(File jar) throws IOException {
+		List<String> classNames = new ArrayList<>();
+		Map<String, ClassMetadata> classes = new LinkedHashMap<>();
+
+		try (ZipFile zf = new ZipFile(jar)) {
+			Enumeration<? extends ZipEntry> entries = zf.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry ze = entries.nextElement();
+				String entryName = ze.getName();
+				if (!entryName.endsWith(".class")) {
+					continue;
+				}
+
+				String className = ResourceList.getClassNameFromResourcePath(entryName);
+				classNames.add(className);
+
+				try (InputStream in = zf.getInputStream(ze)) {
+					ClassReader reader = new ClassReader(in);
+					ClassNode cn = new ClassNode();
+					reader.accept(cn, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG
+							| ClassReader.SKIP_CODE);
+					classes.put(className, ClassMetadata.fromClassNode(cn));
+				} catch (IOException | RuntimeException e) {
+					// no metadata: whoever needs it will have to parse (and report) the class again
+					logger.debug("Cannot index " + entryName + " in " + jar + ": " + e);
+				}
+			}
+		}
+
+		return new JarIndex(classNames, classes);
+	}
+
+	private static void write(File indexFile, JarIndex index, String path, long size,
+			long lastModified) throws IOException {
+		File folder = indexFile.getParentFile();
+		if (!folder.exists() && !folder.mkdirs() && !folder.exists()) {
+			throw new IOException("Cannot create folder " + folder);
+		}
+
+		/*
+		 * Several clients might write the same index at the same time, so
+		 * first write to a tmp file, and then atomically move it
+		 */
+		File tmp = File.createTempFile(indexFile.getName(), ".tmp", folder);
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(tmp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				writeString(out, path);
+				out.writeLong(size);
+				out.writeLong(lastModified);
+
+				out.writeInt(index.classNames.size());
+				for (String className : index.classNames) {
+					writeString(out, className);
+					ClassMetadata metadata = index.classes.get(className);
+					out.writeBoolean(metadata != null);
+					if (metadata == null) {
+						continue;
+					}
+					writeString(out, metadata.name);
+					out.writeInt(metadata.access);
+					writeString(out, metadata.superName);
+					out.writeInt(metadata.interfaces.size());
+					for (String interfaceName : metadata.interfaces) {
+						writeString(out, interfaceName);
+					}
+					out.writeInt(metadata.methodNames.size());
+					for (int i = 0; i < metadata.methodNames.size(); i++) {
+						writeString(out, metadata.methodNames.get(i));
+						writeString(out, metadata.methodDescriptors.get(i));
+					}
+				}
+			}
+			try {
+				Files.move(tmp.toPath(), indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			tmp.delete();
+		}
+	}
+
+	private static JarIndex read(File indexFile, String path, long size, long lastModified)
+			throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		try {
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				return null;
+			}
+			if (!path.equals(readString(buffer)) || buffer.getLong() != size
+					|| buffer.getLong() != lastModified) {
+				// hash collision, or the index belongs to a different jar
+				return null;
+			}
+
+			int numClasses = buffer.getInt();
+			List<String> classNames = new ArrayList<>(numClasses);
+			Map<String, ClassMetadata> classes = new LinkedHashMap<>();
+			for (int i = 0; i < numClasses; i++) {
+				String className = readString(buffer);
+				classNames.add(className);
+				if (buffer.get() == 0) {
+					continue;
+				}
+
+				String name = readString(buffer);
+				int access = buffer.getInt();
+				String superName = readString(buffer);
+				int numInterfaces = buffer.getInt();
+				List<String> interfaces = new ArrayList<>(numInterfaces);
+				for (int j = 0; j < numInterfaces; j++) {
+					interfaces.add(readString(buffer));
+				}
+				int numMethods = buffer.getInt();
+				List<String> methodNames = new ArrayList<>(numMethods);
+				List<String> methodDescriptors = new ArrayList<>(numMethods);
+				for (int j = 0; j < numMethods; j++) {
+					methodNames.add(readString(buffer));
+					methodDescriptors.add(readString(buffer));
+				}
+				classes.put(className, new ClassMetadata(name, access, superName, interfaces,
+						methodNames, methodDescriptors));
+			}
+			return new JarIndex(classNames, classes);
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated index file");
+		}
+	}
+
+	/*
+	 * Strings are written as length (-1 for null) followed by UTF-8 bytes, so
+	 * they can be read directly from a ByteBuffer
+	 */
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -587,6 +587,15 @@ public class ResourceList {
 	}
 
 	private void scanJar(String jarEntry) {
+		ClassPathIndex.JarIndex index = ClassPathIndex.getInstance().getJarIndex(jarEntry);
+		if(index != null){
+			//no need to open the jar, the index has the same content
+			for(String className : index.getClassNames()){
+				addJarClass(jarEntry, className);
+			}
+			return;
+		}
+
 		JarFile zf = getCache().getJar(jarEntry);
 
 		Enumeration<?> e = zf.entries();
@@ -598,26 +607,28 @@ public class ResourceList {
 				continue;
 			}
 
-			String className = getClassNameFromResourcePath(entryName);
-			
-			// The same class may exist in different classpath entries
-			// and only the first one is kept
-			if(getCache().mapClassToCP.containsKey(className))
-				continue;
-			
-			if(className.contains("$")) {
-				String outerClass = className.substring(0, className.indexOf('$'));
-				if(getCache().mapClassToCP.containsKey(outerClass)) {
-					if(!getCache().mapClassToCP.get(outerClass).equals(jarEntry)) {
-						continue;
-					}
+			addJarClass(jarEntry, getClassNameFromResourcePath(entryName));
+		}
+	}
+
+	private void addJarClass(String jarEntry, String className) {
+		// The same class may exist in different classpath entries
+		// and only the first one is kept
+		if(getCache().mapClassToCP.containsKey(className))
+			return;
+
+		if(className.contains("$")) {
+			String outerClass = className.substring(0, className.indexOf('$'));
+			if(getCache().mapClassToCP.containsKey(outerClass)) {
+				if(!getCache().mapClassToCP.get(outerClass).equals(jarEntry)) {
+					return;
 				}
 			}
-			
-			getCache().mapClassToCP.put(className, jarEntry);//getPackageName
-			getCache().mapCPtoClasses.get(jarEntry).add(className);
-			getCache().addPrefix(getParentPackageName(className), jarEntry);
 		}
+
+		getCache().mapClassToCP.put(className, jarEntry);//getPackageName
+		getCache().mapCPtoClasses.get(jarEntry).add(className);
+		getCache().addPrefix(getParentPackageName(className), jarEntry);
 	}
 
 }
\ No newline at end of file
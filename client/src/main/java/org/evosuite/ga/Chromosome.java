@@ -20,7 +20,6 @@
 package org.evosuite.ga;
 
 import java.io.Serializable;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import org.evosuite.Properties;
 import org.evosuite.ga.localsearch.LocalSearchObjective;
@@ -48,10 +47,10 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 		// empty
 	}
 	/** Last recorded fitness value */
-	private LinkedHashMap<FitnessFunction<?>, Double> fitnessValues = new LinkedHashMap<FitnessFunction<?>, Double>();
+	private GoalValueMap<Double> fitnessValues = GoalValueMap.doubles();
 	
 	/** Previous fitness, to see if there was an improvement */
-	private LinkedHashMap<FitnessFunction<?>, Double> previousFitnessValues = new LinkedHashMap<FitnessFunction<?>, Double>();
+	private GoalValueMap<Double> previousFitnessValues = GoalValueMap.doubles();
 
 	/** Has this chromosome changed since its fitness was last evaluated? */
 	private boolean changed = true;
@@ -59,11 +58,11 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	/** Has local search been applied to this individual since it was last changed? */
 	private boolean localSearchApplied = false;
 
-	private LinkedHashMap<FitnessFunction<?>, Double> coverageValues = new LinkedHashMap<FitnessFunction<?>, Double>();
+	private GoalValueMap<Double> coverageValues = GoalValueMap.doubles();
 
-	private LinkedHashMap<FitnessFunction<?>, Integer> numsNotCoveredGoals = new LinkedHashMap<FitnessFunction<?>, Integer>();
+	private GoalValueMap<Integer> numsNotCoveredGoals = GoalValueMap.integers();
 
-	private LinkedHashMap<FitnessFunction<?>, Integer> numsCoveredGoals = new LinkedHashMap<FitnessFunction<?>, Integer>();
+	private GoalValueMap<Integer> numsCoveredGoals = GoalValueMap.integers();
 
 	
 	// protected double coverage = 0.0;
@@ -101,26 +100,14 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	 */
 	public double getFitness() {
 		if (fitnessValues.size() > 1) {
-			double sumFitnesses = 0.0;
-			for (FitnessFunction<?> fitnessFunction : fitnessValues.keySet()) {
-				sumFitnesses += fitnessValues.get(fitnessFunction);
-			}
-			return sumFitnesses;
+			return fitnessValues.sum();
 		} else {
-			if(fitnessValues.isEmpty()) {
-				return 0.0;
-			}
-			else {
-				return fitnessValues.get(fitnessValues.keySet().iterator().next());
-			}
-			
-//			return fitnessValues.isEmpty() ? 0.0 : fitnessValues.get(fitnessValues.keySet().iterator().next());
-			
+			return fitnessValues.firstValue();
 		}
 	}
 
 	public <T extends Chromosome> double getFitness(FitnessFunction<T> ff) {
-		return fitnessValues.containsKey(ff) ? fitnessValues.get(ff) : ff.getFitness((T)this); // Calculate new value if non is cached
+		return fitnessValues.containsKey(ff) ? fitnessValues.getValue(ff, 0.0) : ff.getFitness((T)this); // Calculate new value if non is cached
 	}
 
 	public Map<FitnessFunction<?>, Double> getFitnessValues() {
@@ -137,13 +124,23 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 
 	public void setFitnessValues(Map<FitnessFunction<?>, Double> fits) {
 		//TODO mainfitness?
-		this.fitnessValues.clear();
-		this.fitnessValues.putAll(fits);
+		setValues(this.fitnessValues, fits);
 	}
 
 	public void setPreviousFitnessValues(Map<FitnessFunction<?>, Double> lastFits) {
-		this.previousFitnessValues.clear();
-		this.previousFitnessValues.putAll(lastFits);
+		setValues(this.previousFitnessValues, lastFits);
+	}
+
+	/**
+	 * Copies of other chromosomes' values share their arrays until modified
+	 */
+	private static <V extends Number> void setValues(GoalValueMap<V> target, Map<FitnessFunction<?>, V> source) {
+		if (source instanceof GoalValueMap) {
+			target.copyFrom((GoalValueMap<V>) source);
+		} else if (source != target) {
+			target.clear();
+			target.putAll(source);
+		}
 	}
 
 	/**
@@ -202,11 +199,11 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	 */
 	public void addFitness(FitnessFunction<?> ff, double fitnessValue, double coverage,
 			int numCoveredGoals) { 
-		this.fitnessValues.put(ff, fitnessValue);
-		this.previousFitnessValues.put(ff, fitnessValue);
-		this.coverageValues.put(ff, coverage);
-		this.numsCoveredGoals.put(ff, numCoveredGoals);
-		this.numsNotCoveredGoals.put(ff, -1);
+		this.fitnessValues.putValue(ff, fitnessValue);
+		this.previousFitnessValues.putValue(ff, fitnessValue);
+		this.coverageValues.putValue(ff, coverage);
+		this.numsCoveredGoals.putValue(ff, numCoveredGoals);
+		this.numsNotCoveredGoals.putValue(ff, -1);
 	}
 
 	/**
@@ -222,22 +219,12 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 					+ ff.getClass().getName());
 		}
 
-		if (!fitnessValues.containsKey(ff)) {
-			previousFitnessValues.put(ff, value);
-			fitnessValues.put(ff, value);
-		} else {
-			previousFitnessValues.put(ff, fitnessValues.get(ff));
-			fitnessValues.put(ff, value);
-		}
+		previousFitnessValues.putValue(ff, fitnessValues.getValue(ff, value));
+		fitnessValues.putValue(ff, value);
 	}
 
 	public boolean hasFitnessChanged() {
-		for (FitnessFunction<?> ff : fitnessValues.keySet()) {
-			if (!fitnessValues.get(ff).equals(previousFitnessValues.get(ff))) {
-				return true;
-			}
-		}
-		return false;
+		return fitnessValues.differsFrom(previousFitnessValues);
 	}
 
 	/**
@@ -392,48 +379,35 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	 * @return a double.
 	 */
 	public double getCoverage() {
-        double sum = 0;
-        for (FitnessFunction<?> fitnessFunction : coverageValues.keySet()) {
-            sum += coverageValues.get(fitnessFunction);
-        }
+        double sum = coverageValues.sum();
         double cov = coverageValues.isEmpty() ? 0.0 : sum / coverageValues.size();
         assert (cov >= 0.0 && cov <= 1.0) : "Incorrect coverage value " + cov + ". Expected value between 0 and 1";
         return cov;
     }
 
 	public int getNumOfCoveredGoals() {
-        int sum = 0;
-        for (FitnessFunction<?> fitnessFunction : numsCoveredGoals.keySet()) {
-            sum += numsCoveredGoals.get(fitnessFunction);
-        }
-        return sum;
+        return (int) numsCoveredGoals.sum();
     }
 	
 	public int getNumOfNotCoveredGoals() {
-        int sum = 0;
-        for (FitnessFunction<?> fitnessFunction : numsNotCoveredGoals.keySet()) {
-            sum += numsNotCoveredGoals.get(fitnessFunction);
-        }
-        return sum;
+        return (int) numsNotCoveredGoals.sum();
     }
 
 	public void setNumsOfCoveredGoals(Map<FitnessFunction<?>, Integer> fits) {
-		this.numsCoveredGoals.clear();
-		this.numsCoveredGoals.putAll(fits);
+		setValues(this.numsCoveredGoals, fits);
 	}
 
 	public void setNumsOfNotCoveredGoals(Map<FitnessFunction<?>, Integer> fits) {
-		this.numsNotCoveredGoals.clear();
-		this.numsNotCoveredGoals.putAll(fits);
+		setValues(this.numsNotCoveredGoals, fits);
 	}
 	public void setNumOfNotCoveredGoals(FitnessFunction<?> ff, int numCoveredGoals) {
-		this.numsNotCoveredGoals.put(ff, numCoveredGoals);
+		this.numsNotCoveredGoals.putValue(ff, numCoveredGoals);
 	}
 	public Map<FitnessFunction<?>, Integer> getNumsOfCoveredGoals() {
 		return this.numsCoveredGoals;
 	}
 	
-	public LinkedHashMap<FitnessFunction<?>, Integer> getNumsNotCoveredGoals() {
+	public Map<FitnessFunction<?>, Integer> getNumsNotCoveredGoals() {
 		return numsNotCoveredGoals;
 	}
 	
@@ -442,8 +416,7 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	}
 
 	public void setCoverageValues(Map<FitnessFunction<?>, Double> coverages) {
-		this.coverageValues.clear();
-		this.coverageValues.putAll(coverages);
+		setValues(this.coverageValues, coverages);
 	}
 
 	// public void setNumOfCoveredGoals(int numOfCoveredGoals) {
@@ -458,7 +431,7 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	 * @return the number of covered goals for {@code ff}
 	 */
 	public double getCoverage(FitnessFunction<?> ff) {
-		return coverageValues.containsKey(ff) ? coverageValues.get(ff) : 0.0;
+		return coverageValues.getValue(ff, 0.0);
 	}
 
 	/**
@@ -470,7 +443,7 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	 *            the coverage value
 	 */
 	public void setCoverage(FitnessFunction<?> ff, double coverage) {
-		this.coverageValues.put(ff, coverage);
+		this.coverageValues.putValue(ff, coverage);
 	}
 
 	/**
@@ -481,7 +454,7 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	 * @return the number of covered goals for {@code ff}
 	 */
 	public int getNumOfCoveredGoals(FitnessFunction<?> ff) {
-		return numsCoveredGoals.containsKey(ff) ? numsCoveredGoals.get(ff) : 0;
+		return (int) numsCoveredGoals.getValue(ff, 0);
 	}
 	
 	/**
@@ -492,7 +465,7 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	 * @return the number of covered goals for {@code ff}
 	 */
 	public int getNumOfNotCoveredGoals(FitnessFunction<?> ff) {
-		return numsNotCoveredGoals.containsKey(ff) ? numsNotCoveredGoals.get(ff) : 0;
+		return (int) numsNotCoveredGoals.getValue(ff, 0);
 	}
 
 	/**
@@ -504,7 +477,7 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	 *            the number of covered goals
 	 */
 	public void setNumOfCoveredGoals(FitnessFunction<?> ff, int numCoveredGoals) {
-		this.numsCoveredGoals.put(ff, numCoveredGoals);
+		this.numsCoveredGoals.putValue(ff, numCoveredGoals);
 	}
 
 	public void updateAge(int generation) {
@@ -532,19 +505,11 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	}
 
 	public double getFitnessInstanceOf(Class<?> clazz) {
-		for (FitnessFunction<?> fitnessFunction : fitnessValues.keySet()) {
-			if (clazz.isInstance(fitnessFunction))
-				return fitnessValues.get(fitnessFunction);
-		}
-		return 0.0;
+		return fitnessValues.getValueInstanceOf(clazz, 0.0);
 	}
 
 	public double getCoverageInstanceOf(Class<?> clazz) {
-		for (FitnessFunction<?> fitnessFunction : coverageValues.keySet()) {
-			if (clazz.isInstance(fitnessFunction))
-				return coverageValues.get(fitnessFunction);
-		}
-		return 0.0;
+		return coverageValues.getValueInstanceOf(clazz, 0.0);
 	}
 
 	/**
@@ -36,6 +36,13 @@ public abstract class FitnessFunction<T extends Chromosome> implements Serializa
 	/** Constant <code>logger</code> */
 	protected static final Logger logger = LoggerFactory.getLogger(FitnessFunction.class);
 
+	/**
+	 * Generation (high bits) and value (low bits) of the id assigned by
+	 * {@link FitnessFunctionIndex}, kept in a single field so that they are
+	 * always read together
+	 */
+	private transient volatile long index = 0L;
+
 	/**
 	 * indicate whether the goal is inside the user specified target method.
 	 */
@@ -56,6 +63,24 @@ public abstract class FitnessFunction<T extends Chromosome> implements Serializa
 		individual.increaseNumberOfEvaluations();
 	}
 
+	/**
+	 * Dense id of this fitness function, used to store the values of
+	 * chromosomes in arrays
+	 *
+	 * @return
+	 */
+	public final int getIndex() {
+		FitnessFunctionIndex fitnessFunctionIndex = FitnessFunctionIndex.getInstance();
+		int generation = fitnessFunctionIndex.getGeneration();
+		long current = index;
+		if ((int) (current >>> 32) != generation) {
+			int id = fitnessFunctionIndex.register(this);
+			current = ((long) generation << 32) | (id & 0xFFFFFFFFL);
+			index = current;
+		}
+		return (int) current;
+	}
+
 	/**
 	 * If the fitness function as an archive, returns the best individual in the archive.
 	 * returns null otherwise
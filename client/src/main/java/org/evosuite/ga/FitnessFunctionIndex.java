@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns dense integer ids to fitness functions, so that the values a
+ * chromosome keeps for each of them can be stored in primitive arrays (see
+ * {@link GoalValueMap}) instead of hash maps.
+ *
+ * <p>Fitness functions that are equal get the same id, as they would be the
+ * same key of a map. Ids are only valid until the next {@link #reset()}: each
+ * reset starts a new generation, and maps built in an older generation
+ * re-index their entries on their next access.
+ */
+public class FitnessFunctionIndex {
+
+	private static final FitnessFunctionIndex instance = new FitnessFunctionIndex();
+
+	private final Map<FitnessFunction<?>, Integer> indices = new ConcurrentHashMap<FitnessFunction<?>, Integer>();
+
+	private volatile int generation = 1;
+
+	private FitnessFunctionIndex() {
+	}
+
+	public static FitnessFunctionIndex getInstance() {
+		return instance;
+	}
+
+	/**
+	 * @return the current generation of ids. It is never 0, which is the
+	 *         generation of fitness functions that have not been indexed yet
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * @return the number of ids assigned in the current generation
+	 */
+	public int size() {
+		return indices.size();
+	}
+
+	/**
+	 * Get the id of the given fitness function, assigning the next free one if
+	 * it does not have one yet. Callers should prefer
+	 * {@link FitnessFunction#getIndex()}, which caches the id.
+	 *
+	 * @param ff
+	 * @return
+	 */
+	public int register(FitnessFunction<?> ff) {
+		Integer index = indices.get(ff);
+		if (index != null) {
+			return index;
+		}
+		synchronized (this) {
+			index = indices.get(ff);
+			if (index == null) {
+				index = indices.size();
+				indices.put(ff, index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Forget all ids, e.g. when the search moves to a new target class
+	 */
+	public synchronized void reset() {
+		indices.clear();
+		generation = generation == Integer.MAX_VALUE ? 1 : generation + 1;
+	}
+}
@@ -0,0 +1,483 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map from fitness functions to the values a chromosome keeps for them
+ * (fitness, coverage, number of covered goals, ...).
+ *
+ * <p>Values are stored in a primitive array indexed by the id of the fitness
+ * function (see {@link FitnessFunction#getIndex()}), so looking up a value
+ * does not need to hash the fitness function. Entries are iterated in
+ * insertion order, like a {@link java.util.LinkedHashMap}. Copies made with
+ * {@link #copyFrom(GoalValueMap)} share the arrays until one of the two maps
+ * is modified.
+ *
+ * @param <V> {@link Double} or {@link Integer}
+ */
+public class GoalValueMap<V extends Number> extends AbstractMap<FitnessFunction<?>, V> implements Serializable {
+
+	private static final long serialVersionUID = 2386518011745829153L;
+
+	private static final FitnessFunction<?>[] NO_KEYS = new FitnessFunction<?>[0];
+
+	private static final double[] NO_VALUES = new double[0];
+
+	private static final int[] NO_ORDER = new int[0];
+
+	/** Whether values are boxed as {@link Integer} rather than {@link Double} */
+	private final boolean integral;
+
+	/** Generation of {@link FitnessFunctionIndex} the ids below belong to */
+	private transient int generation;
+
+	/** Fitness function of each id, or null if the id is not in the map */
+	private transient FitnessFunction<?>[] keys;
+
+	/** Value of each id */
+	private transient double[] values;
+
+	/** Ids in insertion order; only the first <code>size</code> are used */
+	private transient int[] order;
+
+	private transient int size;
+
+	/** Whether the arrays are also referenced by another map */
+	private transient boolean shared;
+
+	private transient int modCount;
+
+	private GoalValueMap(boolean integral) {
+		this.integral = integral;
+		init();
+	}
+
+	public static GoalValueMap<Double> doubles() {
+		return new GoalValueMap<Double>(false);
+	}
+
+	public static GoalValueMap<Integer> integers() {
+		return new GoalValueMap<Integer>(true);
+	}
+
+	private void init() {
+		generation = FitnessFunctionIndex.getInstance().getGeneration();
+		keys = NO_KEYS;
+		values = NO_VALUES;
+		order = NO_ORDER;
+		size = 0;
+		shared = false;
+	}
+
+	/**
+	 * Id of the fitness function, re-indexing the whole map if the ids were
+	 * reset since it was last accessed
+	 */
+	private int indexOf(FitnessFunction<?> ff) {
+		int index = ff.getIndex();
+		if (generation != FitnessFunctionIndex.getInstance().getGeneration()) {
+			reindex();
+			index = ff.getIndex();
+		}
+		return index;
+	}
+
+	private void reindex() {
+		FitnessFunction<?>[] oldKeys = keys;
+		double[] oldValues = values;
+		int[] oldOrder = order;
+		int oldSize = size;
+		init();
+		for (int i = 0; i < oldSize; i++) {
+			int id = oldOrder[i];
+			putValue(oldKeys[id], oldValues[id]);
+		}
+	}
+
+	/**
+	 * Make sure the arrays can hold the given id and one more entry, and are
+	 * not shared with another map
+	 */
+	private void ensureWritable(int capacity) {
+		if (capacity > keys.length) {
+			int length = Math.max(capacity, Math.max(16, keys.length + (keys.length >> 1)));
+			keys = Arrays.copyOf(keys, length);
+			values = Arrays.copyOf(values, length);
+			order = order.clone();
+			shared = false;
+		} else if (shared) {
+			keys = keys.clone();
+			values = values.clone();
+			order = order.clone();
+			shared = false;
+		}
+		if (size == order.length) {
+			order = Arrays.copyOf(order, Math.max(4, 2 * size));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private V box(double value) {
+		if (integral) {
+			return (V) Integer.valueOf((int) value);
+		}
+		return (V) Double.valueOf(value);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (!(key instanceof FitnessFunction)) {
+			return false;
+		}
+		int index = indexOf((FitnessFunction<?>) key);
+		return index < keys.length && keys[index] != null;
+	}
+
+	@Override
+	public V get(Object key) {
+		if (!(key instanceof FitnessFunction)) {
+			return null;
+		}
+		int index = indexOf((FitnessFunction<?>) key);
+		if (index < keys.length && keys[index] != null) {
+			return box(values[index]);
+		}
+		return null;
+	}
+
+	/**
+	 * Get the value of a fitness function without boxing it
+	 *
+	 * @param ff
+	 * @param defaultValue
+	 *            value to return if the fitness function is not in the map
+	 * @return
+	 */
+	public double getValue(FitnessFunction<?> ff, double defaultValue) {
+		int index = indexOf(ff);
+		if (index < keys.length && keys[index] != null) {
+			return values[index];
+		}
+		return defaultValue;
+	}
+
+	@Override
+	public V put(FitnessFunction<?> key, V value) {
+		if (key == null || value == null) {
+			throw new NullPointerException("Fitness functions and their values cannot be null");
+		}
+		int index = indexOf(key);
+		V old = index < keys.length && keys[index] != null ? box(values[index]) : null;
+		putValue(key, value.doubleValue());
+		return old;
+	}
+
+	/**
+	 * Set the value of a fitness function without boxing it
+	 *
+	 * @param ff
+	 * @param value
+	 */
+	public void putValue(FitnessFunction<?> ff, double value) {
+		int index = indexOf(ff);
+		ensureWritable(index + 1);
+		if (keys[index] == null) {
+			keys[index] = ff;
+			order[size++] = index;
+			modCount++;
+		}
+		values[index] = value;
+	}
+
+	@Override
+	public V remove(Object key) {
+		if (!(key instanceof FitnessFunction)) {
+			return null;
+		}
+		int index = indexOf((FitnessFunction<?>) key);
+		if (index >= keys.length || keys[index] == null) {
+			return null;
+		}
+		V old = box(values[index]);
+		ensureWritable(index + 1);
+		removeIndex(index);
+		return old;
+	}
+
+	private void removeIndex(int index) {
+		keys[index] = null;
+		for (int i = 0; i < size; i++) {
+			if (order[i] == index) {
+				System.arraycopy(order, i + 1, order, i, size - i - 1);
+				break;
+			}
+		}
+		size--;
+		modCount++;
+	}
+
+	@Override
+	public void clear() {
+		if (shared) {
+			init();
+		} else {
+			for (int i = 0; i < size; i++) {
+				keys[order[i]] = null;
+			}
+			size = 0;
+		}
+		modCount++;
+	}
+
+	@Override
+	public void putAll(Map<? extends FitnessFunction<?>, ? extends V> map) {
+		if (map instanceof GoalValueMap && isEmpty()) {
+			copyFrom((GoalValueMap<?>) map);
+		} else {
+			super.putAll(map);
+		}
+	}
+
+	/**
+	 * Replace the content of this map with the content of another one. The
+	 * arrays are shared until either map is modified.
+	 *
+	 * @param other
+	 */
+	public void copyFrom(GoalValueMap<?> other) {
+		if (other == this) {
+			return;
+		}
+		if (other.integral != integral || other.generation != FitnessFunctionIndex.getInstance().getGeneration()) {
+			clear();
+			for (int i = 0; i < other.size; i++) {
+				int id = other.order[i];
+				putValue(other.keys[id], other.values[id]);
+			}
+			return;
+		}
+		generation = other.generation;
+		keys = other.keys;
+		values = other.values;
+		order = other.order;
+		size = other.size;
+		shared = true;
+		other.shared = true;
+		modCount++;
+	}
+
+	/**
+	 * @return the sum of all values, added in insertion order
+	 */
+	public double sum() {
+		double sum = 0.0;
+		for (int i = 0; i < size; i++) {
+			sum += values[order[i]];
+		}
+		return sum;
+	}
+
+	/**
+	 * @return the first value that was inserted, or 0.0 if the map is empty
+	 */
+	public double firstValue() {
+		return size == 0 ? 0.0 : values[order[0]];
+	}
+
+	/**
+	 * @param clazz
+	 * @param defaultValue
+	 * @return the value of the first fitness function (in insertion order)
+	 *         that is an instance of <code>clazz</code>
+	 */
+	public double getValueInstanceOf(Class<?> clazz, double defaultValue) {
+		for (int i = 0; i < size; i++) {
+			if (clazz.isInstance(keys[order[i]])) {
+				return values[order[i]];
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * @param other
+	 * @return true if a fitness function of this map is not in
+	 *         <code>other</code>, or has a different value there
+	 */
+	public boolean differsFrom(GoalValueMap<?> other) {
+		for (int i = 0; i < size; i++) {
+			FitnessFunction<?> ff = keys[order[i]];
+			int index = other.indexOf(ff);
+			if (index >= other.keys.length || other.keys[index] == null) {
+				return true;
+			}
+			if (Double.compare(values[order[i]], other.values[index]) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Set<Map.Entry<FitnessFunction<?>, V>> entrySet() {
+		return new AbstractSet<Map.Entry<FitnessFunction<?>, V>>() {
+			@Override
+			public Iterator<Map.Entry<FitnessFunction<?>, V>> iterator() {
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Override
+			public void clear() {
+				GoalValueMap.this.clear();
+			}
+		};
+	}
+
+	private class EntryIterator implements Iterator<Map.Entry<FitnessFunction<?>, V>> {
+
+		private int next = 0;
+
+		private int last = -1;
+
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		@Override
+		public Map.Entry<FitnessFunction<?>, V> next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next >= size) {
+				throw new NoSuchElementException();
+			}
+			last = order[next++];
+			return new Entry(keys[last]);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			ensureWritable(last + 1);
+			removeIndex(last);
+			last = -1;
+			next--;
+			expectedModCount = modCount;
+		}
+	}
+
+	private class Entry implements Map.Entry<FitnessFunction<?>, V> {
+
+		private final FitnessFunction<?> key;
+
+		Entry(FitnessFunction<?> key) {
+			this.key = key;
+		}
+
+		@Override
+		public FitnessFunction<?> getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return box(GoalValueMap.this.getValue(key, 0.0));
+		}
+
+		@Override
+		public V setValue(V value) {
+			return put(key, value);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			return key.equals(e.getKey()) && getValue().equals(e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode() ^ getValue().hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + getValue();
+		}
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size);
+		for (int i = 0; i < size; i++) {
+			out.writeObject(keys[order[i]]);
+			out.writeDouble(values[order[i]]);
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		init();
+		int num = in.readInt();
+		for (int i = 0; i < num; i++) {
+			FitnessFunction<?> ff = (FitnessFunction<?>) in.readObject();
+			putValue(ff, in.readDouble());
+		}
+	}
+}
@@ -1,11 +1,24 @@
 package org.evosuite.ga;
 
+import org.evosuite.novelty.BehaviourVector;
+
 import java.util.Collection;
 
 public abstract class NoveltyFunction<T extends Chromosome> {
 
     public abstract double getDistance(T individual1, T individual2);
 
+    /**
+     * Behaviour of an individual, when the distance of this function is the
+     * distance of the behaviour vectors of the individuals. Novelty search
+     * then computes the novelty of the individuals on a {@link org.evosuite.novelty.NoveltyIndex}.
+     *
+     * @return null if the distance is only defined by {@link #getDistance}
+     */
+    public BehaviourVector getBehaviour(T individual) {
+        return null;
+    }
+
     public double getNovelty(T individual, Collection<T> population) {
         double distance = 0.0;
 
@@ -57,6 +57,7 @@ import org.evosuite.ga.stoppingconditions.MaxGenerationStoppingCondition;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
 import org.evosuite.symbolic.DSEStats;
 import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.utils.ArrayUtil;
 import org.evosuite.utils.LoggingUtils;
@@ -455,6 +456,8 @@ public abstract class GeneticAlgorithm<T extends Chromosome> implements SearchAl
 	 *            a {@link org.evosuite.ga.FitnessFunction} object.
 	 */
 	public void addFitnessFunction(FitnessFunction<T> function) {
+		// assign the ids of the goals in the order they come from the factories
+		function.getIndex();
 		fitnessFunctions.add(function);
 		localObjective.addFitnessFunction(function);
 	}
@@ -604,6 +607,9 @@ public abstract class GeneticAlgorithm<T extends Chromosome> implements SearchAl
 	protected void calculateFitness() {
 		logger.debug("Calculating fitness for " + population.size() + " individuals");
 
+		if (Properties.PARALLEL_EXECUTION_LANES > 1 && !isFinished())
+			ParallelTestCaseExecutor.getInstance().executeChanged(population, fitnessFunctions);
+
 		Iterator<T> iterator = this.population.iterator();
 		while (iterator.hasNext()) {
 			T c = iterator.next();
@@ -2,6 +2,8 @@ package org.evosuite.ga.metaheuristics;
 
 import org.evosuite.Properties;
 import org.evosuite.ga.*;
+import org.evosuite.novelty.BehaviourVector;
+import org.evosuite.novelty.NoveltyIndex;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +16,9 @@ public class NoveltySearch<T extends Chromosome> extends GeneticAlgorithm<T>  {
 
     private NoveltyFunction<T> noveltyFunction;
 
+    /** Behaviours of the individuals that were novel enough when evaluated, oldest first */
+    private final LinkedList<BehaviourVector> archive = new LinkedList<>();
+
     public NoveltySearch(ChromosomeFactory<T> factory) {
         super(factory);
 
@@ -47,23 +52,65 @@ public class NoveltySearch<T extends Chromosome> extends GeneticAlgorithm<T>  {
 
         Iterator<T> iterator = population.iterator();
         Map<T, Double> noveltyMap = new LinkedHashMap<>();
+        NoveltyIndex<T> index = isFinished() ? null : createNoveltyIndex();
 
         while (iterator.hasNext()) {
             T c = iterator.next();
             if (isFinished()) {
                 if (c.isChanged())
                     iterator.remove();
+            } else if (index != null) {
+                double novelty = index.getNovelty(c, noveltyFunction.getBehaviour(c), Properties.NOVELTY_NEIGHBOURS);
+                noveltyMap.put(c, novelty);
             } else {
-                // TODO: This needs to take the archive into account
                 double novelty = noveltyFunction.getNovelty(c, population);
                 noveltyMap.put(c, novelty);
             }
         }
 
+        if (index != null) {
+            updateArchive(noveltyMap);
+        }
+
         // Sort population
         sortPopulation(population, noveltyMap);
     }
 
+    /**
+     * Index of the behaviours of the population and of the archive, so that the
+     * novelty of an individual is the distance to its nearest neighbours
+     *
+     * @return null if the novelty function does not define behaviour vectors
+     */
+    private NoveltyIndex<T> createNoveltyIndex() {
+        List<T> individuals = new ArrayList<>(population.size() + archive.size());
+        List<BehaviourVector> behaviours = new ArrayList<>(population.size() + archive.size());
+        for (T c : population) {
+            BehaviourVector behaviour = noveltyFunction.getBehaviour(c);
+            if (behaviour == null)
+                return null;
+            individuals.add(c);
+            behaviours.add(behaviour);
+        }
+
+        // archived behaviours do not belong to any individual of the population
+        individuals.addAll(Collections.<T>nCopies(archive.size(), null));
+        behaviours.addAll(archive);
+        return new NoveltyIndex<>(individuals, behaviours);
+    }
+
+    private void updateArchive(Map<T, Double> noveltyMap) {
+        for (Map.Entry<T, Double> entry : noveltyMap.entrySet()) {
+            if (entry.getValue() >= Properties.NOVELTY_THRESHOLD) {
+                archive.add(noveltyFunction.getBehaviour(entry.getKey()));
+            }
+        }
+        while (archive.size() > Properties.NOVELTY_ARCHIVE_SIZE) {
+            archive.removeFirst();
+        }
+        logger.debug("Novelty archive contains " + archive.size() + " behaviours");
+    }
+
     @Override
     public void initializePopulation() {
         notifySearchStarted();
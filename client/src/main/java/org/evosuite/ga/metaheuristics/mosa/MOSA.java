@@ -97,7 +97,12 @@ public class MOSA<T extends Chromosome> extends AbstractMOSA<T> {
 
 		// for parallel runs: integrate possible immigrants
 		if (Properties.NUM_PARALLEL_CLIENTS > 1 && !immigrants.isEmpty()) {
-			union.addAll(immigrants.poll());
+			// immigrants only carry their tests, so they have to be evaluated here
+			List<T> migrants = immigrants.poll();
+			for (T migrant : migrants) {
+				this.calculateFitness(migrant);
+			}
+			union.addAll(migrants);
 		}
 
 		Set<FitnessFunction<T>> uncoveredGoals = this.getUncoveredGoals();
@@ -20,12 +20,12 @@ package org.evosuite.ga.operators.ranking;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.comparators.SortByFitness;
 
 /**
  * This class implements different variants of Crowding Distance for many-objective problems
@@ -64,19 +64,34 @@ public class CrowdingDistance<T extends Chromosome> implements Serializable {
 		double objetiveMinn;
 		double distance;
 
-		for (final FitnessFunction<?> ff : set) {
+		final FitnessMatrix<T> matrix = new FitnessMatrix<T>(front, set);
+		for (int goal = 0; goal < matrix.getNumberOfGoals(); goal++) {
+			final int n = goal;
 			// Sort the population by Fit n
-			Collections.sort(front, new SortByFitness(ff, false));
+			Collections.sort(front, new Comparator<T>() {
+				@Override
+				public int compare(T c1, T c2) {
+					// same order as SortByFitness
+					double objetive1 = matrix.getRow(c1)[n];
+					double objetive2 = matrix.getRow(c2)[n];
+					if (objetive1 < objetive2)
+						return -1;
+					else if (objetive1 > objetive2)
+						return 1;
+					else
+						return 0;
+				}
+			});
 
-			objetiveMinn = front.get(0).getFitness(ff);
-			objetiveMaxn = front.get(front.size() - 1).getFitness(ff);
+			objetiveMinn = matrix.getRow(front.get(0))[n];
+			objetiveMaxn = matrix.getRow(front.get(front.size() - 1))[n];
 
 			// set crowding distance
 			front.get(0).setDistance(Double.POSITIVE_INFINITY);
 			front.get(size - 1).setDistance(Double.POSITIVE_INFINITY);
 
 			for (int j = 1; j < size - 1; j++) {
-				distance = front.get(j + 1).getFitness(ff) - front.get(j - 1).getFitness(ff);
+				distance = matrix.getRow(front.get(j + 1))[n] - matrix.getRow(front.get(j - 1))[n];
 				distance = distance / (objetiveMaxn - objetiveMinn);
 				distance += front.get(j).getDistance();
 				front.get(j).setDistance(distance);
@@ -104,16 +119,19 @@ public class CrowdingDistance<T extends Chromosome> implements Serializable {
 		for (int i = 0; i < size; i++)
 			front.get(i).setDistance(Double.MAX_VALUE);
 
+		FitnessMatrix<T> matrix = new FitnessMatrix<T>(front, set);
 		int dominate1, dominate2;
 		for (int i = 0; i<front.size()-1; i++){
 			T p1 = front.get(i);
+			double[] fitness1 = matrix.getRow(p1);
 			for (int j = i+1; j<front.size(); j++){
 				T p2 = front.get(j);
+				double[] fitness2 = matrix.getRow(p2);
 				dominate1 = 0;
 				dominate2 = 0;
-				for (final FitnessFunction<T> ff : set) {
-					double value1 = p1.getFitness(ff);
-					double value2 = p2.getFitness(ff);
+				for (int goal = 0; goal < fitness1.length; goal++) {
+					double value1 = fitness1[goal];
+					double value2 = fitness2[goal];
 					if (value1 < value2)
 						dominate1++;
 					else if (value1 > value2)
@@ -141,12 +159,13 @@ public class CrowdingDistance<T extends Chromosome> implements Serializable {
 			test.setDistance(0);
 		}
 
-		for (final FitnessFunction<T> ff : set) {
+		FitnessMatrix<T> matrix = new FitnessMatrix<T>(front, set);
+		for (int goal = 0; goal < matrix.getNumberOfGoals(); goal++) {
 			double min = Double.POSITIVE_INFINITY;
 			List<T> minSet = new ArrayList<T>(front.size());
 			double max = 0;
 			for (T test : front){
-				value = test.getFitness(ff);
+				value = matrix.getRow(test)[goal];
 				if (value < min){
 					min = value;
 					minSet.clear();
@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Efficient non-dominated sort with sequential search (ENS-SS), from:
+ * [1] Xingyi Zhang, Ye Tian, Ran Cheng and Yaochu Jin, "An Efficient Approach
+ * to Nondominated Sorting for Evolutionary Multiobjective Optimization", IEEE
+ * Transactions on Evolutionary Computation 19(2), 2015.
+ *
+ * <p>Solutions are sorted lexicographically on their fitness values, so that
+ * a solution can only be dominated by solutions that come before it. Each
+ * solution is then compared only with the members of the fronts found so far,
+ * starting from the first one, until a front is found where none dominates it.
+ * Goals on which all the solutions have the same value cannot decide any
+ * dominance, and are ignored.
+ *
+ * <p>The fronts are the same as the ones of the pairwise algorithm used by
+ * {@link FastNonDominatedSorting}, with dominance defined as in
+ * {@link org.evosuite.ga.comparators.DominanceComparator}.
+ */
+final class EfficientNonDominatedSort {
+
+	private EfficientNonDominatedSort() {
+	}
+
+	/**
+	 * @param fitness
+	 *            the fitness values (to minimise) of each solution, all of the
+	 *            same length
+	 * @return the index (starting from 0) of the front of each solution
+	 */
+	public static int[] computeFronts(double[][] fitness) {
+		final int size = fitness.length;
+		int[] frontOf = new int[size];
+		if (size == 0) {
+			return frontOf;
+		}
+
+		final double[][] rows = removeConstantGoals(fitness);
+
+		// lexicographic order; a solution can only be dominated by the ones before it
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i1, Integer i2) {
+				double[] row1 = rows[i1];
+				double[] row2 = rows[i2];
+				for (int j = 0; j < row1.length; j++) {
+					int flag = Double.compare(row1[j], row2[j]);
+					if (flag != 0) {
+						return flag;
+					}
+				}
+				return Integer.compare(i1, i2);
+			}
+		});
+
+		// members of each front, in the order they were added
+		int[][] fronts = new int[size][];
+		int[] frontSizes = new int[size];
+		int numFronts = 0;
+
+		for (int s : order) {
+			int front = 0;
+			while (front < numFronts && isDominated(rows, s, fronts[front], frontSizes[front])) {
+				front++;
+			}
+			if (front == numFronts) {
+				fronts[front] = new int[4];
+				numFronts++;
+			} else if (frontSizes[front] == fronts[front].length) {
+				fronts[front] = Arrays.copyOf(fronts[front], 2 * frontSizes[front]);
+			}
+			fronts[front][frontSizes[front]++] = s;
+			frontOf[s] = front;
+		}
+		return frontOf;
+	}
+
+	/**
+	 * Checks the members of a front from the last one added, which is the
+	 * closest to <code>solution</code> in the lexicographic order
+	 */
+	private static boolean isDominated(double[][] rows, int solution, int[] front, int frontSize) {
+		double[] row = rows[solution];
+		for (int i = frontSize - 1; i >= 0; i--) {
+			if (dominates(rows[front[i]], row)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if <code>row1</code> is not worse than <code>row2</code> on
+	 *         any goal, and better on at least one
+	 */
+	public static boolean dominates(double[] row1, double[] row2) {
+		boolean better = false;
+		for (int j = 0; j < row1.length; j++) {
+			int flag = Double.compare(row1[j], row2[j]);
+			if (flag > 0) {
+				return false;
+			} else if (flag < 0) {
+				better = true;
+			}
+		}
+		return better;
+	}
+
+	/**
+	 * With many goals, most of them are usually either covered or not reached
+	 * by the whole population
+	 */
+	private static double[][] removeConstantGoals(double[][] fitness) {
+		int numGoals = fitness[0].length;
+		int[] goals = new int[numGoals];
+		int numVariableGoals = 0;
+		for (int j = 0; j < numGoals; j++) {
+			double value = fitness[0][j];
+			for (int i = 1; i < fitness.length; i++) {
+				if (Double.compare(fitness[i][j], value) != 0) {
+					goals[numVariableGoals++] = j;
+					break;
+				}
+			}
+		}
+		if (numVariableGoals == numGoals) {
+			return fitness;
+		}
+
+		double[][] rows = new double[fitness.length][numVariableGoals];
+		for (int i = 0; i < fitness.length; i++) {
+			for (int j = 0; j < numVariableGoals; j++) {
+				rows[i][j] = fitness[i][goals[j]];
+			}
+		}
+		return rows;
+	}
+}
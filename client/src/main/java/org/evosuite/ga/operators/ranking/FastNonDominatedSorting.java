@@ -18,16 +18,15 @@
 package org.evosuite.ga.operators.ranking;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.comparators.DominanceComparator;
 
 /**
  * This class ranks the test cases according to the 
@@ -61,7 +60,11 @@ public class FastNonDominatedSorting<T extends Chromosome> implements RankingFun
 
 
 	/**
-	 * This method ranks the remaining test cases using the traditional "Non-Dominated Sorting Algorithm"
+	 * This method ranks the remaining test cases using the traditional "Non-Dominated Sorting Algorithm".
+	 * The fronts are computed with {@link EfficientNonDominatedSort}, and each front is listed in the
+	 * order in which the pairwise algorithm of Deb et al. finds its solutions: the first front by
+	 * position in <code>solutionSet</code>, the next ones by the position (in the previous front) of
+	 * the last solution dominating them, then by position in <code>solutionSet</code>
 	 * @param solutionSet set of test cases to rank with "Non-Dominated Sorting Algorithm"
 	 * @param uncovered_goals set of goals
 	 * @return the list of fronts according to the uncovered goals
@@ -69,90 +72,66 @@ public class FastNonDominatedSorting<T extends Chromosome> implements RankingFun
 	@SuppressWarnings("unchecked")
 	private List<T>[] getNextNonDominatedFronts(List<T> solutionSet, Set<FitnessFunction<T>> uncovered_goals) {
 
-		DominanceComparator<T> criterion_ = new DominanceComparator<T>(uncovered_goals);
-		List<T> solutionSet_ = solutionSet;
-
-		// dominateMe[i] contains the number of solutions dominating i
-		int[] dominateMe = new int[solutionSet_.size()];
-
-		// iDominate[k] contains the list of solutions dominated by k
-		List<Integer>[] iDominate = new List[solutionSet_.size()];
-
-		// front[i] contains the list of individuals belonging to the front i
-		List<Integer>[] front = new List[solutionSet_.size() + 1];
-
-		// flagDominate is an auxiliary encodings.variable
-		int flagDominate;
-
-		// Initialize the fronts
-		for (int i = 0; i < front.length; i++)
-			front[i] = new LinkedList<Integer>();
-
-		// Initialize distance
-		for (int p = 0; p < (solutionSet_.size()); p++) {
+		// fitness values of each solution for the uncovered goals
+		FitnessMatrix<T> matrix = new FitnessMatrix<T>(solutionSet, uncovered_goals);
+		double[][] fitness = new double[solutionSet.size()][];
+		for (int p = 0; p < solutionSet.size(); p++) {
+			fitness[p] = matrix.getRow(solutionSet.get(p));
+			// Initialize distance
 			solutionSet.get(p).setDistance(Double.MAX_VALUE);
 		}
 
-		// -> Fast non dominated sorting algorithm
-		for (int p = 0; p < solutionSet_.size(); p++) {
-			// Initialize the list of individuals that i dominate and the number
-			// of individuals that dominate me
-			iDominate[p] = new LinkedList<Integer>();
-			dominateMe[p] = 0;
+		int[] frontOf = EfficientNonDominatedSort.computeFronts(fitness);
+		int numFronts = 0;
+		for (int p = 0; p < frontOf.length; p++) {
+			numFronts = Math.max(numFronts, frontOf[p] + 1);
 		}
 
-		for (int p = 0; p < (solutionSet_.size() - 1); p++) {
-			// For all q individuals , calculate if p dominates q or vice versa
-			for (int q = p + 1; q < solutionSet_.size(); q++) {
-				flagDominate = criterion_.compare(solutionSet.get(p), solutionSet.get(q));
-
-				if (flagDominate == -1) {
-					iDominate[p].add(q);
-					dominateMe[q]++;
-				} else if (flagDominate == 1) {
-					iDominate[q].add(p);
-					dominateMe[p]++;
-				}
-			}
-			// If nobody dominates p, p belongs to the first front
+		// front[i] contains the individuals belonging to the front i, by position in solutionSet
+		List<Integer>[] front = new List[numFronts];
+		for (int i = 0; i < numFronts; i++) {
+			front[i] = new ArrayList<Integer>();
 		}
-		for (int p = 0; p < solutionSet_.size(); p++) {
-			if (dominateMe[p] == 0) {
-				front[0].add(p);
-				solutionSet.get(p).setRank(1);
-			}
+		for (int p = 0; p < frontOf.length; p++) {
+			front[frontOf[p]].add(p);
+			solutionSet.get(p).setRank(frontOf[p] + 1);
 		}
 
-		// Obtain the rest of fronts
-		int i = 0;
-		Iterator<Integer> it1, it2; // Iterators
-		while (front[i].size() != 0) {
-			i++;
-			it1 = front[i - 1].iterator();
-			while (it1.hasNext()) {
-				it2 = iDominate[it1.next()].iterator();
-				while (it2.hasNext()) {
-					int index = it2.next();
-					dominateMe[index]--;
-					if (dominateMe[index] == 0) {
-						front[i].add(index);
-						solutionSet_.get(index).setRank(i+1);
+		// position in the previous front of the last solution dominating each solution
+		int[] lastDominator = new int[solutionSet.size()];
+		for (int i = 1; i < numFronts; i++) {
+			List<Integer> previous = front[i - 1];
+			for (int p : front[i]) {
+				for (int k = previous.size() - 1; k >= 0; k--) {
+					if (EfficientNonDominatedSort.dominates(fitness[previous.get(k)], fitness[p])) {
+						lastDominator[p] = k;
+						break;
 					}
 				}
 			}
+			sortByLastDominator(front[i], lastDominator);
 		}
-		List<T>[] fronts = new ArrayList[i];
-		// 0,1,2,....,i-1 are front, then i fronts
-		for (int j = 0; j < i; j++) {
-			fronts[j] = new ArrayList<T>();
-			it1 = front[j].iterator();
-			while (it1.hasNext()) {
-				fronts[j].add(solutionSet.get(it1.next()));
+
+		List<T>[] fronts = new ArrayList[numFronts];
+		for (int j = 0; j < numFronts; j++) {
+			fronts[j] = new ArrayList<T>(front[j].size());
+			for (int p : front[j]) {
+				fronts[j].add(solutionSet.get(p));
 			}
 		}
 		return fronts;
 	} // Ranking
 
+	private static void sortByLastDominator(List<Integer> front, final int[] lastDominator) {
+		Collections.sort(front, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer p, Integer q) {
+				int flag = Integer.compare(lastDominator[p], lastDominator[q]);
+				return flag != 0 ? flag : Integer.compare(p, q);
+			}
+		});
+	}
+
 	/* (non-Javadoc)
 	 * @see org.evosuite.ga.metaheuristics.mosa.Ranking#getSubfront(int)
 	 */
@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+
+/**
+ * Fitness values of a set of solutions for a fixed list of goals. Each value
+ * is read once from the chromosome into a primitive row, so that the pairwise
+ * comparisons done by the ranking algorithms only work on arrays.
+ *
+ * @param <T>
+ */
+class FitnessMatrix<T extends Chromosome> {
+
+	private final List<FitnessFunction<?>> goals;
+
+	private final Map<T, double[]> rows;
+
+	public FitnessMatrix(Collection<T> solutions, Collection<? extends FitnessFunction<?>> goals) {
+		this.goals = new ArrayList<FitnessFunction<?>>(goals);
+		this.rows = new IdentityHashMap<T, double[]>(solutions.size());
+		for (T solution : solutions) {
+			if (!rows.containsKey(solution)) {
+				rows.put(solution, readRow(solution));
+			}
+		}
+	}
+
+	private double[] readRow(T solution) {
+		double[] row = new double[goals.size()];
+		for (int i = 0; i < row.length; i++) {
+			row[i] = solution.getFitness(goals.get(i));
+		}
+		return row;
+	}
+
+	public int getNumberOfGoals() {
+		return goals.size();
+	}
+
+	/**
+	 * @param solution
+	 * @return the fitness values of the solution, in the order of the goals
+	 */
+	public double[] getRow(T solution) {
+		double[] row = rows.get(solution);
+		if (row == null) {
+			row = readRow(solution);
+			rows.put(solution, row);
+		}
+		return row;
+	}
+
+	/**
+	 * Dominance test on two rows, with the same result as
+	 * {@link org.evosuite.ga.comparators.DominanceComparator}
+	 *
+	 * @return -1 if row1 dominates row2, +1 if row2 dominates row1, 0 if both
+	 *         are non-dominated
+	 */
+	public static int compareDominance(double[] row1, double[] row2) {
+		boolean dominate1 = false;
+		boolean dominate2 = false;
+
+		for (int i = 0; i < row1.length; i++) {
+			int flag = Double.compare(row1[i], row2[i]);
+			if (flag < 0) {
+				dominate1 = true;
+				if (dominate2) {
+					return 0;
+				}
+			} else if (flag > 0) {
+				dominate2 = true;
+				if (dominate1) {
+					return 0;
+				}
+			}
+		}
+
+		if (dominate1 == dominate2) {
+			return 0;
+		} else if (dominate1) {
+			return -1;
+		} else {
+			return 1;
+		}
+	}
+
+	public int compareDominance(T solution1, T solution2) {
+		return compareDominance(getRow(solution1), getRow(solution2));
+	}
+}
@@ -25,8 +25,6 @@ import java.util.Set;
 import org.evosuite.Properties;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.comparators.DominanceComparator;
-import org.evosuite.ga.comparators.PreferenceSortingComparator;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,26 +59,40 @@ public class RankBasedPreferenceSorting<T extends Chromosome> implements Ranking
 
 		this.fronts = new ArrayList<List<T>>(solutions.size());
 
+		// fitness values of each solution for the uncovered goals
+		FitnessMatrix<T> matrix = new FitnessMatrix<T>(solutions, uncovered_goals);
+
 		// first apply the "preference sorting" to the first front only
 		// then compute the ranks according to the non-dominate sorting algorithm
 		// this will pick one front for each uncovered_goals
-		List<T> zero_front = this.getZeroFront(solutions, uncovered_goals);
+		List<T> zero_front = this.getZeroFront(solutions, matrix);
 		this.fronts.add(zero_front);
 		int frontIndex = 1;
 
 		if (zero_front.size() < Properties.POPULATION) {
 			int rankedSolutions = zero_front.size();
-			DominanceComparator<T> comparator =  new DominanceComparator<T>(uncovered_goals);
 
 			List<T> remaining = new ArrayList<T>(solutions.size());
 			remaining.addAll(solutions);
 			remaining.removeAll(zero_front);
+			List<List<T>> next_fronts = this.getNonDominatedFronts(remaining, matrix);
+			int next = 0;
 			while(rankedSolutions < Properties.POPULATION && remaining.size() > 0) {
-				List<T> new_front = this.getNonDominatedSolutions(remaining, comparator, frontIndex);
+				List<T> new_front = next_fronts.get(next++);
+				for (T t : new_front) {
+					t.setRank(frontIndex);
+				}
 				this.fronts.add(new_front);
+				int size = remaining.size();
 				remaining.removeAll(new_front);
 				rankedSolutions += new_front.size();
 				frontIndex++;
+
+				if (size - remaining.size() != new_front.size()) {
+					// copies (according to equals) of the front members in later fronts were removed as well
+					next_fronts = this.getNonDominatedFronts(remaining, matrix);
+					next = 0;
+				}
 			}
 
 		} else {
@@ -95,15 +107,13 @@ public class RankBasedPreferenceSorting<T extends Chromosome> implements Ranking
 		}
 	}
 
-	private List<T> getZeroFront(List<T> solutionSet, Set<FitnessFunction<T>> uncovered_goals) {
+	private List<T> getZeroFront(List<T> solutionSet, FitnessMatrix<T> matrix) {
 		Set<T> zero_front = new LinkedHashSet<T>(solutionSet.size());
-		for (FitnessFunction<T> f : uncovered_goals) {
+		for (int goal = 0; goal < matrix.getNumberOfGoals(); goal++) {
 			// for each uncovered goal, peak up the best tests using the proper comparator
-			PreferenceSortingComparator<T> comp = new PreferenceSortingComparator<T>(f);
-
 			T best = null;
 			for (T test : solutionSet) {
-				int flag = comp.compare(test, best);
+				int flag = comparePreference(matrix, goal, test, best);
 				if (flag < 0 || (flag == 0  && Randomness.nextBoolean())) {
 					best = test;
 				} 
@@ -116,30 +126,47 @@ public class RankBasedPreferenceSorting<T extends Chromosome> implements Ranking
 		return new ArrayList<T>(zero_front);
 	}
 
-	private List<T> getNonDominatedSolutions(List<T> solutions, DominanceComparator<T> comparator, int frontIndex) {
-		List<T> front = new ArrayList<T>(solutions.size());
-		for (T p : solutions) {
-			boolean isDominated = false;
-			List<T> dominatedSolutions = new ArrayList<T>(solutions.size());
-			for (T best : front) {
-				int flag = comparator.compare(p, best);
-				if (flag == -1) {
-					dominatedSolutions.add(best);
-				}
-				if (flag == +1) {
-					isDominated = true;
-					break;
-				}
-			}
-			if (isDominated) {
-				continue;
-			}
+	/**
+	 * Same order as {@link org.evosuite.ga.comparators.PreferenceSortingComparator}
+	 * for the given goal
+	 */
+	private int comparePreference(FitnessMatrix<T> matrix, int goal, T solution1, T solution2) {
+		if (solution1 == null) {
+			return 1;
+		} else if (solution2 == null) {
+			return -1;
+		}
+
+		double value1 = matrix.getRow(solution1)[goal];
+		double value2 = matrix.getRow(solution2)[goal];
+		if (value1 < value2) {
+			return -1;
+		} else if (value1 > value2) {
+			return +1;
+		} else {
+			return solution1.compareSecondaryObjective(solution2);
+		}
+	}
 
-			p.setRank(frontIndex);
-			front.add(p);
-			front.removeAll(dominatedSolutions);
+	/**
+	 * Non-dominated sorting of all the solutions at once; each front lists its
+	 * solutions in the same order as <code>solutions</code>
+	 */
+	private List<List<T>> getNonDominatedFronts(List<T> solutions, FitnessMatrix<T> matrix) {
+		double[][] fitness = new double[solutions.size()][];
+		for (int p = 0; p < solutions.size(); p++) {
+			fitness[p] = matrix.getRow(solutions.get(p));
+		}
+
+		int[] frontOf = EfficientNonDominatedSort.computeFronts(fitness);
+		List<List<T>> fronts = new ArrayList<List<T>>();
+		for (int p = 0; p < frontOf.length; p++) {
+			while (fronts.size() <= frontOf[p]) {
+				fronts.add(new ArrayList<T>());
+			}
+			fronts.get(frontOf[p]).add(solutions.get(p));
 		}
-		return front;
+		return fronts;
 	}
 
 	/**
@@ -31,7 +31,6 @@ import java.util.Set;
 
 import org.evosuite.utils.LoggingUtils;
 import org.jgrapht.DirectedGraph;
-import org.jgrapht.alg.DijkstraShortestPath;
 import org.jgrapht.ext.DOTExporter;
 import org.jgrapht.ext.IntegerNameProvider;
 import org.jgrapht.ext.StringEdgeNameProvider;
@@ -76,6 +75,9 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 	protected DirectedGraph<V, E> graph;
 	protected Class<E> edgeClass;
 
+	/** Distances between the vertices, computed on first use */
+	private FloydWarshall<V, E> distances = null;
+
 	// for .dot functionality
 	// TODO need jgrapht-0.8.3
 	ComponentAttributeProvider<V> vertexAttributeProvider = null;
@@ -317,6 +319,7 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 	 * @return a boolean.
 	 */
 	protected boolean addVertex(V v) {
+		distances = null;
 		return graph.addVertex(v);
 	}
 
@@ -328,7 +331,7 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 	 * @return a E object.
 	 */
 	protected E addEdge(V src, V target) {
-
+		distances = null;
 		return graph.addEdge(src, target);
 	}
 
@@ -341,7 +344,7 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 	 * @return a boolean.
 	 */
 	protected boolean addEdge(V src, V target, E e) {
-
+		distances = null;
 		return graph.addEdge(src, target, e);
 	}
 
@@ -694,9 +697,16 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 	 * @return a int.
 	 */
 	public int getDistance(V v1, V v2) {
-		DijkstraShortestPath<V, E> d = new DijkstraShortestPath<V, E>(graph,
-				v1, v2);
-		return (int) Math.round(d.getPathLength());
+		return (int) Math.round(getDistances().shortestDistance(v1, v2));
+	}
+
+	private synchronized FloydWarshall<V, E> getDistances() {
+		// sub classes also remove vertices from the graph directly
+		if (distances == null || distances.getVertexCount() != graph.vertexSet().size()
+				|| distances.getEdgeCount() != graph.edgeSet().size()) {
+			distances = new FloydWarshall<V, E>(graph);
+		}
+		return distances;
 	}
 
 	/**
@@ -59,7 +59,9 @@ package org.evosuite.graphs;
  *
  */
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.jgrapht.*;
 
@@ -67,7 +69,13 @@ import org.jgrapht.*;
 /**
  * The <a href="http://en.wikipedia.org/wiki/Floyd-Warshall_algorithm">
  * Floyd-Warshall algorithm</a> finds all shortest paths (all n^2 of them) in
- * O(n^3) time. This also works out the graph diameter during the process.
+ * O(n^3) time. The graph diameter is worked out on demand.
+ *
+ * <p>Vertices are mapped to consecutive ids once, and the distances from
+ * each source are kept in an array indexed by these ids. Sparse graphs in
+ * which all edges weigh 1 (such as control flow graphs) are instead searched
+ * breadth first, one source at a time and only for the sources that are asked
+ * for, which takes O(n + m) time and O(n) memory per source.</p>
  *
  * @author Tom Larkworthy
  */
@@ -75,12 +83,24 @@ public class FloydWarshall<V, E>
 {
     //~ Instance fields --------------------------------------------------------
 
-    int nextIndex = 0;
-    HashMap<V, Integer> indices;
+    private final Map<V, Integer> indices;
+
+    private final int size;
+
+    private final int edgeCount;
+
+    /** Distance from vertex i to vertex j at d[i][j], null if not computed yet */
+    private final double [][] d;
 
-    double [][] d;
+    /** Whether the distances are computed by a breadth first search per source */
+    private final boolean breadthFirst;
 
-    double diameter;
+    /** Successors of vertex i at successors[successorStart[i]] up to successors[successorStart[i + 1]] */
+    private int [] successorStart;
+
+    private int [] successors;
+
+    private double diameter = -1;
 
     //~ Constructors -----------------------------------------------------------
 
@@ -93,44 +113,129 @@ public class FloydWarshall<V, E>
      */
     public FloydWarshall(Graph<V, E> g)
     {
-        int sz = g.vertexSet().size();
-        d = new double[sz][sz];
-        indices = new HashMap<V, Integer>();
+        size = g.vertexSet().size();
+        edgeCount = g.edgeSet().size();
+        indices = new HashMap<V, Integer>(size * 2);
+        for (V v : g.vertexSet()) {
+            indices.put(v, indices.size());
+        }
+        d = new double[size][];
+
+        boolean unweighted = true;
+        for (E e : g.edgeSet()) {
+            if (g.getEdgeWeight(e) != 1.0) {
+                unweighted = false;
+                break;
+            }
+        }
+        breadthFirst = unweighted && (long) edgeCount * 4 <= (long) size * size;
+
+        if (breadthFirst) {
+            buildSuccessors(g);
+        } else {
+            computeAllPairs(g);
+        }
+    }
+
+    //~ Methods ----------------------------------------------------------------
+
+    private void buildSuccessors(Graph<V, E> g)
+    {
+        boolean directed = g instanceof DirectedGraph;
+        successorStart = new int[size + 1];
+        for (E e : g.edgeSet()) {
+            successorStart[index(g.getEdgeSource(e)) + 1]++;
+            if (!directed) {
+                successorStart[index(g.getEdgeTarget(e)) + 1]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            successorStart[i + 1] += successorStart[i];
+        }
+        successors = new int[successorStart[size]];
+        int [] next = Arrays.copyOf(successorStart, size);
+        for (E e : g.edgeSet()) {
+            int source = index(g.getEdgeSource(e));
+            int target = index(g.getEdgeTarget(e));
+            successors[next[source]++] = target;
+            if (!directed) {
+                successors[next[target]++] = source;
+            }
+        }
+    }
+
+    private void computeAllPairs(Graph<V, E> g)
+    {
+        boolean directed = g instanceof DirectedGraph;
 
         //Initialise distance to infinity, or the neighbours weight, or 0 if
         //same
-        for (V v1 : g.vertexSet()) {
-            for (V v2 : g.vertexSet()) {
-                if (v1 == v2) {
-                    d[index(v1)][index(v2)] = 0;
-                } else {
-                    E e = g.getEdge(v1, v2);
-
-                    if (e == null) {
-                        d[index(v1)][index(v2)] = Double.POSITIVE_INFINITY;
-                    } else {
-                        d[index(v1)][index(v2)] = g.getEdgeWeight(e);
+        for (int i = 0; i < size; i++) {
+            d[i] = new double[size];
+            Arrays.fill(d[i], Double.POSITIVE_INFINITY);
+        }
+        for (E e : g.edgeSet()) {
+            int source = index(g.getEdgeSource(e));
+            int target = index(g.getEdgeTarget(e));
+            double weight = g.getEdgeWeight(e);
+            d[source][target] = Math.min(d[source][target], weight);
+            if (!directed) {
+                d[target][source] = Math.min(d[target][source], weight);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            d[i][i] = 0;
+        }
+
+        //now iterate k times
+        for (int k = 0; k < size; k++) {
+            double [] rowK = d[k];
+            for (int i = 0; i < size; i++) {
+                double [] rowI = d[i];
+                double ik = rowI[k];
+                if (ik == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int j = 0; j < size; j++) {
+                    double via = ik + rowK[j];
+                    if (via < rowI[j]) {
+                        rowI[j] = via;
                     }
                 }
             }
         }
+    }
 
-        //now iterate k times
-        for (int k = 0; k < sz; k++) {
-            for (V v1 : g.vertexSet()) {
-                for (V v2 : g.vertexSet()) {
-                    d[index(v1)][index(v2)] =
-                        Math.min(
-                            d[index(v1)][index(v2)],
-                            d[index(v1)][k] + d[k][index(v2)]);
-                    if(Double.POSITIVE_INFINITY != d[index(v1)][index(v2)])
-                    	diameter = Math.max(diameter, d[index(v1)][index(v2)]);
+    private double [] breadthFirstSearch(int source)
+    {
+        double [] distances = new double[size];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        int [] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        distances[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int v = queue[head++];
+            double distance = distances[v] + 1;
+            for (int i = successorStart[v]; i < successorStart[v + 1]; i++) {
+                int w = successors[i];
+                if (distances[w] == Double.POSITIVE_INFINITY) {
+                    distances[w] = distance;
+                    queue[tail++] = w;
                 }
             }
         }
+        return distances;
     }
 
-    //~ Methods ----------------------------------------------------------------
+    private double [] row(int source)
+    {
+        if (d[source] == null) {
+            d[source] = breadthFirstSearch(source);
+        }
+        return d[source];
+    }
 
     /**
      * Retrieves the shortest distance between two vertices.
@@ -139,9 +244,9 @@ public class FloydWarshall<V, E>
      * @param v2 second vertex
      * @return distance, or positive infinity if no path
      */
-    public double shortestDistance(V v1, V v2)
+    public synchronized double shortestDistance(V v1, V v2)
     {
-        return d[index(v1)][index(v2)];
+        return row(index(v1))[index(v2)];
     }
 
     /**
@@ -149,17 +254,46 @@ public class FloydWarshall<V, E>
      *
      * @return diameter computed for the graph
      */
-    public double getDiameter()
+    public synchronized double getDiameter()
     {
+        if (diameter < 0) {
+            diameter = 0;
+            for (int i = 0; i < size; i++) {
+                // rows that were not asked for are not kept
+                double [] distances = d[i] != null ? d[i] : breadthFirstSearch(i);
+                for (int j = 0; j < size; j++) {
+                    if (distances[j] != Double.POSITIVE_INFINITY) {
+                        diameter = Math.max(diameter, distances[j]);
+                    }
+                }
+            }
+        }
         return diameter;
     }
 
+    /**
+     * @return the number of vertices of the graph when the distances were
+     *         computed
+     */
+    public int getVertexCount()
+    {
+        return size;
+    }
+
+    /**
+     * @return the number of edges of the graph when the distances were
+     *         computed
+     */
+    public int getEdgeCount()
+    {
+        return edgeCount;
+    }
+
     private int index(V vertex)
     {
         Integer index = indices.get(vertex);
         if (index == null) {
-            indices.put(vertex, nextIndex);
-            index = nextIndex++;
+            throw new IllegalArgumentException("vertex not contained in the graph: " + vertex);
         }
         return index;
     }
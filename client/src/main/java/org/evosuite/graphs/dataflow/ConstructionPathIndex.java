@@ -0,0 +1,213 @@
+package org.evosuite.graphs.dataflow;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.coverage.branch.Branch;
+
+/**
+ * The construction paths from the root variables (this, parameters and static
+ * fields of a method) to the variables each branch of the method depends on.
+ * The paths are computed once, when the dataflow of the method is analyzed,
+ * so that synthesizing a test for a branch does not search the computation
+ * graph again.
+ * 
+ * The paths of a branch are stored as a DAG rather than as lists: every
+ * variable is stored once, and a path only adds the edges that no previous
+ * path of the branch has added, so paths sharing their suffix towards a root
+ * share its nodes and edges.
+ * 
+ * The paths are searched on the computation graph as it is when they are
+ * computed. {@link org.evosuite.testcase.synthesizer.PartialGraph} adds the
+ * relations of merged variables to the computation graph, so the paths have to
+ * be searched again after such a merge.
+ */
+public class ConstructionPathIndex {
+
+	private Map<Branch, BranchPaths> branchPaths = new HashMap<>();
+
+	/**
+	 * The edges of the construction paths of one branch, in the order in which
+	 * the paths first reach them
+	 */
+	public static class BranchPaths {
+		private List<DepVariable> nodes = new ArrayList<>();
+
+		/**
+		 * the variables of the computation graph may be equal without being
+		 * the same node, so we index them by identity
+		 */
+		private Map<DepVariable, Integer> nodeIds = new IdentityHashMap<>();
+
+		private Set<Long> edgeKeys = new HashSet<>();
+
+		private int[] children = new int[16];
+
+		/**
+		 * parents[i] is -1 if the edge i is a path with a single variable
+		 */
+		private int[] parents = new int[16];
+
+		private int size = 0;
+
+		/**
+		 * the dependent variables the paths start from, in the order in which
+		 * they were searched
+		 */
+		private List<DepVariable> sources = new ArrayList<>();
+
+		/**
+		 * sourceEnds[s] is the number of edges added up to the paths of
+		 * source s
+		 */
+		private int[] sourceEnds;
+
+		private int getNodeId(DepVariable var) {
+			Integer id = nodeIds.get(var);
+			if (id == null) {
+				id = nodes.size();
+				nodes.add(var);
+				nodeIds.put(var, id);
+			}
+			return id;
+		}
+
+		private void addEdge(int child, int parent) {
+			long key = ((long) child << 32) | (parent & 0xffffffffL);
+			if (!edgeKeys.add(key)) {
+				return;
+			}
+
+			if (size == children.length) {
+				int[] newChildren = new int[size * 2];
+				int[] newParents = new int[size * 2];
+				System.arraycopy(children, 0, newChildren, 0, size);
+				System.arraycopy(parents, 0, newParents, 0, size);
+				children = newChildren;
+				parents = newParents;
+			}
+			children[size] = child;
+			parents[size] = parent;
+			size++;
+		}
+
+		void addPath(ConstructionPath path) {
+			for (int i = 0; i < path.size() - 1; i++) {
+				int child = getNodeId(path.get(i));
+				int parent = getNodeId(path.get(i + 1));
+				addEdge(child, parent);
+			}
+
+			if (path.size() == 1) {
+				addEdge(getNodeId(path.get(0)), -1);
+			}
+		}
+
+		/**
+		 * @return the number of edges
+		 */
+		public int size() {
+			return size;
+		}
+
+		public DepVariable getChild(int edge) {
+			return nodes.get(children[edge]);
+		}
+
+		/**
+		 * @return the parent of the edge, or null if the edge is a path with a
+		 *         single variable
+		 */
+		public DepVariable getParent(int edge) {
+			if (parents[edge] < 0) {
+				return null;
+			}
+			return nodes.get(parents[edge]);
+		}
+
+		/**
+		 * @return the number of distinct variables on the paths
+		 */
+		public int getNumberOfNodes() {
+			return nodes.size();
+		}
+
+		/**
+		 * @return the number of dependent variables the paths start from
+		 */
+		public int getNumberOfSources() {
+			return sources.size();
+		}
+
+		public List<DepVariable> getSources() {
+			return sources;
+		}
+
+		/**
+		 * @return the end of the edges first added by the paths of the source,
+		 *         they start at the end of the previous source
+		 */
+		public int getSourceEnd(int source) {
+			return sourceEnds[source];
+		}
+	}
+
+	/**
+	 * Compute the construction paths of the branches of a method
+	 * 
+	 * @param branchDepVars
+	 *            the variables each branch depends on
+	 * @param methodName
+	 *            the method whose roots are considered
+	 */
+	public static ConstructionPathIndex build(Map<Branch, Set<DepVariable>> branchDepVars, String methodName) {
+		ConstructionPathIndex index = new ConstructionPathIndex();
+		for (Branch branch : branchDepVars.keySet()) {
+			index.branchPaths.put(branch, computeBranchPaths(branchDepVars.get(branch), methodName));
+		}
+		return index;
+	}
+
+	public static BranchPaths computeBranchPaths(Collection<DepVariable> variables, String methodName) {
+		BranchPaths paths = new BranchPaths();
+		paths.sourceEnds = new int[variables.size()];
+		for (DepVariable source : variables) {
+			Map<DepVariable, ArrayList<ConstructionPath>> rootInfo = source.getRootVars();
+
+			for (DepVariable root : rootInfo.keySet()) {
+				if ((root.referenceToThis() || root.isParameter() || root.isStaticField())
+						&& root.getInstruction().getMethodName().equals(methodName)) {
+					for (ConstructionPath path : rootInfo.get(root)) {
+						paths.addPath(path);
+					}
+				}
+			}
+
+			paths.sourceEnds[paths.sources.size()] = paths.size;
+			paths.sources.add(source);
+		}
+
+		// the lookup tables are only needed while adding paths
+		paths.edgeKeys = null;
+		paths.nodeIds = null;
+		return paths;
+	}
+
+	/**
+	 * @return the construction paths of the branch, or null if the branch was
+	 *         not analyzed
+	 */
+	public BranchPaths getBranchPaths(Branch branch) {
+		return branchPaths.get(branch);
+	}
+
+	public void putBranchPaths(Branch branch, BranchPaths paths) {
+		branchPaths.put(branch, paths);
+	}
+}
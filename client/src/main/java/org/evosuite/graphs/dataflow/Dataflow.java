@@ -26,6 +26,11 @@ public class Dataflow {
 	 * 
 	 */
 	public static Map<String, Map<Branch, Set<DepVariable>>> branchDepVarsMap = new HashMap<>();
+	
+	/**
+	 * the construction paths of the dependent variables of each branch, method->index
+	 */
+	public static Map<String, ConstructionPathIndex> constructionPathIndexMap = new HashMap<>();
 
 	public static void initializeDataflow() {
 		InstrumentingClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
@@ -47,7 +52,8 @@ public class Dataflow {
 					FBranchDefUseAnalyzer.analyze(cfg.getRawGraph());
 					
 					Map<Branch, Set<DepVariable>> map = analyzeIndividualMethod(cfg);
-					branchDepVarsMap.put(methodName, map);					
+					branchDepVarsMap.put(methodName, map);
+					constructionPathIndexMap.put(methodName, ConstructionPathIndex.build(map, methodName));
 				}
 			}
 		}
@@ -83,6 +89,41 @@ public class Dataflow {
 		return map;
 	}
 
+	/**
+	 * get the construction paths of a branch of the target method, computing
+	 * them if the method was not analyzed with {@link #initializeDataflow()}.
+	 * 
+	 * @param b
+	 * @return
+	 */
+	public static ConstructionPathIndex.BranchPaths getConstructionPaths(Branch b) {
+		String methodName = Properties.TARGET_METHOD;
+		ConstructionPathIndex index = constructionPathIndexMap.get(methodName);
+		if(index == null) {
+			index = new ConstructionPathIndex();
+			constructionPathIndexMap.put(methodName, index);
+		}
+		
+		ConstructionPathIndex.BranchPaths paths = index.getBranchPaths(b);
+		if(paths == null) {
+			Set<DepVariable> variables = branchDepVarsMap.get(methodName).get(b);
+			paths = ConstructionPathIndex.computeBranchPaths(variables, methodName);
+			index.putBranchPaths(b, paths);
+		}
+		
+		return paths;
+	}
+	
+	/**
+	 * the construction paths of the method are searched again on next use, e.g.
+	 * after relations were added to its computation graph.
+	 * 
+	 * @param methodName
+	 */
+	public static void clearConstructionPaths(String methodName) {
+		constructionPathIndexMap.remove(methodName);
+	}
+
 	private static boolean isCUT(String className) {
 		if (!Properties.TARGET_CLASS.equals("") && !(className.equals(Properties.TARGET_CLASS)
 				|| className.startsWith(Properties.TARGET_CLASS + "$"))) {
@@ -1,6 +1,7 @@
 package org.evosuite.graphs.dataflow;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -300,9 +301,47 @@ public class DepVariable {
 	}
 
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * a partial path from a variable towards its roots, the partial paths of the
+	 * search share their common prefix instead of copying it for each step.
+	 */
+	private static class PathNode {
+		private final DepVariable var;
+		/**
+		 * the operand position of the previous variable that this variable is used for
+		 */
+		private final int position;
+		private final PathNode previous;
+		private final int length;
+
+		PathNode(DepVariable var, int position, PathNode previous) {
+			this.var = var;
+			this.position = position;
+			this.previous = previous;
+			this.length = previous == null ? 1 : previous.length + 1;
+		}
+
+		PathNode append(DepVariable var, int position) {
+			return new PathNode(var, position, this);
+		}
+
+		ConstructionPath toConstructionPath() {
+			DepVariable[] vars = new DepVariable[length];
+			Integer[] positions = new Integer[length - 1];
+			PathNode node = this;
+			for (int i = length - 1; i >= 0; i--) {
+				vars[i] = node.var;
+				if (i > 0) {
+					positions[i - 1] = node.position;
+				}
+				node = node.previous;
+			}
+			return new ConstructionPath(new ArrayList<>(Arrays.asList(vars)), new ArrayList<>(Arrays.asList(positions)));
+		}
+	}
+
 	private void getRootVar(Map<DepVariable, ArrayList<ConstructionPath>> roots, DepVariable parent, DepVariable child,
-			Map<DepVariable, List<DepVariable>> visited, ArrayList<DepVariable> partialPath, ArrayList<Integer> operandPosList) {
+			Map<DepVariable, List<DepVariable>> visited, PathNode partialPath) {
 		List<DepVariable> visitedDirections = visited.get(parent);
 		if(visitedDirections == null) {
 			visitedDirections = new ArrayList<DepVariable>();
@@ -323,7 +362,7 @@ public class DepVariable {
 				pathList = new ArrayList<ConstructionPath>();
 			}
 			
-			ConstructionPath path = new ConstructionPath(partialPath, operandPosList);
+			ConstructionPath path = partialPath.toConstructionPath();
 			if(!pathList.contains(path)) {
 				pathList.add(path);				
 				roots.put(parent, pathList);
@@ -336,12 +375,7 @@ public class DepVariable {
 				if(parent.reverseRelations[i]==null) continue;
 				
 				for(DepVariable grandPar: parent.reverseRelations[i]) {
-					ArrayList<DepVariable> newParialPath = (ArrayList<DepVariable>) partialPath.clone();
-					ArrayList<Integer> newOperandPosList = (ArrayList<Integer>) operandPosList.clone();
-					
-					newParialPath.add(grandPar);
-					newOperandPosList.add(i);
-					getRootVar(roots, grandPar, parent, visited, newParialPath, newOperandPosList);		
+					getRootVar(roots, grandPar, parent, visited, partialPath.append(grandPar, i));
 				}
 			}
 		}
@@ -351,7 +385,6 @@ public class DepVariable {
 	 * return a root along with the path from root variable to the variable
 	 * @return
 	 */
-	@SuppressWarnings("unchecked")
 	public Map<DepVariable, ArrayList<ConstructionPath>> getRootVars() {
 		Map<DepVariable, ArrayList<ConstructionPath>> roots = new HashMap<>();
 		/**
@@ -359,8 +392,7 @@ public class DepVariable {
 		 */
 		Map<DepVariable, List<DepVariable>> visited = new HashMap<>();
 		
-		ArrayList<DepVariable> path = new ArrayList<DepVariable>();
-		path.add(this);
+		PathNode path = new PathNode(this, -1, null);
 		
 		for(int i=0; i<this.reverseRelations.length; i++) {
 			List<DepVariable> directParents = this.reverseRelations[i];
@@ -369,13 +401,7 @@ public class DepVariable {
 				String relation = p.inferRelationWithChild(this, i);
 				if(relation.equals(Relation.FIELD) || relation.equals(Relation.ARRAY_ELEMENT)) {
 					for (DepVariable parent : directParents) {
-						ArrayList<DepVariable> partialPath = (ArrayList<DepVariable>) path.clone();
-						partialPath.add(parent);
-						
-						ArrayList<Integer> operandPosList = new ArrayList<Integer>();
-						operandPosList.add(i);
-						
-						getRootVar(roots, parent, this, visited, partialPath, operandPosList);
+						getRootVar(roots, parent, this, visited, path.append(parent, i));
 					}
 				}
 			}
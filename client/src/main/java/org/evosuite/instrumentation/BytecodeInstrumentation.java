@@ -21,6 +21,7 @@ package org.evosuite.instrumentation;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.List;
 
 import org.evosuite.PackageInfo;
 import org.evosuite.Properties;
@@ -34,7 +35,9 @@ import org.evosuite.instrumentation.testability.ContainerTransformation;
 import org.evosuite.instrumentation.testability.StringTransformation;
 import org.evosuite.junit.writer.TestSuiteWriterUtils;
 import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.classhandling.ModifiedTargetStaticFields;
 import org.evosuite.runtime.instrumentation.*;
+import org.evosuite.seeding.ConstantPoolManager;
 import org.evosuite.seeding.PrimitiveClassAdapter;
 import org.evosuite.setup.DependencyAnalysis;
 import org.evosuite.setup.TestCluster;
@@ -163,6 +166,56 @@ public class BytecodeInstrumentation {
 
 		TransformationStatistics.reset();
 
+		if (isCacheable(classNameWithDots)) {
+			InstrumentedBytecodeCache cache = InstrumentedBytecodeCache.getInstance();
+			byte[] cached = cache.get(className, reader.b);
+			if (cached != null) {
+				return cached;
+			}
+			ConstantPoolManager poolManager = ConstantPoolManager.getInstance();
+			poolManager.startRecordingNonSUTConstants();
+			NonTargetClassAdapter.startRecordingFinalClasses();
+			ModifiedTargetStaticFields.startRecordingFinalFields();
+			byte[] instrumented;
+			List<Object> constants;
+			List<String> finalClasses;
+			List<String> finalFields;
+			try {
+				instrumented = instrument(classLoader, className, classNameWithDots, reader, readFlags);
+			} finally {
+				constants = poolManager.stopRecordingNonSUTConstants();
+				finalClasses = NonTargetClassAdapter.stopRecordingFinalClasses();
+				finalFields = ModifiedTargetStaticFields.stopRecordingFinalFields();
+			}
+			cache.put(className, reader.b, instrumented, constants, finalClasses, finalFields);
+			return instrumented;
+		}
+
+		return instrument(classLoader, className, classNameWithDots, reader, readFlags);
+	}
+
+	/**
+	 * Only classes for which the instrumentation does not fill any of the
+	 * pools used by the search (branches, lines, mutations, CFGs, purity) can
+	 * be taken from the {@link InstrumentedBytecodeCache}
+	 */
+	private boolean isCacheable(String classNameWithDots) {
+		if (!InstrumentedBytecodeCache.isEnabled()) {
+			return false;
+		}
+		if (Properties.PURE_INSPECTORS || Properties.TEST_CARVING) {
+			return false;
+		}
+		if (Properties.TT && classNameWithDots.startsWith(Properties.CLASS_PREFIX)) {
+			return false;
+		}
+		return !DependencyAnalysis.shouldAnalyze(classNameWithDots)
+				&& !shouldTransform(classNameWithDots);
+	}
+
+	private byte[] instrument(ClassLoader classLoader, String className, String classNameWithDots,
+			ClassReader reader, int readFlags) {
+
 		/*
 		 * To use COMPUTE_FRAMES we need to remove JSR commands. Therefore, we
 		 * have a JSRInlinerAdapter in NonTargetClassAdapter as well as
@@ -0,0 +1,495 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.classhandling.ModifiedTargetStaticFields;
+import org.evosuite.runtime.instrumentation.RemoveFinalClassAdapter;
+import org.evosuite.seeding.ConstantPoolManager;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Persistent cache of instrumented bytecode, shared across different runs
+ * (and different client JVMs) through the folder set in
+ * {@link Properties#INSTRUMENTATION_CACHE_DIR}.
+ * </p>
+ * 
+ * <p>
+ * Only classes that are not analyzed for coverage can be cached: for those,
+ * the instrumentation does not fill the branch, line, mutation and CFG pools.
+ * The only global state it changes are the constants collected for the
+ * non-SUT constant pool, the classes and static fields whose final modifier
+ * was removed, and the loop counter indices. They are stored together with
+ * the bytecode, and replayed (respectively remapped for the loop indices)
+ * when the bytecode is taken from the cache.
+ * </p>
+ * 
+ * <p>
+ * Entries are keyed by the original bytecode, the properties that influence
+ * the instrumentation of such classes, and the EvoSuite version.
+ * </p>
+ */
+public class InstrumentedBytecodeCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(InstrumentedBytecodeCache.class);
+
+	private static final int MAGIC = 0x45564243;
+
+	private static final int VERSION = 2;
+
+	private static final String LOOP_COUNTER = Type.getInternalName(LoopCounter.class);
+
+	private static final byte STRING = 0;
+	private static final byte TYPE = 1;
+	private static final byte INT = 2;
+	private static final byte LONG = 3;
+	private static final byte FLOAT = 4;
+	private static final byte DOUBLE = 5;
+
+	private static final InstrumentedBytecodeCache singleton = new InstrumentedBytecodeCache();
+
+	private volatile String evoSuiteVersion = null;
+
+	private InstrumentedBytecodeCache() {
+	}
+
+	public static InstrumentedBytecodeCache getInstance() {
+		return singleton;
+	}
+
+	public static boolean isEnabled() {
+		return Properties.INSTRUMENTATION_CACHE_DIR != null
+				&& !Properties.INSTRUMENTATION_CACHE_DIR.isEmpty();
+	}
+
+	/**
+	 * Look up the instrumented version of a class. On a hit, the constants
+	 * collected when the class was instrumented are added to the non-SUT
+	 * constant pool, the final classes and static fields are registered again,
+	 * and new loop counter indices are assigned to its loops.
+	 * 
+	 * @param className
+	 *            internal name of the class
+	 * @param originalBytes
+	 *            the bytecode of the class before instrumentation
+	 * @return {@code null} if the cache is disabled or has no valid entry
+	 */
+	public byte[] get(String className, byte[] originalBytes) {
+		if (!isEnabled()) {
+			return null;
+		}
+
+		String configuration = getConfiguration();
+		File file = getFile(className, originalBytes, configuration);
+		if (!file.exists()) {
+			return null;
+		}
+
+		byte[] bytecode;
+		List<Object> constants = new ArrayList<>();
+		List<String> finalClasses;
+		List<String> finalFields;
+		int loopBase;
+		int loopCount;
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+				Files.readAllBytes(file.toPath())))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return null;
+			}
+			if (!className.equals(in.readUTF()) || !configuration.equals(in.readUTF())) {
+				// hash collision
+				return null;
+			}
+			loopBase = in.readInt();
+			loopCount = in.readInt();
+			int numConstants = in.readInt();
+			for (int i = 0; i < numConstants; i++) {
+				constants.add(readConstant(in));
+			}
+			finalClasses = readStrings(in);
+			finalFields = readStrings(in);
+			bytecode = new byte[in.readInt()];
+			in.readFully(bytecode);
+		} catch (EOFException e) {
+			logger.warn("Ignoring truncated instrumentation cache file " + file);
+			return null;
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Ignoring invalid instrumentation cache file " + file + ": " + e);
+			return null;
+		}
+
+		if (loopCount > 0) {
+			int newBase = LoopCounter.getInstance().getNewIndices(loopCount);
+			if (newBase != loopBase) {
+				bytecode = shiftLoopIndices(bytecode, newBase - loopBase);
+			}
+		}
+
+		ConstantPoolManager poolManager = ConstantPoolManager.getInstance();
+		for (Object constant : constants) {
+			poolManager.addNonSUTConstant(constant);
+		}
+		RemoveFinalClassAdapter.finalClasses.addAll(finalClasses);
+		if (!finalFields.isEmpty()) {
+			ModifiedTargetStaticFields.getInstance().addFinalFields(finalFields);
+		}
+
+		logger.debug("Loaded instrumented bytecode of {} from cache", className);
+		return bytecode;
+	}
+
+	/**
+	 * Store the instrumented version of a class
+	 * 
+	 * @param className
+	 *            internal name of the class
+	 * @param originalBytes
+	 *            the bytecode of the class before instrumentation
+	 * @param instrumentedBytes
+	 *            the bytecode of the class after instrumentation
+	 * @param constants
+	 *            the constants added to the non-SUT constant pool while
+	 *            instrumenting the class
+	 * @param finalClasses
+	 *            the classes whose final modifier was removed while
+	 *            instrumenting the class
+	 * @param finalFields
+	 *            the static fields whose final modifier was removed while
+	 *            instrumenting the class
+	 */
+	public void put(String className, byte[] originalBytes, byte[] instrumentedBytes,
+			List<Object> constants, List<String> finalClasses, List<String> finalFields) {
+		if (!isEnabled()) {
+			return;
+		}
+
+		String configuration = getConfiguration();
+		File file = getFile(className, originalBytes, configuration);
+
+		int[] loopIndices = getLoopIndexRange(instrumentedBytes);
+
+		File folder = file.getParentFile();
+		try {
+			if (!folder.exists() && !folder.mkdirs() && !folder.exists()) {
+				throw new IOException("Cannot create folder " + folder);
+			}
+
+			/*
+			 * Several clients might write the same entry at the same time, so
+			 * first write to a tmp file, and then atomically move it
+			 */
+			File tmp = File.createTempFile(file.getName(), ".tmp", folder);
+			try {
+				try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+						new FileOutputStream(tmp)))) {
+					out.writeInt(MAGIC);
+					out.writeInt(VERSION);
+					out.writeUTF(className);
+					out.writeUTF(configuration);
+					out.writeInt(loopIndices[0]);
+					out.writeInt(loopIndices[1]);
+
+					List<Object> storedConstants = new ArrayList<>(constants.size());
+					for (Object constant : constants) {
+						// anything else is ignored by the constant pools anyway
+						if (constant instanceof String || constant instanceof Type
+								|| constant instanceof Integer || constant instanceof Long
+								|| constant instanceof Float || constant instanceof Double) {
+							storedConstants.add(constant);
+						}
+					}
+					out.writeInt(storedConstants.size());
+					for (Object constant : storedConstants) {
+						writeConstant(out, constant);
+					}
+					writeStrings(out, finalClasses);
+					writeStrings(out, finalFields);
+
+					out.writeInt(instrumentedBytes.length);
+					out.write(instrumentedBytes);
+				}
+				try {
+					Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				tmp.delete();
+			}
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Failed to write instrumentation cache file " + file + ": " + e.getMessage());
+		}
+	}
+
+	private File getFile(String className, byte[] originalBytes, String configuration) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		digest.update(configuration.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(className.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(originalBytes);
+
+		StringBuilder name = new StringBuilder();
+		for (byte b : digest.digest()) {
+			name.append(Character.forDigit((b >> 4) & 0xF, 16));
+			name.append(Character.forDigit(b & 0xF, 16));
+		}
+		name.append(".cls");
+		return new File(Properties.INSTRUMENTATION_CACHE_DIR, name.toString());
+	}
+
+	/**
+	 * The settings that change how classes that are not analyzed get
+	 * instrumented (see {@link BytecodeInstrumentation#transformBytes})
+	 */
+	private String getConfiguration() {
+		return getEvoSuiteVersion()
+				+ ";skip_debug=" + Properties.INSTRUMENTATION_SKIP_DEBUG
+				+ ";reset_static_fields=" + Properties.RESET_STATIC_FIELDS
+				+ ";reset_static_final_fields=" + Properties.RESET_STATIC_FINAL_FIELDS
+				+ ";max_loop_iterations=" + Properties.MAX_LOOP_ITERATIONS
+				+ ";make_accessible=" + Properties.MAKE_ACCESSIBLE
+				+ ";tt=" + Properties.TT
+				+ ";tt_scope=" + Properties.TT_SCOPE
+				+ ";class_prefix=" + Properties.CLASS_PREFIX
+				+ ";project_prefix=" + Properties.PROJECT_PREFIX
+				+ ";target_class_prefix=" + Properties.TARGET_CLASS_PREFIX
+				+ ";replace_calls=" + Properties.REPLACE_CALLS
+				+ ";virtual_fs=" + Properties.VIRTUAL_FS
+				+ ";virtual_net=" + Properties.VIRTUAL_NET
+				+ ";mock_jvm=" + RuntimeSettings.mockJVMNonDeterminism
+				+ ";mock_system_in=" + RuntimeSettings.mockSystemIn
+				+ ";mock_gui=" + RuntimeSettings.mockGUI
+				+ ";use_vfs=" + RuntimeSettings.useVFS
+				+ ";use_vnet=" + RuntimeSettings.useVNET
+				+ ";use_jee=" + RuntimeSettings.useJEE
+				+ ";reset_static_state=" + RuntimeSettings.resetStaticState
+				+ ";uid_transformation=" + RuntimeSettings.applyUIDTransformation;
+	}
+
+	private String getEvoSuiteVersion() {
+		if (evoSuiteVersion == null) {
+			String version = InstrumentedBytecodeCache.class.getPackage().getImplementationVersion();
+			if (version == null) {
+				/*
+				 * Development build without a manifest: use the time the
+				 * instrumentation was compiled, so a rebuild invalidates the cache
+				 */
+				version = "dev";
+				try {
+					URL url = BytecodeInstrumentation.class.getResource("BytecodeInstrumentation.class");
+					if (url != null) {
+						version += url.openConnection().getLastModified();
+					}
+				} catch (IOException e) {
+					logger.debug("Cannot determine build time: " + e);
+				}
+			}
+			evoSuiteVersion = version;
+		}
+		return evoSuiteVersion;
+	}
+
+	private static void writeConstant(DataOutputStream out, Object constant) throws IOException {
+		if (constant instanceof String) {
+			out.writeByte(STRING);
+			out.writeUTF((String) constant);
+		} else if (constant instanceof Type) {
+			out.writeByte(TYPE);
+			out.writeUTF(((Type) constant).getDescriptor());
+		} else if (constant instanceof Integer) {
+			out.writeByte(INT);
+			out.writeInt((Integer) constant);
+		} else if (constant instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long) constant);
+		} else if (constant instanceof Float) {
+			out.writeByte(FLOAT);
+			out.writeFloat((Float) constant);
+		} else {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) constant);
+		}
+	}
+
+	private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+		out.writeInt(strings.size());
+		for (String string : strings) {
+			out.writeUTF(string);
+		}
+	}
+
+	private static List<String> readStrings(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		List<String> strings = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			strings.add(in.readUTF());
+		}
+		return strings;
+	}
+
+	private static Object readConstant(DataInputStream in) throws IOException {
+		byte tag = in.readByte();
+		switch (tag) {
+		case STRING:
+			return in.readUTF();
+		case TYPE:
+			return Type.getType(in.readUTF());
+		case INT:
+			return in.readInt();
+		case LONG:
+			return in.readLong();
+		case FLOAT:
+			return in.readFloat();
+		case DOUBLE:
+			return in.readDouble();
+		default:
+			throw new IOException("Unknown constant tag " + tag);
+		}
+	}
+
+	/**
+	 * Loop counter indices are assigned globally during instrumentation and
+	 * pushed with an LDC right after the call to LoopCounter.getInstance()
+	 * 
+	 * @return the lowest index used in the class, and the number of indices
+	 *         from there to the highest one
+	 */
+	private static int[] getLoopIndexRange(byte[] bytecode) {
+		final int[] minMax = { Integer.MAX_VALUE, Integer.MIN_VALUE };
+		new ClassReader(bytecode).accept(new ClassVisitor(Opcodes.ASM5) {
+			@Override
+			public MethodVisitor visitMethod(int access, String name, String desc,
+					String signature, String[] exceptions) {
+				return new LoopIndexVisitor(null) {
+					@Override
+					protected int mapIndex(int index) {
+						minMax[0] = Math.min(minMax[0], index);
+						minMax[1] = Math.max(minMax[1], index);
+						return index;
+					}
+				};
+			}
+		}, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+		if (minMax[0] > minMax[1]) {
+			return new int[] { 0, 0 };
+		}
+		return new int[] { minMax[0], minMax[1] - minMax[0] + 1 };
+	}
+
+	private static byte[] shiftLoopIndices(byte[] bytecode, final int offset) {
+		ClassReader reader = new ClassReader(bytecode);
+		ClassWriter writer = new ClassWriter(reader, 0);
+		reader.accept(new ClassVisitor(Opcodes.ASM5, writer) {
+			@Override
+			public MethodVisitor visitMethod(int access, String name, String desc,
+					String signature, String[] exceptions) {
+				return new LoopIndexVisitor(super.visitMethod(access, name, desc, signature,
+						exceptions)) {
+					@Override
+					protected int mapIndex(int index) {
+						return index + offset;
+					}
+				};
+			}
+		}, 0);
+		return writer.toByteArray();
+	}
+
+	private static abstract class LoopIndexVisitor extends MethodVisitor {
+
+		private boolean afterGetInstance = false;
+
+		public LoopIndexVisitor(MethodVisitor mv) {
+			super(Opcodes.ASM5, mv);
+		}
+
+		protected abstract int mapIndex(int index);
+
+		@Override
+		public void visitMethodInsn(int opcode, String owner, String name, String desc,
+				boolean itf) {
+			super.visitMethodInsn(opcode, owner, name, desc, itf);
+			afterGetInstance = opcode == Opcodes.INVOKESTATIC && LOOP_COUNTER.equals(owner)
+					&& "getInstance".equals(name);
+		}
+
+		@Override
+		public void visitLdcInsn(Object cst) {
+			if (afterGetInstance && cst instanceof Integer) {
+				cst = mapIndex((Integer) cst);
+			}
+			afterGetInstance = false;
+			super.visitLdcInsn(cst);
+		}
+
+		@Override
+		public void visitInsn(int opcode) {
+			afterGetInstance = false;
+			super.visitInsn(opcode);
+		}
+
+		@Override
+		public void visitVarInsn(int opcode, int var) {
+			afterGetInstance = false;
+			super.visitVarInsn(opcode, var);
+		}
+
+		@Override
+		public void visitIntInsn(int opcode, int operand) {
+			afterGetInstance = false;
+			super.visitIntInsn(opcode, operand);
+		}
+	}
+}
@@ -19,6 +19,7 @@
  */
 package org.evosuite.instrumentation;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -106,18 +107,8 @@ public class InstrumentingClassLoader extends ClassLoader {
 	
 	
 	public Class<?> loadClassFromFile(String fullyQualifiedTargetClass, String fileName) throws ClassNotFoundException {
-
-		String className = fullyQualifiedTargetClass.replace('.', '/');
-
 		try(InputStream is = new FileInputStream(new File(fileName))) {
-
-			byte[] byteBuffer = getTransformedBytes(className, is);
-
-			createPackageDefinition(fullyQualifiedTargetClass);
-			Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
-
-			classes.put(fullyQualifiedTargetClass, result);
-
+			Class<?> result = defineInstrumentedClass(fullyQualifiedTargetClass, is);
 			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from "+fileName);
 			return result;
 		} catch (Throwable t) {
@@ -125,6 +116,36 @@ public class InstrumentingClassLoader extends ClassLoader {
 			throw new ClassNotFoundException(t.getMessage(), t);
 		}
 	}
+
+	/**
+	 * Same as {@link #loadClassFromFile(String, String)}, but for bytecode
+	 * that only exists in memory, eg the output of an in-memory compilation
+	 */
+	public Class<?> loadClassFromBytes(String fullyQualifiedTargetClass, byte[] bytecode) throws ClassNotFoundException {
+		try(InputStream is = new ByteArrayInputStream(bytecode)) {
+			Class<?> result = defineInstrumentedClass(fullyQualifiedTargetClass, is);
+			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from memory");
+			return result;
+		} catch (Throwable t) {
+			logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
+			throw new ClassNotFoundException(t.getMessage(), t);
+		}
+	}
+
+	/**
+	 * Instrument the bytecode read from the stream and define the class
+	 * without going through the class path
+	 */
+	private Class<?> defineInstrumentedClass(String fullyQualifiedTargetClass, InputStream is) throws IOException {
+		String className = fullyQualifiedTargetClass.replace('.', '/');
+		byte[] byteBuffer = getTransformedBytes(className, is);
+
+		createPackageDefinition(fullyQualifiedTargetClass);
+		Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
+
+		classes.put(fullyQualifiedTargetClass, result);
+		return result;
+	}
 	
 	@Override
 	public Class<?> loadClass(String name) throws ClassNotFoundException {
@@ -22,6 +22,10 @@
  */
 package org.evosuite.instrumentation;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.evosuite.runtime.instrumentation.RemoveFinalClassAdapter;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.MethodVisitor;
@@ -48,10 +52,43 @@ public class NonTargetClassAdapter extends ClassVisitor {
 		this.className = className;
 	}
 
+	/**
+	 * Final classes found by the current thread since
+	 * {@link #startRecordingFinalClasses()}, if recording
+	 */
+	private static final ThreadLocal<List<String>> recordedFinalClasses = new ThreadLocal<>();
+
+	/**
+	 * Keep track of the final classes found by the current thread, e.g. to be
+	 * able to add them again when the instrumentation of a class is skipped
+	 */
+	public static void startRecordingFinalClasses() {
+		recordedFinalClasses.set(new ArrayList<String>());
+	}
+
+	/**
+	 * @return the final classes found by the current thread since
+	 *         {@link #startRecordingFinalClasses()}
+	 */
+	public static List<String> stopRecordingFinalClasses() {
+		List<String> recorded = recordedFinalClasses.get();
+		recordedFinalClasses.remove();
+		return recorded == null ? Collections.<String> emptyList() : recorded;
+	}
+
+	private static void addFinalClass(String name) {
+		String className = name.replace('/', '.');
+		RemoveFinalClassAdapter.finalClasses.add(className);
+		List<String> recorded = recordedFinalClasses.get();
+		if (recorded != null) {
+			recorded.add(className);
+		}
+	}
+
 	@Override
 	public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
 		if((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL) {
-			RemoveFinalClassAdapter.finalClasses.add(name.replace('/', '.'));
+			addFinalClass(name);
 		}
 
 		// We are removing final access to allow mocking
@@ -73,7 +110,7 @@ public class NonTargetClassAdapter extends ClassVisitor {
 	@Override
 	public void visitInnerClass(String name, String outerName, String innerName, int access) {
 		if((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL) {
-			RemoveFinalClassAdapter.finalClasses.add(name.replace('/', '.'));
+			addFinalClass(name);
 		}
 		// We are removing final access to allow mocking
 		super.visitInnerClass(name, outerName, innerName, access & ~Opcodes.ACC_FINAL);
@@ -0,0 +1,236 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles a set of Java sources with the system compiler without touching
+ * the file system: sources are read from strings, and the generated bytecode
+ * is kept in memory. All the sources are compiled in a single task, and the
+ * errors are reported per compilation unit.
+ */
+public class InMemoryCompiler {
+
+	private static final Logger logger = LoggerFactory.getLogger(InMemoryCompiler.class);
+
+	/**
+	 * The outcome of a compilation task
+	 */
+	public static class Result {
+
+		private final boolean successful;
+
+		private final Map<String, byte[]> classes;
+
+		private final Map<String, List<Diagnostic<? extends JavaFileObject>>> errors;
+
+		private Result(boolean successful, Map<String, byte[]> classes,
+		        Map<String, List<Diagnostic<? extends JavaFileObject>>> errors) {
+			this.successful = successful;
+			this.classes = classes;
+			this.errors = errors;
+		}
+
+		public boolean wasSuccessful() {
+			return successful;
+		}
+
+		/**
+		 * @return the bytecode of all the generated classes, including inner
+		 *         and anonymous ones, by fully qualified name
+		 */
+		public Map<String, byte[]> getClasses() {
+			return classes;
+		}
+
+		/**
+		 * @return the compilation errors, by fully qualified name of the
+		 *         compilation unit in which they were found. Errors that are
+		 *         not related to any source are under the <code>null</code>
+		 *         key
+		 */
+		public Map<String, List<Diagnostic<? extends JavaFileObject>>> getErrors() {
+			return errors;
+		}
+	}
+
+	/**
+	 * Compile the given sources.
+	 *
+	 * @param sources
+	 *            the source code of each compilation unit, by fully qualified
+	 *            name of its top level class
+	 * @param options
+	 *            options for the compiler, eg the classpath
+	 * @return <code>null</code> if no compiler is available
+	 */
+	public static Result compile(Map<String, String> sources, List<String> options) {
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			logger.error("No Java compiler is available");
+			return null;
+		}
+
+		List<JavaFileObject> compilationUnits = new ArrayList<>();
+		for (Map.Entry<String, String> source : sources.entrySet()) {
+			compilationUnits.add(new SourceFile(source.getKey(), source.getValue()));
+		}
+
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		StandardJavaFileManager standardManager = compiler.getStandardFileManager(diagnostics,
+		                                                                          Locale.getDefault(),
+		                                                                          Charset.forName("UTF-8"));
+		MemoryFileManager fileManager = new MemoryFileManager(standardManager);
+
+		boolean compiled;
+		try {
+			CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options,
+			                                        null, compilationUnits);
+			compiled = task.call();
+		} finally {
+			try {
+				fileManager.close();
+			} catch (IOException e) {
+				logger.warn("Failed to close file manager: " + e);
+			}
+		}
+
+		Map<String, List<Diagnostic<? extends JavaFileObject>>> errors = new LinkedHashMap<>();
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+				continue;
+			}
+			String unit = null;
+			if (diagnostic.getSource() instanceof SourceFile) {
+				unit = ((SourceFile) diagnostic.getSource()).className;
+			}
+			if (!errors.containsKey(unit)) {
+				errors.put(unit, new ArrayList<Diagnostic<? extends JavaFileObject>>());
+			}
+			errors.get(unit).add(diagnostic);
+		}
+
+		Map<String, byte[]> classes = new LinkedHashMap<>();
+		if (compiled) {
+			for (ClassFile classFile : fileManager.classFiles.values()) {
+				classes.put(classFile.className, classFile.getBytes());
+			}
+		}
+
+		return new Result(compiled, Collections.unmodifiableMap(classes),
+		        Collections.unmodifiableMap(errors));
+	}
+
+	private static URI toURI(String className, Kind kind) {
+		return URI.create("string:///" + className.replace('.', '/') + kind.extension);
+	}
+
+	private static class SourceFile extends SimpleJavaFileObject {
+
+		private final String className;
+
+		private final String code;
+
+		SourceFile(String className, String code) {
+			super(toURI(className, Kind.SOURCE), Kind.SOURCE);
+			this.className = className;
+			this.code = code;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return code;
+		}
+	}
+
+	private static class ClassFile extends SimpleJavaFileObject {
+
+		private final String className;
+
+		private final ByteArrayOutputStream bytecode = new ByteArrayOutputStream();
+
+		ClassFile(String className) {
+			super(toURI(className, Kind.CLASS), Kind.CLASS);
+			this.className = className;
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			bytecode.reset();
+			return bytecode;
+		}
+
+		byte[] getBytes() {
+			return bytecode.toByteArray();
+		}
+	}
+
+	/**
+	 * Looks up dependencies through the standard file manager (ie, the
+	 * classpath given in the options), but keeps all the generated classes in
+	 * memory
+	 */
+	private static class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+		private final Map<String, ClassFile> classFiles = new LinkedHashMap<>();
+
+		MemoryFileManager(StandardJavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className,
+		        Kind kind, FileObject sibling) throws IOException {
+			if (kind != Kind.CLASS) {
+				return super.getJavaFileForOutput(location, className, kind, sibling);
+			}
+			ClassFile classFile = new ClassFile(className);
+			classFiles.put(className, classFile);
+			return classFile;
+		}
+	}
+}
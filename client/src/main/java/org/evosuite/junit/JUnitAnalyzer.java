@@ -20,20 +20,16 @@
 package org.evosuite.junit;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.charset.Charset;
 import java.util.*;
 
 import javax.tools.Diagnostic;
-import javax.tools.DiagnosticCollector;
 import javax.tools.JavaCompiler;
-import javax.tools.JavaCompiler.CompilationTask;
 import javax.tools.JavaFileObject;
-import javax.tools.StandardJavaFileManager;
 import javax.tools.ToolProvider;
 
 import org.apache.commons.io.FileUtils;
 import org.evosuite.Properties;
+import org.evosuite.Properties.OutputGranularity;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.TimeController;
 import org.evosuite.classpath.ClassPathHandler;
@@ -63,15 +59,18 @@ public class JUnitAnalyzer {
 
 	private static int dirCounter = 0;
 
-	private static final String JAVA = ".java";
-	private static final String CLASS = ".class";
-
 	
 	private static NonInstrumentingClassLoader loader = new NonInstrumentingClassLoader();
 	
 	/**
 	 * Try to compile each test separately, and remove the ones that cannot be
-	 * compiled
+	 * compiled.
+	 * 
+	 * <p>
+	 * All the tests are compiled in memory in a single task, each one in its
+	 * own class, so that compilation errors can be traced back to the tests
+	 * causing them. As the compiler might not report all the errors in one go,
+	 * this is repeated until the remaining tests do compile
 	 * 
 	 * @param tests
 	 */
@@ -83,44 +82,67 @@ public class JUnitAnalyzer {
 			return;
 		}
 
-		Iterator<TestCase> iter = tests.iterator();
+		List<TestCase> toCheck = new ArrayList<TestCase>(tests);
 
-		while (iter.hasNext()) {
+		while (!toCheck.isEmpty()) {
 			if(!TimeController.getInstance().hasTimeToExecuteATestCase()) {
 				break;
 			}
 
-			TestCase test = iter.next();
+			CompiledTests compiled = compileTests(toCheck, OutputGranularity.TESTCASE);
+			if (compiled == null) {
+				return;
+			}
+			if (compiled.result.wasSuccessful()) {
+				break;
+			}
 
-			File dir = createNewTmpDir();
-			if (dir == null) {
-				logger.warn("Failed to create tmp dir");
+			Set<TestCase> failing = compiled.getTestsWithErrors();
+			if (failing == null) {
+				/*
+				 * there are errors that cannot be traced back to a single test,
+				 * eg in the scaffolding. So fall back to compile each test on its own
+				 */
+				logger.info("Compilation errors not related to a single test, compiling each test separately");
+				failing = getTestsThatDoNotCompileSeparately(toCheck);
+				removeTests(tests, failing);
 				return;
 			}
-			logger.debug("Created tmp folder: " + dir.getAbsolutePath());
-
-			try {
-				List<TestCase> singleList = new ArrayList<TestCase>();
-				singleList.add(test);
-				List<File> generated = compileTests(singleList, dir);
-				if (generated == null) {
-					iter.remove();
-					String code = test.toCode();
-					logger.error("Failed to compile test case:\n" + code);
-				}
-			} finally {
-				//let's be sure we clean up all what we wrote on disk
-				if (dir != null) {
-					try {
-						FileUtils.deleteDirectory(dir);
-						logger.debug("Deleted tmp folder: " + dir.getAbsolutePath());
-					} catch (Exception e) {
-						logger.error("Cannot delete tmp dir: " + dir.getAbsolutePath(), e);
-					}
-				}
+
+			if (failing.isEmpty()) {
+				//should not really happen, as compilation failed
+				logger.warn("Failed to compile the test cases, but no test was reported as faulty");
+				return;
 			}
 
-		} // end of while
+			removeTests(tests, failing);
+			toCheck.removeAll(failing);
+		}
+	}
+
+	private static Set<TestCase> getTestsThatDoNotCompileSeparately(List<TestCase> tests) {
+		Set<TestCase> failing = Collections.newSetFromMap(new IdentityHashMap<TestCase, Boolean>());
+		for (TestCase test : tests) {
+			if(!TimeController.getInstance().hasTimeToExecuteATestCase()) {
+				break;
+			}
+			CompiledTests compiled = compileTests(Collections.singletonList(test), OutputGranularity.TESTCASE);
+			if (compiled != null && !compiled.result.wasSuccessful()) {
+				failing.add(test);
+			}
+		}
+		return failing;
+	}
+
+	private static void removeTests(List<TestCase> tests, Set<TestCase> toRemove) {
+		Iterator<TestCase> iter = tests.iterator();
+		while (iter.hasNext()) {
+			TestCase test = iter.next();
+			if (toRemove.contains(test)) {
+				iter.remove();
+				logger.error("Failed to compile test case:\n" + test.toCode());
+			}
+		}
 	}
 
 	/**
@@ -143,16 +165,9 @@ public class JUnitAnalyzer {
 			return numUnstable;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.error("Failed to create tmp dir");
-			return numUnstable;
-		}
-		logger.debug("Created tmp folder: " + dir.getAbsolutePath());
-
 		try {
-			List<File> generated = compileTests(tests, dir);
-			if (generated == null) {
+			CompiledTests compiled = compileTests(tests, Properties.OUTPUT_GRANULARITY);
+			if (compiled == null || !compiled.result.wasSuccessful()) {
 				/*
 				 * Note: in theory this shouldn't really happen, as check for compilation
 				 * is done before calling this method
@@ -168,14 +183,14 @@ public class JUnitAnalyzer {
 
             // Create a new classloader so that each test gets freshly loaded classes
 			loader = new NonInstrumentingClassLoader();
-            Class<?>[] testClasses = loadTests(generated);
+            Class<?>[] testClasses = loadTests(compiled);
 
-			if (testClasses == null) {
+			if (testClasses.length == 0) {
 				logger.error("Found no classes for compiled tests");
 				return numUnstable;
 			}
 
-			JUnitResult result = runTests(testClasses, dir);
+			JUnitResult result = runTests(testClasses);
 
 			if (result.wasSuccessful()) {
 				return numUnstable; //everything is OK
@@ -254,24 +269,13 @@ public class JUnitAnalyzer {
 		} catch (Exception e) {
 			logger.error("" + e, e);
 			return numUnstable;
-		} finally {
-			//let's be sure we clean up all what we wrote on disk
-
-			if (dir != null) {
-				try {
-					FileUtils.deleteDirectory(dir);
-				} catch (Exception e) {
-					logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-				}
-			}
-
 		}
 
 		//if we arrive here, then it means at least one test was unstable
 		return numUnstable;
 	}
 
-	private static JUnitResult runTests(Class<?>[] testClasses, File testClassDir)
+	private static JUnitResult runTests(Class<?>[] testClasses)
 	        throws JUnitExecutionException {
 		return runJUnitOnCurrentProcess(testClasses);
 	}
@@ -341,7 +345,45 @@ public class JUnitAnalyzer {
 	// EvoSuite classloader, and thus cannot easily be re-loaded
 	private static int NUM = 0;
 
-	private static List<File> compileTests(List<TestCase> tests, File dir) {
+	/**
+	 * The in-memory compilation of a test suite, and which tests ended up in
+	 * which of its classes
+	 */
+	private static class CompiledTests {
+
+		private final InMemoryCompiler.Result result;
+
+		/** Fully qualified names of the top level classes, ie one per compilation unit */
+		private final List<String> classNames;
+
+		/** Tests by fully qualified name of the class they are in, if there is one class per test */
+		private final Map<String, TestCase> testsByClass;
+
+		private CompiledTests(InMemoryCompiler.Result result, List<String> classNames,
+		        Map<String, TestCase> testsByClass) {
+			this.result = result;
+			this.classNames = classNames;
+			this.testsByClass = testsByClass;
+		}
+
+		/**
+		 * @return the tests whose class does not compile, or <code>null</code>
+		 *         if there are errors that cannot be traced back to a single test
+		 */
+		private Set<TestCase> getTestsWithErrors() {
+			Set<TestCase> failing = Collections.newSetFromMap(new IdentityHashMap<TestCase, Boolean>());
+			for (String unit : result.getErrors().keySet()) {
+				TestCase test = testsByClass.get(unit);
+				if (test == null) {
+					return null;
+				}
+				failing.add(test);
+			}
+			return failing;
+		}
+	}
+
+	private static CompiledTests compileTests(List<TestCase> tests, OutputGranularity granularity) {
 
 		TestSuiteWriter suite = new TestSuiteWriter();
 		suite.insertAllTests(tests);
@@ -351,89 +393,72 @@ public class JUnitAnalyzer {
 		String name = Properties.TARGET_CLASS.substring(beginIndex);
 		name += "_" +(NUM++) + "_tmp_" + Properties.JUNIT_SUFFIX ; //postfix
 
-		try {
-			//now generate the JUnit test case
-			List<File> generated = suite.writeTestSuite(name, dir.getAbsolutePath(), Collections.EMPTY_LIST);
-			for (File file : generated) {
-				if (!file.exists()) {
-					logger.error("Supposed to generate " + file
-					        + " but it does not exist");
-					return null;
-				}
-			}
-
-			//try to compile the test cases
-			JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-			if (compiler == null) {
-				logger.error("No Java compiler is available");
-				return null;
-			}
-
-			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
-			Locale locale = Locale.getDefault();
-			Charset charset = Charset.forName("UTF-8");
-			StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics,
-			                                                                      locale,
-			                                                                      charset);
+		String packagePrefix = Properties.CLASS_PREFIX;
+		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
+			packagePrefix += ".";
+		}
 
-			Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(generated);
+		//now generate the JUnit test case, without writing it to disk
+		Map<String, String> generated = suite.getTestSuiteSources(name, Collections.EMPTY_LIST, granularity);
 
-			List<String> optionList = new ArrayList<>();
-			String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
-			if(JarPathing.containsAPathingJar(evosuiteCP)){
-				evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
+		Map<String, String> sources = new LinkedHashMap<>();
+		Map<String, TestCase> testsByClass = new HashMap<>();
+		for (Map.Entry<String, String> source : generated.entrySet()) {
+			String className = packagePrefix + source.getKey();
+			sources.put(className, source.getValue());
+		}
+		if (granularity == OutputGranularity.TESTCASE) {
+			for (int i = 0; i < tests.size(); i++) {
+				testsByClass.put(packagePrefix + name + "_" + i, tests.get(i));
 			}
+		}
 
-			String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
-			if(JarPathing.containsAPathingJar(targetProjectCP)){
-				targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
-			}
+		String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
+		if(JarPathing.containsAPathingJar(evosuiteCP)){
+			evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
+		}
 
-			String classpath = targetProjectCP + File.pathSeparator + evosuiteCP;
+		String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		if(JarPathing.containsAPathingJar(targetProjectCP)){
+			targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
+		}
 
-			optionList.addAll(Arrays.asList("-classpath", classpath));
+		String classpath = targetProjectCP + File.pathSeparator + evosuiteCP;
 
-			CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
-			                                        optionList, null, compilationUnits);
-			boolean compiled = task.call();
-			fileManager.close();
+		List<String> optionList = new ArrayList<>();
+		optionList.addAll(Arrays.asList("-classpath", classpath));
 
-			if (!compiled) {
-				logger.error("Compilation failed on compilation units: "+ compilationUnits);
-				logger.error("Classpath: "+classpath);
-				//TODO remove
-				logger.error("evosuiteCP: "+evosuiteCP);
+		//try to compile the test cases
+		InMemoryCompiler.Result result = InMemoryCompiler.compile(sources, optionList);
+		if (result == null) {
+			return null;
+		}
 
+		if (!result.wasSuccessful()) {
+			logger.error("Compilation failed on compilation units: "+ sources.keySet());
+			logger.error("Classpath: "+classpath);
 
-				for (Diagnostic<?> diagnostic : diagnostics.getDiagnostics()) {
-					if (diagnostic.getMessage(null).startsWith("error while writing")) {
-						logger.error("Error is due to file permissions, ignoring...");
-						return generated;
-					}
-					logger.error("Diagnostic: " + diagnostic.getMessage(null) + ": "
+			for (Map.Entry<String, List<Diagnostic<? extends JavaFileObject>>> errors : result.getErrors().entrySet()) {
+				for (Diagnostic<? extends JavaFileObject> diagnostic : errors.getValue()) {
+					logger.error("Diagnostic in " + errors.getKey() + ": " + diagnostic.getMessage(null) + ": "
 					        + diagnostic.getLineNumber());
 				}
 
+				String code = sources.get(errors.getKey());
+				if (code == null) {
+					continue;
+				}
 				StringBuffer buffer = new StringBuffer();
-				for (JavaFileObject sourceFile : compilationUnits) {
-					List<String> lines = FileUtils.readLines(new File(sourceFile.toUri().getPath()));
-
-					buffer.append(compilationUnits.iterator().next().toString()+"\n");
-
-					for (int i = 0; i < lines.size(); i++) {
-						buffer.append((i + 1) + ": " + lines.get(i) +"\n");
-					}
+				buffer.append(errors.getKey()+"\n");
+				String[] lines = code.split("\\R");
+				for (int i = 0; i < lines.length; i++) {
+					buffer.append((i + 1) + ": " + lines[i] +"\n");
 				}
 				logger.error(buffer.toString());
-				return null;
 			}
-
-			return generated;
-
-		} catch (IOException e) {
-			logger.error("" + e, e);
-			return null;
 		}
+
+		return new CompiledTests(result, new ArrayList<>(sources.keySet()), testsByClass);
 	}
 
 	protected static File createNewTmpDir() {
@@ -457,7 +482,7 @@ public class JUnitAnalyzer {
 		return dir;
 	}
 
-	private static Class<?>[] loadTests(List<File> tests) {
+	private static Class<?>[] loadTests(CompiledTests compiled) {
 
 		/*
 		 * Ideally, when we run a generated test case, it
@@ -471,69 +496,20 @@ public class JUnitAnalyzer {
 		 * non-instrumenting classloader to re-load the CUT, and so see
 		 * if the JavaAgent works properly.
 		 */
-		Class<?>[] testClasses = getClassesFromFiles(tests);
-		List<File> otherClasses = listOnlyFiles(tests);
+		Map<String, byte[]> bytecode = compiled.result.getClasses();
+		Class<?>[] testClasses = getClassesFromBytecode(compiled.classNames, bytecode);
+
 		/*
-		 * this is important to force the loading of all files generated
-		 * in the target folder.
+		 * this is important to force the loading of all the generated classes.
 		 * If we do not do that, then we will miss all the anonymous classes 
 		 */
-		getClassesFromFiles(otherClasses);
+		List<String> otherClasses = new ArrayList<>(bytecode.keySet());
+		otherClasses.removeAll(compiled.classNames);
+		getClassesFromBytecode(otherClasses, bytecode);
 
 		return testClasses;
 	}
 
-	private static List<File> listOnlyFiles(List<File> tests) throws IllegalArgumentException{
-		if(tests==null || tests.isEmpty()){
-			return null;
-		}
-
-		Set<String> classNames = new LinkedHashSet<>();
-		
-		File parentFolder = tests.get(0).getParentFile();
-		for(File file : tests){
-			if(!file.getParentFile().equals(parentFolder)){
-				throw new IllegalArgumentException("Tests file are not in the same folder");
-			}
-			classNames.add(removeFileExtension(file.getName()));
-		}
-		
-		/*
-		 * if we already loaded a CUT due to its .java, do not want
-		 * to re-loaded it for a .class file that is in the same folder
-		 */
-		
-		List<File> otherClasses = new LinkedList<>();
-		
-		for(File file : parentFolder.listFiles()){
-			String  name = removeFileExtension(file.getName());
-
-			if(classNames.contains(name)){
-				continue;
-			}
-			
-			classNames.add(name);
-			otherClasses.add(file);
-		}
-		
-		return otherClasses;
-	}
-	
-
-	private static String removeFileExtension(String str) {
-		if (str == null) {
-			return null;
-		}
-
-		int pos = str.lastIndexOf(".");
-
-		if (pos == -1) {
-			return str;
-		}
-
-		return str.substring(0, pos);
-	}
-
 	/**
 	 * <p>
 	 * The output of EvoSuite is a set of test cases. For debugging and
@@ -544,8 +520,7 @@ public class JUnitAnalyzer {
 	 * </p>
 	 * 
 	 * <p>
-	 * Here we compile to a tmp folder, load and execute the test cases, and
-	 * then clean up (ie delete all generated files).
+	 * Here we compile in memory, and then load and execute the test cases.
 	 * </p>
 	 * 
 	 * @param tests
@@ -559,29 +534,23 @@ public class JUnitAnalyzer {
 			return true;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.warn("Failed to create tmp dir");
-			return false;
-		}
-
 		try {
-			List<File> generated = compileTests(tests, dir);
-			if (generated == null) {
+			CompiledTests compiled = compileTests(tests, Properties.OUTPUT_GRANULARITY);
+			if (compiled == null || !compiled.result.wasSuccessful()) {
 				logger.warn("Failed to compile the test cases ");
 				return false;
 			}
 
 			//as last step, execute the generated/compiled test cases
 
-			Class<?>[] testClasses = loadTests(generated);
+			Class<?>[] testClasses = loadTests(compiled);
 
-			if (testClasses == null) {
+			if (testClasses.length == 0) {
 				logger.error("Found no classes for compiled tests");
 				return false;
 			}
 
-			JUnitResult result = runTests(testClasses, dir);
+			JUnitResult result = runTests(testClasses);
 
 			if (!result.wasSuccessful()) {
 				logger.error("" + result.getFailureCount() + " test cases failed");
@@ -605,15 +574,6 @@ public class JUnitAnalyzer {
 		} catch (Exception e) {
 			logger.error("" + e, e);
 			return false;
-		} finally {
-			//let's be sure we clean up all what we wrote on disk
-			if (dir != null) {
-				try {
-					FileUtils.deleteDirectory(dir);
-				} catch (IOException e) {
-					logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-				}
-			}
 		}
 
 		logger.debug("Successfully compiled and run test cases generated for "
@@ -622,21 +582,21 @@ public class JUnitAnalyzer {
 	}
 
 	/**
-	 * Given a list of files representing .java/.class classes, load them (it
-	 * assumes the classpath to be correctly set)
+	 * Given the names of compiled classes, load them from their bytecode
 	 * 
-	 * @param files
+	 * @param classNames
+	 * @param bytecode
 	 * @return
 	 */
-	private static Class<?>[] getClassesFromFiles(Collection<File> files) {
+	private static Class<?>[] getClassesFromBytecode(Collection<String> classNames, Map<String, byte[]> bytecode) {
 		/*
 		 * first load only the scaffolding files
 		 */
-		for (File file : files) {
-			if(!isScaffolding(file)){
+		for (String className : classNames) {
+			if(!isScaffolding(className)){
 				continue;
 			}
-			loadClass(file);			
+			loadClass(className, bytecode.get(className));
 		}
 		
 		List<Class<?>> classes = new ArrayList<>();
@@ -645,11 +605,11 @@ public class JUnitAnalyzer {
 		 * once the scaffoldings are loaded, we can load the tests that
 		 * depend on them 
 		 */
-		for (File file : files) {
-			if(isScaffolding(file)){
+		for (String className : classNames) {
+			if(isScaffolding(className)){
 				continue;
 			}
-			Class<?> clazz = loadClass(file);
+			Class<?> clazz = loadClass(className, bytecode.get(className));
 			if(clazz != null){
 				classes.add(clazz);
 			}
@@ -658,52 +618,21 @@ public class JUnitAnalyzer {
 		return classes.toArray(new Class<?>[classes.size()]);
 	}
 
-	private static boolean isScaffolding(File file){
-		String name = file.getName();
-		return name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+JAVA) || 
-				name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+CLASS);
+	private static boolean isScaffolding(String className){
+		return className.endsWith("_"+Properties.SCAFFOLDING_SUFFIX);
 	}
 	
-	private static Class<?> loadClass(File file){
-		if (!file.isFile()) {
-			return null;
-		}
-
-		String packagePrefix = Properties.CLASS_PREFIX;
-		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
-			packagePrefix += ".";
-		}
-
-		String name = file.getName();
-
-		if (!name.endsWith(JAVA) && !name.endsWith(CLASS)) {
-			/*
-			 * this could happen when we scan a folder for all src/compiled
-			 * files
-			 */
+	private static Class<?> loadClass(String className, byte[] bytecode){
+		if (bytecode == null) {
 			return null;
 		}
 
-		String fileName = file.getAbsolutePath();
-
-		if (name.endsWith(JAVA)) {
-			name = name.substring(0, name.length() - JAVA.length());
-			fileName = fileName.substring(0, fileName.length() - JAVA.length()) + ".class";
-		} else {
-			assert name.endsWith(CLASS);
-			name = name.substring(0, name.length() - CLASS.length());
-		}
-
-		String className = packagePrefix + name;
-
 		Class<?> testClass = null;
 		try {
 			logger.info("Loading class " + className);
-			//testClass = ((InstrumentingClassLoader) TestGenerationContext.getInstance().getClassLoaderForSUT()).loadClassFromFile(className,
-			testClass = loader.loadClassFromFile(className,fileName);
+			testClass = loader.loadClassFromBytes(className, bytecode);
 		} catch (ClassNotFoundException e) {
-			logger.error("Failed to load test case " + className + " from file "
-			        + file.getAbsolutePath() + " , error " + e, e);
+			logger.error("Failed to load test case " + className + " , error " + e, e);
 		}
 		return testClass;
 	}
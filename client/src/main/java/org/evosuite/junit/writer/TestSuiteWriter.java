@@ -185,6 +185,27 @@ public class TestSuiteWriter implements Opcodes {
      */
     public List<File> writeTestSuite(String name, String directory, List<ExecutionResult> cachedResults) throws IllegalArgumentException {
 
+        checkTestClassName(name);
+
+        List<File> generated = new ArrayList<File>();
+        String dir = TestSuiteWriterUtils.makeDirectory(directory);
+        String content = "";
+
+        Map<String, String> sources = getTestSuiteSources(name, cachedResults, Properties.OUTPUT_GRANULARITY);
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            File file = new File(dir + "/" + source.getKey() + ".java"); // e.g., dir/Foo_ESTest_0.java
+            FileIOUtils.writeFile(source.getValue(), file);
+            generated.add(file);
+            content += source.getValue();
+        }
+
+        writeCoveredGoalsFile();
+
+        TestGenerationResultBuilder.getInstance().setTestSuiteCode(content);
+        return generated;
+    }
+
+    private static void checkTestClassName(String name) throws IllegalArgumentException {
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Empty test class name");
         }
@@ -194,10 +215,24 @@ public class TestSuiteWriter implements Opcodes {
              */
             throw new IllegalArgumentException("Test classes should have name ending with 'Test'. Invalid input name: " + name);
         }
+    }
 
-        List<File> generated = new ArrayList<File>();
-        String dir = TestSuiteWriterUtils.makeDirectory(directory);
-        String content = "";
+    /**
+     * Generate the source code of the test suite without writing anything to
+     * disk, eg to compile it in memory.
+     *
+     * @param name          Name of the test class
+     * @param cachedResults Results to reuse if there is no time left to execute the tests
+     * @param granularity   Whether all tests go into one class, or one class per test
+     * @return map from simple class name to source code, tests first and scaffolding (if any) last
+     * @throws IllegalArgumentException if the test class name is not valid
+     */
+    public Map<String, String> getTestSuiteSources(String name, List<ExecutionResult> cachedResults,
+                                                   OutputGranularity granularity) throws IllegalArgumentException {
+
+        checkTestClassName(name);
+
+        Map<String, String> sources = new LinkedHashMap<>();
 
         // Execute all tests
         executor.newObservers();
@@ -240,37 +275,24 @@ public class TestSuiteWriter implements Opcodes {
         removeAssertionsAfterException(results);
 
 
-        if (Properties.OUTPUT_GRANULARITY == OutputGranularity.MERGED || testCases.size() == 0) {
-            File file = new File(dir + "/" + name + ".java");
+        if (granularity == OutputGranularity.MERGED || testCases.size() == 0) {
             //executor.newObservers();
-            content = getUnitTestsAllInSameFile(name, results);
-            FileIOUtils.writeFile(content, file);
-            generated.add(file);
+            sources.put(name, getUnitTestsAllInSameFile(name, results));
         } else {
             for (int i = 0; i < testCases.size(); i++) {
-                File file = new File(dir + "/" + name + "_" + i + ".java"); // e.g., dir/Foo_ESTest_0.java
                 //executor.newObservers();
-                String testCode = getOneUnitTestInAFile(name, i, results);
-                FileIOUtils.writeFile(testCode, file);
-                content += testCode;
-                generated.add(file);
+                sources.put(name + "_" + i, getOneUnitTestInAFile(name, i, results));
             }
         }
 
         if (Properties.TEST_SCAFFOLDING && !Properties.NO_RUNTIME_DEPENDENCY) {
             String scaffoldingName = Scaffolding.getFileName(name);
-            File file = new File(dir + "/" + scaffoldingName + ".java");
             String scaffoldingContent = Scaffolding.getScaffoldingFileContent(name, results,
                     TestSuiteWriterUtils.hasAnySecurityException(results));
-            FileIOUtils.writeFile(scaffoldingContent, file);
-            generated.add(file);
-            content += scaffoldingContent;
+            sources.put(scaffoldingName, scaffoldingContent);
         }
 
-        writeCoveredGoalsFile();
-
-        TestGenerationResultBuilder.getInstance().setTestSuiteCode(content);
-        return generated;
+        return sources;
     }
 
     /**
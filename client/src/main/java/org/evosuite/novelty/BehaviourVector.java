@@ -0,0 +1,72 @@
+package org.evosuite.novelty;
+
+import java.io.Serializable;
+
+/**
+ * Compact behaviour descriptor of an executed test: the normalised true
+ * distance of each branch (NaN if the branch was not reached), and a bitset of
+ * the covered branchless methods.
+ *
+ * The distance between two vectors is the same for each branch as in
+ * {@link BranchNoveltyFunction}, and is a metric, so that vectors can be put in
+ * a {@link NoveltyIndex}.
+ */
+public final class BehaviourVector implements Serializable {
+
+    private static final long serialVersionUID = -2416392813525398170L;
+
+    private final double[] branchDistances;
+
+    private final long[] coveredMethods;
+
+    private final int numMethods;
+
+    /**
+     * @param branchDistances normalised distances in [0, 1), or NaN for branches not reached
+     * @param coveredMethods bitset of the covered branchless methods
+     * @param numMethods number of branchless methods
+     */
+    public BehaviourVector(double[] branchDistances, long[] coveredMethods, int numMethods) {
+        assert coveredMethods.length == (numMethods + 63) / 64;
+        this.branchDistances = branchDistances;
+        this.coveredMethods = coveredMethods;
+        this.numMethods = numMethods;
+    }
+
+    public int getNumberOfBranches() {
+        return branchDistances.length;
+    }
+
+    public int getNumberOfMethods() {
+        return numMethods;
+    }
+
+    /**
+     * @return the average difference per branch and branchless method, between 0 and 1
+     */
+    public double distance(BehaviourVector other) {
+        assert other.branchDistances.length == branchDistances.length && other.numMethods == numMethods;
+        int dimensions = branchDistances.length + numMethods;
+        if (dimensions == 0) {
+            return 0.0;
+        }
+
+        double difference = 0.0;
+        for (int i = 0; i < branchDistances.length; i++) {
+            double distance1 = branchDistances[i];
+            double distance2 = other.branchDistances[i];
+            boolean reached1 = !Double.isNaN(distance1);
+            boolean reached2 = !Double.isNaN(distance2);
+            if (reached1 && reached2) {
+                difference += Math.abs(distance1 - distance2);
+            } else if (reached1 || reached2) {
+                difference += 1.0;
+            }
+        }
+        for (int i = 0; i < coveredMethods.length; i++) {
+            difference += Long.bitCount(coveredMethods[i] ^ other.coveredMethods[i]);
+        }
+
+        return difference / dimensions;
+    }
+}
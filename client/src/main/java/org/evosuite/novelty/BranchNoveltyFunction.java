@@ -12,25 +12,51 @@ import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 public class BranchNoveltyFunction extends NoveltyFunction<TestChromosome> {
 
     private static final Logger logger = LoggerFactory.getLogger(BranchNoveltyFunction.class);
 
-    private Set<Integer> branches = new LinkedHashSet<>();
+    /** ids of the branches, by position in the behaviour vectors */
+    private final int[] branches;
 
-    private Set<String> branchlessMethods = new LinkedHashSet<>();
+    /** position of each branch id in the behaviour vectors, -1 for ids that are not considered */
+    private final int[] branchPositions;
+
+    /** position of each branchless method in the behaviour vectors */
+    private final Map<String, Integer> branchlessMethods = new LinkedHashMap<>();
 
     public BranchNoveltyFunction() {
+        Set<Integer> branchIds = new LinkedHashSet<>();
         for (Branch branch : BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).getAllBranches()) {
             if(!branch.isInstrumented()) {
-                branches.add(branch.getActualBranchId());
+                branchIds.add(branch.getActualBranchId());
             }
         }
-        branchlessMethods.addAll(BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).getBranchlessMethods());
-        logger.warn("Number of branches: "+branches.size()+" branches and "+branchlessMethods.size() +" branchless methods");
+        branches = new int[branchIds.size()];
+        int maxId = -1;
+        int position = 0;
+        for (int branchId : branchIds) {
+            branches[position++] = branchId;
+            maxId = Math.max(maxId, branchId);
+        }
+        branchPositions = new int[maxId + 1];
+        Arrays.fill(branchPositions, -1);
+        for (int i = 0; i < branches.length; i++) {
+            branchPositions[branches[i]] = i;
+        }
+
+        for (String method : BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).getBranchlessMethods()) {
+            if (!branchlessMethods.containsKey(method)) {
+                branchlessMethods.put(method, branchlessMethods.size());
+            }
+        }
+        logger.warn("Number of branches: "+branches.length+" branches and "+branchlessMethods.size() +" branchless methods");
     }
 
     private ExecutionResult runTest(TestCase test) {
@@ -47,40 +73,52 @@ public class BranchNoveltyFunction extends NoveltyFunction<TestChromosome> {
        return individual.getLastExecutionResult();
     }
 
-
+    /**
+     * The behaviour vector is computed once for each execution of the test, and
+     * kept in the chromosome until it is executed again
+     */
     @Override
-    public double getDistance(TestChromosome individual1, TestChromosome individual2) {
-        ExecutionResult result1 = getExecutionResult(individual1);
-        ExecutionResult result2 = getExecutionResult(individual2);
-
-        ExecutionTrace trace1 = result1.getTrace();
-        ExecutionTrace trace2 = result2.getTrace();
-
-        double difference = 0.0;
-
-        for(Integer branch : branches) {
-            if(trace1.hasTrueDistance(branch) && trace2.hasTrueDistance(branch)) {
-                double distance1 = trace1.getTrueDistance(branch);
-                double distance2 = trace2.getTrueDistance(branch);
-
-                difference += Math.abs(distance1 - distance2);
+    public BehaviourVector getBehaviour(TestChromosome individual) {
+        ExecutionResult result = getExecutionResult(individual);
+        BehaviourVector behaviour = individual.getBehaviour();
+        if (behaviour == null || behaviour.getNumberOfBranches() != branches.length
+                || behaviour.getNumberOfMethods() != branchlessMethods.size()) {
+            behaviour = computeBehaviour(result.getTrace());
+            individual.setBehaviour(behaviour);
+        }
+        return behaviour;
+    }
 
-            } else if(trace1.hasTrueDistance(branch) || trace2.hasTrueDistance(branch)) {
-                difference += 1.0;
+    private BehaviourVector computeBehaviour(ExecutionTrace trace) {
+        double[] branchDistances = new double[branches.length];
+        Arrays.fill(branchDistances, Double.NaN);
+        for (Map.Entry<Integer, Double> entry : trace.getTrueDistances().entrySet()) {
+            int branchId = entry.getKey();
+            if (branchId >= 0 && branchId < branchPositions.length && branchPositions[branchId] >= 0) {
+                double distance = entry.getValue();
+                branchDistances[branchPositions[branchId]] = distance / (distance + 1.0);
             }
         }
 
-        Set<String> methods1 = trace1.getCoveredBranchlessMethods();
-        Set<String> methods2 = trace2.getCoveredBranchlessMethods();
-        for(String branchlessMethod : branchlessMethods) {
-            if(methods1.contains(branchlessMethod) != methods2.contains(branchlessMethod)) {
-                difference += 1.0;
+        long[] coveredMethods = new long[(branchlessMethods.size() + 63) / 64];
+        for (String method : trace.getCoveredBranchlessMethods()) {
+            Integer position = branchlessMethods.get(method);
+            if (position != null) {
+                coveredMethods[position >> 6] |= 1L << position;
             }
         }
+        return new BehaviourVector(branchDistances, coveredMethods, branchlessMethods.size());
+    }
 
-        difference /= (branches.size() + branchlessMethods.size());
-
-        return difference;
+    /**
+     * For each branch, the difference of the (normalised) true distances if
+     * both tests reach it, or 1 if only one does; for each branchless method, 1
+     * if only one of the tests covers it. The differences are averaged over
+     * all the branches and branchless methods.
+     */
+    @Override
+    public double getDistance(TestChromosome individual1, TestChromosome individual2) {
+        return getBehaviour(individual1).distance(getBehaviour(individual2));
     }
 
 }
@@ -0,0 +1,158 @@
+package org.evosuite.novelty;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Vantage-point tree over the behaviour vectors of a set of individuals, to
+ * compute the novelty of an individual as the average distance to its k
+ * nearest neighbours without comparing it with every other individual.
+ *
+ * @param <T> type of the indexed individuals
+ */
+public class NoveltyIndex<T> {
+
+    private static class Node {
+
+        /** position of the vantage point */
+        private final int vantagePoint;
+
+        /** points closer than threshold to the vantage point are inside, the others are outside */
+        private double threshold;
+
+        private Node inside;
+
+        private Node outside;
+
+        private Node(int vantagePoint) {
+            this.vantagePoint = vantagePoint;
+        }
+    }
+
+    private final Object[] items;
+
+    private final BehaviourVector[] vectors;
+
+    private final Node root;
+
+    /**
+     * @param items the individuals to index
+     * @param vectors the behaviour vector of each individual
+     */
+    public NoveltyIndex(List<? extends T> items, List<BehaviourVector> vectors) {
+        if (items.size() != vectors.size()) {
+            throw new IllegalArgumentException("Expected " + items.size() + " vectors, got " + vectors.size());
+        }
+        this.items = items.toArray();
+        this.vectors = vectors.toArray(new BehaviourVector[vectors.size()]);
+
+        Integer[] points = new Integer[this.items.length];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = i;
+        }
+        this.root = build(points, 0, points.length, new double[points.length]);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    private Node build(Integer[] points, int from, int to, final double[] distances) {
+        if (from >= to) {
+            return null;
+        }
+
+        // the last point of a range is the farthest from the parent vantage point
+        int last = to - 1;
+        Integer vantagePoint = points[last];
+        points[last] = points[from];
+        points[from] = vantagePoint;
+        Node node = new Node(vantagePoint);
+        if (to - from == 1) {
+            return node;
+        }
+
+        BehaviourVector vector = vectors[vantagePoint];
+        for (int i = from + 1; i < to; i++) {
+            distances[points[i]] = vector.distance(vectors[points[i]]);
+        }
+        Arrays.sort(points, from + 1, to, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer p1, Integer p2) {
+                return Double.compare(distances[p1], distances[p2]);
+            }
+        });
+
+        int median = from + 1 + (to - from - 1) / 2;
+        node.threshold = distances[points[median]];
+        node.inside = build(points, from + 1, median, distances);
+        node.outside = build(points, median, to, distances);
+        return node;
+    }
+
+    /**
+     * @param item an individual, which is not counted as its own neighbour if it is in the index
+     * @param vector the behaviour vector of the individual
+     * @param k number of neighbours
+     * @return the average distance to the k nearest individuals of the index,
+     *         or to all of them if there are less than k
+     */
+    public double getNovelty(T item, BehaviourVector vector, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Number of neighbours must be positive: " + k);
+        }
+
+        PriorityQueue<Double> nearest = new PriorityQueue<>(k + 1, Collections.reverseOrder());
+        search(root, item, vector, k, nearest);
+        if (nearest.isEmpty()) {
+            return 0.0;
+        }
+
+        double distance = 0.0;
+        for (double d : nearest) {
+            distance += d;
+        }
+        return distance / nearest.size();
+    }
+
+    private void search(Node node, T item, BehaviourVector vector, int k, PriorityQueue<Double> nearest) {
+        if (node == null) {
+            return;
+        }
+
+        double distance = vector.distance(vectors[node.vantagePoint]);
+        if (items[node.vantagePoint] != item) {
+            if (nearest.size() < k) {
+                nearest.add(distance);
+            } else if (distance < nearest.peek()) {
+                nearest.poll();
+                nearest.add(distance);
+            }
+        }
+
+        // by the triangle inequality, a subtree can only contain neighbours
+        // closer than the current k-th one if its distance range allows it
+        if (distance < node.threshold) {
+            if (distance - node.threshold <= radius(nearest, k)) {
+                search(node.inside, item, vector, k, nearest);
+            }
+            if (node.threshold - distance <= radius(nearest, k)) {
+                search(node.outside, item, vector, k, nearest);
+            }
+        } else {
+            if (node.threshold - distance <= radius(nearest, k)) {
+                search(node.outside, item, vector, k, nearest);
+            }
+            if (distance - node.threshold <= radius(nearest, k)) {
+                search(node.inside, item, vector, k, nearest);
+            }
+        }
+    }
+
+    private static double radius(PriorityQueue<Double> nearest, int k) {
+        return nearest.size() < k ? Double.POSITIVE_INFINITY : nearest.peek();
+    }
+}
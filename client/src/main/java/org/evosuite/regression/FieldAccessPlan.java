@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.regression;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fields of a class and of its superclasses (up to, but excluding,
+ * {@link Object}), each with a {@link MethodHandle} to read it. The plan is
+ * computed once per class, so that comparing object states does not call
+ * {@link Class#getDeclaredFields()} on every ancestor for each object.
+ */
+final class FieldAccessPlan {
+
+  private static final Logger logger = LoggerFactory.getLogger(FieldAccessPlan.class);
+
+  /**
+   * Using a ClassValue does not prevent the classes of the SUT from being
+   * unloaded together with their class loader
+   */
+  private static final ClassValue<FieldAccessPlan> plans = new ClassValue<FieldAccessPlan>() {
+    @Override
+    protected FieldAccessPlan computeValue(Class<?> type) {
+      return new FieldAccessPlan(type);
+    }
+  };
+
+  /**
+   * Reads a field with the same semantics as {@link Field#get(Object)}
+   */
+  static final class FieldAccessor {
+
+    private final Field field;
+
+    /**
+     * (Object)Object getter of an instance field, or null if the field is
+     * read with reflection
+     */
+    private final MethodHandle getter;
+
+    private FieldAccessor(Field field) {
+      this.field = field;
+      this.getter = createGetter(field);
+    }
+
+    private static MethodHandle createGetter(Field field) {
+      // static fields are read with reflection, which initializes their class the same way
+      if (Modifier.isStatic(field.getModifiers())) {
+        return null;
+      }
+      try {
+        field.setAccessible(true);
+        return MethodHandles.lookup().unreflectGetter(field)
+            .asType(MethodType.methodType(Object.class, Object.class));
+      } catch (IllegalAccessException | RuntimeException e) {
+        logger.debug("Using reflection to read {}: {}", field, e.toString());
+        return null;
+      }
+    }
+
+    Field getField() {
+      return field;
+    }
+
+    /**
+     * @return the value of the field, boxed if it is primitive
+     */
+    Object get(Object target) throws IllegalAccessException {
+      if (getter == null || !field.getDeclaringClass().isInstance(target)) {
+        field.setAccessible(true);
+        return field.get(target);
+      }
+      try {
+        return (Object) getter.invokeExact(target);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        // a field getter does not throw checked exceptions
+        throw new IllegalStateException(t);
+      }
+    }
+  }
+
+  private final List<FieldAccessor> declaredFields;
+
+  private final List<FieldAccessor> allFields;
+
+  private final List<FieldAccessor> mutableInstanceFields;
+
+  private FieldAccessPlan(Class<?> type) {
+    List<FieldAccessor> declared = new ArrayList<>();
+    for (Field field : type.getDeclaredFields()) {
+      declared.add(new FieldAccessor(field));
+    }
+    declaredFields = Collections.unmodifiableList(declared);
+
+    List<FieldAccessor> all = new ArrayList<>();
+    if (!type.equals(Object.class)) {
+      all.addAll(declared);
+      if (type.getSuperclass() != null) {
+        all.addAll(of(type.getSuperclass()).allFields);
+      }
+    }
+    allFields = Collections.unmodifiableList(all);
+
+    List<FieldAccessor> mutable = new ArrayList<>();
+    for (FieldAccessor accessor : all) {
+      int modifiers = accessor.getField().getModifiers();
+      if (!Modifier.isFinal(modifiers) && !Modifier.isStatic(modifiers)) {
+        mutable.add(accessor);
+      }
+    }
+    mutableInstanceFields = Collections.unmodifiableList(mutable);
+  }
+
+  static FieldAccessPlan of(Class<?> type) {
+    return plans.get(type);
+  }
+
+  /**
+   * @return the fields declared by the class itself
+   */
+  List<FieldAccessor> getDeclaredFields() {
+    return declaredFields;
+  }
+
+  /**
+   * @return the fields of the class and of its superclasses except
+   *         {@link Object}, starting with the class itself
+   */
+  List<FieldAccessor> getAllFields() {
+    return allFields;
+  }
+
+  /**
+   * @return the fields of {@link #getAllFields()} that are neither static nor final
+   */
+  List<FieldAccessor> getMutableInstanceFields() {
+    return mutableInstanceFields;
+  }
+}
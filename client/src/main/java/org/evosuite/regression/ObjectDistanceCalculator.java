@@ -19,12 +19,10 @@
  */
 package org.evosuite.regression;
 
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import org.evosuite.regression.FieldAccessPlan.FieldAccessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -71,14 +69,8 @@ public class ObjectDistanceCalculator {
     return calculator.getObjectDistanceImpl(p, q) + normalize(calculator.numDifferentVariables);
   }
 
-  private static Collection<Field> getAllFields(Class<?> commonAncestor) {
-    Collection<Field> result = new ArrayList<>();
-    Class<?> ancestor = commonAncestor;
-    while (!ancestor.equals(Object.class)) {
-      result.addAll(Arrays.asList(ancestor.getDeclaredFields()));
-      ancestor = ancestor.getSuperclass();
-    }
-    return result;
+  private static Collection<FieldAccessor> getAllFields(Class<?> commonAncestor) {
+    return FieldAccessPlan.of(commonAncestor).getAllFields();
   }
 
   private static Class<?> getCommonAncestor(Object p, Object q) {
@@ -115,38 +107,8 @@ public class ObjectDistanceCalculator {
     return 1.0 / (x + 1.0);
   }
 
-  private static Object getFieldValue(Field field, Object p) {
+  private static Object getFieldValue(FieldAccessor field, Object p) {
     try {
-      Class<?> fieldType = field.getType();
-      field.setAccessible(true);
-      if (fieldType.isPrimitive()) {
-        if (fieldType.equals(Boolean.TYPE)) {
-          return field.getBoolean(p);
-        }
-        if (fieldType.equals(Integer.TYPE)) {
-          return field.getInt(p);
-        }
-        if (fieldType.equals(Byte.TYPE)) {
-          return field.getByte(p);
-        }
-        if (fieldType.equals(Short.TYPE)) {
-          return field.getShort(p);
-        }
-        if (fieldType.equals(Long.TYPE)) {
-          return field.getLong(p);
-        }
-        if (fieldType.equals(Double.TYPE)) {
-          return field.getDouble(p);
-        }
-        if (fieldType.equals(Float.TYPE)) {
-          return field.getFloat(p);
-        }
-        if (fieldType.equals(Character.TYPE)) {
-          return field.getChar(p);
-        }
-        throw new UnsupportedOperationException(
-            "Primitive type " + fieldType + " not implemented!");
-      }
       return field.get(p);
     } catch (IllegalAccessException exc) {
       throw new RuntimeException(exc);
@@ -157,11 +119,11 @@ public class ObjectDistanceCalculator {
     return ((p == null) ? 0 : p.hashCode()) + ((q == null) ? 0 : q.hashCode());
   }
 
-  private static Collection<Field> getNonSharedFields(Class<?> commonAncestor, Object p) {
-    Collection<Field> result = new ArrayList<>();
+  private static int getNonSharedFields(Class<?> commonAncestor, Object p) {
+    int result = 0;
     Class<?> ancestor = p.getClass();
     while (!ancestor.equals(commonAncestor)) {
-      result.addAll(Arrays.asList(ancestor.getDeclaredFields()));
+      result += FieldAccessPlan.of(ancestor).getDeclaredFields().size();
       ancestor = ancestor.getSuperclass();
     }
     return result;
@@ -179,8 +141,8 @@ public class ObjectDistanceCalculator {
 
   private static double getTypeDistance(Class<?> commonAncestor, Object p, Object q) {
     double result = getTypeDistance(commonAncestor, p) + getTypeDistance(commonAncestor, q);
-    result += getNonSharedFields(commonAncestor, p).size() * R;
-    result += getNonSharedFields(commonAncestor, q).size() * R;
+    result += getNonSharedFields(commonAncestor, p) * R;
+    result += getNonSharedFields(commonAncestor, q) * R;
     return result;
   }
 
@@ -471,9 +433,9 @@ public class ObjectDistanceCalculator {
   }
 
   private double getFieldDistance(Class<?> commonAncestor, Object p, Object q) {
-    Collection<Field> fields = getAllFields(commonAncestor);
+    Collection<FieldAccessor> fields = getAllFields(commonAncestor);
     double sum = 0;
-    for (Field field : fields) {
+    for (FieldAccessor field : fields) {
       sum += getObjectDistanceImpl(getFieldValue(field, p), getFieldValue(field, q));
     }
     if (sum == 0.0) {
@@ -20,6 +20,7 @@
 package org.evosuite.regression;
 
 import org.apache.commons.lang3.ClassUtils;
+import org.evosuite.regression.FieldAccessPlan.FieldAccessor;
 import org.evosuite.testcase.execution.Scope;
 import org.evosuite.testcase.variable.VariableReference;
 import org.evosuite.utils.generic.GenericClass;
@@ -28,9 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -103,23 +102,8 @@ public class ObjectFields {
         return vars;
     }
 
-    private static Collection<Field> getAllFields(Class<?> commonAncestor) {
-        Collection<Field> result = new ArrayList<Field>();
-        Class<?> ancestor = commonAncestor;
-
-        while (!ancestor.equals(Object.class)) {
-            for (Field f : ancestor.getDeclaredFields()) {
-                if (Modifier.isFinal(f.getModifiers()))
-                    continue;
-                if (Modifier.isStatic(f.getModifiers()))
-                    continue;
-                result.add(f);
-            }
-
-            // result.addAll(Arrays.asList(ancestor.getDeclaredFields()));
-            ancestor = ancestor.getSuperclass();
-        }
-        return result;
+    private static Collection<FieldAccessor> getAllFields(Class<?> commonAncestor) {
+        return FieldAccessPlan.of(commonAncestor).getMutableInstanceFields();
     }
 
 	/*
@@ -153,42 +137,8 @@ public class ObjectFields {
         return p;
     }
 
-    private static Object getFieldValue(Field field, Object p) {
+    private static Object getFieldValue(FieldAccessor field, Object p) {
         try {
-			/*Class objClass = p.getClass();
-			if(p instanceof java.lang.String){
-				((String) p).hashCode();
-			}*/
-            Class<?> fieldType = field.getType();
-            field.setAccessible(true);
-            if (fieldType.isPrimitive()) {
-                if (fieldType.equals(Boolean.TYPE)) {
-                    return field.getBoolean(p);
-                }
-                if (fieldType.equals(Integer.TYPE)) {
-                    return field.getInt(p);
-                }
-                if (fieldType.equals(Byte.TYPE)) {
-                    return field.getByte(p);
-                }
-                if (fieldType.equals(Short.TYPE)) {
-                    return field.getShort(p);
-                }
-                if (fieldType.equals(Long.TYPE)) {
-                    return field.getLong(p);
-                }
-                if (fieldType.equals(Double.TYPE)) {
-                    return field.getDouble(p);
-                }
-                if (fieldType.equals(Float.TYPE)) {
-                    return field.getFloat(p);
-                }
-                if (fieldType.equals(Character.TYPE)) {
-                    return field.getChar(p);
-                }
-                throw new UnsupportedOperationException("Primitive type "
-                        + fieldType + " not implemented!");
-            }
             return field.get(p);
         } catch (IllegalAccessException exc) {
             throw new RuntimeException(exc);
@@ -206,12 +156,11 @@ public class ObjectFields {
      * private static Integer getHasCode(Object p) { return ((p == null) ? 0 :
      * p.hashCode()) ; }
      */
-    private static Collection<Field> getNonSharedFields(
-            Class<?> commonAncestor, Object p) {
-        Collection<Field> result = new ArrayList<Field>();
+    private static int getNonSharedFields(Class<?> commonAncestor, Object p) {
+        int result = 0;
         Class<?> ancestor = p.getClass();
         while (!ancestor.equals(commonAncestor)) {
-            result.addAll(Arrays.asList(ancestor.getDeclaredFields()));
+            result += FieldAccessPlan.of(ancestor).getDeclaredFields().size();
             ancestor = ancestor.getSuperclass();
         }
         return result;
@@ -231,8 +180,8 @@ public class ObjectFields {
                                           Object q) {
         double result = getTypeDistance(commonAncestor, p)
                 + getTypeDistance(commonAncestor, q);
-        result += getNonSharedFields(commonAncestor, p).size() * R;
-        result += getNonSharedFields(commonAncestor, q).size() * R;
+        result += getNonSharedFields(commonAncestor, p) * R;
+        result += getNonSharedFields(commonAncestor, q) * R;
         return result;
     }
 
@@ -433,9 +382,10 @@ public class ObjectFields {
         if (p == null)
             return values;
 
-        Collection<Field> fields = getAllFields(p.getClass());
+        Collection<FieldAccessor> fields = getAllFields(p.getClass());
 
-        for (Field field : fields) {
+        for (FieldAccessor accessor : fields) {
+            Field field = accessor.getField();
             // String what_happened = "";
 
             GenericClass gc = new GenericClass(field.getType());
@@ -446,12 +396,12 @@ public class ObjectFields {
                 if (field.getName().equals("serialVersionUID"))
                     continue;
                 values.put(prefix + field.getName(),
-                        getObjectValue(getFieldValue(field, p)));
+                        getObjectValue(getFieldValue(accessor, p)));
 
             } else if (field.getType().equals(Object.class)
                     || counter >= MAX_RECURSION) {
                 values.put(prefix + field.getName(),
-                        (getObjectValue(getFieldValue(field, p)) != null));
+                        (getObjectValue(getFieldValue(accessor, p)) != null));
                 // what_happened += ", " + field.getType() + ",reached end,";
             } else if (field.getType().isArray()) {
 				/*
@@ -464,7 +414,7 @@ public class ObjectFields {
 				 * 1,prefix + ((prefix.equals(""))?"":".")+field.getName())); }
 				 */
 
-                Object arr = getFieldValue(field, p);
+                Object arr = getFieldValue(accessor, p);
                 if (arr == null)
                     return values;
 
@@ -480,13 +430,11 @@ public class ObjectFields {
 
             } else {
                 try {
-                    field.setAccessible(true);
-
                     // values.putAll(getAllVars(field.get(p), counter + 1,prefix
                     // + ((prefix.isEmpty())?"":".")+field.getName()));
                     values.put(
                             prefix + field.getName(),
-                            getAllVars(field.get(p), counter + 1,
+                            getAllVars(accessor.get(p), counter + 1,
                                     prefix + ((prefix.isEmpty()) ? "" : ".")
                                             + field.getName()));
 
@@ -523,12 +471,12 @@ public class ObjectFields {
         int i = 0;
         List<Object> values = new ArrayList<Object>();
         while (!fieldValue.getClass().isPrimitive() && i < 10) {
-            Collection<Field> fields = getAllFields(fieldValue.getClass());
-            for (Field field : fields) {
+            Collection<FieldAccessor> fields = getAllFields(fieldValue.getClass());
+            for (FieldAccessor field : fields) {
                 if (fieldValue.getClass().isPrimitive())
                     values.add(getObjectValue(getFieldValue(field, fieldValue)));
                 else
-                    fieldValue = field;
+                    fieldValue = field.getField();
 
             }
 
@@ -549,9 +497,9 @@ public class ObjectFields {
 
     private List<Map<Integer, Map<String, Object>>> getFieldValues(
             Class<?> commonAncestor, Object p) {
-        Collection<Field> fields = getAllFields(commonAncestor);
+        Collection<FieldAccessor> fields = getAllFields(commonAncestor);
         List<Object> values = new ArrayList<Object>();
-        for (Field field : fields) {
+        for (FieldAccessor field : fields) {
             values.add(getObjectValue(getFieldValue(field, p)));
             int counter = 0;
             if (!p.getClass().isPrimitive()) {
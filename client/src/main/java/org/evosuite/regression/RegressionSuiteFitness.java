@@ -28,6 +28,7 @@ import static org.evosuite.regression.RegressionFitnessHelper.useMeasure;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -38,11 +39,16 @@ import org.evosuite.coverage.branch.Branch;
 import org.evosuite.coverage.branch.BranchCoverageSuiteFitness;
 import org.evosuite.coverage.branch.BranchPool;
 import org.evosuite.testcase.ExecutableChromosome;
+import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionObserver;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.execution.ExecutionTracer;
 import org.evosuite.testcase.execution.MethodCall;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
+import org.evosuite.testcase.execution.Scope;
 import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.statements.Statement;
 import org.evosuite.testsuite.AbstractTestSuiteChromosome;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 
@@ -112,15 +118,10 @@ public class RegressionSuiteFitness extends TestSuiteFitnessFunction {
     diversityMap.clear();
 
     RegressionTestSuiteChromosome suite = (RegressionTestSuiteChromosome) changedSuite;
+    List<RegressionTestChromosome> changedTests = new ArrayList<>();
     for (TestChromosome chromosome : suite.getTestChromosomes()) {
       RegressionTestChromosome c = (RegressionTestChromosome) chromosome;
-
-      observer.enable();
-      observer.resetObjPool();
-      observer.setRegressionFlag(false);
-
       TestChromosome testChromosome = c.getTheTest();
-      TestChromosome otherChromosome = c.getTheSameTestForTheOtherClassLoader();
 
       // Only execute test if it hasn't been changed
       if (testChromosome.isChanged() || testChromosome.getLastExecutionResult() == null) {
@@ -129,35 +130,178 @@ public class RegressionSuiteFitness extends TestSuiteFitnessFunction {
         if (Properties.REGRESSION_DIVERSITY) {
           RegressionFitnessHelper.trackDiversity(c, testChromosome);
         }
+        changedTests.add(c);
+      }
+    }
+
+    if (Properties.REGRESSION_CONCURRENT_EXECUTION && !changedTests.isEmpty()) {
+      changedTests = executeChangedTestsConcurrently(changedTests);
+      if (useMeasure(RegressionMeasure.STATE_DIFFERENCE) && !changedTests.isEmpty()) {
+        TestCaseExecutor.getInstance().addObserver(observer);
+      }
+    }
+
+    for (RegressionTestChromosome c : changedTests) {
+      observer.enable();
+      observer.resetObjPool();
+      observer.setRegressionFlag(false);
+
+      TestChromosome testChromosome = c.getTheTest();
+      TestChromosome otherChromosome = c.getTheSameTestForTheOtherClassLoader();
 
-        ExecutionResult result = TestCaseExecutor.runTest(testChromosome.getTestCase());
+      ExecutionResult result = TestCaseExecutor.runTest(testChromosome.getTestCase());
 
-        observer.setRegressionFlag(true);
-        ExecutionResult otherResult = TestCaseExecutor.runTest(otherChromosome.getTestCase());
-        observer.setRegressionFlag(false);
+      observer.setRegressionFlag(true);
+      ExecutionResult otherResult = TestCaseExecutor.runTest(otherChromosome.getTestCase());
+      observer.setRegressionFlag(false);
+
+      observer.disable();
+
+      double objectDistance = getTestObjectDistance(
+          observer.currentObjectMapPool,
+          observer.currentRegressionObjectMapPool);
+
+      result.regressionObjectDistance = objectDistance;
+      otherResult.regressionObjectDistance = objectDistance;
+
+      testChromosome.setLastExecutionResult(result);
+      testChromosome.setChanged(false);
+
+      otherChromosome.setLastExecutionResult(otherResult);
+      otherChromosome.setChanged(false);
+    }
+
+    if (Properties.REGRESSION_CONCURRENT_EXECUTION) {
+      TestCaseExecutor.getInstance().removeObserver(observer);
+    }
 
-        observer.disable();
+    if (Properties.REGRESSION_DIVERSITY) {
+      for (TestChromosome chromosome : suite.getTestChromosomes()) {
+        measureDiversity((RegressionTestChromosome) chromosome);
+      }
+    }
+  }
+
+  /**
+   * Execute the changed tests and their counterparts for the other class loader as one batch on
+   * the execution lanes of {@link ParallelTestCaseExecutor}, so that both versions of the class
+   * under test run concurrently. The object states are collected by one observer per lane, and
+   * the object distances are computed once the batch is finished.
+   *
+   * @return the tests that still have to be executed sequentially
+   */
+  private List<RegressionTestChromosome> executeChangedTestsConcurrently(
+      List<RegressionTestChromosome> changedTests) {
+    ParallelTestCaseExecutor executor = ParallelTestCaseExecutor.getInstance();
+    // the lanes do not inform the observers of the global executor
+    TestCaseExecutor.getInstance().removeObserver(observer);
+    if (!executor.isParallelExecutionPossible()) {
+      return changedTests;
+    }
 
-        double objectDistance = getTestObjectDistance(
-            observer.currentObjectMapPool,
-            observer.currentRegressionObjectMapPool);
+    boolean stateDifference = useMeasure(RegressionMeasure.STATE_DIFFERENCE);
+    Map<TestCase, List<Map<Integer, Map<String, Map<String, Object>>>>> objectMaps =
+        Collections.synchronizedMap(new IdentityHashMap<>());
 
-        result.regressionObjectDistance = objectDistance;
-        otherResult.regressionObjectDistance = objectDistance;
+    List<TestCase> tests = new ArrayList<>();
+    for (RegressionTestChromosome c : changedTests) {
+      tests.add(c.getTheTest().getTestCase());
+      tests.add(c.getTheSameTestForTheOtherClassLoader().getTestCase());
+    }
 
-        testChromosome.setLastExecutionResult(result);
-        testChromosome.setChanged(false);
+    List<ObjectStateObserver> laneObservers = new ArrayList<>();
+    if (stateDifference) {
+      for (int lane = 0; lane < executor.getNumberOfLanes(); lane++) {
+        ObjectStateObserver laneObserver = new ObjectStateObserver(objectMaps);
+        executor.addObserver(lane, laneObserver);
+        laneObservers.add(laneObserver);
+      }
+    }
 
-        otherChromosome.setLastExecutionResult(otherResult);
-        otherChromosome.setChanged(false);
+    List<ExecutionResult> results;
+    try {
+      results = executor.execute(tests);
+    } finally {
+      for (int lane = 0; lane < laneObservers.size(); lane++) {
+        executor.removeObserver(lane, laneObservers.get(lane));
       }
+    }
+    if (results == null) {
+      return changedTests;
+    }
+
+    List<RegressionTestChromosome> remainingTests = new ArrayList<>();
+    for (int i = 0; i < changedTests.size(); i++) {
+      RegressionTestChromosome c = changedTests.get(i);
+      TestChromosome testChromosome = c.getTheTest();
+      TestChromosome otherChromosome = c.getTheSameTestForTheOtherClassLoader();
 
-      if (Properties.REGRESSION_DIVERSITY) {
-        measureDiversity(c);
+      List<Map<Integer, Map<String, Map<String, Object>>>> objectMap = Collections.emptyList();
+      List<Map<Integer, Map<String, Map<String, Object>>>> otherObjectMap = Collections.emptyList();
+      if (stateDifference) {
+        objectMap = objectMaps.get(testChromosome.getTestCase());
+        otherObjectMap = objectMaps.get(otherChromosome.getTestCase());
+        // the batch was executed sequentially, without the lane observers
+        if (objectMap == null || otherObjectMap == null) {
+          remainingTests.add(c);
+          continue;
+        }
       }
+
+      ExecutionResult result = results.get(2 * i);
+      ExecutionResult otherResult = results.get(2 * i + 1);
+
+      double objectDistance = getTestObjectDistance(objectMap, otherObjectMap);
+
+      result.regressionObjectDistance = objectDistance;
+      otherResult.regressionObjectDistance = objectDistance;
+
+      testChromosome.setLastExecutionResult(result);
+      testChromosome.setChanged(false);
+
+      otherChromosome.setLastExecutionResult(otherResult);
+      otherChromosome.setChanged(false);
+    }
+    return remainingTests;
+  }
+
+  /**
+   * Collects the object states at the end of the tests executed on one execution lane
+   */
+  private static class ObjectStateObserver extends ExecutionObserver {
+
+    private final Map<TestCase, List<Map<Integer, Map<String, Map<String, Object>>>>> objectMaps;
+
+    ObjectStateObserver(
+        Map<TestCase, List<Map<Integer, Map<String, Map<String, Object>>>>> objectMaps) {
+      this.objectMaps = objectMaps;
+    }
+
+    @Override
+    public void testExecutionFinished(ExecutionResult r, Scope scope) {
+      objectMaps.put(r.test,
+          Collections.singletonList(new ObjectFields(scope).getObjectVariables()));
+    }
+
+    @Override
+    public void output(int position, String output) {
+
     }
 
+    @Override
+    public void beforeStatement(Statement statement, Scope scope) {
+
+    }
 
+    @Override
+    public void afterStatement(Statement statement, Scope scope, Throwable exception) {
+
+    }
+
+    @Override
+    public void clear() {
+
+    }
   }
 
   private void measureDiversity(RegressionTestChromosome c) {
@@ -187,7 +331,7 @@ public class RegressionSuiteFitness extends TestSuiteFitnessFunction {
   @Override
   public double getFitness(AbstractTestSuiteChromosome<? extends ExecutableChromosome> individual) {
 
-    if (useMeasure(RegressionMeasure.STATE_DIFFERENCE)) {
+    if (useMeasure(RegressionMeasure.STATE_DIFFERENCE) && !Properties.REGRESSION_CONCURRENT_EXECUTION) {
       TestCaseExecutor.getInstance().addObserver(observer);
       observer.clearPools();
     }
@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.evosuite.TestGenerationContext;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testsuite.TestSuiteChromosome;
+
+/**
+ * Wire format used to exchange individuals between clients (migration and
+ * collection of the best solutions of parallel runs).
+ *
+ * <p>Only the test statements are encoded: fitness values, coverage maps,
+ * mutation history and execution results are not sent, as the receiving
+ * client has to evaluate the individuals against its own fitness functions
+ * anyway. The payload is encoded once on the sending client and then
+ * forwarded as an opaque byte array, so the master never needs to load the
+ * classes of the SUT.
+ */
+public class ChromosomeBatch implements Externalizable {
+
+	private static final long serialVersionUID = 4519936126733213592L;
+
+	private static final byte TEST_CHROMOSOME = 0;
+
+	private static final byte TEST_SUITE_CHROMOSOME = 1;
+
+	private int size;
+
+	private byte[] payload;
+
+	/** Needed by {@link Externalizable} */
+	public ChromosomeBatch() {
+		this(0, new byte[0]);
+	}
+
+	private ChromosomeBatch(int size, byte[] payload) {
+		this.size = size;
+		this.payload = payload;
+	}
+
+	/**
+	 * Encode the test statements of the given individuals. Only
+	 * {@link TestChromosome} and {@link TestSuiteChromosome} are supported.
+	 *
+	 * @param chromosomes
+	 * @return
+	 * @throws IllegalArgumentException if an individual of another type is given
+	 * @throws IOException if a test case cannot be serialized
+	 */
+	public static ChromosomeBatch encode(Set<? extends Chromosome> chromosomes) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			for (Chromosome chromosome : chromosomes) {
+				if (chromosome instanceof TestChromosome) {
+					out.writeByte(TEST_CHROMOSOME);
+					out.writeObject(((TestChromosome) chromosome).getTestCase());
+				} else if (chromosome instanceof TestSuiteChromosome) {
+					TestSuiteChromosome suite = (TestSuiteChromosome) chromosome;
+					out.writeByte(TEST_SUITE_CHROMOSOME);
+					out.writeInt(suite.size());
+					for (TestChromosome test : suite.getTestChromosomes()) {
+						out.writeObject(test.getTestCase());
+					}
+				} else {
+					throw new IllegalArgumentException("Cannot encode individual of type "
+							+ chromosome.getClass().getName());
+				}
+			}
+		}
+		return new ChromosomeBatch(chromosomes.size(), bytes.toByteArray());
+	}
+
+	/**
+	 * Rebuild the individuals of this batch. They are new instances without
+	 * any fitness value, and so need to be evaluated before being used in the
+	 * search.
+	 *
+	 * @return
+	 * @throws IOException if the payload cannot be decoded
+	 */
+	public Set<Chromosome> decode() throws IOException {
+		Set<Chromosome> chromosomes = new LinkedHashSet<Chromosome>(size);
+		try (ObjectInputStream in = new SUTObjectInputStream(new ByteArrayInputStream(payload))) {
+			for (int i = 0; i < size; i++) {
+				byte type = in.readByte();
+				if (type == TEST_CHROMOSOME) {
+					TestChromosome test = new TestChromosome();
+					test.setTestCase((TestCase) in.readObject());
+					chromosomes.add(test);
+				} else if (type == TEST_SUITE_CHROMOSOME) {
+					TestSuiteChromosome suite = new TestSuiteChromosome();
+					int numTests = in.readInt();
+					for (int j = 0; j < numTests; j++) {
+						suite.addTest((TestCase) in.readObject());
+					}
+					chromosomes.add(suite);
+				} else {
+					throw new IOException("Unknown individual type: " + type);
+				}
+			}
+		} catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+		return chromosomes;
+	}
+
+	/**
+	 * @return the number of individuals in this batch
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the number of bytes of the encoded individuals
+	 */
+	public int getPayloadSize() {
+		return payload.length;
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		out.writeInt(size);
+		out.writeInt(payload.length);
+		out.write(payload);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException {
+		size = in.readInt();
+		payload = new byte[in.readInt()];
+		in.readFully(payload);
+	}
+
+	/**
+	 * Values in primitive statements (e.g. enums) can be instances of SUT
+	 * classes, which need to be resolved with the classloader of the SUT
+	 */
+	private static class SUTObjectInputStream extends ObjectInputStream {
+
+		public SUTObjectInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			try {
+				return Class.forName(desc.getName(), false,
+						TestGenerationContext.getInstance().getClassLoaderForSUT());
+			} catch (ClassNotFoundException e) {
+				return super.resolveClass(desc);
+			}
+		}
+	}
+}
@@ -19,6 +19,7 @@
  */
 package org.evosuite.rmi.service;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
 import java.util.ArrayList;
@@ -55,6 +56,8 @@ import org.evosuite.runtime.sandbox.PermissionStatistics;
 import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.setup.DependencyAnalysis;
 import org.evosuite.setup.TestCluster;
+import org.evosuite.statistics.IndividualStatistics;
+import org.evosuite.statistics.IndividualStatisticsBatch;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.utils.Listener;
 import org.evosuite.utils.LoggingUtils;
@@ -214,9 +217,11 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
     @Override
     public void emigrate(Set<? extends Chromosome> immigrants) {
         try {
-            logger.debug(ClientProcess.getPrettyPrintIdentifier() + "Sending " + immigrants.size() + " immigrants");
-            masterNode.evosuite_migrate(clientRmiIdentifier, immigrants);
-        } catch (RemoteException e) {
+            ChromosomeBatch batch = ChromosomeBatch.encode(immigrants);
+            logger.debug(ClientProcess.getPrettyPrintIdentifier() + "Sending " + batch.size() + " immigrants ("
+                    + batch.getPayloadSize() + " bytes)");
+            masterNode.evosuite_migrate(clientRmiIdentifier, batch);
+        } catch (IOException e) {
             logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot send immigrating individuals to master", e);
         }
     }
@@ -225,8 +230,8 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
     public void sendBestSolution(Set<? extends Chromosome> solutions) {
         try {
             logger.debug(ClientProcess.getPrettyPrintIdentifier() + "sending best solutions to " + ClientProcess.DEFAULT_CLIENT_NAME);
-            masterNode.evosuite_collectBestSolutions(clientRmiIdentifier, solutions);
-        } catch (RemoteException e) {
+            masterNode.evosuite_collectBestSolutions(clientRmiIdentifier, ChromosomeBatch.encode(solutions));
+        } catch (IOException e) {
             logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot send best solution to master", e);
         }
     }
@@ -262,11 +267,11 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 	}
 
 	@Override
-	public void updateStatistics(Chromosome individual) {
-		logger.info("Sending current best individual to master process");
+	public void updateStatistics(List<IndividualStatistics> individuals) {
+		logger.info("Sending " + individuals.size() + " best individual(s) to master process");
 
 		try {
-			masterNode.evosuite_collectStatistics(clientRmiIdentifier, individual);
+			masterNode.evosuite_collectStatistics(clientRmiIdentifier, new IndividualStatisticsBatch(individuals));
 		} catch (RemoteException e) {
 			logger.error("Cannot inform master of change of state", e);
 		}
@@ -535,16 +540,29 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 	}
 	
     @Override
-    public void immigrate(Set<? extends Chromosome> migrants) throws RemoteException {
+    public void immigrate(ChromosomeBatch migrants) throws RemoteException {
         logger.debug(ClientProcess.getPrettyPrintIdentifier() + "receiving "
                 + (migrants != null ? migrants.size() : 0) + " immigrants");
-        fireEvent(migrants);
+        if (migrants == null) {
+            return;
+        }
+        try {
+            fireEvent(migrants.decode());
+        } catch (IOException e) {
+            logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot decode immigrating individuals", e);
+        }
     }
 
     @Override
-    public void collectBestSolutions(Set<? extends Chromosome> solutions) throws RemoteException {
-        logger.debug(ClientProcess.getPrettyPrintIdentifier() + "added solution to set");
-        bestSolutions.add(solutions);
+    public void collectBestSolutions(ChromosomeBatch solutions) throws RemoteException {
+        try {
+            bestSolutions.add(solutions.decode());
+            logger.debug(ClientProcess.getPrettyPrintIdentifier() + "added solution to set");
+        } catch (IOException e) {
+            logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot decode best solutions", e);
+            // still count the client, otherwise client 0 would wait for it until the end
+            bestSolutions.add(Collections.<Chromosome> emptySet());
+        }
     }
 
     @Override
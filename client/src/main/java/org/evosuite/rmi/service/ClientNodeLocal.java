@@ -20,6 +20,7 @@
 package org.evosuite.rmi.service;
 
 import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.IndividualStatistics;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.utils.Listenable;
 
@@ -43,7 +44,7 @@ public interface ClientNodeLocal extends Listenable<Set<? extends Chromosome>> {
 
 	public void changeState(ClientState state, ClientStateInformation information);
 
-	public void updateStatistics(Chromosome individual);
+	public void updateStatistics(List<IndividualStatistics> individuals);
 
 	public void flushStatisticsForClassChange();
 
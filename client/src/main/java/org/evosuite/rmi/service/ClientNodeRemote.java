@@ -19,12 +19,9 @@
  */
 package org.evosuite.rmi.service;
 
-import org.evosuite.ga.Chromosome;
-
 import java.rmi.Remote;
 import java.rmi.RemoteException;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Client Node view in the master process.
@@ -55,7 +52,7 @@ public interface ClientNodeRemote extends Remote {
 
 	public void printClassStatistics() throws RemoteException;
 	
-	public void immigrate(Set<? extends Chromosome> migrants) throws RemoteException;
+	public void immigrate(ChromosomeBatch migrants) throws RemoteException;
 
-    public void collectBestSolutions(Set<? extends Chromosome> solutions) throws RemoteException;
+    public void collectBestSolutions(ChromosomeBatch solutions) throws RemoteException;
 }
@@ -21,8 +21,9 @@ package org.evosuite.rmi.service;
 
 import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
+import java.util.List;
 
-import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.IndividualStatistics;
 import org.evosuite.statistics.RuntimeVariable;
 
 public class DummyClientNodeImpl extends ClientNodeImpl {
@@ -56,7 +57,7 @@ public class DummyClientNodeImpl extends ClientNodeImpl {
 	}
 
 	@Override
-	public void updateStatistics(Chromosome individual) {
+	public void updateStatistics(List<IndividualStatistics> individuals) {
 		// TODO Auto-generated method stub
 		
 	}
@@ -22,11 +22,10 @@ package org.evosuite.rmi.service;
 import java.rmi.Remote;
 import java.rmi.RemoteException;
 import java.util.List;
-import java.util.Set;
 
 import org.evosuite.Properties.NoSuchParameterException;
-import org.evosuite.ga.Chromosome;
 import org.evosuite.result.TestGenerationResult;
+import org.evosuite.statistics.IndividualStatisticsBatch;
 import org.evosuite.statistics.RuntimeVariable;
 
 /**
@@ -47,7 +46,7 @@ public interface MasterNodeRemote extends Remote {
 	
 	public void evosuite_informChangeOfStateInClient(String clientRmiIdentifier, ClientState state, ClientStateInformation information) throws RemoteException;
 	
-	public void evosuite_collectStatistics(String clientRmiIdentifier, Chromosome individual) throws RemoteException;
+	public void evosuite_collectStatistics(String clientRmiIdentifier, IndividualStatisticsBatch individuals) throws RemoteException;
 
 	public void evosuite_collectStatistics(String clientRmiIdentifier, RuntimeVariable variable, Object value) throws RemoteException;
 
@@ -57,7 +56,7 @@ public interface MasterNodeRemote extends Remote {
 
 	public void evosuite_updateProperty(String clientRmiIdentifier, String propertyName, Object value) throws RemoteException, IllegalArgumentException, IllegalAccessException, NoSuchParameterException;
 	
-	public void evosuite_migrate(String clientRmiIdentifier, Set<? extends Chromosome> migrants) throws RemoteException;
+	public void evosuite_migrate(String clientRmiIdentifier, ChromosomeBatch migrants) throws RemoteException;
 
-    public void evosuite_collectBestSolutions(String clientRmiIdentifier, Set<? extends Chromosome> solutions) throws RemoteException;
+    public void evosuite_collectBestSolutions(String clientRmiIdentifier, ChromosomeBatch solutions) throws RemoteException;
 }
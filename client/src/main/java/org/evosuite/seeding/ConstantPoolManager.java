@@ -22,6 +22,10 @@
  */
 package org.evosuite.seeding;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.evosuite.Properties;
 import org.evosuite.utils.Randomness;
 
@@ -42,6 +46,12 @@ public class ConstantPoolManager {
 	 */
 	private static final int DYNAMIC_POOL_INDEX = 2;
 
+	/**
+	 * Non-SUT constants added by the current thread since
+	 * {@link #startRecordingNonSUTConstants()}, if recording
+	 */
+	private final ThreadLocal<List<Object>> recordedNonSUTConstants = new ThreadLocal<>();
+
 	private ConstantPoolManager() {
 		init();
 	}
@@ -96,6 +106,29 @@ public class ConstantPoolManager {
 
 	public void addNonSUTConstant(Object value) {
 		pools[1].add(value);
+		List<Object> recorded = recordedNonSUTConstants.get();
+		if (recorded != null && value != null) {
+			recorded.add(value);
+		}
+	}
+
+	/**
+	 * Keep track of the non-SUT constants added by the current thread, e.g.
+	 * to be able to add them again when the instrumentation of a class is
+	 * taken from a cache
+	 */
+	public void startRecordingNonSUTConstants() {
+		recordedNonSUTConstants.set(new ArrayList<>());
+	}
+
+	/**
+	 * @return the non-SUT constants added by the current thread since
+	 *         {@link #startRecordingNonSUTConstants()}
+	 */
+	public List<Object> stopRecordingNonSUTConstants() {
+		List<Object> recorded = recordedNonSUTConstants.get();
+		recordedNonSUTConstants.remove();
+		return recorded == null ? Collections.emptyList() : recorded;
 	}
 
 	public void addDynamicConstant(Object value) {
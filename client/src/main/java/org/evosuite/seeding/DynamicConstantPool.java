@@ -22,9 +22,13 @@
  */
 package org.evosuite.seeding;
 
+import java.util.Arrays;
+
 import org.evosuite.Properties;
 import org.evosuite.utils.DefaultRandomAccessQueue;
+import org.evosuite.utils.RandomAccessLongSet;
 import org.evosuite.utils.RandomAccessQueue;
+import org.evosuite.utils.Randomness;
 import org.objectweb.asm.Type;
 
 /**
@@ -37,13 +41,17 @@ public class DynamicConstantPool implements ConstantPool {
 
 	private final RandomAccessQueue<Type> typePool = new DefaultRandomAccessQueue<Type>();
 
-	private final RandomAccessQueue<Integer> intPool = new DefaultRandomAccessQueue<Integer>();
+	/*
+	 * Numeric constants are stored unboxed; floats and doubles by their bit
+	 * patterns, see StaticConstantPool
+	 */
+	private final RandomAccessLongSet intPool = new RandomAccessLongSet();
 
-	private final RandomAccessQueue<Double> doublePool = new DefaultRandomAccessQueue<Double>();
+	private final RandomAccessLongSet doublePool = new RandomAccessLongSet();
 
-	private final RandomAccessQueue<Long> longPool = new DefaultRandomAccessQueue<Long>();
+	private final RandomAccessLongSet longPool = new RandomAccessLongSet();
 
-	private final RandomAccessQueue<Float> floatPool = new DefaultRandomAccessQueue<Float>();
+	private final RandomAccessLongSet floatPool = new RandomAccessLongSet();
 
 	public DynamicConstantPool() {
 		/*
@@ -55,10 +63,10 @@ public class DynamicConstantPool implements ConstantPool {
 		} else {
 			typePool.restrictedAdd(Type.getType(Object.class));
 		}
-		intPool.restrictedAdd(0);
-		longPool.restrictedAdd(0L);
-		floatPool.restrictedAdd(0.0f);
-		doublePool.restrictedAdd(0.0);
+		restrictedAdd(intPool, 0);
+		restrictedAdd(longPool, 0L);
+		restrictedAdd(floatPool, Float.floatToIntBits(0.0f));
+		restrictedAdd(doublePool, Double.doubleToLongBits(0.0));
 	}
 
 	/* (non-Javadoc)
@@ -79,7 +87,7 @@ public class DynamicConstantPool implements ConstantPool {
 	 */
 	@Override
 	public int getRandomInt() {
-		return intPool.getRandomValue();
+		return (int) Randomness.choice(intPool);
 	}
 
 	/* (non-Javadoc)
@@ -87,7 +95,7 @@ public class DynamicConstantPool implements ConstantPool {
 	 */
 	@Override
 	public float getRandomFloat() {
-		return floatPool.getRandomValue();
+		return Float.intBitsToFloat((int) Randomness.choice(floatPool));
 	}
 
 	/* (non-Javadoc)
@@ -95,7 +103,7 @@ public class DynamicConstantPool implements ConstantPool {
 	 */
 	@Override
 	public double getRandomDouble() {
-		return doublePool.getRandomValue();
+		return Double.longBitsToDouble(Randomness.choice(doublePool));
 	}
 
 	/* (non-Javadoc)
@@ -103,7 +111,7 @@ public class DynamicConstantPool implements ConstantPool {
 	 */
 	@Override
 	public long getRandomLong() {
-		return longPool.getRandomValue();
+		return Randomness.choice(longPool);
 	}
 
 	/* (non-Javadoc)
@@ -132,41 +140,71 @@ public class DynamicConstantPool implements ConstantPool {
 			if (Properties.RESTRICT_POOL) {
 				int val = (Integer) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					intPool.restrictedAdd((Integer) object);
+					restrictedAdd(intPool, (Integer) object);
 				}
 			} else {
-				intPool.restrictedAdd((Integer) object);
+				restrictedAdd(intPool, (Integer) object);
 			}
 		} else if (object instanceof Long) {
 			if (Properties.RESTRICT_POOL) {
 				long val = (Long) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					longPool.restrictedAdd((Long) object);
+					restrictedAdd(longPool, (Long) object);
 				}
 			} else {
-				longPool.restrictedAdd((Long) object);
+				restrictedAdd(longPool, (Long) object);
 			}
 		} else if (object instanceof Float) {
 			if (Properties.RESTRICT_POOL) {
 				float val = (Float) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					floatPool.restrictedAdd((Float) object);
+					restrictedAdd(floatPool, Float.floatToIntBits((Float) object));
 				}
 			} else {
-				floatPool.restrictedAdd((Float) object);
+				restrictedAdd(floatPool, Float.floatToIntBits((Float) object));
 			}
 		} else if (object instanceof Double) {
 			if (Properties.RESTRICT_POOL) {
 				double val = (Double) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					doublePool.restrictedAdd((Double) object);
+					restrictedAdd(doublePool, Double.doubleToLongBits((Double) object));
 				}
 			} else {
-				doublePool.restrictedAdd((Double) object);
+				restrictedAdd(doublePool, Double.doubleToLongBits((Double) object));
+			}
+		}
+	}
+
+	/**
+	 * Adds a value to a numeric pool, evicting the oldest value if the pool
+	 * exceeds the maximum dynamic pool size
+	 */
+	private static void restrictedAdd(RandomAccessLongSet pool, long value) {
+		synchronized (pool) {
+			if (pool.add(value) && pool.size() > Properties.DYNAMIC_POOL_SIZE) {
+				pool.removeFirst();
 			}
 		}
 	}
 
+	private static String floatsToString(RandomAccessLongSet pool) {
+		long[] bits = pool.toArray();
+		float[] values = new float[bits.length];
+		for (int i = 0; i < bits.length; i++) {
+			values[i] = Float.intBitsToFloat((int) bits[i]);
+		}
+		return Arrays.toString(values);
+	}
+
+	private static String doublesToString(RandomAccessLongSet pool) {
+		long[] bits = pool.toArray();
+		double[] values = new double[bits.length];
+		for (int i = 0; i < bits.length; i++) {
+			values[i] = Double.longBitsToDouble(bits[i]);
+		}
+		return Arrays.toString(values);
+	}
+
 	@Override
 	public String toString() {
 		String res = "DynamicConstantPool:{";
@@ -174,8 +212,8 @@ public class DynamicConstantPool implements ConstantPool {
 		res += "typePool=" + typePool.toString() + " ; ";
 		res += "intPool=" + intPool.toString() + " ; ";
 		res += "longPool=" + longPool.toString() + " ; ";
-		res += "floatPool=" + floatPool.toString() + " ; ";
-		res += "doublePool=" + doublePool.toString() + "}";	
+		res += "floatPool=" + floatsToString(floatPool) + " ; ";
+		res += "doublePool=" + doublesToString(doublePool) + "}";	
 		return res;
 	}
 
@@ -22,12 +22,10 @@
  */
 package org.evosuite.seeding;
 
-import java.util.Collections;
-import java.util.LinkedHashSet;
-import java.util.Set;
-
 import org.evosuite.Properties;
 import org.evosuite.utils.LoggingUtils;
+import org.evosuite.utils.RandomAccessLongSet;
+import org.evosuite.utils.RandomAccessSet;
 import org.evosuite.utils.Randomness;
 import org.objectweb.asm.Type;
 
@@ -37,17 +35,21 @@ import org.objectweb.asm.Type;
  */
 public class StaticConstantPool implements ConstantPool {
 
-	private final Set<String> stringPool = Collections.synchronizedSet(new LinkedHashSet<String>());
+	private final RandomAccessSet<String> stringPool = new RandomAccessSet<String>();
 
-	private final Set<Type> typePool = Collections.synchronizedSet(new LinkedHashSet<Type>());
+	private final RandomAccessSet<Type> typePool = new RandomAccessSet<Type>();
 
-	private final Set<Integer> intPool = Collections.synchronizedSet(new LinkedHashSet<Integer>());
+	/*
+	 * Numeric constants are stored unboxed. Floats and doubles are stored by
+	 * their bit patterns, which is also how Float and Double define equality.
+	 */
+	private final RandomAccessLongSet intPool = new RandomAccessLongSet();
 
-	private final Set<Double> doublePool = Collections.synchronizedSet(new LinkedHashSet<Double>());
+	private final RandomAccessLongSet doublePool = new RandomAccessLongSet();
 
-	private final Set<Long> longPool = Collections.synchronizedSet(new LinkedHashSet<Long>());
+	private final RandomAccessLongSet longPool = new RandomAccessLongSet();
 
-	private final Set<Float> floatPool = Collections.synchronizedSet(new LinkedHashSet<Float>());
+	private final RandomAccessLongSet floatPool = new RandomAccessLongSet();
 
 	public StaticConstantPool() {
 		/*
@@ -70,13 +72,13 @@ public class StaticConstantPool implements ConstantPool {
 		longPool.add(1L);
 		longPool.add(-1L);
 
-		floatPool.add(0.0f);
-		floatPool.add(1.0f);
-		floatPool.add(-1.0f);
+		addFloat(0.0f);
+		addFloat(1.0f);
+		addFloat(-1.0f);
 
-		doublePool.add(0.0);
-		doublePool.add(1.0);
-		doublePool.add(-1.0);
+		addDouble(0.0);
+		addDouble(1.0);
+		addDouble(-1.0);
 	}
 
 	/**
@@ -105,7 +107,7 @@ public class StaticConstantPool implements ConstantPool {
 	 */
 	@Override
 	public int getRandomInt() {
-		int r = Randomness.choice(intPool);
+		int r = (int) Randomness.choice(intPool);
 		return r;
 	}
 
@@ -118,7 +120,7 @@ public class StaticConstantPool implements ConstantPool {
 	 */
 	@Override
 	public float getRandomFloat() {
-		return Randomness.choice(floatPool);
+		return Float.intBitsToFloat((int) Randomness.choice(floatPool));
 	}
 
 	/**
@@ -130,7 +132,7 @@ public class StaticConstantPool implements ConstantPool {
 	 */
 	@Override
 	public double getRandomDouble() {
-		return Randomness.choice(doublePool);
+		return Double.longBitsToDouble(Randomness.choice(doublePool));
 	}
 
 	/**
@@ -197,19 +199,19 @@ public class StaticConstantPool implements ConstantPool {
 			if (Properties.RESTRICT_POOL) {
 				float val = (Float) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					floatPool.add((Float) object);
+					addFloat((Float) object);
 				}
 			} else {
-				floatPool.add((Float) object);
+				addFloat((Float) object);
 			}
 		} else if (object instanceof Double) {
 			if (Properties.RESTRICT_POOL) {
 				double val = (Double) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					doublePool.add((Double) object);
+					addDouble((Double) object);
 				}
 			} else {
-				doublePool.add((Double) object);
+				addDouble((Double) object);
 			}
 		} else {
 			LoggingUtils.getEvoLogger().info("Constant of unknown type: "
@@ -217,4 +219,12 @@ public class StaticConstantPool implements ConstantPool {
 		}
 	}
 
+	private void addFloat(float value) {
+		floatPool.add(Float.floatToIntBits(value));
+	}
+
+	private void addDouble(double value) {
+		doublePool.add(Double.doubleToLongBits(value));
+	}
+
 }
@@ -34,15 +34,17 @@ import org.evosuite.ClientProcess;
 import org.evosuite.PackageInfo;
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathIndex;
+import org.evosuite.classpath.ClassPathIndex.ClassMetadata;
 import org.evosuite.classpath.ResourceList;
 import org.evosuite.rmi.ClientServices;
+import org.evosuite.runtime.util.TypeHierarchyCache;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.utils.LoggingUtils;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.InnerClassNode;
-import org.objectweb.asm.tree.MethodNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -97,8 +99,16 @@ public class InheritanceTreeGenerator {
 
 			logger.debug("Analyzing classpath entry {}", classPathEntry);
 			LoggingUtils.getEvoLogger().info("  - " + classPathEntry);
+			// unchanged jars do not need to be parsed again if they are in the index
+			ClassPathIndex.JarIndex index = classPathEntry.endsWith(".jar") ?
+					ClassPathIndex.getInstance().getJarIndex(classPathEntry) : null;
 	        for(String className : ResourceList.getInstance(
 					TestGenerationContext.getInstance().getClassLoaderForSUT()).getAllClasses(classPathEntry, "", true, false)) {
+	        	ClassMetadata metadata = index == null ? null : index.getClassMetadata(className);
+	        	if (metadata != null) {
+	        		analyzeClass(inheritanceTree, metadata, false);
+	        		continue;
+	        	}
 	        	// handle individual class
 				analyzeClassStream(inheritanceTree, ResourceList.getInstance(
 						TestGenerationContext.getInstance().getClassLoaderForSUT()).getClassAsStream(className), false);
@@ -253,9 +263,13 @@ public class InheritanceTreeGenerator {
 		}
 	}
 	
-	@SuppressWarnings("unchecked")
 	private static void analyzeClassNode(InheritanceTree inheritanceTree,
 	        ClassNode cn, boolean onlyPublic) {
+		analyzeClass(inheritanceTree, ClassMetadata.fromClassNode(cn), onlyPublic);
+	}
+
+	private static void analyzeClass(InheritanceTree inheritanceTree,
+	        ClassMetadata cn, boolean onlyPublic) {
 		
 		logger.info("Analyzing class {}", cn.name);
 		
@@ -263,11 +277,15 @@ public class InheritanceTreeGenerator {
 		if(inheritanceTree.hasClass(cn.name))
 			return;
 
+		// frame computation during instrumentation needs the same hierarchy,
+		// so it does not have to parse the bytecode of these classes again
+		TypeHierarchyCache.getInstance().register(cn.name, cn.access, cn.superName,
+				cn.interfaces.toArray(new String[0]));
+
 		if ((Opcodes.ACC_INTERFACE & cn.access) != Opcodes.ACC_INTERFACE) {
-			for (Object m : cn.methods) {
-				MethodNode mn = (MethodNode) m;
+			for (int i = 0; i < cn.methodNames.size(); i++) {
 				inheritanceTree
-				.addAnalyzedMethod(cn.name, mn.name, mn.desc);
+				.addAnalyzedMethod(cn.name, cn.methodNames.get(i), cn.methodDescriptors.get(i));
 			}
 			if ((Opcodes.ACC_ABSTRACT & cn.access) == Opcodes.ACC_ABSTRACT) {
 				inheritanceTree.registerAbstractClass(cn.name);
@@ -289,8 +307,7 @@ public class InheritanceTreeGenerator {
 		if (cn.superName != null)
 			inheritanceTree.addSuperclass(cn.name, cn.superName, cn.access);
 
-		List<String> interfaces = cn.interfaces;
-		for (String interfaceName : interfaces) {
+		for (String interfaceName : cn.interfaces) {
 			inheritanceTree.addInterface(cn.name, interfaceName);
 		}
 	}
@@ -19,7 +19,6 @@
  */
 package org.evosuite.statistics;
 
-import org.evosuite.testsuite.TestSuiteChromosome;
 
 /**
  * Sequence output variable whose value can be set directly,
@@ -36,7 +35,7 @@ public abstract class DirectSequenceOutputVariableFactory<T extends Number> exte
     }
 
     @Override
-    public T getValue(TestSuiteChromosome individual) {
+    public T getValue(IndividualStatistics individual) {
         return this.value;
     }
 
@@ -0,0 +1,237 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.StatisticsBackend;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testsuite.TestSuiteChromosome;
+
+/**
+ * Snapshot of the values of a test suite that are needed to compute the
+ * output variables on the master process. Snapshots are taken on the client
+ * when an individual is reported, so that only scalars (and, for the HTML
+ * backend, the test code) have to be sent through RMI instead of the whole
+ * chromosome.
+ */
+public class IndividualStatistics {
+
+	private final long timestamp;
+
+	private final int size;
+
+	private final int length;
+
+	private final int age;
+
+	private final int numOfNotCoveredGoals;
+
+	private final double fitness;
+
+	private final double coverage;
+
+	/** Class names of the fitness functions, in the order of the chromosome */
+	private final String[] fitnessFunctions;
+
+	private final double[] fitnessValues;
+
+	private final String[] coverageFunctions;
+
+	private final double[] coverageValues;
+
+	/** Source code of the tests, or <code>null</code> if it was not captured */
+	private final List<String> testCode;
+
+	IndividualStatistics(long timestamp, int size, int length, int age, int numOfNotCoveredGoals,
+			double fitness, double coverage, String[] fitnessFunctions, double[] fitnessValues,
+			String[] coverageFunctions, double[] coverageValues, List<String> testCode) {
+		this.timestamp = timestamp;
+		this.size = size;
+		this.length = length;
+		this.age = age;
+		this.numOfNotCoveredGoals = numOfNotCoveredGoals;
+		this.fitness = fitness;
+		this.coverage = coverage;
+		this.fitnessFunctions = fitnessFunctions;
+		this.fitnessValues = fitnessValues;
+		this.coverageFunctions = coverageFunctions;
+		this.coverageValues = coverageValues;
+		this.testCode = testCode;
+	}
+
+	/**
+	 * Take a snapshot of the given test suite. The source code of the tests is
+	 * only included if the HTML statistics backend is used, as it is the only
+	 * one that prints it.
+	 *
+	 * @param suite
+	 * @return
+	 */
+	public static IndividualStatistics of(TestSuiteChromosome suite) {
+		return of(suite, Properties.STATISTICS_BACKEND == StatisticsBackend.HTML);
+	}
+
+	public static IndividualStatistics of(TestSuiteChromosome suite, boolean includeTestCode) {
+		Map<FitnessFunction<?>, Double> fitnesses = suite.getFitnessValues();
+		String[] fitnessFunctions = new String[fitnesses.size()];
+		double[] fitnessValues = new double[fitnesses.size()];
+		int i = 0;
+		for (Map.Entry<FitnessFunction<?>, Double> entry : fitnesses.entrySet()) {
+			fitnessFunctions[i] = entry.getKey().getClass().getName();
+			fitnessValues[i] = entry.getValue();
+			i++;
+		}
+
+		Map<FitnessFunction<?>, Double> coverages = suite.getCoverageValues();
+		String[] coverageFunctions = new String[coverages.size()];
+		double[] coverageValues = new double[coverages.size()];
+		i = 0;
+		for (Map.Entry<FitnessFunction<?>, Double> entry : coverages.entrySet()) {
+			coverageFunctions[i] = entry.getKey().getClass().getName();
+			coverageValues[i] = entry.getValue();
+			i++;
+		}
+
+		List<String> testCode = null;
+		if (includeTestCode) {
+			testCode = new ArrayList<String>(suite.size());
+			for (TestChromosome testChromosome : suite.getTestChromosomes()) {
+				TestCase test = testChromosome.getTestCase();
+				if (testChromosome.getLastExecutionResult() != null) {
+					testCode.add(test.toCode(testChromosome.getLastExecutionResult().exposeExceptionMapping()));
+				} else {
+					testCode.add(test.toCode());
+				}
+			}
+		}
+
+		return new IndividualStatistics(System.currentTimeMillis(), suite.size(),
+				suite.totalLengthOfTestCases(), suite.getAge(), suite.getNumOfNotCoveredGoals(),
+				suite.getFitness(), suite.getCoverage(), fitnessFunctions, fitnessValues,
+				coverageFunctions, coverageValues, testCode);
+	}
+
+	/**
+	 * @return the time (in milliseconds) at which the snapshot was taken
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int totalLengthOfTestCases() {
+		return length;
+	}
+
+	public int getAge() {
+		return age;
+	}
+
+	public int getNumOfNotCoveredGoals() {
+		return numOfNotCoveredGoals;
+	}
+
+	public double getFitness() {
+		return fitness;
+	}
+
+	public double getCoverage() {
+		return coverage;
+	}
+
+	/**
+	 * Fitness value of the first fitness function that is an instance of the
+	 * given class, or 0.0 if there is none, as in
+	 * {@link org.evosuite.ga.Chromosome#getFitnessInstanceOf(Class)}
+	 */
+	public double getFitnessInstanceOf(Class<?> clazz) {
+		return getValueInstanceOf(clazz, fitnessFunctions, fitnessValues);
+	}
+
+	/**
+	 * Coverage value of the first fitness function that is an instance of the
+	 * given class, or 0.0 if there is none, as in
+	 * {@link org.evosuite.ga.Chromosome#getCoverageInstanceOf(Class)}
+	 */
+	public double getCoverageInstanceOf(Class<?> clazz) {
+		return getValueInstanceOf(clazz, coverageFunctions, coverageValues);
+	}
+
+	public boolean hasTestCode() {
+		return testCode != null;
+	}
+
+	/**
+	 * @return the source code of each test in the suite, or an empty list if
+	 *         it was not captured
+	 */
+	public List<String> getTestCode() {
+		if (testCode == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(testCode);
+	}
+
+	String[] getFitnessFunctions() {
+		return fitnessFunctions;
+	}
+
+	double[] getFitnessValues() {
+		return fitnessValues;
+	}
+
+	String[] getCoverageFunctions() {
+		return coverageFunctions;
+	}
+
+	double[] getCoverageValues() {
+		return coverageValues;
+	}
+
+	private static double getValueInstanceOf(Class<?> clazz, String[] functions, double[] values) {
+		for (int i = 0; i < functions.length; i++) {
+			if (isInstance(clazz, functions[i])) {
+				return values[i];
+			}
+		}
+		return 0.0;
+	}
+
+	private static boolean isInstance(Class<?> clazz, String className) {
+		if (clazz.getName().equals(className)) {
+			return true;
+		}
+		try {
+			return clazz.isAssignableFrom(Class.forName(className, false, clazz.getClassLoader()));
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+}
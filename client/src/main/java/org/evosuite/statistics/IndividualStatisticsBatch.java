@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wire format used to send {@link IndividualStatistics} snapshots from a
+ * client to the master in a single RMI call.
+ *
+ * <p>The class names of the fitness functions are written once in a string
+ * table and then referenced by index. As the master only keeps the last
+ * individual it receives for the report, test code is only written for the
+ * last snapshot of the batch.
+ */
+public class IndividualStatisticsBatch implements Externalizable {
+
+	private static final long serialVersionUID = -3101284712934766230L;
+
+	private List<IndividualStatistics> individuals;
+
+	/** Needed by {@link Externalizable} */
+	public IndividualStatisticsBatch() {
+		this(Collections.<IndividualStatistics> emptyList());
+	}
+
+	public IndividualStatisticsBatch(List<IndividualStatistics> individuals) {
+		this.individuals = individuals;
+	}
+
+	public List<IndividualStatistics> getIndividuals() {
+		return individuals;
+	}
+
+	public int size() {
+		return individuals.size();
+	}
+
+	public boolean isEmpty() {
+		return individuals.isEmpty();
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		Map<String, Integer> table = new LinkedHashMap<String, Integer>();
+		for (IndividualStatistics individual : individuals) {
+			addToTable(table, individual.getFitnessFunctions());
+			addToTable(table, individual.getCoverageFunctions());
+		}
+		out.writeInt(table.size());
+		for (String name : table.keySet()) {
+			out.writeUTF(name);
+		}
+
+		out.writeInt(individuals.size());
+		for (int i = 0; i < individuals.size(); i++) {
+			IndividualStatistics individual = individuals.get(i);
+			out.writeLong(individual.getTimestamp());
+			out.writeInt(individual.size());
+			out.writeInt(individual.totalLengthOfTestCases());
+			out.writeInt(individual.getAge());
+			out.writeInt(individual.getNumOfNotCoveredGoals());
+			out.writeDouble(individual.getFitness());
+			out.writeDouble(individual.getCoverage());
+			writeValues(out, table, individual.getFitnessFunctions(), individual.getFitnessValues());
+			writeValues(out, table, individual.getCoverageFunctions(), individual.getCoverageValues());
+
+			boolean withCode = individual.hasTestCode() && i == individuals.size() - 1;
+			out.writeBoolean(withCode);
+			if (withCode) {
+				List<String> testCode = individual.getTestCode();
+				out.writeInt(testCode.size());
+				for (String code : testCode) {
+					// writeUTF is limited to 64k, which a single test can exceed
+					byte[] bytes = code.getBytes(StandardCharsets.UTF_8);
+					out.writeInt(bytes.length);
+					out.write(bytes);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException {
+		String[] table = new String[in.readInt()];
+		for (int i = 0; i < table.length; i++) {
+			table[i] = in.readUTF();
+		}
+
+		int num = in.readInt();
+		individuals = new ArrayList<IndividualStatistics>(num);
+		for (int i = 0; i < num; i++) {
+			long timestamp = in.readLong();
+			int size = in.readInt();
+			int length = in.readInt();
+			int age = in.readInt();
+			int numOfNotCoveredGoals = in.readInt();
+			double fitness = in.readDouble();
+			double coverage = in.readDouble();
+
+			String[] fitnessFunctions = new String[in.readInt()];
+			double[] fitnessValues = new double[fitnessFunctions.length];
+			readValues(in, table, fitnessFunctions, fitnessValues);
+			String[] coverageFunctions = new String[in.readInt()];
+			double[] coverageValues = new double[coverageFunctions.length];
+			readValues(in, table, coverageFunctions, coverageValues);
+
+			List<String> testCode = null;
+			if (in.readBoolean()) {
+				int numTests = in.readInt();
+				testCode = new ArrayList<String>(numTests);
+				for (int j = 0; j < numTests; j++) {
+					byte[] bytes = new byte[in.readInt()];
+					in.readFully(bytes);
+					testCode.add(new String(bytes, StandardCharsets.UTF_8));
+				}
+			}
+
+			individuals.add(new IndividualStatistics(timestamp, size, length, age, numOfNotCoveredGoals,
+					fitness, coverage, fitnessFunctions, fitnessValues, coverageFunctions, coverageValues,
+					testCode));
+		}
+	}
+
+	private static void addToTable(Map<String, Integer> table, String[] names) {
+		for (String name : names) {
+			if (!table.containsKey(name)) {
+				table.put(name, table.size());
+			}
+		}
+	}
+
+	private static void writeValues(ObjectOutput out, Map<String, Integer> table, String[] names,
+			double[] values) throws IOException {
+		out.writeInt(names.length);
+		for (int i = 0; i < names.length; i++) {
+			out.writeInt(table.get(names[i]));
+			out.writeDouble(values[i]);
+		}
+	}
+
+	private static void readValues(ObjectInput in, String[] table, String[] names, double[] values)
+			throws IOException {
+		for (int i = 0; i < names.length; i++) {
+			names[i] = table[in.readInt()];
+			values[i] = in.readDouble();
+		}
+	}
+}
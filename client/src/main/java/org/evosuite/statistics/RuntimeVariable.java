@@ -377,6 +377,22 @@ public enum RuntimeVariable {
 	NumberOfUsefulNewTests,
 	/** How many SAT queries led to Unuseful (i.e. no better fitness) new tests*/ 
 	NumberOfUnusefulNewTests,
+	/** How many Solver queries were answered by the solver cache */
+	SolverCacheHits,
+	/** How many Solver queries had to be sent to the solver */
+	SolverCacheMisses,
+	/** How many solver cache hits reused the result of a subset or superset of the query */
+	SolverCacheReuses,
+	/** How many entries were evicted from the solver cache */
+	SolverCacheEvictions,
+	/** How many queries were sent to the solver cache */
+	NumberOfSolverCalls,
+	/** How many DSE queries were not solved because the path condition tree knew their outcome */
+	NumberOfQueriesSkippedByPathTree,
+	/** How many DSE queries were not solved because they were proven infeasible before */
+	NumberOfInfeasibleBranchesSkipped,
+	/** Milliseconds of DSE search per covered goal */
+	DSETimePerCoveredGoal,
 	
 	/* -------------------------------------------------------------------- */
 	/** Search budget needed to reach the maximum coverage */ 
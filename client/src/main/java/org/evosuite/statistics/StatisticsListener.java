@@ -19,8 +19,10 @@
  */
 package org.evosuite.statistics;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 
 import org.evosuite.Properties;
 import org.evosuite.coverage.exception.ExceptionCoverageSuiteFitness;
@@ -31,7 +33,10 @@ import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
 import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
 import org.evosuite.rmi.ClientServices;
 import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.runtime.util.AtMostOnceLogger;
 import org.evosuite.testsuite.TestSuiteChromosome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Client-side listener that transmits data to master
@@ -41,7 +46,18 @@ import org.evosuite.testsuite.TestSuiteChromosome;
  */
 public class StatisticsListener implements SearchListener {
 
-	private volatile BlockingQueue<Chromosome> individuals = new LinkedBlockingQueue<Chromosome>();
+	private static final Logger logger = LoggerFactory.getLogger(StatisticsListener.class);
+
+	/**
+	 * Maximum number of snapshots waiting to be sent. If the master cannot keep
+	 * up, the oldest ones are dropped
+	 */
+	private static final int MAX_QUEUE_SIZE = 1000;
+
+	/** Maximum number of snapshots sent to the master in a single call */
+	private static final int MAX_BATCH_SIZE = 100;
+
+	private volatile BlockingQueue<IndividualStatistics> individuals = new ArrayBlockingQueue<IndividualStatistics>(MAX_QUEUE_SIZE);
 	
 	private volatile boolean done = false;
 	
@@ -63,12 +79,14 @@ public class StatisticsListener implements SearchListener {
 			@Override
 			public void run() {
 				// Wait for new element in queue
-				// If there is a new element, then send it to master through RMI
+				// If there is a new element, then send it to master through RMI,
+				// together with all the others that were queued in the meantime
 				while(!done || !individuals.isEmpty()) {
-					Chromosome individual;
+					List<IndividualStatistics> batch = new ArrayList<IndividualStatistics>();
 					try {
-						individual = individuals.take();
-						StatisticsSender.sendIndividualToMaster(individual);
+						batch.add(individuals.take());
+						individuals.drainTo(batch, MAX_BATCH_SIZE - 1);
+						StatisticsSender.sendIndividualsToMaster(batch);
 					} catch (InterruptedException e) {
 						done = true;
 					}
@@ -93,7 +111,7 @@ public class StatisticsListener implements SearchListener {
 			 */
 			timeFromLastGenerationUpdate = System.currentTimeMillis();
 			// Enqueue current best individual
-			individuals.offer(algorithm.getBestIndividual());
+			enqueue(algorithm.getBestIndividual());
             // send timeline variable directly
             ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.TotalExceptionsTimeline, ExceptionCoverageSuiteFitness.getMaxExceptionsCovered());
 		}	
@@ -104,7 +122,7 @@ public class StatisticsListener implements SearchListener {
 		
 		// If the search is finished, we may want to clear the queue and just send the final element?
 		//individuals.clear(); // TODO: Maybe have a check on size
-		individuals.offer(algorithm.getBestIndividual());
+		enqueue(algorithm.getBestIndividual());
 		ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Statements_Executed, MaxStatementsStoppingCondition.getNumExecutedStatements());
 		ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Tests_Executed, MaxTestsStoppingCondition.getNumExecutedTests());
 		ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Generations, algorithm.getAge());
@@ -123,6 +141,25 @@ public class StatisticsListener implements SearchListener {
 		}
 	}
 	
+	/**
+	 * Take a snapshot of the individual now, as the chromosome can still be
+	 * changed by the search while it is waiting in the queue
+	 */
+	private void enqueue(Chromosome individual) {
+		if(!Properties.NEW_STATISTICS)
+			return;
+
+		if(!(individual instanceof TestSuiteChromosome)) {
+			AtMostOnceLogger.warn(logger, "searchStatistics expected a TestSuiteChromosome");
+			return;
+		}
+
+		IndividualStatistics snapshot = IndividualStatistics.of((TestSuiteChromosome) individual);
+		while(!individuals.offer(snapshot)) {
+			individuals.poll();
+		}
+	}
+
 	private void reportTestSuiteResult(TestSuiteChromosome testSuite) {
 		
 	}
@@ -151,13 +188,13 @@ public class StatisticsListener implements SearchListener {
 			if(fitness < bestFitness) {
 				bestFitness = fitness;
 
-				individuals.offer(individual);
+				enqueue(individual);
 			}
 		} else {
 			if(fitness > bestFitness) {
 				bestFitness = fitness;
 
-				individuals.offer(individual);				
+				enqueue(individual);
 			}
 		}
 	}
@@ -20,6 +20,7 @@
 package org.evosuite.statistics;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -33,11 +34,14 @@ import org.evosuite.coverage.branch.BranchPool;
 import org.evosuite.coverage.exception.ExceptionCoverageSuiteFitness;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.rmi.ClientServices;
+import org.evosuite.runtime.util.AtMostOnceLogger;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.execution.ExecutionTrace;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.testsuite.TestSuiteChromosome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Class responsible to send "individuals" from Client to Master process.
@@ -53,6 +57,8 @@ import org.evosuite.testsuite.TestSuiteChromosome;
  */
 public class StatisticsSender {
 
+	private static final Logger logger = LoggerFactory.getLogger(StatisticsSender.class);
+
 	/**
 	 * Send the given individual to the Client, plus any other needed info
 	 * 
@@ -65,8 +71,24 @@ public class StatisticsSender {
 		if(!Properties.NEW_STATISTICS)
 			return;
 
-		ClientServices.getInstance().getClientNode().updateStatistics(individual);
+		if(!(individual instanceof TestSuiteChromosome)) {
+			AtMostOnceLogger.warn(logger, "searchStatistics expected a TestSuiteChromosome");
+			return;
+		}
+
+		sendIndividualsToMaster(Collections.singletonList(IndividualStatistics.of((TestSuiteChromosome) individual)));
+	}
+
+	/**
+	 * Send the given snapshots of individuals to the Master in a single call
+	 * 
+	 * @param individuals
+	 */
+	public static void sendIndividualsToMaster(List<IndividualStatistics> individuals) {
+		if(!Properties.NEW_STATISTICS || individuals.isEmpty())
+			return;
 
+		ClientServices.getInstance().getClientNode().updateStatistics(individuals);
 	}
 
 
@@ -58,6 +58,11 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 	 */
 	private final Map<Set<Constraint<?>>, SolverResult> queryCache = new HashMap<Set<Constraint<?>>, SolverResult>();
 
+	/**
+	 * The path conditions explored so far, if the exploration is incremental
+	 */
+	private final PathConditionTree pathConditionTree = new PathConditionTree();
+
 	/**
 	 * Applies DSE test generation on a static non-private method until a stopping
 	 * condition is met or all queries have been explored.
@@ -107,35 +112,73 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 			final PathCondition pathCondition = ConcolicExecution.executeConcolic((DefaultTestCase) clonedTestCase);
 			logger.debug("Path condition collected with : " + pathCondition.size() + " branches");
 
-			Set<Constraint<?>> constraintsSet = canonicalize(pathCondition.getConstraints());
-			pathConditions.add(constraintsSet);
-			logger.debug("Number of stored path condition: " + pathConditions.size());
+			final boolean incremental = Properties.DSE_INCREMENTAL_EXPLORATION;
+			Set<Constraint<?>> constraintsSet = null;
+			List<BranchCondition> branchConditions = null;
+			List<PathConditionTree.Node> nodes = null;
+			List<Constraint<?>> pathConstraints = null;
+			int[] prefixLengths = null;
+			if (incremental) {
+				branchConditions = new ArrayList<BranchCondition>(pathCondition.getBranchConditions());
+				nodes = pathConditionTree.addPathCondition(pathCondition);
+				logger.debug("Number of branch conditions in the path condition tree: " + pathConditionTree.size());
+				pathConstraints = new ArrayList<Constraint<?>>(pathCondition.getConstraints());
+				prefixLengths = getPrefixLengths(branchConditions);
+			} else {
+				constraintsSet = canonicalize(pathCondition.getConstraints());
+				pathConditions.add(constraintsSet);
+				logger.debug("Number of stored path condition: " + pathConditions.size());
+			}
 
 			for (int i = pathCondition.size() - 1; i >= 0; i--) {
 				logger.debug("negating index " + i + " of path condition");
 
-				List<Constraint<?>> query = DSETestGenerator.buildQuery(pathCondition, i);
+				final List<Constraint<?>> query;
+				Set<Constraint<?>> constraintSet = null;
+				PathConditionTree.Node prefix = null;
+				BranchCondition negatedBranch = null;
+
+				if (incremental) {
+					prefix = i == 0 ? null : nodes.get(i - 1);
+					negatedBranch = branchConditions.get(i);
+
+					PathConditionTree.Status status = pathConditionTree.getNegationStatus(prefix, negatedBranch);
+					if (status == PathConditionTree.Status.UNSAT) {
+						logger.debug("skipping solving of current query since it was proven infeasible");
+						DSEStats.getInstance().reportNewInfeasibleBranchSkipped();
+						continue;
+					} else if (status != null) {
+						logger.debug("skipping solving of current query since it is in the path condition tree ("
+								+ status + ")");
+						DSEStats.getInstance().reportNewQuerySkippedByPathTree();
+						continue;
+					}
 
-				Set<Constraint<?>> constraintSet = canonicalize(query);
+					// only the constraints of the negated branch are new
+					query = DSETestGenerator.buildQuery(pathConstraints.subList(0, prefixLengths[i]), negatedBranch);
+				} else {
+					query = DSETestGenerator.buildQuery(pathCondition, i);
+					constraintSet = canonicalize(query);
+				}
 
-				if (queryCache.containsKey(constraintSet)) {
+				if (!incremental && queryCache.containsKey(constraintSet)) {
 					logger.debug("skipping solving of current query since it is in the query cache");
 					continue;
 				}
 
-				if (isSubSetOf(constraintSet, queryCache.keySet())) {
+				if (!incremental && isSubSetOf(constraintSet, queryCache.keySet())) {
 					logger.debug(
 							"skipping solving of current query because it is satisfiable and solved by previous path condition");
 					continue;
 				}
 
-				if (pathConditions.contains(constraintSet)) {
+				if (!incremental && pathConditions.contains(constraintSet)) {
 					logger.debug("skipping solving of current query because of existing path condition");
 					continue;
 
 				}
 
-				if (isSubSetOf(constraintSet, pathConditions)) {
+				if (!incremental && isSubSetOf(constraintSet, pathConditions)) {
 					logger.debug(
 							"skipping solving of current query because it is satisfiable and solved by previous path condition");
 					continue;
@@ -156,10 +199,15 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 				SolverResult result = DSETestGenerator.solve(query);
 				long end = System.currentTimeMillis();
 				long time = end - start;
+				DSEStats.getInstance().reportNewSolvingTime(time);
 
-				queryCache.put(constraintSet, result);
-				logger.debug("Number of stored entries in query cache : " + queryCache.keySet().size());
-				logger.debug(constraintsSet.toString());
+				if (incremental) {
+					pathConditionTree.addNegation(prefix, negatedBranch, result);
+				} else {
+					queryCache.put(constraintSet, result);
+					logger.debug("Number of stored entries in query cache : " + queryCache.keySet().size());
+					logger.debug(constraintsSet.toString());
+				}
 				logger.debug("It takes " + time + "ms  to solve this constraint");
 
 				if (result == null) {
@@ -202,6 +250,23 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 		return;
 	}
 
+	/**
+	 * Returns, for each branch condition, the number of constraints of the
+	 * path condition before it
+	 * 
+	 * @param branchConditions
+	 * @return
+	 */
+	private static int[] getPrefixLengths(List<BranchCondition> branchConditions) {
+		int[] prefixLengths = new int[branchConditions.size()];
+		int length = 0;
+		for (int i = 0; i < branchConditions.size(); i++) {
+			prefixLengths[i] = length;
+			length += branchConditions.get(i).getSupportingConstraints().size() + 1;
+		}
+		return prefixLengths;
+	}
+
 	protected static HashSet<Constraint<?>> canonicalize(List<Constraint<?>> query) {
 		return new HashSet<Constraint<?>>(query);
 	}
@@ -604,6 +669,7 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 	public void generateSolution() {
 		this.notifySearchStarted();
 		this.initializePopulation();
+		final long startTimeMillis = System.currentTimeMillis();
 
 		final Class<?> targetClass = Properties.getTargetClassAndDontInitialise();
 
@@ -632,6 +698,8 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 		}
 
 		this.updateFitnessFunctionsAndValues();
+		DSEStats.getInstance().reportNewDSETime(System.currentTimeMillis() - startTimeMillis,
+				getBestIndividual().getNumOfCoveredGoals());
 		this.notifySearchFinished();
 	}
 
@@ -662,6 +730,7 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 	public void generateSolution(TestSuiteChromosome previousSeeds) {
 		this.notifySearchStarted();
 		this.initializePopulation();
+		final long startTimeMillis = System.currentTimeMillis();
 		
 		this.updatePopulation(previousSeeds);
 
@@ -692,6 +761,8 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 		}
 
 		this.updateFitnessFunctionsAndValues();
+		DSEStats.getInstance().reportNewDSETime(System.currentTimeMillis() - startTimeMillis,
+				getBestIndividual().getNumOfCoveredGoals());
 		this.notifySearchFinished();
 		
 	}
@@ -76,6 +76,11 @@ public class DSEStats {
 	private long nrOfNewTestFound = 0;
 	private long totalSolvingTimeMillis = 0;
 	private long totalConcolicExecutionTimeMillis = 0;
+	private long nrOfSolverCalls = 0;
+	private long nrOfQueriesSkippedByPathTree = 0;
+	private long nrOfInfeasibleBranchesSkipped = 0;
+	private long totalDSETimeMillis = 0;
+	private int nrOfCoveredGoals = 0;
 	private int constraintTooLongCounter = 0;
 	private int max_path_condition_length;
 	private int min_path_condition_length;
@@ -214,6 +219,11 @@ public class DSEStats {
 			percentFormat.setMaximumFractionDigits(1);
 			String hit_rate_str = percentFormat.format(SolverCache.getInstance().getHitRate());
 			logger.info(String.format("* DSE)   Cache hit rate: %s", hit_rate_str));
+
+			logger.info(String.format("* DSE)   Hits reusing a subset or superset: %s",
+					SolverCache.getInstance().getNumberOfReuses()));
+
+			logger.info(String.format("* DSE)   Evicted entries: %s", SolverCache.getInstance().getNumberOfEvictions()));
 		}
 	}
 
@@ -222,6 +232,8 @@ public class DSEStats {
 		logger.info(String.format("* DSE)   Time spent solving constraints: %sms", totalSolvingTimeMillis));
 		logger.info(String.format("* DSE)   Time spent executing test concolically: %sms",
 				totalConcolicExecutionTimeMillis));
+		logger.info(String.format("* DSE)   Time per covered goal: %sms (%s goals)", getDSETimePerCoveredGoal(),
+				nrOfCoveredGoals));
 	}
 
 	private  void logSolverStatistics() {
@@ -272,6 +284,9 @@ public class DSEStats {
 		logger.info(String.format("* DSE)   # Constraint solvings: %s (%s+%s)",
 				total_constraint_solvings, getSAT(),
 				getUNSAT()));
+		logger.info(String.format("* DSE)   # Solver calls: %s", nrOfSolverCalls));
+		logger.info(String.format("* DSE)   # Queries skipped by the path condition tree: %s (%s infeasible)",
+				nrOfQueriesSkippedByPathTree + nrOfInfeasibleBranchesSkipped, nrOfInfeasibleBranchesSkipped));
 
 	}
 
@@ -427,6 +442,46 @@ public class DSEStats {
 		totalConcolicExecutionTimeMillis += concolicExecutionTimeMillis;
 	}
 
+	/**
+	 * Reports a new query sent to the constraint solver (through the solver
+	 * cache)
+	 */
+	public void reportNewSolverCall() {
+		nrOfSolverCalls++;
+	}
+
+	/**
+	 * Reports a query that was not solved because the path condition tree
+	 * already knows its outcome
+	 */
+	public void reportNewQuerySkippedByPathTree() {
+		nrOfQueriesSkippedByPathTree++;
+	}
+
+	/**
+	 * Reports a query that was not solved because the path condition tree
+	 * already proved it infeasible
+	 */
+	public void reportNewInfeasibleBranchSkipped() {
+		nrOfInfeasibleBranchesSkipped++;
+	}
+
+	/**
+	 * Reports the time spent by a DSE search, and the number of goals covered
+	 * at its end
+	 * 
+	 * @param dseTimeMillis
+	 * @param coveredGoals
+	 */
+	public void reportNewDSETime(long dseTimeMillis, int coveredGoals) {
+		totalDSETimeMillis += dseTimeMillis;
+		nrOfCoveredGoals += coveredGoals;
+	}
+
+	private long getDSETimePerCoveredGoal() {
+		return nrOfCoveredGoals == 0 ? totalDSETimeMillis : totalDSETimeMillis / nrOfCoveredGoals;
+	}
+
 	public void reportConstraintTooLong(int size) {
 		constraintTooLongCounter++;
 	}
@@ -489,6 +544,22 @@ public class DSEStats {
 
 		trackOutputVariable(RuntimeVariable.NumberOfUnusefulNewTests, getUnusefulTests());
 
+		trackOutputVariable(RuntimeVariable.SolverCacheHits, SolverCache.getInstance().getNumberOfHits());
+
+		trackOutputVariable(RuntimeVariable.SolverCacheMisses, SolverCache.getInstance().getNumberOfMisses());
+
+		trackOutputVariable(RuntimeVariable.SolverCacheReuses, SolverCache.getInstance().getNumberOfReuses());
+
+		trackOutputVariable(RuntimeVariable.SolverCacheEvictions, SolverCache.getInstance().getNumberOfEvictions());
+
+		trackOutputVariable(RuntimeVariable.NumberOfSolverCalls, nrOfSolverCalls);
+
+		trackOutputVariable(RuntimeVariable.NumberOfQueriesSkippedByPathTree, nrOfQueriesSkippedByPathTree);
+
+		trackOutputVariable(RuntimeVariable.NumberOfInfeasibleBranchesSkipped, nrOfInfeasibleBranchesSkipped);
+
+		trackOutputVariable(RuntimeVariable.DSETimePerCoveredGoal, getDSETimePerCoveredGoal());
+
 	}
 
 	private void trackOutputVariable(RuntimeVariable var, Object value) {
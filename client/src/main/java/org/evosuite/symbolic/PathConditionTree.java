@@ -0,0 +1,226 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.solver.SolverResult;
+
+/**
+ * A prefix tree of the path conditions explored by DSE. Each node is a branch
+ * condition, and each path from the root is the prefix of a path condition
+ * that was either followed by a concolic execution, or queried to the solver
+ * by negating its last branch condition.
+ *
+ * The tree tells which negations are still worth solving: a negation that
+ * leads to an executed path, or that was already solved (in particular, that
+ * was proven infeasible) under the same prefix, is not solved again.
+ */
+public class PathConditionTree {
+
+	/**
+	 * What is known of the path condition ending at a node
+	 */
+	public enum Status {
+		/** A concolic execution followed this path */
+		EXECUTED,
+		/** The solver found a solution for this path */
+		SAT,
+		/** The solver proved this path infeasible */
+		UNSAT,
+		/** The solver gave no answer for this path (eg, timeout) */
+		UNKNOWN
+	}
+
+	/**
+	 * A branch condition of a path condition, after the branch conditions of
+	 * its ancestors
+	 */
+	public static class Node {
+
+		private final Node parent;
+
+		private final int depth;
+
+		private final Map<BranchKey, Node> children = new HashMap<BranchKey, Node>();
+
+		private Status status;
+
+		private Node(Node parent, Status status) {
+			this.parent = parent;
+			this.depth = parent == null ? 0 : parent.depth + 1;
+			this.status = status;
+		}
+
+		public Node getParent() {
+			return parent;
+		}
+
+		/**
+		 * @return the number of branch conditions from the root to this node
+		 */
+		public int getDepth() {
+			return depth;
+		}
+
+		public Status getStatus() {
+			return status;
+		}
+	}
+
+	/**
+	 * Identifies a branch condition by its constraint and its supporting
+	 * constraints
+	 */
+	private static class BranchKey {
+
+		private final Constraint<?> constraint;
+
+		private final List<Constraint<?>> supportingConstraints;
+
+		private final int hash;
+
+		BranchKey(Constraint<?> constraint, List<Constraint<?>> supportingConstraints) {
+			this.constraint = constraint;
+			this.supportingConstraints = supportingConstraints;
+			this.hash = 31 * constraint.hashCode() + supportingConstraints.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof BranchKey)) {
+				return false;
+			}
+			BranchKey other = (BranchKey) obj;
+			return hash == other.hash && constraint.equals(other.constraint)
+					&& supportingConstraints.equals(other.supportingConstraints);
+		}
+	}
+
+	private final Node root = new Node(null, Status.EXECUTED);
+
+	private int numberOfNodes = 0;
+
+	/**
+	 * Adds a path condition collected by a concolic execution
+	 *
+	 * @param pathCondition
+	 * @return the node of each branch condition of the path condition, ie,
+	 *         the i-th node is the one of the i-th branch condition
+	 */
+	public List<Node> addPathCondition(PathCondition pathCondition) {
+		List<Node> nodes = new ArrayList<Node>(pathCondition.size());
+		Node current = root;
+		for (BranchCondition branchCondition : pathCondition.getBranchConditions()) {
+			BranchKey key = new BranchKey(branchCondition.getConstraint(),
+					branchCondition.getSupportingConstraints());
+			Node child = current.children.get(key);
+			if (child == null) {
+				child = addChild(current, key, Status.EXECUTED);
+			} else {
+				// the path is feasible, whatever the solver said
+				child.status = Status.EXECUTED;
+			}
+			nodes.add(child);
+			current = child;
+		}
+		return nodes;
+	}
+
+	/**
+	 * Returns what is known of the path that follows the given prefix and
+	 * then takes the other side of the branch condition
+	 *
+	 * @param prefix
+	 *            the node of the branch condition before the negated one, or
+	 *            null if the negated branch condition is the first one
+	 * @param branchCondition
+	 *            the branch condition to negate
+	 * @return null if the negation has not been explored yet
+	 */
+	public Status getNegationStatus(Node prefix, BranchCondition branchCondition) {
+		Node child = getParent(prefix).children.get(negationKey(branchCondition));
+		return child == null ? null : child.status;
+	}
+
+	/**
+	 * Records the answer of the solver for the negation of a branch condition
+	 *
+	 * @param prefix
+	 *            the node of the branch condition before the negated one, or
+	 *            null if the negated branch condition is the first one
+	 * @param branchCondition
+	 *            the negated branch condition
+	 * @param result
+	 *            the answer of the solver, null if there was none
+	 */
+	public void addNegation(Node prefix, BranchCondition branchCondition, SolverResult result) {
+		Status status;
+		if (result == null || result.isUnknown()) {
+			status = Status.UNKNOWN;
+		} else if (result.isSAT()) {
+			status = Status.SAT;
+		} else {
+			status = Status.UNSAT;
+		}
+		Node parent = getParent(prefix);
+		BranchKey key = negationKey(branchCondition);
+		Node child = parent.children.get(key);
+		if (child == null) {
+			addChild(parent, key, status);
+		} else if (child.status != Status.EXECUTED) {
+			child.status = status;
+		}
+	}
+
+	/**
+	 * @return the number of branch conditions stored in the tree
+	 */
+	public int size() {
+		return numberOfNodes;
+	}
+
+	private Node getParent(Node prefix) {
+		return prefix == null ? root : prefix;
+	}
+
+	private Node addChild(Node parent, BranchKey key, Status status) {
+		Node child = new Node(parent, status);
+		parent.children.put(key, child);
+		numberOfNodes++;
+		return child;
+	}
+
+	private static BranchKey negationKey(BranchCondition branchCondition) {
+		return new BranchKey(branchCondition.getConstraint().negate(), branchCondition.getSupportingConstraints());
+	}
+}
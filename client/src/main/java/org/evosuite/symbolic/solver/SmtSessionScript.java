@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.symbolic.solver.smt.SmtAssertion;
+import org.evosuite.symbolic.solver.smt.SmtConstantDeclaration;
+import org.evosuite.symbolic.solver.smt.SmtFunctionDeclaration;
+import org.evosuite.symbolic.solver.smt.SmtFunctionDefinition;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.evosuite.symbolic.solver.smt.SmtQueryPrinter;
+import org.evosuite.symbolic.solver.smt.SmtVariable;
+import org.evosuite.symbolic.solver.smt.SmtVariableCollector;
+
+/**
+ * The assertion stack of a {@link SmtSolverSession}, i.e. what the solver
+ * process was told so far, and the commands that turn it into the stack of a
+ * new query.
+ */
+class SmtSessionScript {
+
+	private final Set<String> definitions = new HashSet<String>();
+
+	private final List<Frame> frames = new ArrayList<Frame>();
+
+	private final Set<String> declaredNames = new HashSet<String>();
+
+	/**
+	 * An assertion, and the variables declared together with it
+	 */
+	private static class Frame {
+
+		private final String assertion;
+
+		private final List<String> declaredNames = new ArrayList<String>();
+
+		Frame(String assertion) {
+			this.assertion = assertion;
+		}
+	}
+
+	/**
+	 * @return the number of assertions currently pushed
+	 */
+	int getNumberOfFrames() {
+		return frames.size();
+	}
+
+	/**
+	 * Compute the commands that pop the frames the query does not share with
+	 * the previous one, and push its remaining assertions. The frames are
+	 * updated as if the solver had accepted the commands.
+	 *
+	 * @param query
+	 *            the next query
+	 * @return the commands, without <code>(check-sat)</code>
+	 */
+	List<String> update(SmtQuery query) {
+		SmtQueryPrinter printer = new SmtQueryPrinter();
+
+		Map<String, String> declarations = new LinkedHashMap<String, String>();
+		for (SmtConstantDeclaration declaration : query.getConstantDeclarations()) {
+			declarations.put(declaration.getConstantName(), printer.print(declaration));
+		}
+		for (SmtFunctionDeclaration declaration : query.getFunctionDeclarations()) {
+			declarations.put(declaration.getFunctionName(), printer.print(declaration));
+		}
+
+		List<String> commands = new ArrayList<String>();
+
+		List<String> newDefinitions = new ArrayList<String>();
+		for (SmtFunctionDefinition definition : query.getFunctionDefinitions()) {
+			String str = printer.print(definition);
+			if (!definitions.contains(str)) {
+				newDefinitions.add(str);
+			}
+		}
+
+		List<SmtAssertion> assertions = query.getAssertions();
+		int common = 0;
+		if (newDefinitions.isEmpty()) {
+			while (common < frames.size() && common < assertions.size()
+					&& frames.get(common).assertion.equals(printer.print(assertions.get(common)))) {
+				common++;
+			}
+		}
+		popFrames(frames.size() - common, commands);
+
+		commands.addAll(newDefinitions);
+		definitions.addAll(newDefinitions);
+
+		for (int i = common; i < assertions.size(); i++) {
+			SmtAssertion assertion = assertions.get(i);
+			Frame frame = new Frame(printer.print(assertion));
+			commands.add("(push 1)");
+
+			SmtVariableCollector collector = new SmtVariableCollector();
+			assertion.getFormula().accept(collector, null);
+			for (SmtVariable variable : collector.getSmtVariables()) {
+				String name = variable.getName();
+				if (!declaredNames.contains(name) && declarations.containsKey(name)) {
+					commands.add(declarations.get(name));
+					declaredNames.add(name);
+					frame.declaredNames.add(name);
+				}
+			}
+			commands.add(frame.assertion);
+			frames.add(frame);
+		}
+		return commands;
+	}
+
+	private void popFrames(int count, List<String> commands) {
+		if (count <= 0) {
+			return;
+		}
+		commands.add("(pop " + count + ")");
+		for (int i = 0; i < count; i++) {
+			Frame frame = frames.remove(frames.size() - 1);
+			declaredNames.removeAll(frame.declaredNames);
+		}
+	}
+}
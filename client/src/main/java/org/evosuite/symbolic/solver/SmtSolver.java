@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 
 import org.apache.commons.exec.ExecuteException;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
 import org.evosuite.utils.ProcessLauncher;
 import org.evosuite.utils.ProcessTimeoutException;
 
@@ -82,4 +83,35 @@ public abstract class SmtSolver extends Solver {
 
 	}
 
+	/**
+	 * Solves the query with a resident solver process of the
+	 * {@link SmtSolverPool}, instead of launching a new one. The process is
+	 * restarted for the next query if it does not answer in time.
+	 *
+	 * @param solverCmd
+	 *            a command that reads SMT-LIB commands from the standard input
+	 *            and answers them as they come
+	 * @param query
+	 * @param hardTimeout
+	 * @return the output of the solver for the query
+	 * @throws IOException
+	 * @throws SolverTimeoutException
+	 * @throws SolverErrorException
+	 */
+	protected static String solveWithResidentProcess(String solverCmd, SmtQuery query, int hardTimeout)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+
+		SmtSolverPool pool = SmtSolverPool.getInstance();
+		SmtSolverSession session = pool.borrow(solverCmd, SmtSolverSession.getHeader(query), hardTimeout);
+
+		long solver_start_time_millis = System.currentTimeMillis();
+		try {
+			return session.solve(query, hardTimeout);
+		} finally {
+			pool.release(session);
+			long solver_end_time_millis = System.currentTimeMillis();
+			logger.debug("Resident solver answered in {}ms", solver_end_time_millis - solver_start_time_millis);
+		}
+	}
+
 }
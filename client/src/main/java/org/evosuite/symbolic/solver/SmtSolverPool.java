@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the idle {@link SmtSolverSession}s, so that consecutive queries are
+ * solved by the same solver process instead of launching a new one for each
+ * query. Sessions are shared only between queries with the same solver
+ * command and header.
+ */
+public class SmtSolverPool {
+
+	private static final Logger logger = LoggerFactory.getLogger(SmtSolverPool.class);
+
+	/** Sessions that were idle for longer than this are checked before use */
+	private static final long HEALTH_CHECK_IDLE_MILLIS = 10000;
+
+	private static final long HEALTH_CHECK_TIMEOUT_MILLIS = 1000;
+
+	private static SmtSolverPool instance = null;
+
+	private final Map<String, Deque<SmtSolverSession>> idleSessions = new HashMap<String, Deque<SmtSolverSession>>();
+
+	private final Map<SmtSolverSession, Long> lastUse = new HashMap<SmtSolverSession, Long>();
+
+	private int numberOfStartedSessions = 0;
+
+	private int numberOfRestartedSessions = 0;
+
+	public static synchronized SmtSolverPool getInstance() {
+		if (instance == null) {
+			instance = new SmtSolverPool();
+		}
+		return instance;
+	}
+
+	private SmtSolverPool() {
+	}
+
+	private static String getKey(String solverCmd, List<String> header) {
+		return solverCmd + "\n" + header;
+	}
+
+	/**
+	 * Take an idle session for the given command and header, or start a new
+	 * one. The session must be given back with {@link #release}.
+	 *
+	 * @param startupTimeout
+	 *            milliseconds for a new solver process to answer
+	 */
+	public SmtSolverSession borrow(String solverCmd, List<String> header, long startupTimeout)
+			throws IOException, SolverErrorException {
+		String key = getKey(solverCmd, header);
+		while (true) {
+			SmtSolverSession session;
+			Long idleSince;
+			synchronized (this) {
+				Deque<SmtSolverSession> sessions = idleSessions.get(key);
+				session = sessions == null ? null : sessions.pollFirst();
+				idleSince = session == null ? null : lastUse.remove(session);
+			}
+			if (session == null) {
+				break;
+			}
+			boolean healthy = session.isAlive();
+			if (healthy && idleSince != null
+					&& System.currentTimeMillis() - idleSince > HEALTH_CHECK_IDLE_MILLIS) {
+				healthy = session.ping(HEALTH_CHECK_TIMEOUT_MILLIS);
+			}
+			if (healthy) {
+				return session;
+			}
+			logger.debug("Discarding dead solver session");
+			session.close();
+			synchronized (this) {
+				numberOfRestartedSessions++;
+			}
+		}
+
+		SmtSolverSession session = new SmtSolverSession(solverCmd, header, startupTimeout);
+		synchronized (this) {
+			numberOfStartedSessions++;
+		}
+		return session;
+	}
+
+	/**
+	 * Give back a session taken with {@link #borrow}. Sessions that are no
+	 * longer alive (eg, after a timeout) are dropped, and a new process will
+	 * be started for the next query.
+	 */
+	public void release(SmtSolverSession session) {
+		if (!session.isAlive()) {
+			session.close();
+			synchronized (this) {
+				numberOfRestartedSessions++;
+			}
+			return;
+		}
+		String key = getKey(session.getSolverCmd(), session.getHeader());
+		synchronized (this) {
+			Deque<SmtSolverSession> sessions = idleSessions.get(key);
+			if (sessions == null) {
+				sessions = new ArrayDeque<SmtSolverSession>();
+				idleSessions.put(key, sessions);
+			}
+			sessions.addFirst(session);
+			lastUse.put(session, System.currentTimeMillis());
+		}
+	}
+
+	public synchronized int getNumberOfStartedSessions() {
+		return numberOfStartedSessions;
+	}
+
+	/**
+	 * @return the number of sessions that had to be replaced because their
+	 *         process died or timed out
+	 */
+	public synchronized int getNumberOfRestartedSessions() {
+		return numberOfRestartedSessions;
+	}
+
+	/**
+	 * Terminate all the idle solver processes
+	 */
+	public void shutdown() {
+		List<SmtSolverSession> sessions = new ArrayList<SmtSolverSession>();
+		synchronized (this) {
+			for (Deque<SmtSolverSession> idle : idleSessions.values()) {
+				sessions.addAll(idle);
+			}
+			idleSessions.clear();
+			lastUse.clear();
+		}
+		for (SmtSolverSession session : sessions) {
+			session.close();
+		}
+		if (!sessions.isEmpty()) {
+			logger.debug("Terminated {} solver sessions", sessions.size());
+		}
+	}
+}
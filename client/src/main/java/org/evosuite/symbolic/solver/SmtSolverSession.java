@@ -0,0 +1,337 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.exec.CommandLine;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long-lived SMT solver process that is fed queries through its standard
+ * input.
+ *
+ * Each assertion of the last query is kept in its own <code>(push)</code>
+ * frame, together with the declarations of the variables it introduced. A new
+ * query pops the frames after the longest prefix of assertions it shares with
+ * the previous one, and pushes its remaining assertions, so that the solver
+ * can reuse what it learnt about the common prefix. Function definitions are
+ * made once, outside of any frame.
+ *
+ * The answer to <code>(check-sat)</code> and <code>(get-model)</code> is
+ * returned as the solver printed it, so it can be parsed as the output of a
+ * solver process launched for a single query. A session whose process died,
+ * timed out or got out of sync is closed, and must not be used again.
+ */
+public class SmtSolverSession {
+
+	private static final Logger logger = LoggerFactory.getLogger(SmtSolverSession.class);
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** Put in the output queue when the solver closes its output */
+	static final String END_OF_OUTPUT = new String("<end of output>");
+
+	private static int markerCount = 0;
+
+	private final String solverCmd;
+
+	private final List<String> header;
+
+	private final Process process;
+
+	private final Writer stdin;
+
+	private final BlockingQueue<String> stdout = new LinkedBlockingQueue<String>();
+
+	private final SmtSessionScript script = new SmtSessionScript();
+
+	private boolean closed = false;
+
+	private int numberOfQueries = 0;
+
+	/**
+	 * Launch a new solver process
+	 *
+	 * @param solverCmd
+	 *            the command line of the solver, that must read the query from
+	 *            its standard input
+	 * @param header
+	 *            the commands that set the logic and the options of the
+	 *            session, as returned by {@link #getHeader(SmtQuery)}
+	 * @param startupTimeout
+	 *            milliseconds for the solver to answer its first command
+	 * @throws IOException
+	 *             if the process cannot be launched
+	 * @throws SolverErrorException
+	 *             if the solver does not answer, or rejects the header
+	 */
+	public SmtSolverSession(String solverCmd, List<String> header, long startupTimeout)
+			throws IOException, SolverErrorException {
+		this.solverCmd = solverCmd;
+		this.header = new ArrayList<String>(header);
+
+		ProcessBuilder builder = new ProcessBuilder(Arrays.asList(CommandLine.parse(solverCmd).toStrings()));
+		builder.redirectErrorStream(true);
+		this.process = builder.start();
+		this.stdin = new OutputStreamWriter(process.getOutputStream(), UTF8);
+
+		Thread reader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), UTF8));
+				try {
+					String line;
+					while ((line = in.readLine()) != null) {
+						stdout.add(line);
+					}
+				} catch (IOException e) {
+					logger.debug("Failed to read the output of the solver: " + e);
+				} finally {
+					stdout.add(END_OF_OUTPUT);
+				}
+			}
+		}, "SMT solver session reader");
+		reader.setDaemon(true);
+		reader.start();
+
+		try {
+			// answers are only expected for (check-sat), (get-model) and (echo)
+			String output = send("(set-option :print-success false)\n" + toScript(this.header), startupTimeout);
+			if (!output.isEmpty()) {
+				throw new SolverErrorException("Solver rejected the session header: " + output);
+			}
+		} catch (SolverTimeoutException e) {
+			close();
+			throw new SolverErrorException("Solver did not start within " + startupTimeout + "ms");
+		} catch (SolverErrorException e) {
+			close();
+			throw e;
+		}
+		logger.debug("Started solver session: {}", solverCmd);
+	}
+
+	/**
+	 * The commands that set the logic and the options of a query. Only queries
+	 * with the same header can share a session.
+	 */
+	public static List<String> getHeader(SmtQuery query) {
+		List<String> header = new ArrayList<String>();
+		if (query.hasLogic()) {
+			header.add("(set-logic " + query.getLogic() + ")");
+		}
+		for (String optionName : query.getOptions()) {
+			header.add(String.format("(set-option %s %s)", optionName, query.getOptionValue(optionName)));
+		}
+		return header;
+	}
+
+	public String getSolverCmd() {
+		return solverCmd;
+	}
+
+	public List<String> getHeader() {
+		return header;
+	}
+
+	public int getNumberOfQueries() {
+		return numberOfQueries;
+	}
+
+	/**
+	 * @return true if the session was not closed and its process is running
+	 */
+	public boolean isAlive() {
+		return !closed && process.isAlive();
+	}
+
+	/**
+	 * Check that the solver still answers
+	 *
+	 * @param timeout
+	 *            milliseconds to wait for the answer
+	 */
+	public boolean ping(long timeout) {
+		if (!isAlive()) {
+			return false;
+		}
+		try {
+			String output = send("", timeout);
+			if (output.isEmpty()) {
+				return true;
+			}
+			logger.debug("Unexpected output from idle solver: {}", output);
+		} catch (IOException | SolverTimeoutException | SolverErrorException e) {
+			logger.debug("Solver session failed health check: " + e);
+		}
+		close();
+		return false;
+	}
+
+	/**
+	 * Solve a query, reusing the assertions it shares with the previous one
+	 *
+	 * @param query
+	 *            a query whose header is the one of this session
+	 * @param timeout
+	 *            milliseconds to wait for the answer of the solver
+	 * @return the output of the solver for <code>(check-sat)</code> and
+	 *         <code>(get-model)</code>, or the error the solver reported while
+	 *         reading the query
+	 * @throws SolverTimeoutException
+	 *             if the solver did not answer in time. The session is closed.
+	 * @throws SolverErrorException
+	 *             if the session is closed, or the solver exited
+	 */
+	public String solve(SmtQuery query, long timeout)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+		if (!isAlive()) {
+			close();
+			throw new SolverErrorException("Solver session is not running");
+		}
+		numberOfQueries++;
+
+		int before = script.getNumberOfFrames();
+		List<String> commands = script.update(query);
+		logger.debug("Solver session sends {} commands for {} assertions, {} were pushed before", commands.size(),
+				query.getAssertions().size(), before);
+
+		String errors = send(toScript(commands), timeout);
+		if (!errors.isEmpty()) {
+			// the frames no longer match what the solver has
+			logger.debug("Solver rejected the query: {}", errors);
+			close();
+			return errors;
+		}
+
+		return send("(check-sat)\n(get-model)\n", timeout);
+	}
+
+	private static String toScript(List<String> commands) {
+		StringBuilder script = new StringBuilder();
+		for (String command : commands) {
+			script.append(command);
+			script.append("\n");
+		}
+		return script.toString();
+	}
+
+	private static synchronized String nextMarker() {
+		return "evosuite-done-" + (markerCount++);
+	}
+
+	/**
+	 * Send a script to the solver, followed by an echo command, and collect
+	 * what the solver prints until the echo
+	 */
+	private String send(String script, long timeout)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+		String marker = nextMarker();
+		try {
+			stdin.write(script);
+			stdin.write("(echo \"" + marker + "\")\n");
+			stdin.flush();
+		} catch (IOException e) {
+			close();
+			throw new SolverErrorException("Solver process is not running: " + e.getMessage());
+		}
+
+		try {
+			return readUntilMarker(stdout, marker, timeout);
+		} catch (SolverTimeoutException e) {
+			logger.debug("Solver session stopped due to solver timeout");
+			close();
+			throw e;
+		} catch (SolverErrorException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Collect the lines printed by the solver until the echo of the marker
+	 *
+	 * @param lines
+	 *            the output of the solver, ended by {@link #END_OF_OUTPUT} if
+	 *            the solver exits
+	 * @param marker
+	 *            the string the solver was asked to echo
+	 * @param timeout
+	 *            milliseconds to wait for the marker
+	 * @return the lines before the marker, each followed by a newline
+	 */
+	static String readUntilMarker(BlockingQueue<String> lines, String marker, long timeout)
+			throws SolverTimeoutException, SolverErrorException {
+		StringBuilder output = new StringBuilder();
+		long deadline = System.currentTimeMillis() + timeout;
+		while (true) {
+			long remaining = deadline - System.currentTimeMillis();
+			String line;
+			try {
+				line = remaining > 0 ? lines.poll(remaining, TimeUnit.MILLISECONDS) : null;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SolverTimeoutException();
+			}
+			if (line == null) {
+				throw new SolverTimeoutException();
+			}
+			if (line == END_OF_OUTPUT) {
+				throw new SolverErrorException("Solver process exited: " + output);
+			}
+			// Z3 prints the echoed string as it is, CVC4 prints it quoted
+			if (line.equals(marker) || line.equals("\"" + marker + "\"")) {
+				return output.toString();
+			}
+			output.append(line);
+			output.append("\n");
+		}
+	}
+
+	/**
+	 * Terminate the solver process
+	 */
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			stdin.close();
+		} catch (IOException e) {
+			// the process is gone already
+		}
+		process.destroy();
+		logger.debug("Closed solver session after {} queries", numberOfQueries);
+	}
+}
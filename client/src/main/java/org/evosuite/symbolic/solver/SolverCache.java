@@ -20,112 +20,413 @@
 package org.evosuite.symbolic.solver;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.evosuite.Properties;
 import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Variable;
 
+/**
+ * Cache of solver results, in the style of KLEE's counterexample cache.
+ * 
+ * <ul>
+ * <li>Queries are sliced into independent sub-problems (ie, sets of
+ * constraints that do not share variables), each one looked up on its own.</li>
+ * <li>Sub-problems are looked up by a canonical key (see
+ * {@link SolverCacheKey}), so that renamed or reordered constraint systems
+ * hit the cache.</li>
+ * <li>If there is no entry for a sub-problem, it is UNSAT if a cached UNSAT
+ * system is a subset of it, and SAT if the model of a cached SAT system
+ * sharing some of its constraints (eg, a subset or a superset) satisfies it.</li>
+ * <li>The number of entries is bounded by {@link Properties#DSE_SOLVER_CACHE_SIZE},
+ * least recently used ones are evicted first.</li>
+ * </ul>
+ */
 public final class SolverCache {
 
+	/** Maximum number of cached systems whose model is checked against a query */
+	private static final int MAX_REUSE_CANDIDATES = 32;
+
+	private static final SolverCache instance = new SolverCache();
+
+	private static class CacheEntry {
+
+		private final SolverCacheKey key;
+
+		private final Set<Constraint<?>> constraints;
+
+		/** Result with a canonical model */
+		private final SolverResult result;
+
+		private CacheEntry(SolverCacheKey key, Set<Constraint<?>> constraints, SolverResult result) {
+			this.key = key;
+			this.constraints = constraints;
+			this.result = result;
+		}
+	}
+
+	private final int maxSize;
+
+	private final LinkedHashMap<SolverCacheKey, CacheEntry> cached_solver_results;
+
+	/** Cached entries by the constraints they contain, to find subsets and supersets of a query */
+	private final Map<Constraint<?>, Set<CacheEntry>> entries_by_constraint = new HashMap<Constraint<?>, Set<CacheEntry>>();
+
+	private int cached_sat_result_count = 0;
+	private int cached_unsat_result_count = 0;
+
+	private int number_of_accesses = 0;
+	private int number_of_hits = 0;
+	private int number_of_reuses = 0;
+	private int number_of_evictions = 0;
+
+	private SolverCache() {
+		this(-1);
+	}
+
+	/**
+	 * @param maxSize
+	 *            maximum number of entries, or a non-positive value to use
+	 *            {@link Properties#DSE_SOLVER_CACHE_SIZE}
+	 */
+	SolverCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.cached_solver_results = new LinkedHashMap<SolverCacheKey, CacheEntry>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = -7227400328512402924L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<SolverCacheKey, CacheEntry> eldest) {
+				if (size() <= getMaxSize()) {
+					return false;
+				}
+				unindex(eldest.getValue());
+				number_of_evictions++;
+				return true;
+			}
+		};
+	}
+
+	public static SolverCache getInstance() {
+		return instance;
+	}
+
+	private int getMaxSize() {
+		return maxSize > 0 ? maxSize : Properties.DSE_SOLVER_CACHE_SIZE;
+	}
+
 	/**
 	 * 
 	 * @param solver
 	 * @param constraints
-	 * @return 
+	 * @return the result of the solver, or null if the solver failed
 	 */
 	public SolverResult solve(Solver solver, Collection<Constraint<?>> constraints) {
-		if (hasCachedResult(constraints)) {
-			SolverResult cached_solution = getCachedResult();
-			return cached_solution;
+		if (constraints.isEmpty()) {
+			// let the solver decide what an empty query means
+			return solveWithoutCache(solver, constraints);
 		}
 
-		SolverResult solverResult;
-		try {
-			solverResult = solver.solve(constraints);
-			if (solverResult.isUNSAT()) {
-				addUNSAT(constraints, solverResult);
+		number_of_accesses++;
+
+		Map<String, Object> model = new HashMap<String, Object>();
+		List<Set<Constraint<?>>> unsolvedSlices = new ArrayList<Set<Constraint<?>>>();
+		boolean reused = false;
+
+		for (Set<Constraint<?>> slice : slice(constraints)) {
+			SolverCacheKey key = SolverCacheKey.of(slice);
+			SolverResult cachedResult = getCachedResult(key, slice);
+			if (cachedResult == null) {
+				cachedResult = getSubsumingResult(slice);
+				if (cachedResult != null) {
+					reused = true;
+				}
+			}
+
+			if (cachedResult == null || cachedResult.isUnknown()) {
+				unsolvedSlices.add(slice);
+			} else if (cachedResult.isUNSAT()) {
+				countHit(reused);
+				return cachedResult;
 			} else {
-				addSAT(constraints, solverResult);
+				model.putAll(cachedResult.getModel());
+			}
+		}
+
+		if (unsolvedSlices.isEmpty()) {
+			countHit(reused);
+			return SolverResult.newSAT(model);
+		}
+
+		List<Constraint<?>> unsolved = new ArrayList<Constraint<?>>();
+		for (Set<Constraint<?>> slice : unsolvedSlices) {
+			unsolved.addAll(slice);
+		}
+
+		SolverResult solverResult = solveWithoutCache(solver, unsolved);
+		if (solverResult == null) {
+			return null;
+		}
+
+		if (solverResult.isUNSAT()) {
+			addUNSAT(unsolved, solverResult);
+			return solverResult;
+		} else if (solverResult.isSAT()) {
+			Map<String, Object> solverModel = solverResult.getModel();
+			for (Set<Constraint<?>> slice : unsolvedSlices) {
+				addSAT(slice, restrict(solverModel, slice));
 			}
+			model.putAll(solverModel);
+			return SolverResult.newSAT(model);
+		} else {
+			// Unknown results are not cached, as the solver might succeed next time
+			return solverResult;
+		}
+	}
+
+	private static SolverResult solveWithoutCache(Solver solver, Collection<Constraint<?>> constraints) {
+		try {
+			return solver.solve(constraints);
 		} catch (SolverTimeoutException | IOException | SolverParseException | SolverEmptyQueryException
 				| SolverErrorException e) {
-			solverResult = null;
+			return null;
 		}
+	}
 
-		return solverResult;
+	private void countHit(boolean reused) {
+		number_of_hits++;
+		if (reused) {
+			number_of_reuses++;
+		}
+	}
+
+	/**
+	 * Splits a constraint system into sets of constraints that do not share
+	 * any variable
+	 */
+	private static List<Set<Constraint<?>>> slice(Collection<Constraint<?>> constraints) {
+		Map<String, String> parents = new HashMap<String, String>();
+		Map<Constraint<?>, String> representatives = new LinkedHashMap<Constraint<?>, String>();
+		List<Set<Constraint<?>>> slices = new ArrayList<Set<Constraint<?>>>();
+
+		for (Constraint<?> constraint : constraints) {
+			String representative = null;
+			for (Variable<?> variable : constraint.getVariables()) {
+				String root = find(parents, variable.getName());
+				if (representative == null) {
+					representative = root;
+				} else if (!representative.equals(root)) {
+					parents.put(root, representative);
+				}
+			}
+			if (representative == null) {
+				// no variables, eg a constant comparison
+				Set<Constraint<?>> slice = new LinkedHashSet<Constraint<?>>();
+				slice.add(constraint);
+				slices.add(slice);
+			} else {
+				representatives.put(constraint, representative);
+			}
+		}
 
+		Map<String, Set<Constraint<?>>> slicesByRoot = new LinkedHashMap<String, Set<Constraint<?>>>();
+		for (Map.Entry<Constraint<?>, String> entry : representatives.entrySet()) {
+			String root = find(parents, entry.getValue());
+			Set<Constraint<?>> slice = slicesByRoot.get(root);
+			if (slice == null) {
+				slice = new LinkedHashSet<Constraint<?>>();
+				slicesByRoot.put(root, slice);
+			}
+			slice.add(entry.getKey());
+		}
+		slices.addAll(slicesByRoot.values());
+		return slices;
 	}
 
-	private static final SolverCache instance = new SolverCache();
+	private static String find(Map<String, String> parents, String name) {
+		String root = name;
+		String parent;
+		while ((parent = parents.get(root)) != null) {
+			root = parent;
+		}
+		// path compression
+		String current = name;
+		while (!current.equals(root)) {
+			String next = parents.get(current);
+			parents.put(current, root);
+			current = next;
+		}
+		return root;
+	}
 
-	private HashMap<Collection<Constraint<?>>, SolverResult> cached_solver_results = new HashMap<Collection<Constraint<?>>, SolverResult>();
-	private int cached_sat_result_count = 0;
-	private int cached_unsat_result_count = 0;
+	private static Set<String> getVariableNames(Collection<Constraint<?>> constraints) {
+		Set<String> names = new HashSet<String>();
+		for (Constraint<?> constraint : constraints) {
+			for (Variable<?> variable : constraint.getVariables()) {
+				names.add(variable.getName());
+			}
+		}
+		return names;
+	}
 
-	public int getNumberOfUNSATs() {
-		return cached_unsat_result_count;
+	private static Map<String, Object> restrict(Map<String, Object> model, Collection<Constraint<?>> constraints) {
+		Map<String, Object> restricted = new HashMap<String, Object>();
+		for (String name : getVariableNames(constraints)) {
+			if (model.containsKey(name)) {
+				restricted.put(name, model.get(name));
+			}
+		}
+		return restricted;
 	}
 
-	public int getNumberOfSATs() {
-		return cached_sat_result_count;
+	private SolverResult getCachedResult(SolverCacheKey key, Set<Constraint<?>> constraints) {
+		CacheEntry entry = cached_solver_results.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (!entry.result.isSAT()) {
+			return entry.result;
+		}
+		return SolverResult.newSAT(key.fromCanonicalModel(entry.result.getModel()));
 	}
 
-	private int number_of_accesses = 0;
-	private int number_of_hits = 0;
+	/**
+	 * Looks for a cached UNSAT system that is a subset of the given one, or for
+	 * a cached model that satisfies it
+	 */
+	private SolverResult getSubsumingResult(Set<Constraint<?>> constraints) {
+		Set<CacheEntry> candidates = new LinkedHashSet<CacheEntry>();
+		for (Constraint<?> constraint : constraints) {
+			Set<CacheEntry> entries = entries_by_constraint.get(constraint);
+			if (entries != null) {
+				candidates.addAll(entries);
+			}
+		}
 
-	private SolverCache() {
-		/* empty constructor */
+		Set<String> variableNames = null;
+		int checkedModels = 0;
+		for (CacheEntry entry : candidates) {
+			if (entry.result.isUNSAT()) {
+				if (constraints.containsAll(entry.constraints)) {
+					cached_solver_results.get(entry.key); // refresh
+					return entry.result;
+				}
+			} else if (entry.result.isSAT() && checkedModels < MAX_REUSE_CANDIDATES) {
+				checkedModels++;
+				Map<String, Object> model = entry.key.fromCanonicalModel(entry.result.getModel());
+				if (variableNames == null) {
+					variableNames = getVariableNames(constraints);
+				}
+				if (!model.keySet().containsAll(variableNames)) {
+					continue;
+				}
+				SolverResult candidate = SolverResult.newSAT(restrict(model, constraints));
+				if (satisfies(constraints, candidate)) {
+					cached_solver_results.get(entry.key); // refresh
+					return candidate;
+				}
+			}
+		}
+		return null;
 	}
 
-	public static SolverCache getInstance() {
-		return instance;
+	private static boolean satisfies(Set<Constraint<?>> constraints, SolverResult satResult) {
+		try {
+			return Solver.checkSAT(constraints, satResult);
+		} catch (RuntimeException e) {
+			// eg, the model has a value of the wrong type for a variable
+			return false;
+		}
 	}
 
 	private void addUNSAT(Collection<Constraint<?>> unsat_constraints, SolverResult unsatResult) {
-		cached_solver_results.put(unsat_constraints, unsatResult);
+		Set<Constraint<?>> constraints = new LinkedHashSet<Constraint<?>>(unsat_constraints);
+		put(new CacheEntry(SolverCacheKey.of(constraints), constraints, unsatResult));
 		cached_unsat_result_count++;
 	}
 
-	private void addSAT(Collection<Constraint<?>> sat_constraints, SolverResult satResult) {
-		cached_solver_results.put(sat_constraints, satResult);
+	private void addSAT(Set<Constraint<?>> sat_constraints, Map<String, Object> model) {
+		SolverCacheKey key = SolverCacheKey.of(sat_constraints);
+		SolverResult satResult = SolverResult.newSAT(key.toCanonicalModel(model));
+		put(new CacheEntry(key, sat_constraints, satResult));
 		cached_sat_result_count++;
 	}
 
-	private boolean valid_cached_solution = false;
-	private SolverResult cached_solution = null;
-
-	private boolean hasCachedResult(Collection<Constraint<?>> constraints) {
-		number_of_accesses++;
+	private void put(CacheEntry entry) {
+		CacheEntry previous = cached_solver_results.put(entry.key, entry);
+		if (previous != null) {
+			unindex(previous);
+		}
+		for (Constraint<?> constraint : entry.constraints) {
+			Set<CacheEntry> entries = entries_by_constraint.get(constraint);
+			if (entries == null) {
+				entries = new LinkedHashSet<CacheEntry>();
+				entries_by_constraint.put(constraint, entries);
+			}
+			entries.add(entry);
+		}
+	}
 
-		if (this.cached_solver_results.containsKey(constraints)) {
-			valid_cached_solution = true;
-			cached_solution = this.cached_solver_results.get(constraints);
-			number_of_hits++;
-			return true;
-		} else {
-			valid_cached_solution = false;
-			return false;
+	private void unindex(CacheEntry entry) {
+		for (Constraint<?> constraint : entry.constraints) {
+			Set<CacheEntry> entries = entries_by_constraint.get(constraint);
+			if (entries != null) {
+				entries.remove(entry);
+				if (entries.isEmpty()) {
+					entries_by_constraint.remove(constraint);
+				}
+			}
 		}
 	}
 
-	public double getHitRate() {
-		return (double) this.number_of_hits / (double) this.number_of_accesses;
+	public int getNumberOfUNSATs() {
+		return cached_unsat_result_count;
+	}
+
+	public int getNumberOfSATs() {
+		return cached_sat_result_count;
 	}
 
 	/**
-	 * If not in cache returns IllegalArgumentException()
-	 * 
-	 * @param constraints
-	 * @return
+	 * @return number of queries answered without calling the solver
 	 */
-	public SolverResult getCachedResult() {
+	public int getNumberOfHits() {
+		return number_of_hits;
+	}
 
-		if (valid_cached_solution == false) {
-			throw new IllegalArgumentException("The constraint is not cached!");
-		}
+	/**
+	 * @return number of queries that needed the solver
+	 */
+	public int getNumberOfMisses() {
+		return number_of_accesses - number_of_hits;
+	}
+
+	/**
+	 * @return number of hits that reused the result of a different (ie,
+	 *         subset or superset) constraint system
+	 */
+	public int getNumberOfReuses() {
+		return number_of_reuses;
+	}
+
+	public int getNumberOfEvictions() {
+		return number_of_evictions;
+	}
 
-		valid_cached_solution = false;
-		return this.cached_solution;
+	public int size() {
+		return cached_solver_results.size();
+	}
+
+	public double getHitRate() {
+		return (double) this.number_of_hits / (double) this.number_of_accesses;
 	}
 
 }
@@ -0,0 +1,343 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.solver.smt.ExprToSmtVisitor;
+import org.evosuite.symbolic.solver.smt.SmtBooleanConstant;
+import org.evosuite.symbolic.solver.smt.SmtExpr;
+import org.evosuite.symbolic.solver.smt.SmtExprPrinter;
+import org.evosuite.symbolic.solver.smt.SmtExprVisitor;
+import org.evosuite.symbolic.solver.smt.SmtIntConstant;
+import org.evosuite.symbolic.solver.smt.SmtIntVariable;
+import org.evosuite.symbolic.solver.smt.SmtOperation;
+import org.evosuite.symbolic.solver.smt.SmtRealConstant;
+import org.evosuite.symbolic.solver.smt.SmtRealVariable;
+import org.evosuite.symbolic.solver.smt.SmtStringConstant;
+import org.evosuite.symbolic.solver.smt.SmtStringVariable;
+
+/**
+ * Key of a constraint system in the {@link SolverCache}.
+ *
+ * The key is built from the SMT translation of the constraints, where
+ * variables are renamed in order of first occurrence and constraints are
+ * sorted, so that two systems that only differ in the names of their
+ * variables or in the order of their constraints share the same key. The
+ * bounds of the variables are part of the key. The canonical strings of the
+ * constraints are hash-consed, as the same constraints show up in many path
+ * conditions.
+ *
+ * If a constraint cannot be translated, the key falls back to the set of
+ * constraints as they are.
+ */
+final class SolverCacheKey {
+
+	private static final Map<String, WeakReference<String>> canonicalStrings = new WeakHashMap<String, WeakReference<String>>();
+
+	/** Canonical form of each constraint, or null if the key is exact */
+	private final List<String> canonicalConstraints;
+
+	/** Sort and bounds of each canonical variable, or null if the key is exact */
+	private final String canonicalVariables;
+
+	/** The constraints as they are, or null if the key is canonical */
+	private final Set<Constraint<?>> exactConstraints;
+
+	/** From the original names of the variables to the canonical ones */
+	private final Map<String, String> canonicalNames;
+
+	private final int hash;
+
+	private SolverCacheKey(List<String> canonicalConstraints, String canonicalVariables,
+			Map<String, String> canonicalNames) {
+		this.canonicalConstraints = canonicalConstraints;
+		this.canonicalVariables = canonicalVariables;
+		this.canonicalNames = canonicalNames;
+		this.exactConstraints = null;
+		this.hash = 31 * canonicalConstraints.hashCode() + canonicalVariables.hashCode();
+	}
+
+	private SolverCacheKey(Set<Constraint<?>> exactConstraints) {
+		this.canonicalConstraints = null;
+		this.canonicalVariables = null;
+		this.canonicalNames = null;
+		this.exactConstraints = exactConstraints;
+		this.hash = exactConstraints.hashCode();
+	}
+
+	/**
+	 * Builds the key of a constraint system
+	 *
+	 * @param constraints
+	 * @return
+	 */
+	public static SolverCacheKey of(Collection<Constraint<?>> constraints) {
+		List<Constraint<?>> unique = new ArrayList<Constraint<?>>(new LinkedHashSet<Constraint<?>>(constraints));
+
+		final List<SmtExpr[]> operands = new ArrayList<SmtExpr[]>(unique.size());
+		try {
+			ExprToSmtVisitor visitor = new ExprToSmtVisitor();
+			for (Constraint<?> constraint : unique) {
+				SmtExpr left = constraint.getLeftOperand().accept(visitor, null);
+				SmtExpr right = constraint.getRightOperand().accept(visitor, null);
+				if (left == null || right == null) {
+					return new SolverCacheKey(new HashSet<Constraint<?>>(unique));
+				}
+				operands.add(new SmtExpr[] { left, right });
+			}
+		} catch (RuntimeException e) {
+			// eg, reference variables cannot be translated
+			return new SolverCacheKey(new HashSet<Constraint<?>>(unique));
+		}
+
+		/*
+		 * Sort by the shape of the constraints (ie, with anonymous variables),
+		 * breaking ties with the original names
+		 */
+		final List<String> shapes = new ArrayList<String>(unique.size());
+		final List<String> named = new ArrayList<String>(unique.size());
+		CanonicalPrinter shapePrinter = new CanonicalPrinter(true, null);
+		CanonicalPrinter namePrinter = new CanonicalPrinter(false, null);
+		for (int i = 0; i < unique.size(); i++) {
+			shapes.add(print(unique.get(i), operands.get(i), shapePrinter));
+			named.add(print(unique.get(i), operands.get(i), namePrinter));
+		}
+		List<Integer> order = new ArrayList<Integer>(unique.size());
+		for (int i = 0; i < unique.size(); i++) {
+			order.add(i);
+		}
+		Collections.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i1, Integer i2) {
+				int cmp = shapes.get(i1).compareTo(shapes.get(i2));
+				return cmp != 0 ? cmp : named.get(i1).compareTo(named.get(i2));
+			}
+		});
+
+		Map<String, String> canonicalNames = new LinkedHashMap<String, String>();
+		CanonicalPrinter renamingPrinter = new CanonicalPrinter(false, canonicalNames);
+		List<String> canonicalConstraints = new ArrayList<String>(unique.size());
+		for (int i : order) {
+			canonicalConstraints.add(intern(print(unique.get(i), operands.get(i), renamingPrinter)));
+		}
+
+		Map<String, Variable<?>> variables = new HashMap<String, Variable<?>>();
+		for (Constraint<?> constraint : unique) {
+			for (Variable<?> variable : constraint.getVariables()) {
+				variables.put(variable.getName(), variable);
+			}
+		}
+		StringBuilder canonicalVariables = new StringBuilder();
+		for (Map.Entry<String, String> entry : canonicalNames.entrySet()) {
+			Variable<?> variable = variables.get(entry.getKey());
+			canonicalVariables.append(entry.getValue());
+			if (variable != null) {
+				canonicalVariables.append("[" + variable.getMinValue() + "," + variable.getMaxValue() + "]");
+			}
+			canonicalVariables.append(" ");
+		}
+
+		return new SolverCacheKey(canonicalConstraints, canonicalVariables.toString(), canonicalNames);
+	}
+
+	private static String print(Constraint<?> constraint, SmtExpr[] operands, CanonicalPrinter printer) {
+		return constraint.getClass().getSimpleName() + "(" + constraint.getComparator().name() + " "
+				+ operands[0].accept(printer, null) + " " + operands[1].accept(printer, null) + ")";
+	}
+
+	private static String intern(String str) {
+		synchronized (canonicalStrings) {
+			WeakReference<String> ref = canonicalStrings.get(str);
+			String interned = ref == null ? null : ref.get();
+			if (interned == null) {
+				canonicalStrings.put(str, new WeakReference<String>(str));
+				interned = str;
+			}
+			return interned;
+		}
+	}
+
+	/**
+	 * @return true if the key was built from the constraints as they are
+	 */
+	public boolean isExact() {
+		return exactConstraints != null;
+	}
+
+	/**
+	 * Renames the variables of a model of the constraint system to their
+	 * canonical names, dropping the ones that do not occur in it
+	 */
+	public Map<String, Object> toCanonicalModel(Map<String, Object> model) {
+		if (isExact()) {
+			return new HashMap<String, Object>(model);
+		}
+		Map<String, Object> canonicalModel = new HashMap<String, Object>();
+		for (Map.Entry<String, String> entry : canonicalNames.entrySet()) {
+			if (model.containsKey(entry.getKey())) {
+				canonicalModel.put(entry.getValue(), model.get(entry.getKey()));
+			}
+		}
+		return canonicalModel;
+	}
+
+	/**
+	 * Renames the variables of a model stored under this key back to the names
+	 * of the constraint system this key was built from
+	 */
+	public Map<String, Object> fromCanonicalModel(Map<String, Object> canonicalModel) {
+		if (isExact()) {
+			return new HashMap<String, Object>(canonicalModel);
+		}
+		Map<String, Object> model = new HashMap<String, Object>();
+		for (Map.Entry<String, String> entry : canonicalNames.entrySet()) {
+			if (canonicalModel.containsKey(entry.getValue())) {
+				model.put(entry.getKey(), canonicalModel.get(entry.getValue()));
+			}
+		}
+		return model;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof SolverCacheKey)) {
+			return false;
+		}
+		SolverCacheKey other = (SolverCacheKey) obj;
+		if (hash != other.hash) {
+			return false;
+		}
+		if (isExact()) {
+			return other.isExact() && exactConstraints.equals(other.exactConstraints);
+		}
+		return !other.isExact() && canonicalVariables.equals(other.canonicalVariables)
+				&& canonicalConstraints.equals(other.canonicalConstraints);
+	}
+
+	@Override
+	public String toString() {
+		return isExact() ? exactConstraints.toString() : canonicalConstraints + " " + canonicalVariables;
+	}
+
+	/**
+	 * Prints SMT expressions. Variables are either anonymous (ie, all the
+	 * variables of the same sort look the same), renamed on first occurrence,
+	 * or printed with their own name if there is no renaming.
+	 */
+	private static class CanonicalPrinter implements SmtExprVisitor<String, Void> {
+
+		private final SmtExprPrinter constantPrinter = new SmtExprPrinter();
+
+		private final boolean anonymous;
+
+		private final Map<String, String> renaming;
+
+		CanonicalPrinter(boolean anonymous, Map<String, String> renaming) {
+			this.anonymous = anonymous;
+			this.renaming = renaming;
+		}
+
+		private String printVariable(String name, String sort) {
+			if (anonymous) {
+				return "?" + sort;
+			}
+			if (renaming == null) {
+				return name;
+			}
+			String canonicalName = renaming.get(name);
+			if (canonicalName == null) {
+				canonicalName = "?" + sort + renaming.size();
+				renaming.put(name, canonicalName);
+			}
+			return canonicalName;
+		}
+
+		@Override
+		public String visit(SmtBooleanConstant n, Void arg) {
+			return constantPrinter.visit(n, arg);
+		}
+
+		@Override
+		public String visit(SmtIntConstant n, Void arg) {
+			return constantPrinter.visit(n, arg);
+		}
+
+		@Override
+		public String visit(SmtRealConstant n, Void arg) {
+			return constantPrinter.visit(n, arg);
+		}
+
+		@Override
+		public String visit(SmtStringConstant n, Void arg) {
+			return constantPrinter.visit(n, arg);
+		}
+
+		@Override
+		public String visit(SmtIntVariable n, Void arg) {
+			return printVariable(n.getName(), "i");
+		}
+
+		@Override
+		public String visit(SmtRealVariable n, Void arg) {
+			return printVariable(n.getName(), "r");
+		}
+
+		@Override
+		public String visit(SmtStringVariable n, Void arg) {
+			return printVariable(n.getName(), "s");
+		}
+
+		@Override
+		public String visit(SmtOperation n, Void arg) {
+			StringBuilder result = new StringBuilder();
+			result.append("(");
+			result.append(n.getOperator().toString());
+			for (SmtExpr argument : n.getArguments()) {
+				result.append(" ");
+				result.append(argument.accept(this, null));
+			}
+			result.append(")");
+			return result.toString();
+		}
+	}
+}
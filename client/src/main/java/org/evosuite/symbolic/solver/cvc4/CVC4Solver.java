@@ -131,12 +131,17 @@ public final class CVC4Solver extends SmtSolver {
 		logger.debug("CVC4 Query:");
 		logger.debug(smtQueryStr);
 
-		String cmd = buildCVC4cmd(cvcTimeout);
-
-		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
 		try {
-			launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
-			String output = stdout.toString("UTF-8");
+			String output;
+			if (Properties.DSE_SOLVER_PROCESS_POOL) {
+				String cmd = buildIncrementalCVC4cmd(cvcTimeout);
+				output = solveWithResidentProcess(cmd, query, (int) cvcTimeout);
+			} else {
+				String cmd = buildCVC4cmd(cvcTimeout);
+				ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+				launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
+				output = stdout.toString("UTF-8");
+			}
 
 			if (output.startsWith("unknown")) {
 				logger.debug("timeout reached when using cvc4");
@@ -280,6 +285,23 @@ public final class CVC4Solver extends SmtSolver {
 		return cmd;
 	}
 
+	/**
+	 * Command for a resident CVC4 process that answers queries as they come.
+	 * The time limit applies to each query instead of the whole process, and
+	 * the process keeps going after (get-model) fails on an UNSAT query.
+	 */
+	private static String buildIncrementalCVC4cmd(long cvcTimeout) {
+		String cmd = Properties.CVC4_PATH;
+		cmd += " --rewrite-divk";
+		cmd += " --lang smt";
+		cmd += " --finite-model-find";
+		cmd += " --incremental"; // allow (push) and (pop)
+		cmd += " --interactive --no-interactive-prompt"; // answer each command as soon as it is read
+		cmd += " --continued-execution"; // do not exit on errors
+		cmd += " --tlimit-per=" + cvcTimeout; // set timeout per query to cvcTimeout
+		return cmd;
+	}
+
 	private static boolean hasNonLinearConstraints(Collection<Constraint<?>> constraints) {
 		NonLinearConstraintVisitor v = new NonLinearConstraintVisitor();
 		for (Constraint<?> constraint : constraints) {
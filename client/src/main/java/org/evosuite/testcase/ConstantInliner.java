@@ -82,7 +82,7 @@ public class ConstantInliner extends ExecutionObserver {
 	 *            a {@link org.evosuite.testcase.TestChromosome} object.
 	 */
 	public void inline(TestChromosome test) {
-		inline(test.test);
+		inline(test.getTestCase());
 	}
 
 	/**
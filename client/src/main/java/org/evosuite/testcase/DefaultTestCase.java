@@ -45,6 +45,7 @@ import org.evosuite.ga.ConstructionFailedException;
 import org.evosuite.runtime.util.Inputs;
 import org.evosuite.setup.TestClusterUtils;
 import org.evosuite.testcase.execution.CodeUnderTestException;
+import org.evosuite.testcase.execution.ExecutedPrefix;
 import org.evosuite.testcase.execution.Scope;
 import org.evosuite.testcase.statements.ConstructorStatement;
 import org.evosuite.testcase.statements.FieldStatement;
@@ -273,6 +274,7 @@ public class DefaultTestCase implements TestCase, Serializable {
 	 */
 	public void changeClassLoader(ClassLoader loader) {
 		changedClassLoader  = loader;
+		executedPrefix = null;
 		for (Statement s : statements) {
 			s.changeClassLoader(loader);
 		}
@@ -283,6 +285,21 @@ public class DefaultTestCase implements TestCase, Serializable {
 	public ClassLoader getChangedClassLoader() {
 		return changedClassLoader;
 	}
+
+	/** Prefix of the last execution of this test case, or of the one it was cloned from */
+	private transient ExecutedPrefix executedPrefix = null;
+
+	/**
+	 * @return the prefix of the last execution of this test case that can be
+	 *         skipped when executing it again, or null
+	 */
+	public ExecutedPrefix getExecutedPrefix() {
+		return executedPrefix;
+	}
+
+	public void setExecutedPrefix(ExecutedPrefix executedPrefix) {
+		this.executedPrefix = executedPrefix;
+	}
 	
 	/* (non-Javadoc)
 	 * @see org.evosuite.testcase.TestCase#chop(int)
@@ -380,6 +397,7 @@ public class DefaultTestCase implements TestCase, Serializable {
 		t.coveredGoals.addAll(coveredGoals);
 		t.accessedEnvironment.copyFrom(accessedEnvironment);
 		t.isFailing = isFailing;
+		t.executedPrefix = executedPrefix;
 		t.id = idGenerator.getAndIncrement(); //always create new ID when making a clone
 		//t.exception_statement = exception_statement;
 		//t.exceptionThrown = exceptionThrown;
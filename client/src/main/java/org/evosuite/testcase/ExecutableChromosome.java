@@ -27,6 +27,7 @@ import java.util.Map;
 import org.evosuite.coverage.mutation.Mutation;
 import org.evosuite.coverage.mutation.MutationExecutionResult;
 import org.evosuite.ga.Chromosome;
+import org.evosuite.novelty.BehaviourVector;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 public abstract class ExecutableChromosome extends Chromosome {
@@ -36,6 +37,9 @@ public abstract class ExecutableChromosome extends Chromosome {
 
 	protected transient Map<Mutation, MutationExecutionResult> lastMutationResult = new HashMap<Mutation, MutationExecutionResult>();
 
+	/** Behaviour of the last execution, as seen by novelty search */
+	protected transient BehaviourVector behaviour = null;
+
 	/**
 	 * <p>Constructor for ExecutableChromosome.</p>
 	 */
@@ -50,6 +54,7 @@ public abstract class ExecutableChromosome extends Chromosome {
 	 */
 	public void setLastExecutionResult(ExecutionResult lastExecutionResult) {
 		this.lastExecutionResult = lastExecutionResult;
+		this.behaviour = null;
 	}
 
 	/**
@@ -81,6 +86,25 @@ public abstract class ExecutableChromosome extends Chromosome {
 	public MutationExecutionResult getLastExecutionResult(Mutation mutation) {
 		return lastMutationResult.get(mutation);
 	}
+
+	/**
+	 * <p>Getter for the field <code>behaviour</code>.</p>
+	 *
+	 * @return the behaviour vector of the last execution, or null if it was not computed
+	 */
+	public BehaviourVector getBehaviour() {
+		return behaviour;
+	}
+
+	/**
+	 * <p>Setter for the field <code>behaviour</code>, which is reset whenever
+	 * the last execution result changes.</p>
+	 *
+	 * @param behaviour a {@link org.evosuite.novelty.BehaviourVector} object.
+	 */
+	public void setBehaviour(BehaviourVector behaviour) {
+		this.behaviour = behaviour;
+	}
 	
 
 	/**
@@ -88,6 +112,7 @@ public abstract class ExecutableChromosome extends Chromosome {
 	 */
 	public void clearCachedResults() {
 		this.lastExecutionResult = null;
+		this.behaviour = null;
 		lastMutationResult.clear();
 	}
 
@@ -24,6 +24,7 @@ import org.evosuite.TimeController;
 import org.evosuite.ga.ConstructionFailedException;
 import org.evosuite.ga.FitnessFunction;
 import org.evosuite.ga.SecondaryObjective;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
 import org.evosuite.testcase.statements.Statement;
 import org.evosuite.testcase.variable.VariableReference;
 import org.slf4j.Logger;
@@ -106,8 +107,12 @@ public class TestCaseMinimizer {
     }
     
 	/**
-	 * Central minimization function. Loop and try to remove until all
-	 * statements have been checked.
+	 * Central minimization function. Statements are removed by delta
+	 * debugging (ddmin): the test is split in chunks, and chunks are removed
+	 * as long as the fitness does not get worse. When no chunk can be removed,
+	 * the chunks are halved, down to single statements, so that in the end no
+	 * single statement can be removed. The candidates of one round are
+	 * executed together on the execution lanes, if there are any.
 	 * 
 	 * @param c
 	 *            a {@link org.evosuite.testcase.TestChromosome} object.
@@ -132,50 +137,52 @@ public class TestCaseMinimizer {
 			return;
 		}
 		
-		boolean changed = true;
+		int chunks = 2;
+		while (c.getTestCaseForReading().size() > 0) {
+			int size = c.getTestCaseForReading().size();
+			chunks = Math.min(chunks, size);
+
+			// chunks at the end of the test first, as later statements depend on earlier ones
+			List<TestChromosome> candidates = new ArrayList<TestChromosome>();
+			for (int k = chunks - 1; k >= 0; k--) {
+				candidates.add(removeStatements(c, k * size / chunks, (k + 1) * size / chunks));
+			}
 
-		while (changed) {
-			changed = false;
+			// the candidates of a round are independent, so they can be executed together
+			List<TestChromosome> executable = new ArrayList<TestChromosome>();
+			for (TestChromosome candidate : candidates) {
+				if (candidate != null)
+					executable.add(candidate);
+			}
+			if (Properties.PARALLEL_EXECUTION_LANES > 1 && executable.size() > 1)
+				ParallelTestCaseExecutor.getInstance().executeChanged(executable,
+				        Collections.singleton(fitnessFunction));
 
-			for (int i = c.test.size() - 1; i >= 0; i--) {
+			boolean removed = false;
+			for (int k = 0; k < candidates.size() && !removed; k++) {
 				if (isTimeoutReached()) {
-					logger.debug("Timeout reached before minimizing statement {}", c.test.getStatement(i).getCode());
+					logger.debug("Timeout reached before minimizing chunk {} of {}", chunks - 1 - k, chunks);
 					return;
 				}
-				
-				logger.debug("Deleting statement {}", c.test.getStatement(i).getCode());
-				TestChromosome copy = (TestChromosome) c.clone();
-				boolean modified;
-				try {
-					modified = TestFactory.getInstance().deleteStatementGracefully(c.test, i);
-				} catch (ConstructionFailedException e) {
-					modified = false;
-				}
-				
-				if(!modified){
-					c.setChanged(false);
-					c.test = copy.test;
-					logger.debug("Deleting failed");
+				TestChromosome candidate = candidates.get(k);
+				if (candidate == null)
 					continue;
+				if (!isWorse(fitnessFunction, c, candidate)) {
+					logger.debug("Keeping shorter version");
+					replaceTestCase(c, candidate);
+					removed = true;
 				}
-
-				c.setChanged(true);
-
 				if (isTimeoutReached()) {
-					logger.debug("Keeping original version due to timeout");
-					restoreTestCase(c, copy);
 					return;
 				}
+			}
 
-				if (! isWorse(fitnessFunction, copy, c)) {
-					logger.debug("Keeping shorter version");
-					changed = true;
-					break;
-				} else {
-					logger.debug("Keeping original version");
-					restoreTestCase(c, copy);
-				}
-
+			if (removed) {
+				chunks = Math.max(chunks - 1, 2);
+			} else if (chunks >= size) {
+				break;
+			} else {
+				chunks = Math.min(2 * chunks, size);
 			}
 		}
 
@@ -184,7 +191,7 @@ public class TestCaseMinimizer {
 				fitnessFunction.getFitness(c) >= fitness : fitnessFunction.getFitness(c) <= fitness)
 				:
 				"Minimization worsened " + fitnessFunction.getClass().getName()+" fitness from "+fitness+
-						" to "+fitnessFunction.getFitness(c)+" on test "+c.getTestCase().toCode();
+						" to "+fitnessFunction.getFitness(c)+" on test "+c.getTestCaseForReading().toCode();
 
 
 		if (Properties.MINIMIZE_VALUES) {
@@ -197,13 +204,42 @@ public class TestCaseMinimizer {
 
 		if (logger.isDebugEnabled()) {
 			logger.debug("Minimized test case: ");
-			logger.debug(c.test.toCode());
+			logger.debug(c.getTestCaseForReading().toCode());
+		}
+
+	}
+
+	/**
+	 * Remove the statements in the given range of positions from a copy of
+	 * the test
+	 *
+	 * @return the copy without the statements, or null if they could not be
+	 *         removed
+	 */
+	private static TestChromosome removeStatements(TestChromosome c, int from, int to) {
+		logger.debug("Deleting statements {} to {}", from, to - 1);
+		TestChromosome copy = (TestChromosome) c.clone();
+		boolean modified = true;
+		try {
+			// deleting a statement only affects the positions after it
+			for (int i = to - 1; i >= from && modified; i--) {
+				modified = TestFactory.getInstance().deleteStatementGracefully(copy.getTestCase(), i);
+			}
+		} catch (ConstructionFailedException e) {
+			modified = false;
+		}
+
+		if (!modified) {
+			logger.debug("Deleting failed");
+			return null;
 		}
 
+		copy.setChanged(true);
+		return copy;
 	}
 
-	private static void restoreTestCase(TestChromosome c, TestChromosome copy) {
-		c.test = copy.test;
+	private static void replaceTestCase(TestChromosome c, TestChromosome copy) {
+		c.setTestCase(copy.getTestCase());
 		c.copyCachedResults(copy);
 		//c.setFitness(copy.getFitness());
 		c.setFitnessValues(copy.getFitnessValues());
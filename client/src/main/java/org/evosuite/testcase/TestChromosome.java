@@ -19,12 +19,14 @@
  */
 package org.evosuite.testcase;
 
+import java.io.Serializable;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.evosuite.Properties;
@@ -86,6 +88,12 @@ public class TestChromosome extends ExecutableChromosome {
 	/** The test case encoded in this chromosome */
 	protected TestCase test = new DefaultTestCase();
 
+	/**
+	 * Set while the test case may also be encoded by clones of this
+	 * chromosome, which share it until one of them needs to change it
+	 */
+	private SharedTestCase sharedTest = null;
+
 	/** To keep track of what has changed since last fitness evaluation */
 	protected MutationHistory<TestMutationHistoryEntry> mutationHistory = new MutationHistory<TestMutationHistoryEntry>();
 
@@ -102,7 +110,11 @@ public class TestChromosome extends ExecutableChromosome {
 	public Statement getStatementReportingException(){
 		ExecutionResult result = TestCaseExecutor.runTest(this.getTestCase());
 		this.setLastExecutionResult(result);
-		int numOfExecutedStatements = this.getLastExecutionResult().getExecutedStatements();
+		return getStatementReportingException(result);
+	}
+	
+	private Statement getStatementReportingException(ExecutionResult result){
+		int numOfExecutedStatements = result.getExecutedStatements();
 		Statement statOfExp = test.getStatement(numOfExecutedStatements);
 		
 		if(statOfExp.getPosition() == this.test.size() - 1){
@@ -113,9 +125,20 @@ public class TestChromosome extends ExecutableChromosome {
 	}
 	
 	public void updateLegitimacyDistance(){
-		MethodStatement targetCallStat = test.findTargetMethodCallStatement();
 		ExecutionResult result = TestCaseExecutor.runTest(this.getTestCase());
+		updateLegitimacyDistance(result);
+	}
+	
+	/**
+	 * update the legitimacy distance with the result of executing the current test,
+	 * e.g., when the test was executed in a batch.
+	 * 
+	 * @param result
+	 */
+	public void updateLegitimacyDistance(ExecutionResult result){
+		MethodStatement targetCallStat = test.findTargetMethodCallStatement();
 		this.setLastExecutionResult(result);
+		this.setChanged(false);
 		
 		int numOfExecutedStatements = this.getLastExecutionResult().getExecutedStatements();
 		this.legitimacyDistance = targetCallStat.getPosition() - numOfExecutedStatements + 1;
@@ -136,7 +159,7 @@ public class TestChromosome extends ExecutableChromosome {
 			 * locate the relevant branches from the method call return null value
 			 */
 			List<FBranchTestFitness> relevantBranches = locateRelevantBranches(statOfExp, excep, test, this.getLastExecutionResult());
-			if(!relevantBranches.isEmpty()){
+			if(relevantBranches != null && !relevantBranches.isEmpty()){
 				double average = 0;
 				for(FBranchTestFitness ftt: relevantBranches){
 					this.addFitness(ftt);	
@@ -261,6 +284,7 @@ public class TestChromosome extends ExecutableChromosome {
 	 */
 	public void setTestCase(TestCase testCase) {
 		test = testCase;
+		materializeTestCase();
 		clearCachedResults();
 		clearCachedMutationResults();
 		setChanged(true);
@@ -274,9 +298,84 @@ public class TestChromosome extends ExecutableChromosome {
 	 * @return a {@link org.evosuite.testcase.TestCase} object.
 	 */
 	public TestCase getTestCase() {
+		materializeTestCase();
+		return test;
+	}
+
+	/**
+	 * Returns the test case without copying it if it is still shared with
+	 * other chromosomes. The test case must not be changed; use
+	 * {@link #getTestCase()} for that.
+	 *
+	 * @return the test case encoded by this chromosome
+	 */
+	public TestCase getTestCaseForReading() {
 		return test;
 	}
 
+	/**
+	 * A test case encoded by several chromosomes, with the number of them
+	 * that did not copy it yet
+	 */
+	private static class SharedTestCase implements Serializable {
+
+		private static final long serialVersionUID = -2496466313838036307L;
+
+		private final TestCase testCase;
+
+		private final AtomicInteger sharers = new AtomicInteger(1);
+
+		SharedTestCase(TestCase testCase) {
+			this.testCase = testCase;
+		}
+	}
+
+	/**
+	 * Registers a new chromosome encoding the test case of this one
+	 *
+	 * @return the shared test case
+	 */
+	private SharedTestCase shareTestCase() {
+		if (sharedTest != null && sharedTest.testCase != test) {
+			// the test case was replaced since it was last shared
+			materializeTestCase();
+		}
+		if (sharedTest == null) {
+			sharedTest = new SharedTestCase(test);
+		}
+		sharedTest.sharers.incrementAndGet();
+		return sharedTest;
+	}
+
+	/**
+	 * Gives this chromosome a test case of its own before it is exposed to
+	 * changes: the shared test case is copied if other chromosomes still
+	 * encode it, and taken over otherwise. Statements that were recorded in
+	 * the mutation history or the last execution result are mapped to the
+	 * copy.
+	 */
+	private void materializeTestCase() {
+		if (sharedTest == null)
+			return;
+
+		boolean stillShared = sharedTest.sharers.decrementAndGet() > 0;
+		if (stillShared && sharedTest.testCase == test) {
+			TestCase copy = test.clone();
+			if (lastExecutionResult != null) {
+				lastExecutionResult.setTest(copy);
+			}
+			if (!mutationHistory.isEmpty()) {
+				MutationHistory<TestMutationHistoryEntry> history = new MutationHistory<TestMutationHistoryEntry>();
+				for (TestMutationHistoryEntry mutation : mutationHistory) {
+					history.addMutationEntry(mutation.clone(copy));
+				}
+				mutationHistory = history;
+			}
+			test = copy;
+		}
+		sharedTest = null;
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void setLastExecutionResult(ExecutionResult lastExecutionResult) {
@@ -284,6 +383,7 @@ public class TestChromosome extends ExecutableChromosome {
 	        return ;
 		assert lastExecutionResult.test.equals(this.test);
 		this.lastExecutionResult = lastExecutionResult;
+		this.behaviour = null;
 	}
 
 	/** {@inheritDoc} */
@@ -298,13 +398,15 @@ public class TestChromosome extends ExecutableChromosome {
 	/**
 	 * {@inheritDoc}
 	 *
-	 * Create a deep copy of the chromosome
+	 * Create a copy of the chromosome. The test case is shared with the copy
+	 * until either of them changes it
 	 */
 	@SuppressWarnings("deprecation")
 	@Override
 	public Chromosome clone() {
 		TestChromosome c = new TestChromosome();
-		c.test = test.clone();
+		c.sharedTest = shareTestCase();
+		c.test = test;
 		c.setFitnessValues(getFitnessValues());
 		c.setPreviousFitnessValues(getPreviousFitnessValues());
 		c.copyCachedResults(this);
@@ -312,8 +414,9 @@ public class TestChromosome extends ExecutableChromosome {
 		c.setLocalSearchApplied(hasLocalSearchBeenApplied());
 		if (Properties.LOCAL_SEARCH_SELECTIVE) {
 			for (TestMutationHistoryEntry mutation : mutationHistory) {
+				// the entries are mapped to the statements of a copy when it is made
 				if(test.contains(mutation.getStatement()))
-					c.mutationHistory.addMutationEntry(mutation.clone(c.getTestCase()));
+					c.mutationHistory.addMutationEntry(mutation);
 			}
 		}
 		// c.mutationHistory.set(mutationHistory);
@@ -321,6 +424,7 @@ public class TestChromosome extends ExecutableChromosome {
 		c.setNumberOfEvaluations(this.getNumberOfEvaluations());
 		c.setKineticEnergy(getKineticEnergy());
 		c.setNumCollisions(getNumCollisions());
+		c.legitimacyDistance = legitimacyDistance;
 
 		return c;
 	}
@@ -337,6 +441,7 @@ public class TestChromosome extends ExecutableChromosome {
 		if (other.lastExecutionResult != null) {
 			this.lastExecutionResult = other.lastExecutionResult.clone();
 			this.lastExecutionResult.setTest(this.test);
+			this.behaviour = other.behaviour;
 		}
 
 		if (other.lastMutationResult != null) {
@@ -380,6 +485,7 @@ public class TestChromosome extends ExecutableChromosome {
 		if (!Properties.CHECK_MAX_LENGTH
 				|| offspring.test.size() <= Properties.CHROMOSOME_LENGTH) {
 			test = offspring.test;
+			materializeTestCase();
 			setChanged(true);
 		}
 	}
@@ -490,6 +596,7 @@ public class TestChromosome extends ExecutableChromosome {
 	 */
 	@Override
 	public void mutate() {
+		materializeTestCase();
 		boolean changed = false;
 		mutationHistory.clear();
 
@@ -671,6 +778,7 @@ public class TestChromosome extends ExecutableChromosome {
 	 */
 	@SuppressWarnings("deprecation")
 	public boolean mutationChangePrimitiveStatement() {
+		materializeTestCase();
 		boolean changed = false;
 		int lastMutatableStatement = getLastMutatableStatement();
 		double originalPL = 1d / (lastMutatableStatement + 1);
@@ -1251,6 +1359,7 @@ public class TestChromosome extends ExecutableChromosome {
 	 * @return
 	 */
 	public boolean mutationInsert() {
+		materializeTestCase();
 		boolean changed = false;
 		final double ALPHA = Properties.P_STATEMENT_INSERTION; //0.5;
 		int count = 0;
@@ -1478,7 +1587,12 @@ public class TestChromosome extends ExecutableChromosome {
 	
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public void mutateRelevantStatements() {
-		Statement statOfExp = getStatementReportingException();
+		materializeTestCase();
+		/**
+		 * the last result is still valid if the test was not changed since it was executed
+		 */
+		Statement statOfExp = getLastExecutionResult() != null && !isChanged() ?
+				getStatementReportingException(getLastExecutionResult()) : getStatementReportingException();
 		List<Statement> influencingStatements = checkInfluencingStatements(test, statOfExp);
 		for(int i=0; i<influencingStatements.size(); i++){
 			Statement refStatement = influencingStatements.get(i);
@@ -1563,8 +1677,11 @@ public class TestChromosome extends ExecutableChromosome {
 		return list;
 	}
 
+	/**
+	 * @return the legitimacy distance computed by the last call of
+	 *         {@link #updateLegitimacyDistance()}
+	 */
 	public double getLegitimacyDistance() {
-		updateLegitimacyDistance();
 		return legitimacyDistance;
 	}
 
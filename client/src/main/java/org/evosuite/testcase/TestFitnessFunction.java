@@ -57,7 +57,7 @@ public abstract class TestFitnessFunction extends FitnessFunction<TestChromosome
 		logger.trace("Executing test case on original");
 		ExecutionResult origResult = individual.getLastExecutionResult();
 		if (origResult == null || individual.isChanged()) {
-			origResult = runTest(individual.test);
+			origResult = runTest(individual.getTestCaseForReading());
 			individual.setLastExecutionResult(origResult);
 			individual.setChanged(false);
 		}
@@ -157,13 +157,13 @@ public abstract class TestFitnessFunction extends FitnessFunction<TestChromosome
 	 * @return a boolean.
 	 */
 	public boolean isCovered(TestChromosome tc) {
-		if(tc.getTestCase().isGoalCovered(this)){
+		if(tc.getTestCaseForReading().isGoalCovered(this)){
 			return true;
 		}
 
 		ExecutionResult result = tc.getLastExecutionResult();
 		if (result == null || tc.isChanged()) {
-			result = runTest(tc.test);
+			result = runTest(tc.getTestCaseForReading());
 			tc.setLastExecutionResult(result);
 			tc.setChanged(false);
 		}
@@ -185,7 +185,7 @@ public abstract class TestFitnessFunction extends FitnessFunction<TestChromosome
 	public boolean isCovered(TestChromosome individual, ExecutionResult result) {
 		boolean covered = getFitness(individual, result) == 0.0;
 		if (covered) {
-			individual.test.addCoveredGoal(this);
+			individual.getTestCase().addCoveredGoal(this);
 		}
 		return covered;
 	}
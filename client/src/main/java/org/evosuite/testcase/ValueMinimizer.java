@@ -164,7 +164,7 @@ public class ValueMinimizer extends TestVisitor {
 	 */
 	public void minimize(TestChromosome test, TestFitnessFunction objective) {
 		this.objective = new TestMinimization(objective, test);
-		test.test.accept(this);
+		test.getTestCase().accept(this);
 	}
 
 	/**
@@ -181,7 +181,7 @@ public class ValueMinimizer extends TestVisitor {
 		objective.getFitness(suite); // Ensure all tests have an execution result cached
 		for (TestChromosome test : suite.getTestChromosomes()) {
 			this.objective = new SuiteMinimization(objective, suite, i);
-			test.test.accept(this);
+			test.getTestCase().accept(this);
 			i++;
 		}
 
@@ -0,0 +1,357 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.TestGenerationContext;
+import org.evosuite.coverage.branch.BranchPool;
+
+/**
+ * Execution trace that keeps branch distances and coverage counts in
+ * primitive arrays indexed by branch id rather than in synchronized maps, so
+ * that passing a branch neither boxes values nor takes a monitor.
+ *
+ * The map-based accessors of {@link ExecutionTrace} are served by read-only
+ * views that are built on demand and cached until the next update.
+ */
+public class ArrayExecutionTraceImpl extends ExecutionTraceImpl {
+
+	/** Marks a distance that has not been observed yet */
+	private static final double NO_DISTANCE = Double.NaN;
+
+	private double[] trueDistanceArray;
+
+	private double[] falseDistanceArray;
+
+	private double[] trueDistanceSumArray;
+
+	private double[] falseDistanceSumArray;
+
+	private int[] predicateCountArray;
+
+	private int[] trueCountArray;
+
+	private int[] falseCountArray;
+
+	/** Number of times a definition was passed, i.e., map value + 1 */
+	private int[] definitionCountArray;
+
+	private Map<Integer, Double> trueDistanceView = null;
+
+	private Map<Integer, Double> falseDistanceView = null;
+
+	private Map<Integer, Double> trueDistanceSumView = null;
+
+	private Map<Integer, Double> falseDistanceSumView = null;
+
+	private Map<Integer, Integer> predicateCountView = null;
+
+	private Map<Integer, Integer> trueCountView = null;
+
+	private Map<Integer, Integer> falseCountView = null;
+
+	private Map<Integer, Integer> definitionCountView = null;
+
+	public ArrayExecutionTraceImpl() {
+		this(BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).getBranchCounter()
+				+ 1);
+	}
+
+	/**
+	 * @param capacity
+	 *            initial number of branch ids; arrays grow if higher ids are
+	 *            passed
+	 */
+	public ArrayExecutionTraceImpl(int capacity) {
+		super();
+		int size = Math.max(capacity, 1);
+		trueDistanceArray = newDistanceArray(size);
+		falseDistanceArray = newDistanceArray(size);
+		trueDistanceSumArray = newDistanceArray(size);
+		falseDistanceSumArray = newDistanceArray(size);
+		predicateCountArray = new int[size];
+		trueCountArray = new int[size];
+		falseCountArray = new int[size];
+		definitionCountArray = new int[size];
+	}
+
+	private static double[] newDistanceArray(int size) {
+		double[] array = new double[size];
+		Arrays.fill(array, NO_DISTANCE);
+		return array;
+	}
+
+	private static double[] ensureCapacity(double[] array, int index) {
+		if (index < array.length)
+			return array;
+		int oldLength = array.length;
+		double[] grown = Arrays.copyOf(array, Math.max(index + 1, oldLength * 2));
+		Arrays.fill(grown, oldLength, grown.length, NO_DISTANCE);
+		return grown;
+	}
+
+	private static int[] ensureCapacity(int[] array, int index) {
+		if (index < array.length)
+			return array;
+		return Arrays.copyOf(array, Math.max(index + 1, array.length * 2));
+	}
+
+	private static boolean hasValue(double[] array, int index) {
+		return index >= 0 && index < array.length && !Double.isNaN(array[index]);
+	}
+
+	private static boolean hasValue(int[] array, int index) {
+		return index >= 0 && index < array.length && array[index] != 0;
+	}
+
+	private static Map<Integer, Double> toMap(double[] array) {
+		Map<Integer, Double> map = new LinkedHashMap<Integer, Double>();
+		for (int i = 0; i < array.length; i++) {
+			if (!Double.isNaN(array[i]))
+				map.put(i, array[i]);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	private static Map<Integer, Integer> toMap(int[] array, int offset) {
+		Map<Integer, Integer> map = new LinkedHashMap<Integer, Integer>();
+		for (int i = 0; i < array.length; i++) {
+			if (array[i] != 0)
+				map.put(i, array[i] + offset);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void updateBranchCoverage(int branch, double true_distance, double false_distance) {
+		predicateCountArray = ensureCapacity(predicateCountArray, branch);
+		predicateCountArray[branch]++;
+		predicateCountView = null;
+
+		if (true_distance == 0.0) {
+			trueCountArray = ensureCapacity(trueCountArray, branch);
+			trueCountArray[branch]++;
+			trueCountView = null;
+		}
+
+		if (false_distance == 0.0) {
+			falseCountArray = ensureCapacity(falseCountArray, branch);
+			falseCountArray[branch]++;
+			falseCountView = null;
+		}
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void updateBranchDistances(int branch, double true_distance, double false_distance) {
+		trueDistanceArray = ensureCapacity(trueDistanceArray, branch);
+		falseDistanceArray = ensureCapacity(falseDistanceArray, branch);
+		trueDistanceSumArray = ensureCapacity(trueDistanceSumArray, branch);
+		falseDistanceSumArray = ensureCapacity(falseDistanceSumArray, branch);
+
+		double current = trueDistanceArray[branch];
+		if (Double.isNaN(current) || true_distance < current)
+			trueDistanceArray[branch] = true_distance;
+
+		current = falseDistanceArray[branch];
+		if (Double.isNaN(current) || false_distance < current)
+			falseDistanceArray[branch] = false_distance;
+
+		current = trueDistanceSumArray[branch];
+		trueDistanceSumArray[branch] = Double.isNaN(current) ? true_distance : current + true_distance;
+
+		current = falseDistanceSumArray[branch];
+		falseDistanceSumArray[branch] = Double.isNaN(current) ? false_distance : current + false_distance;
+
+		trueDistanceView = null;
+		falseDistanceView = null;
+		trueDistanceSumView = null;
+		falseDistanceSumView = null;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected boolean isCoveredTrue(int branch) {
+		return hasValue(trueCountArray, branch);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected boolean isCoveredFalse(int branch) {
+		return hasValue(falseCountArray, branch);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void updateDefinitionCount(int defID) {
+		definitionCountArray = ensureCapacity(definitionCountArray, defID);
+		definitionCountArray[defID]++;
+		definitionCountView = null;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void clear() {
+		super.clear();
+		// As in the map-based trace, the distance sums survive a clear
+		Arrays.fill(trueDistanceArray, NO_DISTANCE);
+		Arrays.fill(falseDistanceArray, NO_DISTANCE);
+		Arrays.fill(predicateCountArray, 0);
+		Arrays.fill(trueCountArray, 0);
+		Arrays.fill(falseCountArray, 0);
+		Arrays.fill(definitionCountArray, 0);
+		trueDistanceView = null;
+		falseDistanceView = null;
+		predicateCountView = null;
+		trueCountView = null;
+		falseCountView = null;
+		definitionCountView = null;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected ExecutionTraceImpl newInstance() {
+		return new ArrayExecutionTraceImpl(trueDistanceArray.length);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public ArrayExecutionTraceImpl clone() {
+		ArrayExecutionTraceImpl copy = (ArrayExecutionTraceImpl) super.clone();
+		// As in the map-based trace, the distance sums are not copied
+		copy.trueDistanceArray = trueDistanceArray.clone();
+		copy.falseDistanceArray = falseDistanceArray.clone();
+		copy.predicateCountArray = predicateCountArray.clone();
+		copy.trueCountArray = trueCountArray.clone();
+		copy.falseCountArray = falseCountArray.clone();
+		copy.definitionCountArray = definitionCountArray.clone();
+		return copy;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double getTrueDistance(int branchId) {
+		if (!hasValue(trueDistanceArray, branchId))
+			throw new NullPointerException("No true distance for branch " + branchId);
+		return trueDistanceArray[branchId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double getFalseDistance(int branchId) {
+		if (!hasValue(falseDistanceArray, branchId))
+			throw new NullPointerException("No false distance for branch " + branchId);
+		return falseDistanceArray[branchId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasTrueDistance(int predicateId) {
+		return hasValue(trueDistanceArray, predicateId);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasFalseDistance(int predicateId) {
+		return hasValue(falseDistanceArray, predicateId);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getTrueDistances() {
+		if (trueDistanceView == null)
+			trueDistanceView = toMap(trueDistanceArray);
+		return trueDistanceView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getFalseDistances() {
+		if (falseDistanceView == null)
+			falseDistanceView = toMap(falseDistanceArray);
+		return falseDistanceView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getTrueDistancesSum() {
+		if (trueDistanceSumView == null)
+			trueDistanceSumView = toMap(trueDistanceSumArray);
+		return trueDistanceSumView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getFalseDistancesSum() {
+		if (falseDistanceSumView == null)
+			falseDistanceSumView = toMap(falseDistanceSumArray);
+		return falseDistanceSumView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Integer> getPredicateExecutionCount() {
+		if (predicateCountView == null)
+			predicateCountView = toMap(predicateCountArray, 0);
+		return predicateCountView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getCoveredPredicates() {
+		return getPredicateExecutionCount().keySet();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Integer> getCoveredTrue() {
+		if (trueCountView == null)
+			trueCountView = toMap(trueCountArray, 0);
+		return trueCountView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Integer> getCoveredFalse() {
+		if (falseCountView == null)
+			falseCountView = toMap(falseCountArray, 0);
+		return falseCountView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Integer> getDefinitionExecutionCount() {
+		if (definitionCountView == null)
+			definitionCountView = toMap(definitionCountArray, -1);
+		return definitionCountView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getCoveredDefinitions() {
+		return getDefinitionExecutionCount().keySet();
+	}
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.evosuite.runtime.Random;
+import org.evosuite.runtime.javaee.db.DBManager;
+import org.evosuite.runtime.util.JOptionPaneInputs;
+import org.evosuite.runtime.util.SystemInUtil;
+import org.evosuite.runtime.vfs.VirtualFileSystem;
+import org.evosuite.runtime.vnet.VirtualNetwork;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.variable.VariableReference;
+
+/**
+ * The longest prefix of an executed test case that can be skipped when a
+ * test case starting with the same statements is executed, together with
+ * the values and the execution trace at the end of each of its statements.
+ *
+ * A statement extends the prefix only if it is a primitive, null, method or
+ * constructor statement that did not throw, if its value is immutable (a
+ * string or a boxed primitive), and if the execution so far neither
+ * initialised classes nor accessed static fields, and did not use random
+ * numbers, time, system properties, the standard input, dialogs, databases,
+ * files or the network. Replaying such a prefix has no effect other than
+ * producing the same values and the same trace again.
+ */
+public class ExecutedPrefix {
+
+	private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>> asList(
+	        String.class, Boolean.class, Character.class, Byte.class, Short.class,
+	        Integer.class, Long.class, Float.class, Double.class));
+
+	/** Marks a statement that did not put any value in the scope */
+	private static final Object UNDEFINED = new Object();
+
+	/** Copies of the statements of the prefix */
+	private final DefaultTestCase statements;
+
+	/** Value of each statement of the prefix */
+	private final List<Object> values = new ArrayList<Object>();
+
+	/** Trace of the execution after each statement of the prefix */
+	private final List<ExecutionTrace> traces = new ArrayList<ExecutionTrace>();
+
+	/** Files and connections accessed before the execution started */
+	private int accessedFiles = 0;
+
+	private int accessedNetwork = 0;
+
+	public ExecutedPrefix() {
+		this.statements = new DefaultTestCase();
+	}
+
+	private ExecutedPrefix(DefaultTestCase statements) {
+		this.statements = statements;
+	}
+
+	/**
+	 * @return the number of statements of the prefix
+	 */
+	public int size() {
+		return statements.size();
+	}
+
+	/**
+	 * Determine how many statements of the given test case can be skipped,
+	 * i.e. how many of its first statements are the same as the ones of this
+	 * prefix
+	 *
+	 * @param test
+	 * @return the position from which the execution of the test case can be
+	 *         resumed
+	 */
+	public int getResumablePosition(TestCase test) {
+		int position = 0;
+		while (position < statements.size() && position < test.size()
+		        && test.getStatement(position).same(statements.getStatement(position))) {
+			position++;
+		}
+		return position;
+	}
+
+	/**
+	 * Put the values of the first statements of the test case into the scope,
+	 * and continue the trace from the end of the last of them
+	 *
+	 * @param position
+	 *            the position from which the execution is resumed, as
+	 *            returned by {@link #getResumablePosition(TestCase)}
+	 * @param test
+	 * @param scope
+	 */
+	public void restore(int position, TestCase test, Scope scope) {
+		for (int i = 0; i < position; i++) {
+			Object value = values.get(i);
+			if (value != UNDEFINED) {
+				scope.setObject(test.getStatement(i).getReturnValue(), value);
+			}
+		}
+		if (position > 0) {
+			ExecutionTracer.getExecutionTracer().resume(traces.get(position - 1).lazyClone(), position);
+		}
+	}
+
+	/**
+	 * Create a new prefix with the first statements of this one, which can be
+	 * extended without changing this one
+	 *
+	 * @param length
+	 * @return
+	 */
+	public ExecutedPrefix truncate(int length) {
+		DefaultTestCase copy = statements.clone();
+		copy.chop(length);
+		ExecutedPrefix prefix = new ExecutedPrefix(copy);
+		prefix.values.addAll(values.subList(0, length));
+		prefix.traces.addAll(traces.subList(0, length));
+		return prefix;
+	}
+
+	/**
+	 * Extend the prefix with the statement that was just executed, if this
+	 * does not break the conditions under which the prefix can be skipped
+	 *
+	 * @param statement
+	 *            the executed statement
+	 * @param scope
+	 * @param exceptionThrown
+	 *            the exception thrown by the statement, or null
+	 * @return true if the prefix was extended
+	 */
+	public boolean append(Statement statement, Scope scope, Throwable exceptionThrown) {
+		if (exceptionThrown != null)
+			return false;
+
+		if (!(statement instanceof PrimitiveStatement) && !(statement instanceof NullStatement)
+		        && !(statement instanceof MethodStatement) && !(statement instanceof ConstructorStatement))
+			return false;
+
+		VariableReference retval = statement.getReturnValue();
+		Object value = UNDEFINED;
+		if (scope.getVariables().contains(retval)) {
+			value = scope.getObject(retval);
+			if (value != null && !IMMUTABLE_TYPES.contains(value.getClass()))
+				return false;
+		}
+
+		ExecutionTracer tracer = ExecutionTracer.getExecutionTracer();
+		if (!hasDeterministicState(tracer.getCurrentTrace()))
+			return false;
+
+		statements.addStatement(statement.clone(statements));
+		values.add(value);
+		traces.add(tracer.getTraceSnapshot());
+		return true;
+	}
+
+	/**
+	 * Remember which files and connections were accessed before the first
+	 * statement is executed
+	 */
+	public void startRecording() {
+		accessedFiles = VirtualFileSystem.getInstance().getAccessedFiles().size();
+		accessedNetwork = getAccessedNetwork();
+	}
+
+	private static int getAccessedNetwork() {
+		VirtualNetwork network = VirtualNetwork.getInstance();
+		return network.getViewOfRemoteAccessedFiles().size() + network.getViewOfOpenedTcpConnections().size();
+	}
+
+	private boolean hasDeterministicState(ExecutionTrace trace) {
+		return trace.getClassesWithStaticReads().isEmpty() && trace.getClassesWithStaticWrites().isEmpty()
+		        && trace.getInitializedClasses().isEmpty() && !Random.wasAccessed()
+		        && !org.evosuite.runtime.System.wasTimeAccessed()
+		        && !org.evosuite.runtime.System.wasAnyPropertyWritten()
+		        && org.evosuite.runtime.System.getAllPropertiesReadSoFar().isEmpty()
+		        && !SystemInUtil.getInstance().hasBeenUsed() && !JOptionPaneInputs.getInstance().hasAnyDialog()
+		        && !DBManager.getInstance().isWasAccessed()
+		        && VirtualFileSystem.getInstance().getAccessedFiles().size() == accessedFiles
+		        && getAccessedNetwork() == accessedNetwork;
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.testcase.TestCase;
+
+/**
+ * One isolated lane of the {@link ParallelTestCaseExecutor}: it has its own
+ * {@link TestCaseExecutor} (and thus its own thread group, test execution
+ * thread and set of observers) and its own {@link ExecutionTracer}.
+ */
+class ExecutionLane {
+
+	private final int id;
+
+	private final TestCaseExecutor executor;
+
+	private final ExecutionTracer tracer;
+
+	ExecutionLane(int id) {
+		this.id = id;
+		this.tracer = ExecutionTracer.newLaneTracer();
+		this.executor = new TestCaseExecutor(true);
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Execute a test on this lane. The calling thread is bound to the tracer
+	 * of the lane for the duration of the call, so that the test execution
+	 * threads created by the lane trace into it as well.
+	 *
+	 * @param test
+	 *            the test to execute
+	 * @param timeout
+	 *            milliseconds allowed for the execution
+	 * @return the result of the execution
+	 */
+	public ExecutionResult execute(TestCase test, int timeout) {
+		ExecutionTracer.bindLaneTracer(tracer);
+		try {
+			return executor.execute(test, timeout);
+		} finally {
+			ExecutionTracer.bindLaneTracer(null);
+		}
+	}
+
+	/**
+	 * @return true if the last test executed on this lane left threads of the
+	 *         SUT running
+	 */
+	public boolean hasSpawnedThreads() {
+		return executor.hasSpawnedThreads();
+	}
+
+	public void addObserver(ExecutionObserver observer) {
+		executor.addObserver(observer);
+	}
+
+	public void removeObserver(ExecutionObserver observer) {
+		executor.removeObserver(observer);
+	}
+
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
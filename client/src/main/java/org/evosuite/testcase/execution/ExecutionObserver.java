@@ -37,6 +37,12 @@ public abstract class ExecutionObserver {
 	/** The test case being monitored and executed */
 	protected static TestCase currentTest = null;
 
+	/**
+	 * The test case executed by the current thread of a parallel execution
+	 * lane, lanes do not change {@link #currentTest}
+	 */
+	private static final ThreadLocal<TestCase> laneTest = new ThreadLocal<TestCase>();
+
 	/** Constant <code>WRAPPER_TYPES</code> */
 	protected static final Set<Class<?>> WRAPPER_TYPES = new HashSet<Class<?>>(
 	        Arrays.asList(Boolean.class, Character.class, Byte.class, Short.class,
@@ -72,9 +78,25 @@ public abstract class ExecutionObserver {
 	 * @return a {@link org.evosuite.testcase.TestCase} object.
 	 */
 	public static TestCase getCurrentTest() {
+		TestCase test = laneTest.get();
+		if (test != null)
+			return test;
 		return currentTest;
 	}
 
+	/**
+	 * Set the test case executed by the current thread of an execution lane
+	 * 
+	 * @param test
+	 *            the test, or null once its execution is finished
+	 */
+	static void setLaneTest(TestCase test) {
+		if (test == null)
+			laneTest.remove();
+		else
+			laneTest.set(test);
+	}
+
 	/**
 	 * This is called with the console output of each statement
 	 * 
@@ -334,32 +334,14 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		}
 
 		if (traceCoverage) {
-			if (!coveredPredicates.containsKey(branch))
-				coveredPredicates.put(branch, 1);
-			else
-				coveredPredicates.put(branch, coveredPredicates.get(branch) + 1);
-
-			if (true_distance == 0.0) {
-				if (!coveredTrue.containsKey(branch))
-					coveredTrue.put(branch, 1);
-				else
-					coveredTrue.put(branch, coveredTrue.get(branch) + 1);
-
-			}
-
-			if (false_distance == 0.0) {
-				if (!coveredFalse.containsKey(branch))
-					coveredFalse.put(branch, 1);
-				else
-					coveredFalse.put(branch, coveredFalse.get(branch) + 1);
-			}
+			updateBranchCoverage(branch, true_distance, false_distance);
 		}
 
 		if (Properties.TRACK_COVERED_GRADIENT_BRANCHES) {
 			if (gradientBranches.contains(branch)) {
-				if ((coveredTrue.containsKey(branch)))
+				if (isCoveredTrue(branch))
 					gradientBranchesCoveredTrue.add(branch);
-				if ((coveredFalse.containsKey(branch)))
+				if (isCoveredFalse(branch))
 					gradientBranchesCoveredFalse.add(branch);
 			}
 		}
@@ -372,8 +354,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 					.getInstruction().getASMNode().getPrevious() != null)
 				previousOpcode = BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
 						.getBranch(branch).getInstruction().getASMNode().getPrevious().getOpcode();
-			boolean cTrue = coveredTrue.containsKey(branch);
-			boolean cFalse = coveredFalse.containsKey(branch);
+			boolean cTrue = isCoveredTrue(branch);
+			boolean cFalse = isCoveredFalse(branch);
 			switch (previousOpcode) {
 			case Opcodes.LCMP:
 				trackBranchOpcode(bytecodeInstructionReached, RuntimeVariable.Reached_lcmp, branch);
@@ -460,6 +442,60 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			}
 		}
 
+		updateBranchDistances(branch, true_distance, false_distance);
+
+		if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
+				|| ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
+				|| ArrayUtil.contains(Properties.CRITERION, Criterion.CBRANCH)
+				|| ArrayUtil.contains(Properties.CRITERION, Criterion.FBRANCH))) {
+			updateBranchContextMaps(branch, true_distance, false_distance);
+		}
+
+		// This requires a lot of memory and should not really be used
+		if (Properties.BRANCH_EVAL) {
+			branchesTrace.add(new BranchEval(branch, true_distance, false_distance));
+		}
+	}
+
+	/**
+	 * Count the execution of the given predicate, and of its true/false
+	 * outcome if the corresponding distance is zero
+	 * 
+	 * @param branch
+	 * @param true_distance
+	 * @param false_distance
+	 */
+	protected void updateBranchCoverage(int branch, double true_distance, double false_distance) {
+		if (!coveredPredicates.containsKey(branch))
+			coveredPredicates.put(branch, 1);
+		else
+			coveredPredicates.put(branch, coveredPredicates.get(branch) + 1);
+
+		if (true_distance == 0.0) {
+			if (!coveredTrue.containsKey(branch))
+				coveredTrue.put(branch, 1);
+			else
+				coveredTrue.put(branch, coveredTrue.get(branch) + 1);
+
+		}
+
+		if (false_distance == 0.0) {
+			if (!coveredFalse.containsKey(branch))
+				coveredFalse.put(branch, 1);
+			else
+				coveredFalse.put(branch, coveredFalse.get(branch) + 1);
+		}
+	}
+
+	/**
+	 * Keep track of the minimal and the accumulated distances of the given
+	 * predicate
+	 * 
+	 * @param branch
+	 * @param true_distance
+	 * @param false_distance
+	 */
+	protected void updateBranchDistances(int branch, double true_distance, double false_distance) {
 		if (!trueDistances.containsKey(branch))
 			trueDistances.put(branch, true_distance);
 		else
@@ -479,17 +515,34 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			falseDistancesSum.put(branch, false_distance);
 		else
 			falseDistancesSum.put(branch, falseDistancesSum.get(branch) + false_distance);
+	}
 
-		if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
-				|| ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
-				|| ArrayUtil.contains(Properties.CRITERION, Criterion.CBRANCH)
-				|| ArrayUtil.contains(Properties.CRITERION, Criterion.FBRANCH))) {
-			updateBranchContextMaps(branch, true_distance, false_distance);
-		}
+	/**
+	 * @param branch
+	 * @return true if the true outcome of the predicate was executed
+	 */
+	protected boolean isCoveredTrue(int branch) {
+		return coveredTrue.containsKey(branch);
+	}
 
-		// This requires a lot of memory and should not really be used
-		if (Properties.BRANCH_EVAL) {
-			branchesTrace.add(new BranchEval(branch, true_distance, false_distance));
+	/**
+	 * @param branch
+	 * @return true if the false outcome of the predicate was executed
+	 */
+	protected boolean isCoveredFalse(int branch) {
+		return coveredFalse.containsKey(branch);
+	}
+
+	/**
+	 * Count the execution of the given definition
+	 * 
+	 * @param defID
+	 */
+	protected void updateDefinitionCount(int defID) {
+		if (!coveredDefs.containsKey(defID)) {
+			coveredDefs.put(defID, 0);
+		} else {
+			coveredDefs.put(defID, coveredDefs.get(defID) + 1);
 		}
 	}
 
@@ -679,6 +732,16 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		coveredPredicateContext = new HashMap<Integer, Map<CallContext, Integer>>();
 	}
 
+	/**
+	 * Create an empty trace of the same kind as this one; used by
+	 * {@link #clone()}
+	 * 
+	 * @return a new, empty trace
+	 */
+	protected ExecutionTraceImpl newInstance() {
+		return new ExecutionTraceImpl();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -687,7 +750,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	@Override
 	public ExecutionTraceImpl clone() {
 
-		ExecutionTraceImpl copy = new ExecutionTraceImpl();
+		ExecutionTraceImpl copy = newInstance();
 		for (MethodCall call : finishedCalls) {
 			copy.finishedCalls.add(call.clone());
 		}
@@ -753,11 +816,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		if (def == null) {
 			throw new IllegalStateException("expect DefUsePool to known defIDs that are passed by instrumented code");
 		}
-		if (!coveredDefs.containsKey(defID)) {
-			coveredDefs.put(defID, 0);
-		} else {
-			coveredDefs.put(defID, coveredDefs.get(defID) + 1);
-		}
+		updateDefinitionCount(defID);
 		String varName = def.getVariableName();
 
 		int objectID = registerObject(caller);
@@ -964,7 +1023,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	@Override
 	public Set<Integer> getCoveredFalseBranches() {
 		Set<Integer> covered = new HashSet<Integer>();
-		for (Entry<Integer, Double> entry : falseDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getFalseDistances().entrySet()) {
 			if (entry.getValue() == 0.0)
 				covered.add(entry.getKey());
 		}
@@ -1045,7 +1104,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	@Override
 	public Set<Integer> getCoveredTrueBranches() {
 		Set<Integer> covered = new HashSet<Integer>();
-		for (Entry<Integer, Double> entry : trueDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getTrueDistances().entrySet()) {
 			if (entry.getValue() == 0.0)
 				covered.add(entry.getKey());
 		}
@@ -1683,15 +1742,15 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nCovered predicates: ");
-		for (Entry<Integer, Integer> entry : coveredPredicates.entrySet()) {
+		for (Entry<Integer, Integer> entry : getPredicateExecutionCount().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nTrue distances: ");
-		for (Entry<Integer, Double> entry : trueDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getTrueDistances().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nFalse distances: ");
-		for (Entry<Integer, Double> entry : falseDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getFalseDistances().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		return ret.toString();
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.evosuite.Properties;
 import org.evosuite.coverage.dataflow.DefUse;
 import org.evosuite.setup.CallContext;
 import org.evosuite.testcase.execution.ExecutionTraceImpl.BranchEval;
@@ -48,7 +49,10 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
 	 * </p>
 	 */
 	public ExecutionTraceProxy() {
-		this.trace = new ExecutionTraceImpl();
+		if (Properties.ARRAY_EXECUTION_TRACE)
+			this.trace = new ArrayExecutionTraceImpl();
+		else
+			this.trace = new ExecutionTraceImpl();
 	}
 
 	/**
@@ -67,8 +67,25 @@ public class ExecutionTracer {
 	 * external library), then we don't want its data in the current trace
 	 */
 	private static volatile Thread currentThread = null;
+
+	/**
+	 * Tracers of the parallel execution lanes are bound to the threads that
+	 * drive a lane, and inherited by the test execution threads those create
+	 */
+	private static final InheritableThreadLocal<ExecutionTracer> laneTracer = new InheritableThreadLocal<ExecutionTracer>();
+
+	/** Only look up lane tracers once a lane has been created */
+	private static volatile boolean lanesInUse = false;
+
+	/** Test execution thread of a lane tracer */
+	private volatile Thread laneThread = null;
 	
-	private static Pair<Integer, Double> comparisonValue;
+	/**
+	 * The result of the last long, float or double comparison, which the
+	 * following branch instruction only sees as -1, 0 or 1. It belongs to the
+	 * tracer, so that concurrent lanes do not overwrite each other's value
+	 */
+	private Pair<Integer, Double> comparisonValue;
 
 	/**
 	 * <p>
@@ -79,7 +96,41 @@ public class ExecutionTracer {
 	 *            a {@link java.lang.Thread} object.
 	 */
 	public static void setThread(Thread thread) {
-		currentThread = thread;
+		ExecutionTracer tracer = getLaneTracer();
+		if (tracer != null)
+			tracer.laneThread = thread;
+		else
+			currentThread = thread;
+	}
+
+	/**
+	 * Create a new tracer for a parallel execution lane
+	 * 
+	 * @return a new {@link ExecutionTracer} with its own trace
+	 */
+	static ExecutionTracer newLaneTracer() {
+		lanesInUse = true;
+		return new ExecutionTracer();
+	}
+
+	/**
+	 * Make all tracing of the current thread, and of the threads it creates
+	 * from now on, go to the given lane tracer
+	 * 
+	 * @param tracer
+	 *            a lane tracer, or null to go back to the global tracer
+	 */
+	static void bindLaneTracer(ExecutionTracer tracer) {
+		if (tracer == null)
+			laneTracer.remove();
+		else
+			laneTracer.set(tracer);
+	}
+
+	private static ExecutionTracer getLaneTracer() {
+		if (!lanesInUse)
+			return null;
+		return laneTracer.get();
 	}
 
 	/**
@@ -189,6 +240,9 @@ public class ExecutionTracer {
 	 * @return a {@link org.evosuite.testcase.execution.ExecutionTracer} object.
 	 */
 	public static ExecutionTracer getExecutionTracer() {
+		ExecutionTracer tracer = getLaneTracer();
+		if (tracer != null)
+			return tracer;
 		if (instance == null) {
 			instance = new ExecutionTracer();
 		}
@@ -215,6 +269,10 @@ public class ExecutionTracer {
 		if (!checkCallerThread) {
 			return false;
 		}
+		ExecutionTracer tracer = getLaneTracer();
+		if (tracer != null) {
+			return Thread.currentThread() != tracer.laneThread;
+		}
 		if (currentThread == null) {
 			logger.error("CurrentThread has not been set!");
 			Map<Thread, StackTraceElement[]> map = Thread.getAllStackTraces();
@@ -244,6 +302,38 @@ public class ExecutionTracer {
 		// return copy;
 	}
 
+	/**
+	 * Return trace of current execution, without finishing the calls that
+	 * are still on its stack
+	 * 
+	 * @return
+	 */
+	ExecutionTrace getCurrentTrace() {
+		return trace;
+	}
+
+	/**
+	 * Return a copy of the trace of the current execution, which shares its
+	 * data with the trace until either of them changes
+	 * 
+	 * @return
+	 */
+	ExecutionTrace getTraceSnapshot() {
+		return trace.lazyClone();
+	}
+
+	/**
+	 * Continue the current execution from the trace of a previous one,
+	 * after the given number of statements
+	 * 
+	 * @param trace
+	 * @param numStatements
+	 */
+	void resume(ExecutionTrace trace, int numStatements) {
+		this.trace = trace;
+		num_statements = numStatements;
+	}
+
 	/**
 	 * Return the last explicitly thrown exception
 	 * 
@@ -477,6 +567,7 @@ public class ExecutionTracer {
 		/* 
 		 * in case of the if instruction which has complex basic type comparison, the real value is stored in comparisonValue
 		 * */
+		Pair<Integer, Double> comparisonValue = tracer.comparisonValue;
 		if (comparisonValue != null && comparisonValue.fst == branch) {
 			val = comparisonValue.snd;
 		}
@@ -531,6 +622,10 @@ public class ExecutionTracer {
 		tracer.trace.branchPassed(branch, bytecode_id, distance_true, distance_false);
 	}
 
+	private static void setComparisonValue(int branchId, double value) {
+		getExecutionTracer().comparisonValue = Pair.of(branchId, value);
+	}
+
 	public static void passedComplexNumberComparison(double value1, double value2, int branchId) {
 		double cmpVariation = 0.0;
 		/* cmpVariation = value1 - value2 */
@@ -550,15 +645,15 @@ public class ExecutionTracer {
 				cmpVariation = value1 - value2;
 			}
 		}
-		comparisonValue = Pair.of(branchId, cmpVariation);
+		setComparisonValue(branchId, cmpVariation);
 	}
 	
 	public static void onDcmpG(double value1, double value2, int branchId) {
 		if (value1 == value2) {
-			comparisonValue = Pair.of(branchId, 0.0);
+			setComparisonValue(branchId, 0.0);
 		} else if(Double.isNaN(value1) || Double.isNaN(value2)) {
 			// Bytecode spec: If either number is NaN, the integer 1 is pushed onto the stack
-			comparisonValue = Pair.of(branchId, 1.0);
+			setComparisonValue(branchId, 1.0);
 		} else {
 			passedComplexNumberComparison(value1, value2, branchId);
 		}
@@ -566,10 +661,10 @@ public class ExecutionTracer {
 	
 	public static void onDcmpL(double value1, double value2, int branchId) {
 		if (value1 == value2) {
-			comparisonValue = Pair.of(branchId, 0.0);
+			setComparisonValue(branchId, 0.0);
 		} else if(Double.isNaN(value1) || Double.isNaN(value2)) {
 			// Bytecode spec: If either number is NaN, the integer -1 is pushed onto the stack
-			comparisonValue = Pair.of(branchId, -1.0);
+			setComparisonValue(branchId, -1.0);
 		} else {
 			passedComplexNumberComparison(value1, value2, branchId);
 		}
@@ -581,10 +676,10 @@ public class ExecutionTracer {
 
 	public static void onFcmpG(float value1, float value2, int branchId) {
 		if (value1 == value2) {
-			comparisonValue = Pair.of(branchId, 0.0);
+			setComparisonValue(branchId, 0.0);
 		} else if(Float.isNaN(value1) || Float.isNaN(value2)) {
 			// Bytecode spec: If either number is NaN, the integer 1 is pushed onto the stack
-			comparisonValue = Pair.of(branchId, 1.0);
+			setComparisonValue(branchId, 1.0);
 		} else {
 			passedComplexNumberComparison(value1, value2, branchId);
 		}
@@ -592,10 +687,10 @@ public class ExecutionTracer {
 	
 	public static void onFcmpL(float value1, float value2, int branchId) {
 		if (value1 == value2) {
-			comparisonValue = Pair.of(branchId, 0.0);
+			setComparisonValue(branchId, 0.0);
 		} else if(Float.isNaN(value1) || Float.isNaN(value2)) {
 			// Bytecode spec: If either number is NaN, the integer -1 is pushed onto the stack
-			comparisonValue = Pair.of(branchId, -1.0);
+			setComparisonValue(branchId, -1.0);
 		} else {
 			passedComplexNumberComparison(value1, value2, branchId);
 		}
@@ -0,0 +1,401 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.runtime.Runtime;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.jvm.ShutdownHookHandler;
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.runtime.util.JOptionPaneInputs;
+import org.evosuite.runtime.util.SystemInUtil;
+import org.evosuite.runtime.vfs.VirtualFileSystem;
+import org.evosuite.runtime.vnet.VirtualNetwork;
+import org.evosuite.setup.TestCluster;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteFitnessFunction;
+import org.evosuite.utils.LoggingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Executes batches of tests concurrently on a fixed number of isolated
+ * {@link ExecutionLane}s, each with its own thread group, execution tracer
+ * and observers.
+ * </p>
+ *
+ * <p>
+ * The runtime environment of EvoSuite (sandbox, mocked JVM, virtual file
+ * system and network, shutdown hooks, output streams) is global, so it is set
+ * up once per batch rather than per test. If the tests of a batch show side
+ * effects on shared state (static fields, class initialisation, system
+ * properties, virtual file system or network, SUT threads), the results of
+ * the batch are discarded and the batch is re-executed sequentially with
+ * {@link TestCaseExecutor}. Except for class initialisation, which only
+ * happens once, such side effects also switch all further executions back to
+ * sequential mode.
+ * </p>
+ */
+public class ParallelTestCaseExecutor {
+
+	/**
+	 * Name of the (privileged) threads that drive the execution lanes
+	 */
+	public static final String LANE_DRIVER_THREAD = "EVOSUITE_EXECUTION_LANE";
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelTestCaseExecutor.class);
+
+	private static ParallelTestCaseExecutor instance = null;
+
+	private final List<ExecutionLane> lanes = new ArrayList<ExecutionLane>();
+
+	private final BlockingQueue<ExecutionLane> idleLanes = new LinkedBlockingQueue<ExecutionLane>();
+
+	private ExecutorService drivers;
+
+	/**
+	 * Set once tests of the CUT were found to have side effects on state
+	 * shared between lanes
+	 */
+	private volatile boolean sequentialFallback = false;
+
+	private volatile boolean spawnedThreads = false;
+
+	/**
+	 * @return the executor with {@link Properties#PARALLEL_EXECUTION_LANES}
+	 *         lanes
+	 */
+	public static synchronized ParallelTestCaseExecutor getInstance() {
+		if (instance == null)
+			instance = new ParallelTestCaseExecutor(Properties.PARALLEL_EXECUTION_LANES);
+
+		return instance;
+	}
+
+	/**
+	 * Shut down all lanes
+	 */
+	public static synchronized void pullDown() {
+		if (instance != null) {
+			instance.drivers.shutdownNow();
+			for (ExecutionLane lane : instance.lanes)
+				lane.shutdown();
+			instance = null;
+		}
+	}
+
+	private ParallelTestCaseExecutor(int numLanes) {
+		for (int i = 0; i < numLanes; i++) {
+			ExecutionLane lane = new ExecutionLane(i);
+			lanes.add(lane);
+			idleLanes.add(lane);
+		}
+		drivers = Executors.newFixedThreadPool(Math.max(numLanes, 1), new ThreadFactory() {
+			private int counter = 0;
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, LANE_DRIVER_THREAD + "_" + counter++);
+				thread.setDaemon(true);
+				// Drivers run EvoSuite code while the sandbox is on
+				Sandbox.addPrivilegedThread(thread);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * @return the number of execution lanes
+	 */
+	public int getNumberOfLanes() {
+		return lanes.size();
+	}
+
+	/**
+	 * Add an observer to one lane; observers are not shared between lanes, so
+	 * each lane needs its own instance
+	 *
+	 * @param laneId
+	 *            the lane to add the observer to
+	 * @param observer
+	 *            an observer that is only used by this lane
+	 */
+	public void addObserver(int laneId, ExecutionObserver observer) {
+		lanes.get(laneId).addObserver(observer);
+	}
+
+	public void removeObserver(int laneId, ExecutionObserver observer) {
+		lanes.get(laneId).removeObserver(observer);
+	}
+
+	/**
+	 * @return true if tests can currently be executed concurrently
+	 */
+	public boolean isParallelExecutionPossible() {
+		if (sequentialFallback || lanes.size() < 2)
+			return false;
+
+		// Observers of the global executor would not see the executions
+		if (!TestCaseExecutor.getInstance().getExecutionObservers().isEmpty())
+			return false;
+
+		if (RuntimeSettings.useJEE)
+			return false;
+
+		return true;
+	}
+
+	/**
+	 * The cached results can only be reused by fitness functions that execute
+	 * tests in the default way, and not e.g. on mutants
+	 */
+	private static boolean usesDefaultExecution(Collection<? extends FitnessFunction<?>> fitnessFunctions) {
+		for (FitnessFunction<?> fitnessFunction : fitnessFunctions) {
+			try {
+				Method runTest = fitnessFunction.getClass().getMethod("runTest", TestCase.class);
+				Class<?> declaringClass = runTest.getDeclaringClass();
+				if (!declaringClass.equals(TestFitnessFunction.class)
+						&& !declaringClass.equals(TestSuiteFitnessFunction.class))
+					return false;
+			} catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void addIfChanged(Set<TestChromosome> pending, Object chromosome) {
+		if (!(chromosome instanceof TestChromosome))
+			return;
+		TestChromosome test = (TestChromosome) chromosome;
+		if (test.isChanged() || test.getLastExecutionResult() == null)
+			pending.add(test);
+	}
+
+	/**
+	 * Execute all tests of the population that have changed since their last
+	 * execution, and cache the results in the chromosomes, such that the
+	 * subsequent fitness evaluation does not need to execute them again.
+	 * Nothing is done if parallel execution is not possible.
+	 *
+	 * @param population
+	 *            test or test suite chromosomes
+	 * @param fitnessFunctions
+	 *            the fitness functions that will be evaluated on the
+	 *            population
+	 */
+	public void executeChanged(Collection<? extends Chromosome> population,
+			Collection<? extends FitnessFunction<?>> fitnessFunctions) {
+		if (!isParallelExecutionPossible() || !usesDefaultExecution(fitnessFunctions))
+			return;
+
+		Set<TestChromosome> pending = Collections.newSetFromMap(new IdentityHashMap<TestChromosome, Boolean>());
+		for (Chromosome chromosome : population) {
+			if (chromosome instanceof AbstractTestSuiteChromosome) {
+				for (Object test : ((AbstractTestSuiteChromosome<?>) chromosome).getTestChromosomes())
+					addIfChanged(pending, test);
+			} else {
+				addIfChanged(pending, chromosome);
+			}
+		}
+		if (pending.size() < 2)
+			return;
+
+		List<TestChromosome> chromosomes = new ArrayList<TestChromosome>(pending);
+		List<TestCase> tests = new ArrayList<TestCase>();
+		for (TestChromosome chromosome : chromosomes)
+			tests.add(chromosome.getTestCase());
+
+		List<ExecutionResult> results = execute(tests);
+		if (results == null)
+			return;
+
+		for (int i = 0; i < chromosomes.size(); i++) {
+			chromosomes.get(i).setLastExecutionResult(results.get(i));
+			chromosomes.get(i).setChanged(false);
+		}
+	}
+
+	/**
+	 * Execute a batch of tests, concurrently if possible
+	 *
+	 * @param tests
+	 *            the tests to execute
+	 * @return the results, in the same order as the tests, or null if the
+	 *         execution was interrupted
+	 */
+	public List<ExecutionResult> execute(List<TestCase> tests) {
+		if (!isParallelExecutionPossible() || tests.size() < 2)
+			return executeSequentially(tests);
+
+		List<ExecutionResult> results;
+		try {
+			results = executeConcurrently(tests);
+		} catch (InterruptedException e) {
+			logger.info("Interrupted while executing tests in parallel");
+			Thread.currentThread().interrupt();
+			return null;
+		}
+
+		if (hasSharedSideEffects(results)) {
+			logger.info("Tests have side effects on shared state, executing batch sequentially");
+			return executeSequentially(tests);
+		}
+
+		countExecutions(tests, results);
+		return results;
+	}
+
+	/**
+	 * Charge the tests executed on the lanes to the search budget, as
+	 * {@link TestCaseExecutor#runTest(TestCase)} does for each test of
+	 * {@link #executeSequentially(List)}: one test in
+	 * {@link MaxTestsStoppingCondition} and its executed statements in
+	 * {@link MaxStatementsStoppingCondition}. The lanes do not charge the
+	 * tests themselves, nor report their runtime accesses to the
+	 * {@link TestCluster}.
+	 */
+	private static void countExecutions(List<TestCase> tests, List<ExecutionResult> results) {
+		for (int i = 0; i < tests.size(); i++) {
+			MaxTestsStoppingCondition.testExecuted();
+			MaxStatementsStoppingCondition.statementsExecuted(results.get(i).getExecutedStatements());
+			TestCluster.getInstance().handleRuntimeAccesses(tests.get(i));
+		}
+	}
+
+	/**
+	 * Execute the tests one after another on the global executor, which
+	 * charges each test and its statements to the search budget
+	 */
+	private List<ExecutionResult> executeSequentially(List<TestCase> tests) {
+		List<ExecutionResult> results = new ArrayList<ExecutionResult>();
+		for (TestCase test : tests)
+			results.add(TestCaseExecutor.runTest(test));
+		return results;
+	}
+
+	private List<ExecutionResult> executeConcurrently(List<TestCase> tests) throws InterruptedException {
+		spawnedThreads = false;
+		Runtime.getInstance().resetRuntime();
+		SystemInUtil.getInstance().initForTestCase();
+		JOptionPaneInputs.getInstance().initForTestCase();
+		if (Properties.REPLACE_CALLS)
+			ShutdownHookHandler.getInstance().initHandler();
+		if (!Properties.PRINT_TO_SYSTEM)
+			LoggingUtils.muteCurrentOutAndErrStream();
+
+		List<Future<ExecutionResult>> futures = new ArrayList<Future<ExecutionResult>>();
+		Sandbox.goingToExecuteSUTCode();
+		try {
+			for (final TestCase test : tests) {
+				futures.add(drivers.submit(new Callable<ExecutionResult>() {
+					@Override
+					public ExecutionResult call() throws Exception {
+						ExecutionLane lane = idleLanes.take();
+						try {
+							return lane.execute(test, Properties.TIMEOUT);
+						} finally {
+							if (lane.hasSpawnedThreads())
+								spawnedThreads = true;
+							idleLanes.add(lane);
+						}
+					}
+				}));
+			}
+
+			List<ExecutionResult> results = new ArrayList<ExecutionResult>();
+			for (Future<ExecutionResult> future : futures)
+				results.add(future.get());
+			return results;
+		} catch (InterruptedException e) {
+			for (Future<ExecutionResult> future : futures)
+				future.cancel(true);
+			throw e;
+		} catch (ExecutionException e) {
+			// As in TestCaseExecutor, this is an error in EvoSuite rather than
+			// in the SUT
+			logger.error("ExecutionException (this is likely a serious error in the framework)", e);
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw new Error(e.getCause());
+		} finally {
+			Sandbox.doneWithExecutingSUTCode();
+			if (!Properties.PRINT_TO_SYSTEM)
+				LoggingUtils.restorePreviousOutAndErrStream();
+			if (Properties.REPLACE_CALLS)
+				ShutdownHookHandler.getInstance().safeExecuteAddedHooks();
+		}
+	}
+
+	/**
+	 * Check whether the tests of a batch may have interfered with each other
+	 */
+	private boolean hasSharedSideEffects(List<ExecutionResult> results) {
+		boolean classInitialization = false;
+		for (ExecutionResult result : results) {
+			ExecutionTrace trace = result.getTrace();
+			if (!trace.getClassesWithStaticWrites().isEmpty() || result.wasAnyPropertyWritten()) {
+				logger.info("Switching to sequential test execution due to static state");
+				sequentialFallback = true;
+				return true;
+			}
+			if (!trace.getInitializedClasses().isEmpty())
+				classInitialization = true;
+		}
+
+		boolean environmentAccessed = spawnedThreads;
+		if (RuntimeSettings.useVFS && !VirtualFileSystem.getInstance().getAccessedFiles().isEmpty())
+			environmentAccessed = true;
+		if (RuntimeSettings.useVNET && (!VirtualNetwork.getInstance().getViewOfOpenedTcpConnections().isEmpty()
+				|| !VirtualNetwork.getInstance().getViewOfRemoteContactedPorts().isEmpty()))
+			environmentAccessed = true;
+		if (environmentAccessed) {
+			logger.info("Switching to sequential test execution due to access to the environment");
+			sequentialFallback = true;
+			return true;
+		}
+
+		return classInitialization;
+	}
+}
@@ -43,6 +43,7 @@ import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.runtime.util.JOptionPaneInputs;
 import org.evosuite.runtime.util.SystemInUtil;
 import org.evosuite.setup.TestCluster;
+import org.evosuite.testcase.DefaultTestCase;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
 import org.slf4j.Logger;
@@ -93,6 +94,15 @@ public class TestCaseExecutor implements ThreadFactory {
 
 	private final Set<Thread> stalledThreads = new HashSet<Thread>();
 
+	/**
+	 * Executors of parallel execution lanes leave the global runtime, sandbox
+	 * and static state handling to the {@link ParallelTestCaseExecutor}
+	 */
+	private final boolean lane;
+
+	/** Whether SUT threads were still around after the last test of a lane */
+	private boolean spawnedThreads = false;
+
 	/** Constant <code>timeExecuted=0</code> */
 	public static long timeExecuted = 0;
 
@@ -150,6 +160,17 @@ public class TestCaseExecutor implements ThreadFactory {
 	}
 
 	private TestCaseExecutor() {
+		this(false);
+	}
+
+	/**
+	 * Create an executor for a parallel execution lane
+	 * 
+	 * @param lane
+	 *            whether the global runtime state is handled by the caller
+	 */
+	TestCaseExecutor(boolean lane) {
+		this.lane = lane;
 		executor = Executors.newSingleThreadExecutor(this);
 		newObservers();
 	}
@@ -173,6 +194,7 @@ public class TestCaseExecutor implements ThreadFactory {
 	 * </p>
 	 */
 	public static void pullDown() {
+		ParallelTestCaseExecutor.pullDown();
 		if (instance != null) {
 			if (instance.executor != null) {
 				instance.executor.shutdownNow();
@@ -181,6 +203,24 @@ public class TestCaseExecutor implements ThreadFactory {
 		}
 	}
 
+	/**
+	 * Shut down the executor of a parallel execution lane
+	 */
+	void shutdown() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	/**
+	 * @return true if threads of the SUT were still running at the end of the
+	 *         last test executed on this lane
+	 */
+	boolean hasSpawnedThreads() {
+		return spawnedThreads;
+	}
+
 	/**
 	 * <p>
 	 * initExecutor
@@ -276,7 +316,7 @@ public class TestCaseExecutor implements ThreadFactory {
 		Scope scope = new Scope();
 		ExecutionResult result = execute(tc, scope, timeout);
 
-		if (Properties.RESET_STATIC_FIELDS) {
+		if (Properties.RESET_STATIC_FIELDS && !lane) {
 			logger.debug("Resetting classes after execution");
 			ClassReInitializer.getInstance().reInitializeClassesAfterTestExecution(tc, result);
 		}
@@ -298,9 +338,11 @@ public class TestCaseExecutor implements ThreadFactory {
 
 		// TODO: Re-insert!
 		resetObservers();
-		ExecutionObserver.setCurrentTest(tc);
-		MaxTestsStoppingCondition.testExecuted();
-		Runtime.getInstance().resetRuntime();
+		if (!lane) {
+			ExecutionObserver.setCurrentTest(tc);
+			MaxTestsStoppingCondition.testExecuted();
+			Runtime.getInstance().resetRuntime();
+		}
 
 		long startTime = System.currentTimeMillis();
 
@@ -308,6 +350,10 @@ public class TestCaseExecutor implements ThreadFactory {
 
 		// #TODO steenbuck could be nicer (TestRunnable should be an interface
 		TestRunnable callable = new TestRunnable(tc, scope, observers);
+		callable.setHandleGlobalState(!lane);
+		// skipping statements is only safe if the static state is tracked and reset
+		callable.setIncrementalExecution(Properties.INCREMENTAL_EXECUTION && !lane
+		        && Properties.RESET_STATIC_FIELDS && observers.isEmpty() && tc instanceof DefaultTestCase);
 		callable.storeCurrentThreads();
 
 		/*
@@ -324,21 +370,38 @@ public class TestCaseExecutor implements ThreadFactory {
 
 			ExecutionResult result = null;
 
-			// important to call it before setting up the sandbox
-			SystemInUtil.getInstance().initForTestCase();
-			JOptionPaneInputs.getInstance().initForTestCase();
+			if (!lane) {
+				// important to call it before setting up the sandbox
+				SystemInUtil.getInstance().initForTestCase();
+				JOptionPaneInputs.getInstance().initForTestCase();
 
-			Sandbox.goingToExecuteSUTCode();
-			TestGenerationContext.getInstance().goingToExecuteSUTCode();
+				Sandbox.goingToExecuteSUTCode();
+			}
+			// lanes only change the context class loader of their own driver thread
+			Thread driver = Thread.currentThread();
+			ClassLoader driverClassLoader = driver.getContextClassLoader();
+			if (lane)
+				driver.setContextClassLoader(TestGenerationContext.getInstance().getClassLoaderForSUT());
+			else
+				TestGenerationContext.getInstance().goingToExecuteSUTCode();
 			try {
 				result = handler.execute(callable, executor, timeout, Properties.CPU_TIMEOUT);
 			} finally {
-				Sandbox.doneWithExecutingSUTCode();
-				TestGenerationContext.getInstance().doneWithExecutingSUTCode();
+				if (lane) {
+					driver.setContextClassLoader(driverClassLoader);
+				} else {
+					Sandbox.doneWithExecutingSUTCode();
+					TestGenerationContext.getInstance().doneWithExecutingSUTCode();
+				}
 			}
 
 			PermissionStatistics.getInstance().countThreads(threadGroup.activeCount());
-			result.setSecurityException(PermissionStatistics.getInstance().getAndResetExceptionInfo());
+			if (lane) {
+				spawnedThreads = threadGroup.activeCount() > 1;
+				result.setSecurityException(PermissionStatistics.getInstance().getAndResetExceptionInfo(threadGroup));
+			} else {
+				result.setSecurityException(PermissionStatistics.getInstance().getAndResetExceptionInfo());
+			}
 			/*
 			 * TODO: this will need proper care when we ll start to handle
 			 * threads in the search.
@@ -483,7 +546,7 @@ public class TestCaseExecutor implements ThreadFactory {
 			ExecutionTracer.disable();
 
 			// TODO: If this is true, is this problematic?
-			if (Sandbox.isOnAndExecutingSUTCode()) {
+			if (!lane && Sandbox.isOnAndExecutingSUTCode()) {
 				Sandbox.doneWithExecutingSUTCode();
 				TestGenerationContext.getInstance().doneWithExecutingSUTCode();
 			}
@@ -502,7 +565,8 @@ public class TestCaseExecutor implements ThreadFactory {
 		} finally {
 			if (threadGroup != null)
 				PermissionStatistics.getInstance().countThreads(threadGroup.activeCount());
-			TestCluster.getInstance().handleRuntimeAccesses(tc);
+			if (!lane)
+				TestCluster.getInstance().handleRuntimeAccesses(tc);
 		}
 	}
 
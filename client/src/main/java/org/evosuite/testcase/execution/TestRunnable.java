@@ -38,6 +38,7 @@ import org.evosuite.runtime.jvm.ShutdownHookHandler;
 import org.evosuite.runtime.thread.KillSwitch;
 import org.evosuite.runtime.thread.ThreadStopper;
 import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.DefaultTestCase;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.utils.LoggingUtils;
 import org.slf4j.Logger;
@@ -73,6 +74,22 @@ public class TestRunnable implements InterfaceTestRunnable {
 	protected Set<ExecutionObserver> observers;
 
 	protected final ThreadStopper threadStopper;
+
+	/**
+	 * Whether this runnable mutes the output streams and handles shutdown
+	 * hooks itself, or whether the caller does it for a whole batch of tests
+	 */
+	protected boolean handleGlobalState = true;
+
+	/**
+	 * Whether the statements the test case shares with the prefix of its
+	 * previous execution are skipped, and the prefix of this execution is
+	 * recorded
+	 */
+	protected boolean incrementalExecution = false;
+
+	/** Prefix of this execution, extended as long as statements allow it */
+	private ExecutedPrefix executedPrefix = null;
 	
 	/**
 	 * <p>
@@ -130,6 +147,49 @@ public class TestRunnable implements InterfaceTestRunnable {
 		threadStopper.killAndJoinClientThreads();
 	}
 
+	/**
+	 * When tests are executed in parallel lanes, muting the output streams
+	 * and running the shutdown hooks is done once for all of them
+	 * 
+	 * @param handleGlobalState
+	 *            false if the caller takes care of the global state
+	 */
+	public void setHandleGlobalState(boolean handleGlobalState) {
+		this.handleGlobalState = handleGlobalState;
+	}
+
+	/**
+	 * Resume the execution after the prefix of the previous execution of the
+	 * test case. Only valid for a {@link DefaultTestCase} executed without
+	 * observers on a new scope
+	 * 
+	 * @param incrementalExecution
+	 */
+	public void setIncrementalExecution(boolean incrementalExecution) {
+		this.incrementalExecution = incrementalExecution;
+	}
+
+	/**
+	 * Skip the statements that the test case shares with the prefix of its
+	 * previous execution, and start recording the prefix of this execution
+	 * 
+	 * @param num
+	 *            set to the position of the first statement to execute
+	 */
+	private void resumeExecutedPrefix(AtomicInteger num) {
+		ExecutedPrefix previous = ((DefaultTestCase) test).getExecutedPrefix();
+		int position = previous == null ? 0 : previous.getResumablePosition(test);
+		if (position > 0) {
+			logger.debug("Resuming execution at statement {}", position);
+			previous.restore(position, test, scope);
+			num.set(position);
+			executedPrefix = previous.truncate(position);
+		} else {
+			executedPrefix = new ExecutedPrefix();
+		}
+		executedPrefix.startRecording();
+	}
+
 	/**
 	 * Inform all observers that we are going to execute the input statement
 	 * 
@@ -183,6 +243,8 @@ public class TestRunnable implements InterfaceTestRunnable {
 	public ExecutionResult call() {
 
 		exceptionsThrown.clear();
+		if (!handleGlobalState)
+			ExecutionObserver.setLaneTest(test);
 
 		runFinished = false;
 		ExecutionResult result = new ExecutionResult(test, null);
@@ -193,7 +255,7 @@ public class TestRunnable implements InterfaceTestRunnable {
 		PrintStream out = (Properties.PRINT_TO_SYSTEM ? System.out : new PrintStream(byteStream));
 		byteStream.reset();
 
-		if (!Properties.PRINT_TO_SYSTEM) {
+		if (!Properties.PRINT_TO_SYSTEM && handleGlobalState) {
 			LoggingUtils.muteCurrentOutAndErrStream();
 		}
 
@@ -204,13 +266,19 @@ public class TestRunnable implements InterfaceTestRunnable {
 		 *  we practically use it as wrapper for int, which we can then pass by reference
 		 */
 		AtomicInteger num = new AtomicInteger(0);
+		if (incrementalExecution) {
+			resumeExecutedPrefix(num);
+		}
 
 		try {
-			if(Properties.REPLACE_CALLS){
+			if(Properties.REPLACE_CALLS && handleGlobalState){
 				ShutdownHookHandler.getInstance().initHandler();
 			}
 			
 			executeStatements(result, out, num);
+			if (executedPrefix != null) {
+				((DefaultTestCase) test).setExecutedPrefix(executedPrefix);
+			}
 		} catch (ThreadDeath e) {// can't stop these guys
 			logger.info("Found error in " + test.toCode(), e);
 			throw e; // this needs to be propagated
@@ -244,10 +312,10 @@ public class TestRunnable implements InterfaceTestRunnable {
 			logger.error("Suppressed/ignored exception during test case execution on class "
 			                     + Properties.TARGET_CLASS + ": " + e.getMessage(), e);
 		} finally {
-			if (!Properties.PRINT_TO_SYSTEM) {
+			if (!Properties.PRINT_TO_SYSTEM && handleGlobalState) {
 				LoggingUtils.restorePreviousOutAndErrStream();
 			}
-			if(Properties.REPLACE_CALLS){
+			if(Properties.REPLACE_CALLS && handleGlobalState){
 				/*
 				 * For simplicity, we call it here. Ideally, we could call it among the
 				 * statements, with "non-safe" version, to check if any exception is thrown.
@@ -255,6 +323,8 @@ public class TestRunnable implements InterfaceTestRunnable {
 				 */
 				ShutdownHookHandler.getInstance().safeExecuteAddedHooks();
 			}
+			if (!handleGlobalState)
+				ExecutionObserver.setLaneTest(null);
 			
 			runFinished = true;
 		}
@@ -287,7 +357,8 @@ public class TestRunnable implements InterfaceTestRunnable {
 			InvocationTargetException, IllegalAccessException,
 			InstantiationException, VMError, EvosuiteError {
 		
-		for (Statement s : test) {
+		for (int position = num.get(); position < test.size(); position++) {
+			Statement s = test.getStatement(position);
 
 			if (Thread.currentThread().isInterrupted() || Thread.interrupted()) {
 				logger.info("Thread interrupted at statement " + num + ": " + s.getCode());
@@ -361,6 +432,10 @@ public class TestRunnable implements InterfaceTestRunnable {
 
 			informObservers_after(s, exceptionThrown);
 
+			if (executedPrefix != null && executedPrefix.size() == num.get()) {
+				executedPrefix.append(s, scope, exceptionThrown);
+			}
+
 			num.incrementAndGet();
 		} // end of loop
 		informObservers_finished(result);
@@ -123,7 +123,7 @@ public class RandomLengthTestFactory implements ChromosomeFactory<TestChromosome
 					PartialGraph graph = cpSynthesizer.getPartialGraph();
 					Map<DepVariable, List<VariableReference>> graph2CodeMap = cpSynthesizer.getGraph2CodeMap();
 					
-					test = TestCaseLegitimizer.getInstance().legitimize(test, graph, graph2CodeMap);
+					test = TestCaseLegitimizer.getInstance().legitimize(test, graph, graph2CodeMap, b);
 					
 				} catch (Exception e) {
 					e.printStackTrace();
@@ -226,6 +226,7 @@ public class DSETestGenerator {
 	public static SolverResult solve(List<Constraint<?>> query) {
 		Solver solver = SolverFactory.getInstance().buildNewSolver();
 		SolverCache solverCache = SolverCache.getInstance();
+		DSEStats.getInstance().reportNewSolverCall();
 		SolverResult solverResult = solverCache.solve(solver, query);
 		return solverResult;
 	}
@@ -303,14 +304,32 @@ public class DSETestGenerator {
 			throw new IndexOutOfBoundsException("The position " + conditionIndexToNegate + " does not exists");
 		}
 
-		List<Constraint<?>> query = new LinkedList<Constraint<?>>();
+		List<Constraint<?>> prefix = new LinkedList<Constraint<?>>();
 		for (int i = 0; i < conditionIndexToNegate; i++) {
 			BranchCondition b = pc.get(i);
-			query.addAll(b.getSupportingConstraints());
-			query.add(b.getConstraint());
+			prefix.addAll(b.getSupportingConstraints());
+			prefix.add(b.getConstraint());
 		}
 
-		BranchCondition targetBranch = pc.get(conditionIndexToNegate);
+		return buildQuery(prefix, pc.get(conditionIndexToNegate));
+	}
+
+	/**
+	 * Builds the query that negates a branch condition after the constraints
+	 * of the branch conditions before it
+	 * 
+	 * @param prefix
+	 *            the constraints of the branch conditions before the target
+	 *            one, that are not modified
+	 * @param targetBranch
+	 *            the branch condition to negate
+	 * @return
+	 */
+	public static List<Constraint<?>> buildQuery(List<Constraint<?>> prefix, BranchCondition targetBranch) {
+		List<Constraint<?>> query = new ArrayList<Constraint<?>>(
+				prefix.size() + targetBranch.getSupportingConstraints().size() + 1);
+		query.addAll(prefix);
+
 		Constraint<?> negation = targetBranch.getConstraint().negate();
 		query.addAll(targetBranch.getSupportingConstraints());
 		query.add(negation);
@@ -31,7 +31,7 @@ import org.evosuite.graphs.GraphPool;
 import org.evosuite.graphs.cfg.ActualControlFlowGraph;
 import org.evosuite.graphs.cfg.BytecodeInstruction;
 import org.evosuite.graphs.cfg.BytecodeInstructionPool;
-import org.evosuite.graphs.dataflow.ConstructionPath;
+import org.evosuite.graphs.dataflow.ConstructionPathIndex;
 import org.evosuite.graphs.dataflow.Dataflow;
 import org.evosuite.graphs.dataflow.DepVariable;
 import org.evosuite.graphs.dataflow.GraphVisualizer;
@@ -80,36 +80,14 @@ public class ConstructionPathSynthesizer {
 	private PartialGraph constructPartialComputationGraph(Branch b) {
 		PartialGraph graph = new PartialGraph();
 		
-		Map<Branch, Set<DepVariable>> map = Dataflow.branchDepVarsMap.get(Properties.TARGET_METHOD);
-		Set<DepVariable> variables = map.get(b);
+		ConstructionPathIndex.BranchPaths paths = Dataflow.getConstructionPaths(b);
+		graph.addConstructionPaths(paths, Properties.TARGET_METHOD);
 		
-		for(DepVariable source: variables) {
-			Map<DepVariable, ArrayList<ConstructionPath>> rootInfo = source.getRootVars();
-			
-			for(DepVariable root: rootInfo.keySet()) {
-				
-				if((root.referenceToThis() || root.isParameter() || root.isStaticField()) 
-						&& root.getInstruction().getMethodName().equals(Properties.TARGET_METHOD)) {
-					
-					List<ConstructionPath> paths = rootInfo.get(root);
-					
-					for(ConstructionPath path: paths) {
-						for(int i=0; i<path.size()-1; i++) {
-							DepVariableWrapper child = graph.fetchAndMerge(path.get(i));
-							DepVariableWrapper parent = graph.fetchAndMerge(path.get(i+1));
-							
-							child.addParent(parent);
-							parent.addChild(child);
-						}
-						
-						if(path.size() == 1){
-							graph.fetchAndMerge(path.get(0));
-						}
-					}
-				}
-			
-					
-			}
+		/**
+		 * the merged relations may add paths to any branch of the method
+		 */
+		if(graph.hasMergedRelations()) {
+			Dataflow.clearConstructionPaths(Properties.TARGET_METHOD);
 		}
 		
 		return graph;
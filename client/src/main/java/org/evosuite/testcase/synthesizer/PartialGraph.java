@@ -1,15 +1,23 @@
 package org.evosuite.testcase.synthesizer;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.evosuite.graphs.dataflow.ConstructionPathIndex;
 import org.evosuite.graphs.dataflow.DepVariable;
 
 public class PartialGraph {
 	Map<DepVariable, DepVariableWrapper> allRelevantNodes = new HashMap<DepVariable, DepVariableWrapper>();
 	
+	/**
+	 * the number of relations that merging nodes added to the variables of the
+	 * computation graph
+	 */
+	private int mergedRelations = 0;
+	
 	/**
 	 * In the original computation graph, multiple node can represent the same variable.
 	 * Therefore, we need to merge those nodes when generating the partial graph.
@@ -34,6 +42,7 @@ public class PartialGraph {
 					for(DepVariable v: list0){
 						if(!list.contains(v)){
 							list.add(v);
+							mergedRelations++;
 						}
 					}
 				}
@@ -51,6 +60,7 @@ public class PartialGraph {
 					for(DepVariable v: list0){
 						if(!list.contains(v)){
 							list.add(v);
+							mergedRelations++;
 						}
 					}
 				}
@@ -63,6 +73,71 @@ public class PartialGraph {
 		return wrapper;
 	}
 	
+	/**
+	 * Add the construction paths of a branch to this graph.
+	 * 
+	 * The paths of each dependent variable are searched on the computation graph
+	 * after the previous variables were merged into this graph. A merge which adds
+	 * relations to the computation graph may add paths, so the paths of the
+	 * remaining variables are searched again after it.
+	 * 
+	 * @param paths
+	 * @param methodName
+	 *            the method whose roots are considered
+	 */
+	public void addConstructionPaths(ConstructionPathIndex.BranchPaths paths, String methodName) {
+		int merged = mergedRelations;
+		int edge = 0;
+		for(int source=0; source<paths.getNumberOfSources(); source++) {
+			for(; edge<paths.getSourceEnd(source); edge++) {
+				DepVariableWrapper child = fetchAndMerge(paths.getChild(edge));
+				DepVariable parentVar = paths.getParent(edge);
+				if(parentVar != null) {
+					DepVariableWrapper parent = fetchAndMerge(parentVar);
+					
+					child.addParent(parent);
+					parent.addChild(child);
+				}
+			}
+			
+			if(mergedRelations > merged && source < paths.getNumberOfSources()-1) {
+				List<DepVariable> remaining = paths.getSources().subList(source+1, paths.getNumberOfSources());
+				addConstructionPaths(ConstructionPathIndex.computeBranchPaths(remaining, methodName), methodName);
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * @return true if merging nodes added relations to the computation graph, the
+	 *         construction paths searched before are out of date then
+	 */
+	public boolean hasMergedRelations() {
+		return mergedRelations > 0;
+	}
+	
+	/**
+	 * A description of the nodes and edges of this graph which does not depend on the
+	 * order in which they were added, two graphs with the same shape require the same
+	 * code to be constructed.
+	 * 
+	 * @return
+	 */
+	public String getShape(){
+		List<String> nodes = new ArrayList<>();
+		for(DepVariableWrapper node: allRelevantNodes.values()) {
+			List<String> parents = new ArrayList<>();
+			for(DepVariableWrapper parent: node.parents) {
+				parents.add(parent.var.getUniqueLabel());
+			}
+			Collections.sort(parents);
+			nodes.add(node.var.getUniqueLabel() + "<-" + parents);
+		}
+		Collections.sort(nodes);
+		
+		return nodes.toString();
+	}
+	
 	public List<DepVariableWrapper> getTopLayer(){
 		List<DepVariableWrapper> list = new ArrayList<DepVariableWrapper>();
 		for(DepVariableWrapper node: allRelevantNodes.values()) {
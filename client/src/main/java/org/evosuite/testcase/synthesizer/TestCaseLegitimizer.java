@@ -1,16 +1,21 @@
 package org.evosuite.testcase.synthesizer;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.evosuite.Properties;
+import org.evosuite.TimeController;
+import org.evosuite.coverage.branch.Branch;
 import org.evosuite.graphs.dataflow.DepVariable;
 import org.evosuite.testcase.MutationPositionDiscriminator;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.execution.ExecutionResult;
-import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
 import org.evosuite.testcase.statements.MethodStatement;
 import org.evosuite.testcase.variable.VariableReference;
 import org.evosuite.utils.Randomness;
@@ -23,6 +28,17 @@ public class TestCaseLegitimizer {
 	private PartialGraph graph;
 	private Map<DepVariable, List<VariableReference>> graph2CodeMap;
 	
+	/**
+	 * the legitimized tests of each branch, indexed by the shape of their partial graph
+	 */
+	private Map<Branch, Map<String, TestCase>> templates = new HashMap<>();
+	
+	/**
+	 * the budget of the current legitimization
+	 */
+	private long deadline;
+	private int executions;
+	
 	private static TestCaseLegitimizer legitimizer = new TestCaseLegitimizer();
 	private TestCaseLegitimizer(){}
 	
@@ -30,28 +46,53 @@ public class TestCaseLegitimizer {
 		return legitimizer;
 	}
 	
+	public static void resetSingleton(){
+		legitimizer = new TestCaseLegitimizer();
+	}
+	
+	/**
+	 * Evolve the test until its target method call is executed, within the budget given by
+	 * {@link Properties#LEGITIMIZATION_BUDGET} and {@link Properties#LEGITIMIZATION_MAX_EXECUTIONS}.
+	 * 
+	 * @return the legitimate test, or the closest one if the budget is used up, or null if the
+	 *         test does not call the target method
+	 */
 	public TestCase legitimize(TestCase test, PartialGraph graph, Map<DepVariable, 
-			List<VariableReference>> graph2CodeMap) {
+			List<VariableReference>> graph2CodeMap, Branch branch) {
 		this.graph = graph;
 		this.graph2CodeMap = graph2CodeMap;
-		
-		TestChromosome testChromosome = new TestChromosome();
-		testChromosome.setTestCase(test);
-		ExecutionResult result = TestCaseExecutor.getInstance().execute(test);
-		testChromosome.setLastExecutionResult(result);
+		this.deadline = System.currentTimeMillis() + Properties.LEGITIMIZATION_BUDGET;
+		this.executions = 0;
 		
 		MethodStatement targetCallStat = test.findTargetMethodCallStatement();
 		if(targetCallStat == null) return null;
 		
+		String shape = graph.getShape();
+		TestCase template = getTemplate(branch, shape);
+		if(template != null) {
+			TestChromosome templateChromosome = createChromosome(template.clone());
+			evaluate(Collections.singletonList(templateChromosome));
+			if(templateChromosome.getLegitimacyDistance() == 0) {
+				return templateChromosome.getTestCase();
+			}
+			templates.get(branch).remove(shape);
+		}
+		
+		TestChromosome testChromosome = createChromosome(test);
+		evaluate(Collections.singletonList(testChromosome));
+		
 		double legitimacyDistance = testChromosome.getLegitimacyDistance();
-		if(legitimacyDistance == 0) return test;
+		if(legitimacyDistance == 0) {
+			putTemplate(branch, shape, test);
+			return test;
+		}
 		/**
 		 * initializing the population
 		 */
-		List<TestChromosome> population = initializePopulation(test);
+		List<TestChromosome> population = initializePopulation(testChromosome);
 		
 		int counter = 0;
-		while (legitimacyDistance != 0 && counter <= 1000){
+		while (legitimacyDistance != 0 && counter <= 1000 && !isBudgetUsedUp()){
 			counter ++;
 			
 //			MutationPositionDiscriminator.discriminator.setPurpose(relevantBranches);
@@ -60,18 +101,90 @@ public class TestCaseLegitimizer {
 			legitimacyDistance = population.get(0).getLegitimacyDistance();
 		}
 		
-		return population.get(0).getTestCase();
+		TestCase legitimizedTest = population.get(0).getTestCase();
+		if(legitimacyDistance == 0) {
+			putTemplate(branch, shape, legitimizedTest);
+		}
+		return legitimizedTest;
+	}
+
+	TestCase getTemplate(Branch branch, String shape) {
+		if(!Properties.LEGITIMIZATION_CACHE) return null;
+		
+		Map<String, TestCase> branchTemplates = templates.get(branch);
+		if(branchTemplates == null) return null;
+		
+		return branchTemplates.get(shape);
+	}
+
+	private void putTemplate(Branch branch, String shape, TestCase test) {
+		if(!Properties.LEGITIMIZATION_CACHE) return;
+		
+		Map<String, TestCase> branchTemplates = templates.get(branch);
+		if(branchTemplates == null) {
+			branchTemplates = new HashMap<>();
+			templates.put(branch, branchTemplates);
+		}
+		/**
+		 * the returned test is changed further by the search, so we keep a copy
+		 */
+		branchTemplates.put(shape, test.clone());
+	}
+
+	/**
+	 * @return the number of tests executed by the last legitimization
+	 */
+	int getNumberOfExecutions() {
+		return executions;
+	}
+
+	private boolean isBudgetUsedUp() {
+		return executions >= Properties.LEGITIMIZATION_MAX_EXECUTIONS
+				|| System.currentTimeMillis() >= deadline
+				|| !TimeController.getInstance().isThereStillTimeInThisPhase();
 	}
 
+	private TestChromosome createChromosome(TestCase test) {
+		TestChromosome t = new TestChromosome();
+		t.setTestCase(test);
+		return t;
+	}
 
+	/**
+	 * Execute the tests of the individuals as one batch, concurrently if possible, and
+	 * update their legitimacy distances
+	 */
+	private void evaluate(List<TestChromosome> individuals) {
+		List<TestCase> tests = new ArrayList<>();
+		for(TestChromosome individual: individuals) {
+			tests.add(individual.getTestCase());
+		}
+		
+		List<ExecutionResult> results = ParallelTestCaseExecutor.getInstance().execute(tests);
+		executions += tests.size();
+		if(results == null) {
+			/**
+			 * interrupted, do not continue the search
+			 */
+			deadline = 0;
+			for(TestChromosome individual: individuals) {
+				individual.setLegitimacyDistance(Double.MAX_VALUE);
+			}
+			return;
+		}
+		
+		for(int i=0; i<individuals.size(); i++) {
+			individuals.get(i).updateLegitimacyDistance(results.get(i));
+		}
+	}
 
-	private List<TestChromosome> initializePopulation(TestCase test) {
+	/**
+	 * the individuals are copies of the evaluated test, so they share its result
+	 */
+	private List<TestChromosome> initializePopulation(TestChromosome test) {
 		List<TestChromosome> population = new ArrayList<TestChromosome>();
 		for(int i=0; i<optimizionPopluationSize; i++){
-			TestCase copy = test.clone();
-			TestChromosome t = new TestChromosome();
-			t.setTestCase(copy);
-			population.add(t);
+			population.add((TestChromosome) test.clone());
 		}
 		return population;
 	}
@@ -102,21 +215,10 @@ public class TestCaseLegitimizer {
 		population.sort(new Comparator<TestChromosome>() {
 			@Override
 			public int compare(TestChromosome o1, TestChromosome o2) {
-				if(o1.getLegitimacyDistance() - o2.getLegitimacyDistance() < 0){
-					return -1;
-				}
-				else if(o1.getLegitimacyDistance() - o2.getLegitimacyDistance() > 0){
-					return 1;
-				}
-				else{
-					return 0;
-				}
+				return Double.compare(o1.getLegitimacyDistance(), o2.getLegitimacyDistance());
 			}
 		});
 		
-		population.get(1).updateLegitimacyDistance();
-		System.currentTimeMillis();
-		
 		List<TestChromosome> newPop = new ArrayList<>();
 		for(TestChromosome individual: population){
 			if(!newPop.contains(individual)){
@@ -185,20 +287,25 @@ public class TestCaseLegitimizer {
 		
 		List<TestChromosome> newPop = new ArrayList<>();
 		
+		/**
+		 * the parents were evaluated when they were bred or selected, so the mutation can
+		 * use their last results
+		 */
 		for(TestChromosome parent: population){
 //			relevantBranches.forEach(fitnessFunction -> fitnessFunction.getFitness(parent));
-			parent.updateLegitimacyDistance();
 			TestChromosome offspring = (TestChromosome) parent.clone();
-			offspring.clearCachedResults();
 //			offspring.mutationChangePrimitiveStatement();
 			offspring.mutateRelevantStatements();
-			
-//			relevantBranches.forEach(fitnessFunction -> fitnessFunction.getFitness(offspring));
-			offspring.updateLegitimacyDistance();
-			MutationPositionDiscriminator.identifyRelevantMutations(offspring, parent);
+			offspring.clearCachedResults();
 			
 			newPop.add(offspring);
 		}
+		
+//		relevantBranches.forEach(fitnessFunction -> fitnessFunction.getFitness(offspring));
+		evaluate(newPop);
+		for(int i=0; i<newPop.size(); i++) {
+			MutationPositionDiscriminator.identifyRelevantMutations(newPop.get(i), population.get(i));
+		}
 		return newPop;
 	}
 
@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Goals covered by a set of tests, as a bitset over a fixed list of goals for
+ * each test. The coverage of a test is determined when it is added, on a
+ * single execution of the test, so that choosing tests for a set of goals
+ * does not need to check the goals again.
+ */
+public class CoverageMatrix {
+
+    private final List<TestFitnessFunction> goals;
+
+    private final List<TestChromosome> tests = new ArrayList<TestChromosome>();
+
+    private final List<BitSet> rows = new ArrayList<BitSet>();
+
+    public CoverageMatrix(List<TestFitnessFunction> goals) {
+        this.goals = new ArrayList<TestFitnessFunction>(goals);
+    }
+
+    /**
+     * Executes the test, unless it has an up-to-date execution result, and
+     * checks which goals it covers
+     *
+     * @return the position of the test in the matrix
+     */
+    public int addTest(TestChromosome test) {
+        BitSet row = new BitSet(goals.size());
+        for (int goal = 0; goal < goals.size(); goal++) {
+            if (goals.get(goal).isCovered(test)) {
+                row.set(goal);
+            }
+        }
+        tests.add(test);
+        rows.add(row);
+        return tests.size() - 1;
+    }
+
+    public int getNumberOfTests() {
+        return tests.size();
+    }
+
+    public int getNumberOfGoals() {
+        return goals.size();
+    }
+
+    public TestChromosome getTest(int test) {
+        return tests.get(test);
+    }
+
+    public TestFitnessFunction getGoal(int goal) {
+        return goals.get(goal);
+    }
+
+    /**
+     * @return the goals covered by the given test
+     */
+    public BitSet getCoveredGoals(int test) {
+        return (BitSet) rows.get(test).clone();
+    }
+
+    /**
+     * @return the goals covered by at least one test
+     */
+    public BitSet getCoveredGoals() {
+        BitSet covered = new BitSet(goals.size());
+        for (BitSet row : rows) {
+            covered.or(row);
+        }
+        return covered;
+    }
+
+    public List<TestFitnessFunction> getGoals(BitSet goalSet) {
+        List<TestFitnessFunction> result = new ArrayList<TestFitnessFunction>(goalSet.cardinality());
+        for (int goal = goalSet.nextSetBit(0); goal >= 0; goal = goalSet.nextSetBit(goal + 1)) {
+            result.add(goals.get(goal));
+        }
+        return result;
+    }
+
+    /**
+     * Step of the greedy set cover algorithm
+     *
+     * @param goalSet   the goals still to cover
+     * @param preferred order of the tests covering the same number of goals
+     * @return the position of the test covering most of the goals, or -1 if no
+     *         test covers any of them
+     */
+    public int getBestTest(BitSet goalSet, Comparator<TestChromosome> preferred) {
+        int best = -1;
+        int bestCount = 0;
+        for (int test = 0; test < tests.size(); test++) {
+            BitSet covered = (BitSet) rows.get(test).clone();
+            covered.and(goalSet);
+            int count = covered.cardinality();
+            if (count > bestCount
+                    || (count == bestCount && count > 0
+                    && preferred.compare(tests.get(test), tests.get(best)) < 0)) {
+                best = test;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+}
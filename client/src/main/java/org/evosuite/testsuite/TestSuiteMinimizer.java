@@ -32,6 +32,7 @@ import org.evosuite.rmi.service.ClientState;
 import org.evosuite.rmi.service.ClientStateInformation;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.testcase.*;
+import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.execution.ExecutionTracer;
 import org.evosuite.utils.LoggingUtils;
 import org.slf4j.Logger;
@@ -156,19 +157,36 @@ public class TestSuiteMinimizer {
         }
         filterJUnitCoveredGoals(goals);
 
-        int currentGoal = 0;
-        int numGoals = goals.size();
-
         if (Properties.MINIMIZE_SORT)
             Collections.sort(goals);
 
-        Set<TestFitnessFunction> covered = new LinkedHashSet<TestFitnessFunction>();
-        List<TestChromosome> minimizedTests = new ArrayList<TestChromosome>();
+        // each test is executed once to know which goals it covers
+        CoverageMatrix coverage = new CoverageMatrix(goals);
+        for (TestChromosome test : suite.getTestChromosomes()) {
+            if (isTimeoutReached()) {
+                logger.warn("Minimization timeout. Roll back to original test suite");
+                return;
+            }
+            coverage.addTest(test);
+        }
+
+        // goals that no test covers are left out, the others are covered by the
+        // greedy set cover: the test covering most goals not covered yet is
+        // minimized with respect to those goals, until all goals are covered
+        BitSet remaining = coverage.getCoveredGoals();
+        int numGoals = remaining.cardinality();
+        CoverageMatrix minimizedCoverage = new CoverageMatrix(goals);
+        BitSet coveredGoals = new BitSet(goals.size());
         TestSuiteWriter minimizedSuite = new TestSuiteWriter();
+        Comparator<TestChromosome> preferred = new Comparator<TestChromosome>() {
+            @Override
+            public int compare(TestChromosome test1, TestChromosome test2) {
+                return test1.compareTo(test2);
+            }
+        };
 
-        for (TestFitnessFunction goal : goals) {
-            updateClientStatus(numGoals > 0 ? 100 * currentGoal / numGoals : 100);
-            currentGoal++;
+        while (!remaining.isEmpty()) {
+            updateClientStatus(numGoals > 0 ? 100 * (numGoals - remaining.cardinality()) / numGoals : 100);
             if (isTimeoutReached()) {
 				/*
 				 * FIXME: if timeout, this algorithm should be changed in a way that the modifications
@@ -177,68 +195,42 @@ public class TestSuiteMinimizer {
                 logger.warn("Minimization timeout. Roll back to original test suite");
                 return;
             }
-            logger.info("Considering goal: " + goal);
-            if (Properties.MINIMIZE_SKIP_COINCIDENTAL) {
-                for (TestChromosome test : minimizedTests) {
-                    if (isTimeoutReached()) {
-                        logger.warn("Minimization timeout. Roll back to original test suite");
-                        return;
-                    }
-                    if (goal.isCovered(test)) {
-                        logger.info("Covered by minimized test: " + goal);
-                        covered.add(goal);
-                        //test.getTestCase().addCoveredGoal(goal); // FIXME why? goal.isCovered(test) is already adding the goal
-                        break;
-                    }
-                }
-            }
-            if (covered.contains(goal)) {
-                logger.info("Already covered: " + goal);
-                logger.info("Now the suite covers " + covered.size() + "/"
-                        + goals.size() + " goals");
-                continue;
-            }
 
-            List<TestChromosome> coveringTests = new ArrayList<TestChromosome>();
-            for (TestChromosome test : suite.getTestChromosomes()) {
-                if (goal.isCovered(test)) {
-                    coveringTests.add(test);
-                }
+            int best = coverage.getBestTest(remaining, preferred);
+            BitSet targets = coverage.getCoveredGoals(best);
+            targets.and(remaining);
+            List<TestFitnessFunction> targetGoals = coverage.getGoals(targets);
+            logger.info("Considering " + targetGoals.size() + " goals: " + targetGoals);
+
+            TestFitnessFunction objective = targetGoals.size() == 1 ? targetGoals.get(0)
+                    : new CoveredGoalsFitness(targetGoals);
+            org.evosuite.testcase.TestCaseMinimizer minimizer = new org.evosuite.testcase.TestCaseMinimizer(
+                    objective);
+            TestChromosome copy = (TestChromosome) coverage.getTest(best).clone();
+            minimizer.minimize(copy);
+            if (isTimeoutReached()) {
+                logger.warn("Minimization timeout. Roll back to original test suite");
+                return;
             }
-            Collections.sort(coveringTests);
-            if (!coveringTests.isEmpty()) {
-                TestChromosome test = coveringTests.get(0);
-                org.evosuite.testcase.TestCaseMinimizer minimizer = new org.evosuite.testcase.TestCaseMinimizer(
-                        goal);
-                TestChromosome copy = (TestChromosome) test.clone();
-                minimizer.minimize(copy);
-                if (isTimeoutReached()) {
-                    logger.warn("Minimization timeout. Roll back to original test suite");
-                    return;
-                }
-                
-                // TODO: Need proper list of covered goals
-                copy.getTestCase().clearCoveredGoals();
-
-                // Add ALL goals covered by the minimized test
-                for (TestFitnessFunction g : goals) {
-                    if (g.isCovered(copy)) { // isCovered(copy) adds the goal
-                        covered.add(g);
-                        logger.info("Goal covered by minimized test: " + g);
-                    }
-                }
 
-                minimizedTests.add(copy);
-                minimizedSuite.insertTest(copy.getTestCase());
+            // TODO: Need proper list of covered goals
+            copy.getTestCase().clearCoveredGoals();
 
-                logger.info("After new test the suite covers " + covered.size() + "/"
-                        + goals.size() + " goals");
+            // Add ALL goals covered by the minimized test
+            BitSet covered = minimizedCoverage.getCoveredGoals(minimizedCoverage.addTest(copy));
+            coveredGoals.or(covered);
+            remaining.andNot(covered);
+            // should the minimized test not cover its targets (e.g. flaky), they are not retried
+            remaining.andNot(targets);
 
-            } else {
-                logger.info("Goal is not covered: " + goal);
-            }
+            minimizedSuite.insertTest(copy.getTestCase());
+
+            logger.info("After new test the suite covers " + coveredGoals.cardinality() + "/"
+                    + goals.size() + " goals");
         }
 
+        Set<TestFitnessFunction> covered = new LinkedHashSet<TestFitnessFunction>(coverage.getGoals(coveredGoals));
+
         logger.info("Minimized suite covers " + covered.size() + "/" + goals.size()
                 + " goals");
         suite.tests.clear();
@@ -270,6 +262,63 @@ public class TestSuiteMinimizer {
         return !TimeController.getInstance().isThereStillTimeInThisPhase();
     }
 
+    /**
+     * Sum of the fitness of a set of goals, which is 0 exactly when all of
+     * them are covered; minimizing a test for it keeps all the goals covered.
+     */
+    private static class CoveredGoalsFitness extends TestFitnessFunction {
+
+        private static final long serialVersionUID = 7356216380584412386L;
+
+        private final List<TestFitnessFunction> goals;
+
+        public CoveredGoalsFitness(List<TestFitnessFunction> goals) {
+            this.goals = new ArrayList<TestFitnessFunction>(goals);
+        }
+
+        @Override
+        public double getFitness(TestChromosome individual, ExecutionResult result) {
+            double fitness = 0.0;
+            for (TestFitnessFunction goal : goals) {
+                fitness += goal.getFitness(individual, result);
+            }
+            return fitness;
+        }
+
+        @Override
+        public int compareTo(TestFitnessFunction other) {
+            if (other instanceof CoveredGoalsFitness) {
+                return Integer.compare(goals.size(), ((CoveredGoalsFitness) other).goals.size());
+            }
+            return compareClassName(other);
+        }
+
+        @Override
+        public int hashCode() {
+            return goals.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CoveredGoalsFitness && goals.equals(((CoveredGoalsFitness) other).goals);
+        }
+
+        @Override
+        public String getTargetClass() {
+            return goals.get(0).getTargetClass();
+        }
+
+        @Override
+        public String getTargetMethod() {
+            return goals.get(0).getTargetMethod();
+        }
+
+        @Override
+        public String toString() {
+            return "Covered goals " + goals;
+        }
+    }
+
     /**
      * Minimize test suite with respect to the isCovered Method of the goals
      * defined by the supplied TestFitnessFactory
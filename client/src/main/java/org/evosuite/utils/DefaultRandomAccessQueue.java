@@ -22,12 +22,6 @@
  */
 package org.evosuite.utils;
 
-import java.util.ArrayDeque;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Queue;
-import java.util.Set;
-
 import org.evosuite.Properties;
 
 /**
@@ -36,26 +30,24 @@ import org.evosuite.Properties;
  */
 public class DefaultRandomAccessQueue<T> implements RandomAccessQueue<T> {
 
-	private final Set<T> valueSet = new HashSet<T>();
-
-	private final Queue<T> queue = new ArrayDeque<T>();
+	/** Values in insertion order, so the oldest one is evicted first */
+	private final RandomAccessSet<T> values = new RandomAccessSet<T>();
 
 	/* (non-Javadoc)
 	 * @see org.evosuite.primitives.RandomAccessQueue#restrictedAdd(java.lang.Object)
 	 */
 	@Override
 	public void restrictedAdd(T value) {
-		if (!valueSet.contains(value)) {
-			queue.add(value);
-			valueSet.add(value);
-			reduceSize();
+		synchronized (values) {
+			if (values.add(value)) {
+				reduceSize();
+			}
 		}
 	}
 
 	private void reduceSize() {
-		if (queue.size() > Properties.DYNAMIC_POOL_SIZE) {
-			T value = queue.poll();
-			valueSet.remove(value);
+		if (values.size() > Properties.DYNAMIC_POOL_SIZE) {
+			values.removeFirst();
 		}
 	}
 
@@ -64,16 +56,16 @@ public class DefaultRandomAccessQueue<T> implements RandomAccessQueue<T> {
 	 */
 	@Override
 	public T getRandomValue() {
-		return Randomness.choice(valueSet);
+		return Randomness.choice(values);
 	}
 
 	@Override
 	public String toString() {
 		String res = new String("[ ");
-		Iterator<T> itr = queue.iterator();
-		while(itr.hasNext()) {
-			Object element = itr.next();
-			res += element + " ";
+		synchronized (values) {
+			for (T element : values) {
+				res += element + " ";
+			}
 		}
 		res += "]";
 		return res;
@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A primitive specialisation of {@link RandomAccessSet} for <code>long</code>
+ * values, which avoids boxing every element. Values of the other primitive
+ * types are stored by their bit pattern (e.g.
+ * {@link Double#doubleToLongBits(double)}), which gives the same notion of
+ * equality as the corresponding wrapper classes.
+ * 
+ * <p>
+ * Elements are kept in insertion order in a ring buffer, indexed by an open
+ * addressing hash table with linear probing. All methods synchronize on the
+ * set itself.
+ * </p>
+ */
+public class RandomAccessLongSet {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** Values in insertion order, stored as a ring buffer starting at head */
+	private long[] values = new long[INITIAL_CAPACITY];
+
+	/**
+	 * Hash table with twice the capacity of the value buffer. Each slot holds
+	 * the position of a value in the buffer plus one, or 0 if it is empty.
+	 */
+	private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+	private int head = 0;
+
+	private int size = 0;
+
+	/**
+	 * Adds a value unless it is already contained
+	 * 
+	 * @param value
+	 * @return true if the set did not contain the value yet
+	 */
+	public synchronized boolean add(long value) {
+		int slot = findSlot(value);
+		if (slots[slot] != 0)
+			return false;
+
+		if (size == values.length) {
+			grow();
+			slot = findSlot(value);
+		}
+
+		int position = (head + size) & (values.length - 1);
+		values[position] = value;
+		slots[slot] = position + 1;
+		size++;
+		return true;
+	}
+
+	public synchronized boolean contains(long value) {
+		return slots[findSlot(value)] != 0;
+	}
+
+	/**
+	 * Returns the value at the given position in insertion order
+	 * 
+	 * @param index
+	 *            a position between 0 (oldest) and size()-1 (newest)
+	 * @return the value at that position
+	 */
+	public synchronized long get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return values[(head + index) & (values.length - 1)];
+	}
+
+	/**
+	 * Removes the value that was added first
+	 * 
+	 * @return the removed value
+	 */
+	public synchronized long removeFirst() {
+		if (size == 0)
+			throw new NoSuchElementException();
+
+		long value = values[head];
+		deleteSlot(findSlot(value));
+		head = (head + 1) & (values.length - 1);
+		size--;
+		return value;
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	public synchronized boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return a copy of the values in insertion order
+	 */
+	public synchronized long[] toArray() {
+		long[] copy = new long[size];
+		for (int i = 0; i < size; i++) {
+			copy[i] = values[(head + i) & (values.length - 1)];
+		}
+		return copy;
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0)
+				builder.append(", ");
+			builder.append(values[(head + i) & (values.length - 1)]);
+		}
+		return builder.append("]").toString();
+	}
+
+	private static int hash(long value) {
+		long h = value * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Returns the slot that holds the value, or the empty slot where it would
+	 * have to be inserted
+	 */
+	private int findSlot(long value) {
+		int mask = slots.length - 1;
+		int slot = hash(value) & mask;
+		while (slots[slot] != 0 && values[slots[slot] - 1] != value) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Empties a slot and shifts back subsequent entries of the same probe
+	 * sequence, so that lookups never stop early at the freed slot
+	 */
+	private void deleteSlot(int slot) {
+		int mask = slots.length - 1;
+		int next = (slot + 1) & mask;
+		while (slots[next] != 0) {
+			int home = hash(values[slots[next] - 1]) & mask;
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				slots[slot] = slots[next];
+				slot = next;
+			}
+			next = (next + 1) & mask;
+		}
+		slots[slot] = 0;
+	}
+
+	private void grow() {
+		long[] grown = new long[values.length * 2];
+		for (int i = 0; i < size; i++) {
+			grown[i] = values[(head + i) & (values.length - 1)];
+		}
+		values = grown;
+		head = 0;
+		slots = new int[grown.length * 2];
+		for (int i = 0; i < size; i++) {
+			slots[findSlot(grown[i])] = i + 1;
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A set that keeps its elements in insertion order and supports constant time
+ * insertion, membership tests, positional access and removal of the oldest
+ * element. This makes it possible to sample a uniformly random element without
+ * copying the set into an array first.
+ * 
+ * <p>
+ * All methods synchronize on the set itself. As with
+ * {@link java.util.Collections#synchronizedSet(Set)}, iterating over the set
+ * while it may be modified concurrently requires holding that lock.
+ * </p>
+ * 
+ * @param <T>
+ *            the type of the elements
+ */
+public class RandomAccessSet<T> extends AbstractSet<T> {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final Set<T> members = new HashSet<T>();
+
+	/** Elements in insertion order, stored as a ring buffer starting at head */
+	private Object[] elements = new Object[INITIAL_CAPACITY];
+
+	private int head = 0;
+
+	private int size = 0;
+
+	private int modCount = 0;
+
+	@Override
+	public synchronized boolean add(T value) {
+		if (!members.add(value))
+			return false;
+
+		if (size == elements.length)
+			grow();
+
+		elements[(head + size) & (elements.length - 1)] = value;
+		size++;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public synchronized boolean contains(Object value) {
+		return members.contains(value);
+	}
+
+	/**
+	 * Returns the element at the given position in insertion order
+	 * 
+	 * @param index
+	 *            a position between 0 (oldest) and size()-1 (newest)
+	 * @return the element at that position
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized T get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return (T) elements[(head + index) & (elements.length - 1)];
+	}
+
+	/**
+	 * Removes the element that was added first
+	 * 
+	 * @return the removed element
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized T removeFirst() {
+		if (size == 0)
+			throw new NoSuchElementException();
+
+		T value = (T) elements[head];
+		elements[head] = null;
+		members.remove(value);
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		modCount++;
+		return value;
+	}
+
+	@Override
+	public synchronized void clear() {
+		members.clear();
+		elements = new Object[INITIAL_CAPACITY];
+		head = 0;
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public synchronized int size() {
+		return size;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return super.toString();
+	}
+
+	/**
+	 * Returns an iterator in insertion order. Removal through the iterator is
+	 * not supported.
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int index = 0;
+
+			private final int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public T next() {
+				if (modCount != expectedModCount)
+					throw new ConcurrentModificationException();
+				if (index >= size)
+					throw new NoSuchElementException();
+				return get(index++);
+			}
+		};
+	}
+
+	private void grow() {
+		Object[] grown = new Object[elements.length * 2];
+		for (int i = 0; i < size; i++) {
+			grown[i] = elements[(head + i) & (elements.length - 1)];
+		}
+		elements = grown;
+		head = 0;
+	}
+}
@@ -22,8 +22,10 @@ package org.evosuite.utils;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
+import java.util.RandomAccess;
 
 import org.evosuite.Properties;
 import org.slf4j.Logger;
@@ -273,13 +275,57 @@ public class Randomness implements Serializable {
 	 *            a T object.
 	 * @return a T object or <code>null</code> if <code>set</code> is empty.
 	 */
-	@SuppressWarnings("unchecked")
 	public static <T> T choice(Collection<T> set) {
 		if (set.isEmpty())
 			return null;
 
 		int position = random.nextInt(set.size());
-		return (T) set.toArray()[position];
+		if (set instanceof List && set instanceof RandomAccess)
+			return ((List<T>) set).get(position);
+
+		Iterator<T> iterator = set.iterator();
+		for (int i = 0; i < position; i++) {
+			iterator.next();
+		}
+		return iterator.next();
+	}
+
+	/**
+	 * <p>
+	 * choice
+	 * </p>
+	 * 
+	 * @param set
+	 *            a {@link org.evosuite.utils.RandomAccessSet} object.
+	 * @param <T>
+	 *            a T object.
+	 * @return a T object or <code>null</code> if <code>set</code> is empty.
+	 */
+	public static <T> T choice(RandomAccessSet<T> set) {
+		synchronized (set) {
+			if (set.isEmpty())
+				return null;
+
+			int position = random.nextInt(set.size());
+			return set.get(position);
+		}
+	}
+
+	/**
+	 * <p>
+	 * choice
+	 * </p>
+	 * 
+	 * @param set
+	 *            a non-empty {@link org.evosuite.utils.RandomAccessLongSet}
+	 *            object.
+	 * @return a long.
+	 */
+	public static long choice(RandomAccessLongSet set) {
+		synchronized (set) {
+			int position = random.nextInt(set.size());
+			return set.get(position);
+		}
 	}
 
 	/**
@@ -27,6 +27,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
@@ -126,6 +127,15 @@ public class GenericConstructor extends GenericAccessibleObject<GenericConstruct
 		return constructor;
 	}
 
+	/**
+	 * Create a new instance, with the same semantics as
+	 * {@link Constructor#newInstance(Object...)}
+	 */
+	public Object newInstance(Object[] inputs) throws InstantiationException,
+	        IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+		return MemberInvoker.forConstructor(constructor).newInstance(inputs);
+	}
+
 	/* (non-Javadoc)
 	 * @see org.evosuite.utils.GenericAccessibleObject#getAccessibleObject()
 	 */
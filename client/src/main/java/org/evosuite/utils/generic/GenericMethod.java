@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
@@ -99,6 +100,15 @@ public class GenericMethod extends GenericAccessibleObject<GenericMethod> {
 		return method;
 	}
 
+	/**
+	 * Invoke the method on the given callee, with the same semantics as
+	 * {@link Method#invoke(Object, Object...)}
+	 */
+	public Object invoke(Object callee, Object[] inputs) throws IllegalAccessException,
+	        IllegalArgumentException, InvocationTargetException {
+		return MemberInvoker.forMethod(method).invoke(callee, inputs);
+	}
+
 
 	@Override
 	public AccessibleObject getAccessibleObject() {
@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils.generic;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Invokes a method or constructor through a {@link MethodHandle} that is
+ * created once per member and shared by all the statements calling it, rather
+ * than through {@link Method#invoke} / {@link Constructor#newInstance} on
+ * every execution.
+ * 
+ * <p>
+ * The semantics are those of reflection: exceptions thrown by the member are
+ * wrapped in an {@link InvocationTargetException}, while any invocation that
+ * reflection would reject or convert (wrong receiver, wrong argument types,
+ * primitive widening, no access) is simply delegated to reflection. The first
+ * invocation of each member is done with reflection as well, so that errors
+ * in the static initialization of its class are reported the same way.
+ */
+final class MemberInvoker {
+
+	private static final Logger logger = LoggerFactory.getLogger(MemberInvoker.class);
+
+	/**
+	 * Invokers of the methods and constructors of each class. Using a
+	 * ClassValue does not prevent the classes of the SUT from being unloaded
+	 * together with their class loader
+	 */
+	private static final ClassValue<Map<Member, MemberInvoker>> invokers = new ClassValue<Map<Member, MemberInvoker>>() {
+		@Override
+		protected Map<Member, MemberInvoker> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private final Method method;
+
+	private final Constructor<?> constructor;
+
+	/**
+	 * Classes the arguments need to have to be passed to the handle as they
+	 * are: the wrapper class for primitive parameters
+	 */
+	private final Class<?>[] argumentTypes;
+
+	private final boolean[] primitive;
+
+	private final Class<?> receiverType;
+
+	/**
+	 * (Object[])Object for static methods and constructors,
+	 * (Object,Object[])Object for instance methods, or null if the member can
+	 * only be invoked with reflection
+	 */
+	private final MethodHandle handle;
+
+	/**
+	 * Set once a reflective invocation has reached the member, i.e., its
+	 * class has been initialized
+	 */
+	private volatile boolean initialized = false;
+
+	private MemberInvoker(Method method, Constructor<?> constructor) {
+		this.method = method;
+		this.constructor = constructor;
+		Class<?>[] parameterTypes = method != null ? method.getParameterTypes()
+				: constructor.getParameterTypes();
+		argumentTypes = new Class<?>[parameterTypes.length];
+		primitive = new boolean[parameterTypes.length];
+		for (int i = 0; i < parameterTypes.length; i++) {
+			primitive[i] = parameterTypes[i].isPrimitive();
+			argumentTypes[i] = primitive[i] ? ClassUtils.primitiveToWrapper(parameterTypes[i])
+					: parameterTypes[i];
+		}
+		boolean isStatic = method == null || Modifier.isStatic(method.getModifiers());
+		receiverType = isStatic ? null : method.getDeclaringClass();
+		handle = createHandle(method, constructor, parameterTypes.length, isStatic);
+	}
+
+	private static MethodHandle createHandle(Method method, Constructor<?> constructor,
+			int numParameters, boolean isStatic) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle target = method != null ? lookup.unreflect(method)
+					: lookup.unreflectConstructor(constructor);
+			int arity = isStatic ? numParameters : numParameters + 1;
+			return target.asFixedArity().asType(MethodType.genericMethodType(arity))
+					.asSpreader(Object[].class, numParameters);
+		} catch (IllegalAccessException | RuntimeException e) {
+			// e.g. non-accessible members, abstract classes or enum constructors
+			logger.debug("Using reflection to invoke {}: {}",
+					method != null ? method : constructor, e.toString());
+			return null;
+		}
+	}
+
+	static MemberInvoker forMethod(Method method) {
+		Map<Member, MemberInvoker> classInvokers = invokers.get(method.getDeclaringClass());
+		MemberInvoker invoker = classInvokers.get(method);
+		if (invoker == null) {
+			invoker = new MemberInvoker(method, null);
+			classInvokers.put(method, invoker);
+		}
+		return invoker;
+	}
+
+	static MemberInvoker forConstructor(Constructor<?> constructor) {
+		Map<Member, MemberInvoker> classInvokers = invokers.get(constructor.getDeclaringClass());
+		MemberInvoker invoker = classInvokers.get(constructor);
+		if (invoker == null) {
+			invoker = new MemberInvoker(null, constructor);
+			classInvokers.put(constructor, invoker);
+		}
+		return invoker;
+	}
+
+	/**
+	 * Same as {@link Method#invoke(Object, Object...)}
+	 */
+	Object invoke(Object callee, Object[] inputs) throws IllegalAccessException,
+			IllegalArgumentException, InvocationTargetException {
+		if (!canUseHandle(callee, inputs)) {
+			try {
+				Object result = method.invoke(callee, inputs);
+				initialized = true;
+				return result;
+			} catch (InvocationTargetException e) {
+				initialized = true;
+				throw e;
+			}
+		}
+		try {
+			if (receiverType == null) {
+				return (Object) handle.invokeExact(inputs);
+			} else {
+				return (Object) handle.invokeExact(callee, inputs);
+			}
+		} catch (Throwable t) {
+			throw new InvocationTargetException(t);
+		}
+	}
+
+	/**
+	 * Same as {@link Constructor#newInstance(Object...)}
+	 */
+	Object newInstance(Object[] inputs) throws InstantiationException, IllegalAccessException,
+			IllegalArgumentException, InvocationTargetException {
+		if (!canUseHandle(null, inputs)) {
+			try {
+				Object result = constructor.newInstance(inputs);
+				initialized = true;
+				return result;
+			} catch (InvocationTargetException e) {
+				initialized = true;
+				throw e;
+			}
+		}
+		try {
+			return (Object) handle.invokeExact(inputs);
+		} catch (Throwable t) {
+			throw new InvocationTargetException(t);
+		}
+	}
+
+	private boolean canUseHandle(Object callee, Object[] inputs) {
+		if (handle == null || !initialized) {
+			return false;
+		}
+		if (receiverType != null && !receiverType.isInstance(callee)) {
+			return false;
+		}
+		int numParameters = argumentTypes.length;
+		if (inputs == null ? numParameters != 0 : inputs.length != numParameters) {
+			return false;
+		}
+		for (int i = 0; i < numParameters; i++) {
+			Object input = inputs[i];
+			if (input == null) {
+				if (primitive[i]) {
+					return false;
+				}
+			} else if (primitive[i] ? input.getClass() != argumentTypes[i]
+					: !argumentTypes[i].isInstance(input)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
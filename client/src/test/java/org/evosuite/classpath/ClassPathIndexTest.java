@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.classpath;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathIndex.ClassMetadata;
+import org.evosuite.classpath.ClassPathIndex.JarIndex;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClassPathIndexTest {
+
+	private static final File jar = new File("local_test_data" + File.separator + "water-simulator.jar");
+
+	private File indexFolder;
+
+	private File jarFolder;
+
+	@Before
+	public void init() throws IOException {
+		Assert.assertTrue("ERROR: file " + jar + " should be available on local file system", jar.exists());
+		indexFolder = Files.createTempDirectory("cp_index").toFile();
+		jarFolder = Files.createTempDirectory("cp_jars").toFile();
+		Properties.CLASSPATH_INDEX_DIR = indexFolder.getAbsolutePath();
+		ClassPathIndex.getInstance().resetCache();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.CLASSPATH_INDEX_DIR = "";
+		ClassPathIndex.getInstance().resetCache();
+		for (File folder : new File[] { indexFolder, jarFolder }) {
+			for (File file : folder.listFiles()) {
+				file.delete();
+			}
+			folder.delete();
+		}
+	}
+
+	@Test
+	public void testDisabledByDefault() {
+		Properties.CLASSPATH_INDEX_DIR = "";
+		Assert.assertNull(ClassPathIndex.getInstance().getJarIndex(jar.getAbsolutePath()));
+	}
+
+	@Test
+	public void testIndexIsWrittenAndReused() {
+		JarIndex index = ClassPathIndex.getInstance().getJarIndex(jar.getAbsolutePath());
+		Assert.assertNotNull(index);
+		Assert.assertTrue(index.getClassNames().contains("simulator.DAWN"));
+		ClassMetadata metadata = index.getClassMetadata("simulator.DAWN");
+		Assert.assertEquals("simulator/DAWN", metadata.name);
+		Assert.assertEquals(1, indexFolder.listFiles().length);
+
+		// reading back from disk has to give the same content
+		ClassPathIndex.getInstance().resetCache();
+		JarIndex reloaded = ClassPathIndex.getInstance().getJarIndex(jar.getAbsolutePath());
+		Assert.assertNotSame(index, reloaded);
+		Assert.assertEquals(index.getClassNames(), reloaded.getClassNames());
+		ClassMetadata reloadedMetadata = reloaded.getClassMetadata("simulator.DAWN");
+		Assert.assertEquals(metadata.access, reloadedMetadata.access);
+		Assert.assertEquals(metadata.superName, reloadedMetadata.superName);
+		Assert.assertEquals(metadata.interfaces, reloadedMetadata.interfaces);
+		Assert.assertEquals(metadata.methodNames, reloadedMetadata.methodNames);
+		Assert.assertEquals(metadata.methodDescriptors, reloadedMetadata.methodDescriptors);
+		Assert.assertEquals(1, indexFolder.listFiles().length);
+	}
+
+	@Test
+	public void testChangedJarIsAnalyzedAgain() throws IOException {
+		File copy = new File(jarFolder, jar.getName());
+		Files.copy(jar.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+		JarIndex index = ClassPathIndex.getInstance().getJarIndex(copy.getAbsolutePath());
+		Assert.assertNotNull(index);
+		Assert.assertEquals(1, indexFolder.listFiles().length);
+
+		Assert.assertTrue(copy.setLastModified(copy.lastModified() + 60_000));
+		JarIndex changed = ClassPathIndex.getInstance().getJarIndex(copy.getAbsolutePath());
+		Assert.assertNotSame(index, changed);
+		Assert.assertEquals(index.getClassNames(), changed.getClassNames());
+		Assert.assertEquals(2, indexFolder.listFiles().length);
+	}
+}
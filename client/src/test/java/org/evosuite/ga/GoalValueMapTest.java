@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GoalValueMapTest {
+
+	private static class DummyFitnessFunction extends FitnessFunction<DummyChromosome> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int goal;
+
+		public DummyFitnessFunction(int goal) {
+			this.goal = goal;
+		}
+
+		@Override
+		public double getFitness(DummyChromosome individual) {
+			updateIndividual(this, individual, goal);
+			return goal;
+		}
+
+		@Override
+		public boolean isMaximizationFunction() {
+			return false;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof DummyFitnessFunction && ((DummyFitnessFunction) obj).goal == goal;
+		}
+
+		@Override
+		public int hashCode() {
+			return goal;
+		}
+	}
+
+	private final DummyFitnessFunction ff1 = new DummyFitnessFunction(1);
+
+	private final DummyFitnessFunction ff2 = new DummyFitnessFunction(2);
+
+	private final DummyFitnessFunction ff3 = new DummyFitnessFunction(3);
+
+	@After
+	public void tearDown() {
+		FitnessFunctionIndex.getInstance().reset();
+	}
+
+	@Test
+	public void testInsertionOrder() {
+		GoalValueMap<Double> map = GoalValueMap.doubles();
+		map.put(ff3, 3.0);
+		map.put(ff1, 1.0);
+		map.put(ff2, 2.0);
+		map.put(ff3, 4.0);
+		map.remove(ff1);
+
+		Assert.assertEquals(Arrays.asList(ff3, ff2), new ArrayList<>(map.keySet()));
+		Assert.assertEquals(Arrays.asList(4.0, 2.0), new ArrayList<>(map.values()));
+		Assert.assertEquals(6.0, map.sum(), 0.0);
+		Assert.assertEquals(4.0, map.firstValue(), 0.0);
+
+		Map<FitnessFunction<?>, Double> expected = new LinkedHashMap<>();
+		expected.put(ff3, 4.0);
+		expected.put(ff2, 2.0);
+		Assert.assertEquals(expected, map);
+	}
+
+	@Test
+	public void testEqualFitnessFunctionsShareId() {
+		GoalValueMap<Integer> map = GoalValueMap.integers();
+		map.put(ff1, 5);
+		Assert.assertEquals(Integer.valueOf(5), map.get(new DummyFitnessFunction(1)));
+		Assert.assertEquals(ff1.getIndex(), new DummyFitnessFunction(1).getIndex());
+		Assert.assertNotEquals(ff1.getIndex(), ff2.getIndex());
+	}
+
+	@Test
+	public void testCopyOnWrite() {
+		GoalValueMap<Double> map = GoalValueMap.doubles();
+		map.put(ff1, 1.0);
+		map.put(ff2, 2.0);
+
+		GoalValueMap<Double> copy = GoalValueMap.doubles();
+		copy.copyFrom(map);
+		copy.put(ff1, 10.0);
+		map.put(ff3, 3.0);
+
+		Assert.assertEquals(1.0, map.get(ff1), 0.0);
+		Assert.assertEquals(10.0, copy.get(ff1), 0.0);
+		Assert.assertFalse(copy.containsKey(ff3));
+		Assert.assertEquals(3, map.size());
+		Assert.assertEquals(2, copy.size());
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		GoalValueMap<Double> map = GoalValueMap.doubles();
+		map.put(ff1, 1.0);
+		map.put(ff2, 2.0);
+		map.put(ff3, 3.0);
+
+		Iterator<FitnessFunction<?>> iterator = map.keySet().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next() == ff2) {
+				iterator.remove();
+			}
+		}
+		Assert.assertEquals(Arrays.asList(ff1, ff3), new ArrayList<>(map.keySet()));
+	}
+
+	@Test
+	public void testReset() {
+		GoalValueMap<Double> map = GoalValueMap.doubles();
+		map.put(ff2, 2.0);
+		map.put(ff1, 1.0);
+
+		FitnessFunctionIndex.getInstance().reset();
+		// ids are now assigned in a different order
+		Assert.assertEquals(0, ff3.getIndex());
+
+		Assert.assertEquals(2.0, map.get(ff2), 0.0);
+		Assert.assertEquals(1.0, map.get(ff1), 0.0);
+		Assert.assertNull(map.get(ff3));
+		Assert.assertEquals(Arrays.asList(ff2, ff1), new ArrayList<>(map.keySet()));
+	}
+
+	@Test
+	public void testChromosomeValues() {
+		DummyChromosome chromosome = new DummyChromosome(1, 2);
+		chromosome.addFitness(ff1);
+		chromosome.setFitness(ff1, 0.5);
+		chromosome.setFitness(ff2, 2.0);
+		Assert.assertEquals(2.5, chromosome.getFitness(), 0.0);
+		Assert.assertTrue(chromosome.hasFitnessChanged());
+
+		// value not cached: computed by the fitness function
+		Assert.assertEquals(3.0, chromosome.getFitness(ff3), 0.0);
+
+		DummyChromosome copy = new DummyChromosome(1, 2);
+		copy.setFitnessValues(chromosome.getFitnessValues());
+		copy.setPreviousFitnessValues(chromosome.getFitnessValues());
+		Assert.assertFalse(copy.hasFitnessChanged());
+		copy.setFitness(ff1, 0.0);
+		Assert.assertTrue(copy.hasFitnessChanged());
+		Assert.assertEquals(0.5, chromosome.getFitness(ff1), 0.0);
+		Assert.assertEquals(0.0, copy.getFitness(ff1), 0.0);
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.evosuite.ga.DummyChromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.FitnessFunctionIndex;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FastNonDominatedSortingTest {
+
+	private static class GeneFitnessFunction extends FitnessFunction<DummyChromosome> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int gene;
+
+		public GeneFitnessFunction(int gene) {
+			this.gene = gene;
+		}
+
+		@Override
+		public double getFitness(DummyChromosome individual) {
+			double fitness = individual.get(gene);
+			updateIndividual(this, individual, fitness);
+			return fitness;
+		}
+
+		@Override
+		public boolean isMaximizationFunction() {
+			return false;
+		}
+	}
+
+	@After
+	public void tearDown() {
+		FitnessFunctionIndex.getInstance().reset();
+	}
+
+	/**
+	 * Pairwise algorithm of Deb et al., the fronts are listed in the order the
+	 * solutions are found
+	 */
+	private static List<List<Integer>> pairwiseFronts(double[][] fitness) {
+		int size = fitness.length;
+		int[] dominateMe = new int[size];
+		List<List<Integer>> iDominate = new ArrayList<List<Integer>>();
+		for (int p = 0; p < size; p++) {
+			iDominate.add(new LinkedList<Integer>());
+		}
+		for (int p = 0; p < size - 1; p++) {
+			for (int q = p + 1; q < size; q++) {
+				int flag = FitnessMatrix.compareDominance(fitness[p], fitness[q]);
+				if (flag == -1) {
+					iDominate.get(p).add(q);
+					dominateMe[q]++;
+				} else if (flag == 1) {
+					iDominate.get(q).add(p);
+					dominateMe[p]++;
+				}
+			}
+		}
+
+		List<List<Integer>> fronts = new ArrayList<List<Integer>>();
+		List<Integer> front = new ArrayList<Integer>();
+		for (int p = 0; p < size; p++) {
+			if (dominateMe[p] == 0) {
+				front.add(p);
+			}
+		}
+		while (!front.isEmpty()) {
+			fronts.add(front);
+			List<Integer> next = new ArrayList<Integer>();
+			for (int p : front) {
+				for (int q : iDominate.get(p)) {
+					if (--dominateMe[q] == 0) {
+						next.add(q);
+					}
+				}
+			}
+			front = next;
+		}
+		return fronts;
+	}
+
+	private static double[][] randomFitness(Random random, int size, int numGoals, int numValues) {
+		double[][] fitness = new double[size][numGoals];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < numGoals; j++) {
+				// goals beyond the first 5 are the same for all the solutions
+				fitness[i][j] = j < 5 ? random.nextInt(numValues) : 1.0;
+			}
+		}
+		return fitness;
+	}
+
+	@Test
+	public void testSameFrontsAsPairwiseSorting() {
+		Random random = new Random(42);
+		for (int run = 0; run < 200; run++) {
+			double[][] fitness = randomFitness(random, 1 + random.nextInt(60), 1 + random.nextInt(8),
+					1 + random.nextInt(5));
+			List<List<Integer>> expected = pairwiseFronts(fitness);
+
+			int[] frontOf = EfficientNonDominatedSort.computeFronts(fitness);
+			for (int i = 0; i < expected.size(); i++) {
+				for (int p : expected.get(i)) {
+					Assert.assertEquals(i, frontOf[p]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSameRankingAsPairwiseSorting() {
+		Random random = new Random(42);
+		for (int run = 0; run < 100; run++) {
+			int numGoals = 1 + random.nextInt(8);
+			double[][] fitness = randomFitness(random, 1 + random.nextInt(60), numGoals, 1 + random.nextInt(5));
+
+			Set<FitnessFunction<DummyChromosome>> goals = new LinkedHashSet<FitnessFunction<DummyChromosome>>();
+			for (int j = 0; j < numGoals; j++) {
+				goals.add(new GeneFitnessFunction(j));
+			}
+			List<DummyChromosome> population = new ArrayList<DummyChromosome>();
+			for (double[] row : fitness) {
+				List<Integer> genes = new ArrayList<Integer>();
+				for (double value : row) {
+					genes.add((int) value);
+				}
+				DummyChromosome chromosome = new DummyChromosome(genes);
+				for (FitnessFunction<DummyChromosome> goal : goals) {
+					goal.getFitness(chromosome);
+				}
+				population.add(chromosome);
+			}
+
+			FastNonDominatedSorting<DummyChromosome> sorting = new FastNonDominatedSorting<DummyChromosome>();
+			sorting.computeRankingAssignment(population, goals);
+
+			List<List<Integer>> expected = pairwiseFronts(fitness);
+			Assert.assertEquals(expected.size(), sorting.getNumberOfSubfronts());
+			for (int i = 0; i < expected.size(); i++) {
+				List<DummyChromosome> front = sorting.getSubfront(i);
+				Assert.assertEquals(expected.get(i).size(), front.size());
+				for (int k = 0; k < front.size(); k++) {
+					Assert.assertSame(population.get(expected.get(i).get(k)), front.get(k));
+					Assert.assertEquals(i + 1, front.get(k).getRank());
+					Assert.assertEquals(Double.MAX_VALUE, front.get(k).getDistance(), 0.0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testEmptyPopulation() {
+		Assert.assertEquals(0, EfficientNonDominatedSort.computeFronts(new double[0][]).length);
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.graphs;
+
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultDirectedWeightedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FloydWarshallTest {
+
+	@Test
+	public void testUnweightedDistances() {
+		DefaultDirectedGraph<String, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+		for (String v : new String[] { "a", "b", "c", "d", "e" })
+			graph.addVertex(v);
+		graph.addEdge("a", "b");
+		graph.addEdge("b", "c");
+		graph.addEdge("c", "a");
+		graph.addEdge("a", "d");
+
+		FloydWarshall<String, DefaultEdge> distances = new FloydWarshall<>(graph);
+		Assert.assertEquals(0.0, distances.shortestDistance("a", "a"), 0.0);
+		Assert.assertEquals(2.0, distances.shortestDistance("a", "c"), 0.0);
+		Assert.assertEquals(3.0, distances.shortestDistance("b", "d"), 0.0);
+		Assert.assertEquals(Double.POSITIVE_INFINITY, distances.shortestDistance("d", "a"), 0.0);
+		Assert.assertEquals(Double.POSITIVE_INFINITY, distances.shortestDistance("a", "e"), 0.0);
+		Assert.assertEquals(3.0, distances.getDiameter(), 0.0);
+	}
+
+	@Test
+	public void testWeightedDistances() {
+		DefaultDirectedWeightedGraph<String, DefaultWeightedEdge> graph = new DefaultDirectedWeightedGraph<>(
+		        DefaultWeightedEdge.class);
+		for (String v : new String[] { "a", "b", "c" })
+			graph.addVertex(v);
+		graph.setEdgeWeight(graph.addEdge("a", "b"), 1.0);
+		graph.setEdgeWeight(graph.addEdge("b", "c"), 1.5);
+		graph.setEdgeWeight(graph.addEdge("a", "c"), 5.0);
+
+		FloydWarshall<String, DefaultWeightedEdge> distances = new FloydWarshall<>(graph);
+		Assert.assertEquals(2.5, distances.shortestDistance("a", "c"), 0.0);
+		Assert.assertEquals(Double.POSITIVE_INFINITY, distances.shortestDistance("c", "a"), 0.0);
+		Assert.assertEquals(2.5, distances.getDiameter(), 0.0);
+	}
+
+	@Test
+	public void testLargeSparseGraph() {
+		// more than Integer.MAX_VALUE vertex pairs
+		int n = 50000;
+		DefaultDirectedGraph<Integer, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+		for (int i = 0; i < n; i++)
+			graph.addVertex(i);
+		for (int i = 1; i < n; i++)
+			graph.addEdge(i - 1, i);
+
+		FloydWarshall<Integer, DefaultEdge> distances = new FloydWarshall<>(graph);
+		Assert.assertEquals(n - 1, distances.shortestDistance(0, n - 1), 0.0);
+		Assert.assertEquals(1.0, distances.shortestDistance(n - 2, n - 1), 0.0);
+		Assert.assertEquals(Double.POSITIVE_INFINITY, distances.shortestDistance(n - 1, 0), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownVertex() {
+		DefaultDirectedGraph<String, DefaultEdge> graph = new DefaultDirectedGraph<>(DefaultEdge.class);
+		graph.addVertex("a");
+		new FloydWarshall<>(graph).shortestDistance("a", "b");
+	}
+}
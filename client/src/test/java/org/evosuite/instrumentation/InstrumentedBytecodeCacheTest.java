@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.classhandling.ModifiedTargetStaticFields;
+import org.evosuite.runtime.instrumentation.RemoveFinalClassAdapter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+public class InstrumentedBytecodeCacheTest {
+
+	private static final String LOOP_COUNTER = Type.getInternalName(LoopCounter.class);
+
+	private File cacheFolder;
+
+	@Before
+	public void init() throws IOException {
+		cacheFolder = Files.createTempDirectory("inst_cache").toFile();
+		Properties.INSTRUMENTATION_CACHE_DIR = cacheFolder.getAbsolutePath();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.getInstance().resetToDefaults();
+		for (File file : cacheFolder.listFiles()) {
+			file.delete();
+		}
+		cacheFolder.delete();
+	}
+
+	@Test
+	public void testDisabledByDefault() {
+		Properties.INSTRUMENTATION_CACHE_DIR = "";
+		InstrumentedBytecodeCache cache = InstrumentedBytecodeCache.getInstance();
+		byte[] original = createClass(new int[0]);
+		cache.put("foo/Bar", original, original, new ArrayList<>(), new ArrayList<String>(),
+				new ArrayList<String>());
+		Assert.assertNull(cache.get("foo/Bar", original));
+		Assert.assertEquals(0, cacheFolder.listFiles().length);
+	}
+
+	@Test
+	public void testLoopIndicesAreReassigned() {
+		InstrumentedBytecodeCache cache = InstrumentedBytecodeCache.getInstance();
+		byte[] original = createClass(new int[0]);
+		byte[] instrumented = createClass(new int[] { 7, 8 });
+		cache.put("foo/Bar", original, instrumented, Arrays.<Object> asList("foo", 42),
+				new ArrayList<String>(), new ArrayList<String>());
+		Assert.assertEquals(1, cacheFolder.listFiles().length);
+
+		int base = LoopCounter.getInstance().getNewIndex() + 1;
+		byte[] cached = cache.get("foo/Bar", original);
+		Assert.assertNotNull(cached);
+		Assert.assertEquals(Arrays.asList(base, base + 1), getLoopIndices(cached));
+		// both indices have been taken
+		Assert.assertEquals(base + 2, LoopCounter.getInstance().getNewIndex());
+	}
+
+	@Test
+	public void testFinalModifiersAreReplayed() {
+		InstrumentedBytecodeCache cache = InstrumentedBytecodeCache.getInstance();
+		byte[] original = createClass(new int[0]);
+		cache.put("foo/Bar", original, original, new ArrayList<>(), Arrays.asList("foo.Bar", "foo.Bar$Inner"),
+				Arrays.asList("foo.Bar.CONSTANT"));
+
+		RemoveFinalClassAdapter.reset();
+		ModifiedTargetStaticFields.resetSingleton();
+		Assert.assertNotNull(cache.get("foo/Bar", original));
+		Assert.assertTrue(RemoveFinalClassAdapter.finalClasses.contains("foo.Bar"));
+		Assert.assertTrue(RemoveFinalClassAdapter.finalClasses.contains("foo.Bar$Inner"));
+		Assert.assertTrue(ModifiedTargetStaticFields.getInstance().containsField("foo.Bar.CONSTANT"));
+		RemoveFinalClassAdapter.reset();
+		ModifiedTargetStaticFields.resetSingleton();
+	}
+
+	@Test
+	public void testSettingsArePartOfTheKey() {
+		InstrumentedBytecodeCache cache = InstrumentedBytecodeCache.getInstance();
+		byte[] original = createClass(new int[0]);
+		cache.put("foo/Bar", original, original, new ArrayList<>(), new ArrayList<String>(),
+				new ArrayList<String>());
+		Assert.assertNotNull(cache.get("foo/Bar", original));
+
+		Properties.RESET_STATIC_FIELDS = !Properties.RESET_STATIC_FIELDS;
+		Assert.assertNull(cache.get("foo/Bar", original));
+		Assert.assertNull(cache.get("foo/Other", original));
+	}
+
+	private static byte[] createClass(int[] loopIndices) {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "foo/Bar", null, "java/lang/Object", null);
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "run", "()V", null, null);
+		mv.visitCode();
+		for (int index : loopIndices) {
+			mv.visitMethodInsn(Opcodes.INVOKESTATIC, LOOP_COUNTER, "getInstance", "()L" + LOOP_COUNTER + ";", false);
+			mv.visitLdcInsn(index);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, LOOP_COUNTER, "checkLoop", "(I)V", false);
+		}
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static List<Integer> getLoopIndices(byte[] bytecode) {
+		final List<Integer> indices = new ArrayList<>();
+		new ClassReader(bytecode).accept(new ClassVisitor(Opcodes.ASM5) {
+			@Override
+			public MethodVisitor visitMethod(int access, String name, String desc, String signature,
+					String[] exceptions) {
+				return new MethodVisitor(Opcodes.ASM5) {
+					@Override
+					public void visitLdcInsn(Object cst) {
+						indices.add((Integer) cst);
+					}
+				};
+			}
+		}, 0);
+		return indices;
+	}
+}
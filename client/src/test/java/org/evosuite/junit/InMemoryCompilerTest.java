@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.instrumentation.NonInstrumentingClassLoader;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class InMemoryCompilerTest {
+
+	private static final String TEST_NAME = "com.examples.with.different.packagename.SimpleInteger_InMemoryTest";
+
+	private static final String TEST_SOURCE = "package com.examples.with.different.packagename;\n"
+			+ "import org.junit.Assert;\n"
+			+ "import org.junit.Test;\n"
+			+ "public class SimpleInteger_InMemoryTest {\n"
+			+ "  @Test\n"
+			+ "  public void test0() {\n"
+			+ "    SimpleInteger simpleInteger0 = new SimpleInteger();\n"
+			+ "    Assert.assertEquals(42, simpleInteger0.testInt(40, 2));\n"
+			+ "  }\n"
+			+ "}\n";
+
+	@Before
+	public void init() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+	}
+
+	private static List<String> getOptions() {
+		String classpath = ClassPathHandler.getInstance().getTargetProjectClasspath() + File.pathSeparator
+				+ ClassPathHandler.getInstance().getEvoSuiteClassPath();
+		return Arrays.asList("-classpath", classpath);
+	}
+
+	@Test
+	public void testCompileAndLoadJUnitCheck() throws Exception {
+		InMemoryCompiler.Result result = InMemoryCompiler.compile(Collections.singletonMap(TEST_NAME, TEST_SOURCE),
+				getOptions());
+		Assert.assertNotNull(result);
+		Assert.assertTrue(result.wasSuccessful());
+		Assert.assertTrue(result.getErrors().isEmpty());
+
+		Map<String, byte[]> classes = result.getClasses();
+		Assert.assertEquals(Collections.singleton(TEST_NAME), classes.keySet());
+
+		NonInstrumentingClassLoader loader = new NonInstrumentingClassLoader();
+		Class<?> testClass = loader.loadClassFromBytes(TEST_NAME, classes.get(TEST_NAME));
+		Assert.assertEquals(TEST_NAME, testClass.getName());
+		Assert.assertSame(loader, testClass.getClassLoader());
+		Assert.assertSame(testClass, loader.loadClass(TEST_NAME));
+
+		Result junitResult = new JUnitCore().run(testClass);
+		Assert.assertEquals(1, junitResult.getRunCount());
+		Assert.assertTrue(junitResult.wasSuccessful());
+	}
+
+	@Test
+	public void testErrorsAreMappedToCompilationUnit() {
+		String broken = TEST_SOURCE.replace("testInt(40, 2)", "testInt(\"40\", 2)");
+		InMemoryCompiler.Result result = InMemoryCompiler.compile(Collections.singletonMap(TEST_NAME, broken),
+				getOptions());
+		Assert.assertNotNull(result);
+		Assert.assertFalse(result.wasSuccessful());
+		Assert.assertTrue(result.getClasses().isEmpty());
+		Assert.assertEquals(Collections.singleton(TEST_NAME), result.getErrors().keySet());
+	}
+}
@@ -0,0 +1,93 @@
+package org.evosuite.novelty;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class NoveltyIndexTest {
+
+    private static BehaviourVector randomVector(Random random, int numBranches, int numMethods) {
+        double[] distances = new double[numBranches];
+        for (int i = 0; i < numBranches; i++) {
+            // a few values only, so that there are ties and duplicates
+            distances[i] = random.nextInt(4) == 0 ? Double.NaN : random.nextInt(5) / 5.0;
+        }
+        long[] methods = new long[(numMethods + 63) / 64];
+        for (int i = 0; i < numMethods; i++) {
+            if (random.nextBoolean()) {
+                methods[i >> 6] |= 1L << i;
+            }
+        }
+        return new BehaviourVector(distances, methods, numMethods);
+    }
+
+    private static double bruteForceNovelty(List<String> items, List<BehaviourVector> vectors, String item,
+                                            BehaviourVector vector, int k) {
+        List<Double> distances = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) != item) {
+                distances.add(vector.distance(vectors.get(i)));
+            }
+        }
+        if (distances.isEmpty()) {
+            return 0.0;
+        }
+        Double[] sorted = distances.toArray(new Double[distances.size()]);
+        Arrays.sort(sorted);
+        int n = Math.min(k, sorted.length);
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            sum += sorted[i];
+        }
+        return sum / n;
+    }
+
+    @Test
+    public void testDistance() {
+        BehaviourVector vector1 = new BehaviourVector(new double[]{0.5, Double.NaN, 0.25}, new long[]{0b01L}, 2);
+        BehaviourVector vector2 = new BehaviourVector(new double[]{0.25, 0.5, Double.NaN}, new long[]{0b11L}, 2);
+
+        // 0.25 + 1 + 1 for the branches, 1 for the methods
+        Assert.assertEquals(3.25 / 5, vector1.distance(vector2), 0.0000001);
+        Assert.assertEquals(vector1.distance(vector2), vector2.distance(vector1), 0.0);
+        Assert.assertEquals(0.0, vector1.distance(vector1), 0.0);
+    }
+
+    @Test
+    public void testSameNoveltyAsBruteForce() {
+        Random random = new Random(42);
+        for (int run = 0; run < 100; run++) {
+            int numBranches = random.nextInt(20);
+            int numMethods = random.nextInt(100);
+            List<String> items = new ArrayList<>();
+            List<BehaviourVector> vectors = new ArrayList<>();
+            int size = 1 + random.nextInt(100);
+            for (int i = 0; i < size; i++) {
+                // archived behaviours have no individual
+                items.add(random.nextInt(5) == 0 ? null : new String("individual" + i));
+                vectors.add(randomVector(random, numBranches, numMethods));
+            }
+
+            NoveltyIndex<String> index = new NoveltyIndex<>(items, vectors);
+            int k = 1 + random.nextInt(20);
+            for (int i = 0; i < size; i++) {
+                Assert.assertEquals(bruteForceNovelty(items, vectors, items.get(i), vectors.get(i), k),
+                        index.getNovelty(items.get(i), vectors.get(i), k), 0.0000001);
+            }
+            BehaviourVector query = randomVector(random, numBranches, numMethods);
+            Assert.assertEquals(bruteForceNovelty(items, vectors, "other", query, k),
+                    index.getNovelty("other", query, k), 0.0000001);
+        }
+    }
+
+    @Test
+    public void testSingleIndividual() {
+        BehaviourVector vector = new BehaviourVector(new double[]{0.5}, new long[0], 0);
+        NoveltyIndex<String> index = new NoveltyIndex<>(Arrays.asList("individual"), Arrays.asList(vector));
+        Assert.assertEquals(0.0, index.getNovelty("individual", vector, 3), 0.0);
+    }
+}
@@ -0,0 +1,80 @@
+package org.evosuite.regression;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import org.evosuite.regression.FieldAccessPlan.FieldAccessor;
+import org.junit.Test;
+
+public class FieldAccessPlanTest {
+
+  private static class Base {
+
+    private static int counter = 0;
+    private final long id = 42L;
+    private String name = "base";
+  }
+
+  private static class Derived extends Base {
+
+    private int value = 17;
+    private Object reference;
+  }
+
+  private static List<String> getNames(List<FieldAccessor> fields) {
+    List<String> names = new ArrayList<>();
+    for (FieldAccessor field : fields) {
+      if (!field.getField().isSynthetic()) {
+        names.add(field.getField().getName());
+      }
+    }
+    return names;
+  }
+
+  @Test
+  public void planIsCachedPerClass() {
+    assertSame(FieldAccessPlan.of(Derived.class), FieldAccessPlan.of(Derived.class));
+  }
+
+  @Test
+  public void fieldsOfSuperclassesFollowDeclaredFields() {
+    FieldAccessPlan plan = FieldAccessPlan.of(Derived.class);
+    List<String> all = getNames(plan.getAllFields());
+    assertEquals(5, all.size());
+    assertEquals(new HashSet<>(Arrays.asList("value", "reference")),
+        new HashSet<>(all.subList(0, 2)));
+    assertEquals(new HashSet<>(Arrays.asList("counter", "id", "name")),
+        new HashSet<>(all.subList(2, 5)));
+  }
+
+  @Test
+  public void mutableInstanceFieldsExcludeStaticAndFinal() {
+    List<String> mutable = getNames(FieldAccessPlan.of(Derived.class).getMutableInstanceFields());
+    assertEquals(new HashSet<>(Arrays.asList("value", "reference", "name")),
+        new HashSet<>(mutable));
+  }
+
+  @Test
+  public void readsValuesLikeReflection() throws Exception {
+    Derived derived = new Derived();
+    for (FieldAccessor field : FieldAccessPlan.of(Derived.class).getAllFields()) {
+      field.getField().setAccessible(true);
+      assertEquals(field.getField().get(derived), field.get(derived));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readingFromWrongTypeFails() throws Exception {
+    FieldAccessor value = null;
+    for (FieldAccessor field : FieldAccessPlan.of(Derived.class).getDeclaredFields()) {
+      if (field.getField().getName().equals("value")) {
+        value = field;
+      }
+    }
+    value.get(new Base());
+  }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChromosomeBatchTest {
+
+	@Before
+	public void setUp() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		Properties.getInstance().resetToDefaults();
+	}
+
+	private static DefaultTestCase createTest(int... values) {
+		DefaultTestCase test = new DefaultTestCase();
+		for (int value : values) {
+			test.addStatement(new IntPrimitiveStatement(test, value));
+		}
+		return test;
+	}
+
+	@Test
+	public void testTestChromosomes() throws Exception {
+		TestChromosome first = new TestChromosome();
+		first.setTestCase(createTest(1, 2));
+		TestChromosome second = new TestChromosome();
+		second.setTestCase(createTest(3));
+
+		ChromosomeBatch batch = ChromosomeBatch.encode(new HashSet<>(Arrays.asList(first, second)));
+		Assert.assertEquals(2, batch.size());
+
+		Set<Chromosome> decoded = batch.decode();
+		Assert.assertEquals(2, decoded.size());
+		Set<String> code = new HashSet<>();
+		for (Chromosome chromosome : decoded) {
+			TestChromosome test = (TestChromosome) chromosome;
+			Assert.assertTrue(test.isChanged());
+			code.add(test.getTestCase().toCode());
+		}
+		Assert.assertEquals(new HashSet<>(Arrays.asList(first.getTestCase().toCode(),
+				second.getTestCase().toCode())), code);
+	}
+
+	@Test
+	public void testTestSuiteChromosome() throws Exception {
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		suite.addTest(createTest(1, 2));
+		suite.addTest(createTest(3));
+
+		Set<Chromosome> decoded = ChromosomeBatch.encode(Collections.singleton(suite)).decode();
+		Assert.assertEquals(1, decoded.size());
+		TestSuiteChromosome copy = (TestSuiteChromosome) decoded.iterator().next();
+		Assert.assertEquals(2, copy.size());
+		Assert.assertEquals(3, copy.totalLengthOfTestCases());
+		Assert.assertEquals(suite.getTests().get(0).toCode(), copy.getTests().get(0).toCode());
+	}
+}
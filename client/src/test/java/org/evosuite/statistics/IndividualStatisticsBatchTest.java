@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IndividualStatisticsBatchTest {
+
+	private static IndividualStatistics createIndividual(long timestamp, List<String> testCode) {
+		return new IndividualStatistics(timestamp, 3, 12, 7, 4, 1.5, 0.75,
+				new String[] { ArrayList.class.getName(), Map.class.getName() }, new double[] { 1.0, 0.5 },
+				new String[] { ArrayList.class.getName() }, new double[] { 0.75 }, testCode);
+	}
+
+	private static IndividualStatisticsBatch copy(IndividualStatisticsBatch batch)
+			throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(batch);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (IndividualStatisticsBatch) in.readObject();
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		IndividualStatisticsBatch batch = new IndividualStatisticsBatch(
+				Arrays.asList(createIndividual(1000L, null), createIndividual(2000L, null)));
+
+		IndividualStatisticsBatch copy = copy(batch);
+		Assert.assertEquals(2, copy.size());
+
+		IndividualStatistics individual = copy.getIndividuals().get(1);
+		Assert.assertEquals(2000L, individual.getTimestamp());
+		Assert.assertEquals(3, individual.size());
+		Assert.assertEquals(12, individual.totalLengthOfTestCases());
+		Assert.assertEquals(7, individual.getAge());
+		Assert.assertEquals(4, individual.getNumOfNotCoveredGoals());
+		Assert.assertEquals(1.5, individual.getFitness(), 0.0);
+		Assert.assertEquals(0.75, individual.getCoverage(), 0.0);
+		Assert.assertFalse(individual.hasTestCode());
+		Assert.assertTrue(individual.getTestCode().isEmpty());
+	}
+
+	@Test
+	public void testInstanceOf() throws Exception {
+		IndividualStatistics individual = copy(new IndividualStatisticsBatch(
+				Arrays.asList(createIndividual(0L, null)))).getIndividuals().get(0);
+
+		Assert.assertEquals(1.0, individual.getFitnessInstanceOf(ArrayList.class), 0.0);
+		// same semantics as Class.isInstance on the fitness function
+		Assert.assertEquals(1.0, individual.getFitnessInstanceOf(AbstractList.class), 0.0);
+		Assert.assertEquals(0.5, individual.getFitnessInstanceOf(Map.class), 0.0);
+		Assert.assertEquals(0.0, individual.getFitnessInstanceOf(String.class), 0.0);
+
+		Assert.assertEquals(0.75, individual.getCoverageInstanceOf(ArrayList.class), 0.0);
+		Assert.assertEquals(0.0, individual.getCoverageInstanceOf(Map.class), 0.0);
+	}
+
+	@Test
+	public void testOnlyLastCarriesTestCode() throws Exception {
+		IndividualStatisticsBatch batch = new IndividualStatisticsBatch(Arrays.asList(
+				createIndividual(1000L, Arrays.asList("int0 = 0;")),
+				createIndividual(2000L, Arrays.asList("int0 = 1;", "String string0 = \"é\";"))));
+
+		IndividualStatisticsBatch copy = copy(batch);
+		Assert.assertFalse(copy.getIndividuals().get(0).hasTestCode());
+		Assert.assertEquals(Arrays.asList("int0 = 1;", "String string0 = \"é\";"),
+				copy.getIndividuals().get(1).getTestCode());
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.IntegerConstraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.solver.SolverResult;
+import org.junit.Test;
+
+public class PathConditionTreeTest {
+
+	private static BranchCondition branch(String name, Comparator cmp, long value) {
+		Constraint<?> constraint = new IntegerConstraint(new IntegerVariable(name, 0, Long.MIN_VALUE, Long.MAX_VALUE),
+				cmp, new IntegerConstant(value));
+		return new IfBranchCondition("Foo", "bar", 0, constraint, Collections.<Constraint<?>> emptyList(), true);
+	}
+
+	private static PathCondition path(BranchCondition... branchConditions) {
+		return new PathCondition(Arrays.asList(branchConditions));
+	}
+
+	@Test
+	public void testExecutedNegationIsKnown() {
+		PathConditionTree tree = new PathConditionTree();
+
+		BranchCondition b1 = branch("x", Comparator.GT, 0);
+		BranchCondition b2 = branch("y", Comparator.EQ, 1);
+		List<PathConditionTree.Node> nodes = tree.addPathCondition(path(b1, b2));
+		assertEquals(2, nodes.size());
+		assertEquals(2, tree.size());
+
+		assertNull(tree.getNegationStatus(nodes.get(0), b2));
+
+		// a later execution took the other side of the second branch
+		BranchCondition notB2 = branch("y", Comparator.NE, 1);
+		tree.addPathCondition(path(b1, notB2));
+		assertEquals(3, tree.size());
+		assertEquals(PathConditionTree.Status.EXECUTED, tree.getNegationStatus(nodes.get(0), b2));
+
+		// the first branch is still unexplored
+		assertNull(tree.getNegationStatus(null, b1));
+	}
+
+	@Test
+	public void testInfeasibleNegationIsKnownUnderSamePrefixOnly() {
+		PathConditionTree tree = new PathConditionTree();
+
+		BranchCondition b1 = branch("x", Comparator.GT, 0);
+		BranchCondition b2 = branch("y", Comparator.EQ, 1);
+		List<PathConditionTree.Node> nodes = tree.addPathCondition(path(b1, b2));
+		tree.addNegation(nodes.get(0), b2, SolverResult.newUNSAT());
+
+		List<PathConditionTree.Node> again = tree.addPathCondition(path(b1, b2));
+		assertEquals(PathConditionTree.Status.UNSAT, tree.getNegationStatus(again.get(0), b2));
+
+		BranchCondition b0 = branch("z", Comparator.LT, 5);
+		List<PathConditionTree.Node> other = tree.addPathCondition(path(b0, b2));
+		assertNull(tree.getNegationStatus(other.get(0), b2));
+	}
+
+	@Test
+	public void testUnknownResultIsNotInfeasible() {
+		PathConditionTree tree = new PathConditionTree();
+
+		BranchCondition b1 = branch("x", Comparator.GT, 0);
+		BranchCondition b2 = branch("y", Comparator.EQ, 1);
+		List<PathConditionTree.Node> nodes = tree.addPathCondition(path(b1, b2));
+
+		// eg the local search of the default solver gave up
+		tree.addNegation(nodes.get(0), b2, SolverResult.newUnknown());
+		assertEquals(PathConditionTree.Status.UNKNOWN, tree.getNegationStatus(nodes.get(0), b2));
+
+		tree.addNegation(nodes.get(0), b2, SolverResult.newUNSAT());
+		assertEquals(PathConditionTree.Status.UNSAT, tree.getNegationStatus(nodes.get(0), b2));
+	}
+
+	@Test
+	public void testExecutionOverridesSolverOutcome() {
+		PathConditionTree tree = new PathConditionTree();
+
+		BranchCondition b1 = branch("x", Comparator.GT, 0);
+		tree.addPathCondition(path(b1));
+		tree.addNegation(null, b1, null);
+		assertEquals(PathConditionTree.Status.UNKNOWN, tree.getNegationStatus(null, b1));
+
+		tree.addNegation(null, b1, SolverResult.newSAT(new HashMap<String, Object>()));
+		assertEquals(PathConditionTree.Status.SAT, tree.getNegationStatus(null, b1));
+
+		tree.addPathCondition(path(branch("x", Comparator.LE, 0)));
+		assertEquals(PathConditionTree.Status.EXECUTED, tree.getNegationStatus(null, b1));
+
+		tree.addNegation(null, b1, SolverResult.newUNSAT());
+		assertEquals(PathConditionTree.Status.EXECUTED, tree.getNegationStatus(null, b1));
+		assertEquals(2, tree.size());
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.evosuite.symbolic.solver.smt.SmtAssertion;
+import org.evosuite.symbolic.solver.smt.SmtConstantDeclaration;
+import org.evosuite.symbolic.solver.smt.SmtExpr;
+import org.evosuite.symbolic.solver.smt.SmtFunctionDefinition;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.evosuite.symbolic.solver.smt.SmtQueryPrinter;
+import org.junit.Test;
+
+public class SmtSolverSessionTest {
+
+	private static final SmtConstantDeclaration X = new SmtConstantDeclaration("x", "Int");
+
+	private static final SmtConstantDeclaration Y = new SmtConstantDeclaration("y", "Int");
+
+	private static final SmtAssertion X_POSITIVE = new SmtAssertion(
+			SmtExprBuilder.mkGt(SmtExprBuilder.mkIntVariable("x"), SmtExprBuilder.mkIntConstant(0)));
+
+	private static final SmtAssertion Y_LESS_THAN_X = new SmtAssertion(
+			SmtExprBuilder.mkLt(SmtExprBuilder.mkIntVariable("y"), SmtExprBuilder.mkIntVariable("x")));
+
+	private static final SmtAssertion Y_IS_FIVE = new SmtAssertion(
+			SmtExprBuilder.mkEq(SmtExprBuilder.mkIntVariable("y"), SmtExprBuilder.mkIntConstant(5)));
+
+	private static final SmtAssertion X_IS_ONE = new SmtAssertion(
+			SmtExprBuilder.mkEq(SmtExprBuilder.mkIntVariable("x"), SmtExprBuilder.mkIntConstant(1)));
+
+	private static SmtQuery buildQuery(SmtAssertion... assertions) {
+		SmtQuery query = new SmtQuery();
+		query.addConstantDeclaration(X);
+		query.addConstantDeclaration(Y);
+		for (SmtAssertion assertion : assertions) {
+			query.addAssertion(assertion);
+		}
+		return query;
+	}
+
+	private static String print(SmtAssertion assertion) {
+		return new SmtQueryPrinter().print(assertion);
+	}
+
+	private static String print(SmtConstantDeclaration declaration) {
+		return new SmtQueryPrinter().print(declaration);
+	}
+
+	@Test
+	public void testFirstQueryPushesEachAssertion() {
+		SmtSessionScript script = new SmtSessionScript();
+		List<String> commands = script.update(buildQuery(X_POSITIVE, Y_LESS_THAN_X));
+
+		List<String> expected = Arrays.asList("(push 1)", print(X), print(X_POSITIVE), "(push 1)", print(Y),
+				print(Y_LESS_THAN_X));
+		assertEquals(expected, commands);
+		assertEquals(2, script.getNumberOfFrames());
+	}
+
+	@Test
+	public void testCommonPrefixIsKept() {
+		SmtSessionScript script = new SmtSessionScript();
+		script.update(buildQuery(X_POSITIVE, Y_LESS_THAN_X));
+
+		// y was declared in the popped frame, so it is declared again, but
+		// not x
+		List<String> commands = script.update(buildQuery(X_POSITIVE, Y_IS_FIVE));
+		List<String> expected = Arrays.asList("(pop 1)", "(push 1)", print(Y), print(Y_IS_FIVE));
+		assertEquals(expected, commands);
+		assertEquals(2, script.getNumberOfFrames());
+	}
+
+	@Test
+	public void testNoCommonPrefixPopsAllFrames() {
+		SmtSessionScript script = new SmtSessionScript();
+		script.update(buildQuery(X_POSITIVE, Y_LESS_THAN_X));
+
+		List<String> commands = script.update(buildQuery(X_IS_ONE));
+		List<String> expected = Arrays.asList("(pop 2)", "(push 1)", print(X), print(X_IS_ONE));
+		assertEquals(expected, commands);
+		assertEquals(1, script.getNumberOfFrames());
+	}
+
+	@Test
+	public void testSameQueryNeedsNoCommands() {
+		SmtSessionScript script = new SmtSessionScript();
+		script.update(buildQuery(X_POSITIVE, Y_LESS_THAN_X));
+
+		assertEquals(Collections.emptyList(), script.update(buildQuery(X_POSITIVE, Y_LESS_THAN_X)));
+		assertEquals(2, script.getNumberOfFrames());
+	}
+
+	@Test
+	public void testPrefixQueryOnlyPops() {
+		SmtSessionScript script = new SmtSessionScript();
+		script.update(buildQuery(X_POSITIVE, Y_LESS_THAN_X, Y_IS_FIVE));
+
+		assertEquals(Arrays.asList("(pop 2)"), script.update(buildQuery(X_POSITIVE)));
+		assertEquals(1, script.getNumberOfFrames());
+
+		// y is no longer declared, x still is
+		List<String> commands = script.update(buildQuery(X_POSITIVE, Y_IS_FIVE, X_IS_ONE));
+		List<String> expected = Arrays.asList("(push 1)", print(Y), print(Y_IS_FIVE), "(push 1)", print(X_IS_ONE));
+		assertEquals(expected, commands);
+		assertEquals(3, script.getNumberOfFrames());
+	}
+
+	@Test
+	public void testNewDefinitionPopsAllFrames() {
+		SmtSessionScript script = new SmtSessionScript();
+		script.update(buildQuery(X_POSITIVE));
+
+		SmtFunctionDefinition definition = new SmtFunctionDefinition("(define-fun one () Int 1)");
+		SmtQuery query = buildQuery(X_POSITIVE);
+		query.addFunctionDefinition(definition);
+
+		List<String> commands = script.update(query);
+		List<String> expected = Arrays.asList("(pop 1)", new SmtQueryPrinter().print(definition), "(push 1)",
+				print(X), print(X_POSITIVE));
+		assertEquals(expected, commands);
+
+		// the definition is made once, outside of any frame
+		assertEquals(Collections.emptyList(), script.update(query));
+	}
+
+	@Test
+	public void testOutputUntilMarker() throws Exception {
+		BlockingQueue<String> lines = new LinkedBlockingQueue<String>(
+				Arrays.asList("sat", "(model", ")", "marker-0", "unsat"));
+		assertEquals("sat\n(model\n)\n", SmtSolverSession.readUntilMarker(lines, "marker-0", 1000));
+		assertEquals(1, lines.size());
+	}
+
+	@Test
+	public void testQuotedMarker() throws Exception {
+		BlockingQueue<String> lines = new LinkedBlockingQueue<String>(Arrays.asList("\"marker-1\""));
+		assertEquals("", SmtSolverSession.readUntilMarker(lines, "marker-1", 1000));
+	}
+
+	@Test
+	public void testOtherMarkerIsOutput() throws Exception {
+		BlockingQueue<String> lines = new LinkedBlockingQueue<String>(Arrays.asList("marker-10", "marker-1"));
+		assertEquals("marker-10\n", SmtSolverSession.readUntilMarker(lines, "marker-1", 1000));
+	}
+
+	@Test(expected = SolverTimeoutException.class)
+	public void testMissingMarkerTimesOut() throws Exception {
+		BlockingQueue<String> lines = new LinkedBlockingQueue<String>(Arrays.asList("sat"));
+		SmtSolverSession.readUntilMarker(lines, "marker-2", 10);
+	}
+
+	@Test
+	public void testEndOfOutput() throws Exception {
+		BlockingQueue<String> lines = new LinkedBlockingQueue<String>(
+				Arrays.asList("(error \"out of memory\")", SmtSolverSession.END_OF_OUTPUT));
+		try {
+			SmtSolverSession.readUntilMarker(lines, "marker-3", 1000);
+		} catch (SolverErrorException e) {
+			assertTrue(e.getMessage().contains("out of memory"));
+			return;
+		}
+		fail("Expected the session to report that the solver exited");
+	}
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.IntegerConstraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.junit.Test;
+
+public class SolverCacheTest {
+
+	/**
+	 * Returns a fixed result and records the queries it receives
+	 */
+	private static class StubSolver extends Solver {
+
+		private SolverResult result;
+
+		private final List<Collection<Constraint<?>>> queries = new ArrayList<Collection<Constraint<?>>>();
+
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) {
+			queries.add(new ArrayList<Constraint<?>>(constraints));
+			return result;
+		}
+	}
+
+	private static IntegerVariable var(String name) {
+		return new IntegerVariable(name, 0, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	private static Constraint<?> constraint(String name, Comparator cmp, long value) {
+		return new IntegerConstraint(var(name), cmp, new IntegerConstant(value));
+	}
+
+	private static SolverResult sat(String name, long value) {
+		Map<String, Object> model = new HashMap<String, Object>();
+		model.put(name, value);
+		return SolverResult.newSAT(model);
+	}
+
+	@Test
+	public void testRenamedAndReorderedQueryHits() {
+		SolverCache cache = new SolverCache(10);
+		StubSolver solver = new StubSolver();
+
+		solver.result = sat("x", 5L);
+		List<Constraint<?>> first = Arrays.<Constraint<?>> asList(constraint("x", Comparator.GT, 0),
+				constraint("x", Comparator.LT, 10));
+		assertTrue(cache.solve(solver, first).isSAT());
+
+		List<Constraint<?>> renamed = Arrays.<Constraint<?>> asList(constraint("y", Comparator.LT, 10),
+				constraint("y", Comparator.GT, 0));
+		SolverResult result = cache.solve(solver, renamed);
+
+		assertEquals(1, solver.queries.size());
+		assertEquals(5L, result.getValue("y"));
+		assertEquals(1, cache.getNumberOfHits());
+		assertEquals(1, cache.getNumberOfMisses());
+	}
+
+	@Test
+	public void testIndependentSlicesAreSolvedSeparately() {
+		SolverCache cache = new SolverCache(10);
+		StubSolver solver = new StubSolver();
+
+		solver.result = sat("x", 1L);
+		cache.solve(solver, Arrays.<Constraint<?>> asList(constraint("x", Comparator.GT, 0)));
+
+		solver.result = sat("z", 7L);
+		SolverResult result = cache.solve(solver,
+				Arrays.<Constraint<?>> asList(constraint("x", Comparator.GT, 0), constraint("z", Comparator.EQ, 7)));
+
+		assertEquals(2, solver.queries.size());
+		assertEquals(1, solver.queries.get(1).size());
+		assertEquals(1L, result.getValue("x"));
+		assertEquals(7L, result.getValue("z"));
+	}
+
+	@Test
+	public void testUNSATSubsetAndModelReuse() {
+		SolverCache cache = new SolverCache(10);
+		StubSolver solver = new StubSolver();
+
+		solver.result = SolverResult.newUNSAT();
+		cache.solve(solver, Arrays.<Constraint<?>> asList(constraint("x", Comparator.GT, 5),
+				constraint("x", Comparator.LT, 3)));
+		SolverResult unsat = cache.solve(solver, Arrays.<Constraint<?>> asList(constraint("x", Comparator.GT, 5),
+				constraint("x", Comparator.LT, 3), constraint("x", Comparator.NE, 4)));
+		assertTrue(unsat.isUNSAT());
+
+		solver.result = sat("y", 5L);
+		cache.solve(solver, Arrays.<Constraint<?>> asList(constraint("y", Comparator.GT, 0),
+				constraint("y", Comparator.LT, 10)));
+		SolverResult reused = cache.solve(solver, Arrays.<Constraint<?>> asList(constraint("y", Comparator.GT, 0),
+				constraint("y", Comparator.LT, 10), constraint("y", Comparator.NE, 3)));
+		assertTrue(reused.isSAT());
+		assertEquals(5L, reused.getValue("y"));
+
+		assertEquals(2, solver.queries.size());
+		assertEquals(2, cache.getNumberOfReuses());
+	}
+
+	@Test
+	public void testSizeIsBounded() {
+		SolverCache cache = new SolverCache(2);
+		StubSolver solver = new StubSolver();
+		solver.result = SolverResult.newUNSAT();
+
+		for (int i = 0; i < 3; i++) {
+			cache.solve(solver, Arrays.<Constraint<?>> asList(constraint("x", Comparator.EQ, i)));
+		}
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getNumberOfEvictions());
+	}
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestChromosomeTest {
+
+	private static TestChromosome createChromosome() {
+		DefaultTestCase tc = new DefaultTestCase();
+		tc.addStatement(new IntPrimitiveStatement(tc, 42));
+		tc.addStatement(new IntPrimitiveStatement(tc, 43));
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(tc);
+		return chromosome;
+	}
+
+	@Test
+	public void testCloneSharesTestCase() {
+		TestChromosome original = createChromosome();
+		TestChromosome clone = (TestChromosome) original.clone();
+
+		Assert.assertSame(original.test, clone.test);
+		Assert.assertEquals(original, clone);
+		Assert.assertEquals(original.size(), clone.size());
+	}
+
+	@Test
+	public void testChangedCloneDoesNotAffectOriginal() {
+		TestChromosome original = createChromosome();
+		TestChromosome clone = (TestChromosome) original.clone();
+
+		TestCase cloneTest = clone.getTestCase();
+		Assert.assertNotSame(original.test, cloneTest);
+		((IntPrimitiveStatement) cloneTest.getStatement(0)).setValue(0);
+
+		Assert.assertEquals(42, ((IntPrimitiveStatement) original.getTestCase().getStatement(0)).getValue().intValue());
+		Assert.assertNotEquals(original, clone);
+	}
+
+	@Test
+	public void testLastSharerTakesOverTestCase() {
+		TestChromosome original = createChromosome();
+		TestChromosome clone = (TestChromosome) original.clone();
+		TestCase shared = original.test;
+
+		clone.getTestCase();
+		Assert.assertSame(shared, original.getTestCase());
+	}
+
+	@Test
+	public void testEvaluationDoesNotCopyTestCase() {
+		TestChromosome original = createChromosome();
+		TestChromosome clone = (TestChromosome) original.clone();
+		TestCase shared = original.test;
+
+		TestFitnessFunction goal = new TestFitnessFunction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public ExecutionResult runTest(TestCase test) {
+				return new ExecutionResult(test);
+			}
+
+			@Override
+			public double getFitness(TestChromosome individual, ExecutionResult result) {
+				return 1.0;
+			}
+
+			@Override
+			public int compareTo(TestFitnessFunction other) {
+				return 0;
+			}
+
+			@Override
+			public int hashCode() {
+				return 0;
+			}
+
+			@Override
+			public boolean equals(Object other) {
+				return other == this;
+			}
+
+			@Override
+			public String getTargetClass() {
+				return "Foo";
+			}
+
+			@Override
+			public String getTargetMethod() {
+				return "bar";
+			}
+		};
+
+		Assert.assertFalse(goal.isCovered(clone));
+		Assert.assertSame(shared, clone.getTestCaseForReading());
+		Assert.assertSame(shared, clone.getLastExecutionResult().test);
+
+		// the first change still gets its own copy, with the result mapped to it
+		TestCase copy = clone.getTestCase();
+		Assert.assertNotSame(shared, copy);
+		Assert.assertSame(copy, clone.getLastExecutionResult().test);
+		Assert.assertSame(shared, original.getTestCaseForReading());
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ArrayExecutionTraceImplTest {
+
+	private static void passBranches(ExecutionTrace trace) {
+		trace.branchPassed(1, 10, 0.0, 1.0);
+		trace.branchPassed(1, 10, 2.0, 0.0);
+		trace.branchPassed(3, 12, 5.0, 0.0);
+		trace.branchPassed(3, 12, 4.0, 0.0);
+		// Beyond the initial capacity
+		trace.branchPassed(42, 13, 0.0, 7.0);
+	}
+
+	private static void assertSameTrace(ExecutionTrace expected, ExecutionTrace actual) {
+		assertEquals(expected.getTrueDistances(), actual.getTrueDistances());
+		assertEquals(expected.getFalseDistances(), actual.getFalseDistances());
+		assertEquals(expected.getTrueDistancesSum(), actual.getTrueDistancesSum());
+		assertEquals(expected.getFalseDistancesSum(), actual.getFalseDistancesSum());
+		assertEquals(expected.getPredicateExecutionCount(), actual.getPredicateExecutionCount());
+		assertEquals(expected.getCoveredPredicates(), actual.getCoveredPredicates());
+		assertEquals(expected.getCoveredTrue(), actual.getCoveredTrue());
+		assertEquals(expected.getCoveredFalse(), actual.getCoveredFalse());
+		assertEquals(expected.getCoveredTrueBranches(), actual.getCoveredTrueBranches());
+		assertEquals(expected.getCoveredFalseBranches(), actual.getCoveredFalseBranches());
+	}
+
+	@Test
+	public void testSameResultsAsMapBasedTrace() {
+		ExecutionTraceImpl expected = new ExecutionTraceImpl();
+		ArrayExecutionTraceImpl actual = new ArrayExecutionTraceImpl(4);
+		passBranches(expected);
+		passBranches(actual);
+
+		assertSameTrace(expected, actual);
+		assertEquals(0.0, actual.getTrueDistance(1), 0.0);
+		assertEquals(0.0, actual.getFalseDistance(1), 0.0);
+		assertEquals(4.0, actual.getTrueDistance(3), 0.0);
+		assertEquals(7.0, actual.getFalseDistance(42), 0.0);
+		assertTrue(actual.hasTrueDistance(42));
+		assertFalse(actual.hasTrueDistance(2));
+		assertFalse(actual.hasFalseDistance(100));
+	}
+
+	@Test
+	public void testCloneIsIndependent() {
+		ArrayExecutionTraceImpl original = new ArrayExecutionTraceImpl(4);
+		passBranches(original);
+		ArrayExecutionTraceImpl copy = original.clone();
+
+		ExecutionTraceImpl expected = new ExecutionTraceImpl();
+		passBranches(expected);
+		assertSameTrace(expected.clone(), copy);
+
+		copy.branchPassed(2, 11, 0.0, 3.0);
+		assertTrue(copy.hasTrueDistance(2));
+		assertFalse(original.hasTrueDistance(2));
+	}
+
+	@Test
+	public void testClear() {
+		ExecutionTraceImpl expected = new ExecutionTraceImpl();
+		ArrayExecutionTraceImpl actual = new ArrayExecutionTraceImpl(4);
+		passBranches(expected);
+		passBranches(actual);
+		expected.clear();
+		actual.clear();
+
+		assertSameTrace(expected, actual);
+		assertTrue(actual.getTrueDistances().isEmpty());
+	}
+}
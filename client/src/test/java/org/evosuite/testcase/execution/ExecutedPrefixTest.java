@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.io.PrintStream;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutedPrefixTest {
+
+	@Before
+	public void clearTrace() {
+		ExecutionTracer.getExecutionTracer().clear();
+	}
+
+	private static DefaultTestCase createTest() {
+		DefaultTestCase tc = new DefaultTestCase();
+		tc.addStatement(new IntPrimitiveStatement(tc, 42));
+		tc.addStatement(new StringPrimitiveStatement(tc, "foo"));
+		tc.addStatement(new IntPrimitiveStatement(tc, 43));
+		return tc;
+	}
+
+	private static ExecutedPrefix execute(TestCase tc) throws Exception {
+		ExecutedPrefix prefix = new ExecutedPrefix();
+		prefix.startRecording();
+		Scope scope = new Scope();
+		PrintStream out = new PrintStream(new NullOutputStream());
+		for (Statement s : tc) {
+			Throwable exception = s.execute(scope, System.out);
+			Assert.assertTrue(prefix.append(s, scope, exception));
+		}
+		return prefix;
+	}
+
+	@Test
+	public void testResumeAfterChangedStatement() throws Exception {
+		DefaultTestCase tc = createTest();
+		ExecutedPrefix prefix = execute(tc);
+		Assert.assertEquals(3, prefix.size());
+
+		DefaultTestCase mutant = tc.clone();
+		((IntPrimitiveStatement) mutant.getStatement(2)).setValue(0);
+		Assert.assertEquals(2, prefix.getResumablePosition(mutant));
+		Assert.assertEquals(3, prefix.getResumablePosition(tc.clone()));
+
+		((StringPrimitiveStatement) mutant.getStatement(1)).setValue("bar");
+		Assert.assertEquals(1, prefix.getResumablePosition(mutant));
+	}
+
+	@Test
+	public void testRestoreValues() throws Exception {
+		DefaultTestCase tc = createTest();
+		ExecutedPrefix prefix = execute(tc);
+
+		DefaultTestCase mutant = tc.clone();
+		Scope scope = new Scope();
+		prefix.restore(2, mutant, scope);
+
+		Assert.assertEquals(42, scope.getObject(mutant.getStatement(0).getReturnValue()));
+		Assert.assertEquals("foo", scope.getObject(mutant.getStatement(1).getReturnValue()));
+		Assert.assertNull(scope.getObject(mutant.getStatement(2).getReturnValue()));
+		Assert.assertEquals(2, ExecutionTracer.getExecutionTracer().getNumStatementsExecuted());
+	}
+
+	@Test
+	public void testTruncatedPrefixIsIndependent() throws Exception {
+		DefaultTestCase tc = createTest();
+		ExecutedPrefix prefix = execute(tc);
+
+		ExecutedPrefix truncated = prefix.truncate(1);
+		Assert.assertEquals(1, truncated.size());
+		Assert.assertEquals(3, prefix.size());
+		Assert.assertEquals(1, truncated.getResumablePosition(tc));
+	}
+}
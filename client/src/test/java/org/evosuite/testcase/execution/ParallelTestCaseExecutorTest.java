@@ -0,0 +1,235 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.numeric.DoublePrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.execution.DoubleComparison;
+import com.examples.with.different.packagename.execution.StaticCounter;
+
+public class ParallelTestCaseExecutorTest {
+
+	private static final int DEFAULT_LANES = Properties.PARALLEL_EXECUTION_LANES;
+
+	private static final boolean DEFAULT_RESET_STATIC_FIELDS = Properties.RESET_STATIC_FIELDS;
+
+	private static final String DEFAULT_TARGET_CLASS = Properties.TARGET_CLASS;
+
+	@Before
+	public void setUp() {
+		Properties.CLIENT_ON_THREAD = true;
+		Properties.PARALLEL_EXECUTION_LANES = 2;
+		TestCaseExecutor.initExecutor();
+		ParallelTestCaseExecutor.pullDown();
+	}
+
+	@After
+	public void tearDown() {
+		ParallelTestCaseExecutor.pullDown();
+		Properties.PARALLEL_EXECUTION_LANES = DEFAULT_LANES;
+		Properties.RESET_STATIC_FIELDS = DEFAULT_RESET_STATIC_FIELDS;
+		Properties.TARGET_CLASS = DEFAULT_TARGET_CLASS;
+	}
+
+	private static Class<?> loadTargetClass(String className) throws ClassNotFoundException {
+		Properties.TARGET_CLASS = className;
+		TestGenerationContext.getInstance().resetContext();
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		return TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(className);
+	}
+
+	private static DefaultTestCase createCompareTest(Class<?> sut, double x, double y) throws NoSuchMethodException {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference var0 = test.addStatement(new DoublePrimitiveStatement(test, x));
+		VariableReference var1 = test.addStatement(new DoublePrimitiveStatement(test, y));
+		Method compare = sut.getMethod("compare", double.class, double.class);
+		test.addStatement(new MethodStatement(test, new GenericMethod(compare, sut), null,
+				Arrays.asList(var0, var1)));
+		return test;
+	}
+
+	private static DefaultTestCase createIncrementTest(Class<?> sut) throws NoSuchMethodException {
+		DefaultTestCase test = new DefaultTestCase();
+		Method increment = sut.getMethod("increment");
+		test.addStatement(new MethodStatement(test, new GenericMethod(increment, sut), null,
+				Collections.<VariableReference> emptyList()));
+		return test;
+	}
+
+	private static void assertSameExecution(ExecutionResult expected, ExecutionResult actual) {
+		Assert.assertEquals(expected.getExecutedStatements(), actual.getExecutedStatements());
+		Assert.assertEquals(expected.getPositionsWhereExceptionsWereThrown(),
+				actual.getPositionsWhereExceptionsWereThrown());
+		Assert.assertEquals(expected.getTrace().getCoveredTrue(), actual.getTrace().getCoveredTrue());
+		Assert.assertEquals(expected.getTrace().getCoveredFalse(), actual.getTrace().getCoveredFalse());
+		Assert.assertEquals(expected.getTrace().getTrueDistances(), actual.getTrace().getTrueDistances());
+		Assert.assertEquals(expected.getTrace().getFalseDistances(), actual.getTrace().getFalseDistances());
+	}
+
+	@Test
+	public void testSingleLaneIsNotParallel() {
+		Properties.PARALLEL_EXECUTION_LANES = 1;
+		ParallelTestCaseExecutor.pullDown();
+		Assert.assertFalse(ParallelTestCaseExecutor.getInstance().isParallelExecutionPossible());
+	}
+
+	@Test
+	public void testLanesMatchSequentialExecution() throws Exception {
+		Class<?> sut = loadTargetClass(DoubleComparison.class.getCanonicalName());
+
+		// The operands differ per test, so lanes that shared the value of the
+		// last double comparison would report wrong branch distances
+		List<TestCase> tests = new ArrayList<TestCase>();
+		for (int i = 0; i < 50; i++)
+			tests.add(createCompareTest(sut, i * 7.25 - 180.0, (i % 5) * 3.5));
+
+		List<ExecutionResult> expected = new ArrayList<ExecutionResult>();
+		for (TestCase test : tests)
+			expected.add(TestCaseExecutor.runTest(test));
+
+		ParallelTestCaseExecutor executor = ParallelTestCaseExecutor.getInstance();
+		Assert.assertTrue(executor.isParallelExecutionPossible());
+		List<ExecutionResult> actual = executor.execute(tests);
+
+		// The class was initialised by the sequential run, so the batch must
+		// not have fallen back to sequential execution
+		Assert.assertTrue(executor.isParallelExecutionPossible());
+		Assert.assertEquals(tests.size(), actual.size());
+		for (int i = 0; i < tests.size(); i++) {
+			Assert.assertSame(tests.get(i), actual.get(i).test);
+			assertSameExecution(expected.get(i), actual.get(i));
+		}
+	}
+
+	@Test
+	public void testBudgetIsChargedAsInSequentialExecution() throws Exception {
+		Class<?> sut = loadTargetClass(DoubleComparison.class.getCanonicalName());
+
+		List<TestCase> tests = new ArrayList<TestCase>();
+		for (int i = 0; i < 10; i++)
+			tests.add(createCompareTest(sut, i, 5.0));
+		TestCaseExecutor.runTest(tests.get(0));
+
+		long statements = MaxStatementsStoppingCondition.getNumExecutedStatements();
+		long executedTests = MaxTestsStoppingCondition.getNumExecutedTests();
+		List<ExecutionResult> parallel = ParallelTestCaseExecutor.getInstance().execute(tests);
+		Assert.assertTrue(ParallelTestCaseExecutor.getInstance().isParallelExecutionPossible());
+		long parallelStatements = MaxStatementsStoppingCondition.getNumExecutedStatements() - statements;
+		long parallelTests = MaxTestsStoppingCondition.getNumExecutedTests() - executedTests;
+
+		Properties.PARALLEL_EXECUTION_LANES = 1;
+		ParallelTestCaseExecutor.pullDown();
+		statements = MaxStatementsStoppingCondition.getNumExecutedStatements();
+		executedTests = MaxTestsStoppingCondition.getNumExecutedTests();
+		ParallelTestCaseExecutor.getInstance().execute(tests);
+		long sequentialStatements = MaxStatementsStoppingCondition.getNumExecutedStatements() - statements;
+		long sequentialTests = MaxTestsStoppingCondition.getNumExecutedTests() - executedTests;
+
+		long expectedStatements = 0;
+		for (ExecutionResult result : parallel)
+			expectedStatements += result.getExecutedStatements();
+		Assert.assertEquals(expectedStatements, parallelStatements);
+		Assert.assertEquals(sequentialStatements, parallelStatements);
+		Assert.assertEquals(tests.size(), parallelTests);
+		Assert.assertEquals(sequentialTests, parallelTests);
+	}
+
+	@Test
+	public void testFallbackOnStaticWrites() throws Exception {
+		Properties.RESET_STATIC_FIELDS = true;
+		Class<?> sut = loadTargetClass(StaticCounter.class.getCanonicalName());
+
+		List<TestCase> tests = new ArrayList<TestCase>();
+		for (int i = 0; i < 4; i++)
+			tests.add(createIncrementTest(sut));
+		TestCaseExecutor.runTest(tests.get(0));
+
+		ParallelTestCaseExecutor executor = ParallelTestCaseExecutor.getInstance();
+		Assert.assertTrue(executor.isParallelExecutionPossible());
+		List<ExecutionResult> results = executor.execute(tests);
+
+		Assert.assertFalse(executor.isParallelExecutionPossible());
+		Assert.assertEquals(tests.size(), results.size());
+		for (int i = 0; i < tests.size(); i++) {
+			Assert.assertSame(tests.get(i), results.get(i).test);
+			Assert.assertTrue(results.get(i).noThrownExceptions());
+			Assert.assertFalse(results.get(i).getTrace().getClassesWithStaticWrites().isEmpty());
+		}
+
+		// Once the executor has fallen back, later batches run sequentially
+		List<ExecutionResult> later = executor.execute(tests);
+		Assert.assertEquals(tests.size(), later.size());
+		Assert.assertFalse(executor.isParallelExecutionPossible());
+	}
+
+	@Test
+	public void testObserversOfGlobalExecutorPreventParallelExecution() {
+		ExecutionObserver observer = new ExecutionObserver() {
+			@Override
+			public void output(int position, String output) {
+			}
+
+			@Override
+			public void beforeStatement(Statement statement, Scope scope) {
+			}
+
+			@Override
+			public void afterStatement(Statement statement, Scope scope,
+					Throwable exception) {
+			}
+
+			@Override
+			public void testExecutionFinished(ExecutionResult r, Scope s) {
+			}
+
+			@Override
+			public void clear() {
+			}
+		};
+		TestCaseExecutor.getInstance().addObserver(observer);
+		try {
+			Assert.assertFalse(ParallelTestCaseExecutor.getInstance().isParallelExecutionPossible());
+		} finally {
+			TestCaseExecutor.getInstance().removeObserver(observer);
+		}
+		Assert.assertTrue(ParallelTestCaseExecutor.getInstance().isParallelExecutionPossible());
+	}
+}
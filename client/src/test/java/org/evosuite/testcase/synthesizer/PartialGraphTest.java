@@ -0,0 +1,224 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.synthesizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.graphs.GraphPool;
+import org.evosuite.graphs.cfg.BytecodeInstruction;
+import org.evosuite.graphs.cfg.RawControlFlowGraph;
+import org.evosuite.graphs.dataflow.ConstructionPath;
+import org.evosuite.graphs.dataflow.ConstructionPathIndex;
+import org.evosuite.graphs.dataflow.DepVariable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.FieldInsnNode;
+
+public class PartialGraphTest {
+
+	private static final String CLASS_NAME = "com.examples.with.different.packagename.Foo";
+
+	private static final String OWNER = "com/examples/with/different/packagename/Foo";
+
+	private static final String METHOD_NAME = "foo()V";
+
+	private final ClassLoader classLoader = PartialGraphTest.class.getClassLoader();
+
+	@Before
+	public void registerMethod() {
+		RawControlFlowGraph cfg = new RawControlFlowGraph(classLoader, CLASS_NAME, METHOD_NAME,
+				Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC);
+		GraphPool.getInstance(classLoader).registerRawCFG(cfg);
+	}
+
+	@After
+	public void clearMethod() {
+		GraphPool.getInstance(classLoader).clear(CLASS_NAME);
+	}
+
+	private DepVariable field(int opcode, int instructionId, String name) {
+		FieldInsnNode node = new FieldInsnNode(opcode, OWNER, name, "Ljava/lang/Object;");
+		BytecodeInstruction instruction = new BytecodeInstruction(classLoader, CLASS_NAME, METHOD_NAME,
+				instructionId, instructionId, node);
+		return new DepVariable(CLASS_NAME, instruction);
+	}
+
+	/**
+	 * The construction of a partial graph before the paths were indexed: the
+	 * roots of each dependent variable are searched when it is added.
+	 */
+	private static PartialGraph searchConstructionPaths(List<DepVariable> variables) {
+		PartialGraph graph = new PartialGraph();
+		for (DepVariable source : variables) {
+			Map<DepVariable, ArrayList<ConstructionPath>> rootInfo = source.getRootVars();
+
+			for (DepVariable root : rootInfo.keySet()) {
+				if ((root.referenceToThis() || root.isParameter() || root.isStaticField())
+						&& root.getInstruction().getMethodName().equals(METHOD_NAME)) {
+					for (ConstructionPath path : rootInfo.get(root)) {
+						for (int i = 0; i < path.size() - 1; i++) {
+							DepVariableWrapper child = graph.fetchAndMerge(path.get(i));
+							DepVariableWrapper parent = graph.fetchAndMerge(path.get(i + 1));
+
+							child.addParent(parent);
+							parent.addChild(child);
+						}
+
+						if (path.size() == 1) {
+							graph.fetchAndMerge(path.get(0));
+						}
+					}
+				}
+			}
+		}
+		return graph;
+	}
+
+	/**
+	 * a.x.y and b.z, where a and b are static fields
+	 */
+	private List<DepVariable> createTree() {
+		DepVariable a = field(Opcodes.GETSTATIC, 0, "a");
+		DepVariable b = field(Opcodes.GETSTATIC, 1, "b");
+		DepVariable x = field(Opcodes.GETFIELD, 2, "x");
+		DepVariable y = field(Opcodes.GETFIELD, 3, "y");
+		DepVariable z = field(Opcodes.GETFIELD, 4, "z");
+		a.buildRelation(x, 0);
+		x.buildRelation(y, 0);
+		b.buildRelation(z, 0);
+		return Arrays.asList(y, z, x);
+	}
+
+	/**
+	 * The field x is read at two instructions, one reads it from a, the other
+	 * one from q or b. The first source only reaches the first read, the second
+	 * source reaches the second read through x and through g, and the third
+	 * source reaches q through the first read only after the two reads were
+	 * merged.
+	 */
+	private List<DepVariable> createGraphWithEqualVariables() {
+		DepVariable a = field(Opcodes.GETSTATIC, 0, "a");
+		DepVariable b = field(Opcodes.GETSTATIC, 1, "b");
+		DepVariable c = field(Opcodes.GETSTATIC, 2, "c");
+		DepVariable x1 = field(Opcodes.GETFIELD, 3, "x");
+		DepVariable s1 = field(Opcodes.GETFIELD, 4, "s1");
+		DepVariable q = field(Opcodes.GETFIELD, 5, "q");
+		DepVariable g = field(Opcodes.GETFIELD, 6, "g");
+		DepVariable x2 = field(Opcodes.GETFIELD, 7, "x");
+		DepVariable s2 = field(Opcodes.GETFIELD, 8, "s2");
+		DepVariable s3 = field(Opcodes.GETFIELD, 9, "s3");
+		a.buildRelation(x1, 0);
+		x1.buildRelation(s1, 0);
+		c.buildRelation(q, 0);
+		q.buildRelation(g, 0);
+		q.buildRelation(x2, 0);
+		b.buildRelation(x2, 0);
+		g.buildRelation(s2, 0);
+		x2.buildRelation(s2, 1);
+		x1.buildRelation(s3, 0);
+		return Arrays.asList(s1, s2, s3);
+	}
+
+	private static void addEdge(PartialGraph graph, DepVariable childVar, DepVariable parentVar) {
+		DepVariableWrapper child = graph.fetchAndMerge(childVar);
+		DepVariableWrapper parent = graph.fetchAndMerge(parentVar);
+		child.addParent(parent);
+		parent.addChild(child);
+	}
+
+	@Test
+	public void testShapeDoesNotDependOnInsertionOrder() {
+		DepVariable a = field(Opcodes.GETSTATIC, 0, "a");
+		DepVariable b = field(Opcodes.GETSTATIC, 1, "b");
+		DepVariable x = field(Opcodes.GETFIELD, 2, "x");
+		DepVariable y = field(Opcodes.GETFIELD, 3, "y");
+
+		PartialGraph graph = new PartialGraph();
+		addEdge(graph, x, a);
+		addEdge(graph, x, b);
+		addEdge(graph, y, x);
+
+		PartialGraph reversed = new PartialGraph();
+		addEdge(reversed, y, x);
+		addEdge(reversed, x, b);
+		addEdge(reversed, x, a);
+
+		Assert.assertEquals(graph.getShape(), reversed.getShape());
+
+		PartialGraph other = new PartialGraph();
+		addEdge(other, y, x);
+		addEdge(other, x, a);
+		Assert.assertNotEquals(graph.getShape(), other.getShape());
+	}
+
+	@Test
+	public void testIndexedPathsBuildSameGraph() {
+		PartialGraph expected = searchConstructionPaths(createTree());
+
+		List<DepVariable> variables = createTree();
+		PartialGraph graph = new PartialGraph();
+		graph.addConstructionPaths(ConstructionPathIndex.computeBranchPaths(variables, METHOD_NAME), METHOD_NAME);
+
+		Assert.assertEquals(expected.getShape(), graph.getShape());
+		Assert.assertFalse(graph.hasMergedRelations());
+	}
+
+	@Test
+	public void testPathsAreSearchedAgainAfterMerge() {
+		PartialGraph expected = searchConstructionPaths(createGraphWithEqualVariables());
+
+		List<DepVariable> variables = createGraphWithEqualVariables();
+		ConstructionPathIndex.BranchPaths paths = ConstructionPathIndex.computeBranchPaths(variables, METHOD_NAME);
+		PartialGraph graph = new PartialGraph();
+		graph.addConstructionPaths(paths, METHOD_NAME);
+
+		Assert.assertEquals(expected.getShape(), graph.getShape());
+		Assert.assertTrue(graph.hasMergedRelations());
+
+		// q is a parent of x only on the paths searched after the merge
+		DepVariableWrapper x = graph.allRelevantNodes.get(field(Opcodes.GETFIELD, 10, "x"));
+		Assert.assertEquals(3, x.parents.size());
+	}
+
+	@Test
+	public void testPathsSearchedAgainSeeMergedRelations() {
+		List<DepVariable> expectedVariables = createGraphWithEqualVariables();
+		searchConstructionPaths(expectedVariables);
+		PartialGraph expected = searchConstructionPaths(expectedVariables);
+
+		List<DepVariable> variables = createGraphWithEqualVariables();
+		PartialGraph first = new PartialGraph();
+		first.addConstructionPaths(ConstructionPathIndex.computeBranchPaths(variables, METHOD_NAME), METHOD_NAME);
+		Assert.assertTrue(first.hasMergedRelations());
+
+		// the synthesizer searches the paths again after relations were merged
+		PartialGraph graph = new PartialGraph();
+		graph.addConstructionPaths(ConstructionPathIndex.computeBranchPaths(variables, METHOD_NAME), METHOD_NAME);
+
+		Assert.assertEquals(expected.getShape(), graph.getShape());
+		Assert.assertFalse(graph.hasMergedRelations());
+	}
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.synthesizer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.TimeController;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.coverage.branch.Branch;
+import org.evosuite.graphs.cfg.BytecodeInstruction;
+import org.evosuite.graphs.dataflow.DepVariable;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+
+import com.examples.with.different.packagename.synthesizer.LegitimizationTarget;
+
+public class TestCaseLegitimizerTest {
+
+	private static final String DEFAULT_TARGET_CLASS = Properties.TARGET_CLASS;
+
+	private static final String DEFAULT_TARGET_METHOD = Properties.TARGET_METHOD;
+
+	private static final int DEFAULT_MAX_EXECUTIONS = Properties.LEGITIMIZATION_MAX_EXECUTIONS;
+
+	private Class<?> sut;
+
+	private Branch branch;
+
+	@Before
+	public void setUp() throws ClassNotFoundException {
+		Properties.CLIENT_ON_THREAD = true;
+		Properties.TARGET_CLASS = LegitimizationTarget.class.getCanonicalName();
+		Properties.TARGET_METHOD = "target()V";
+		TestGenerationContext.getInstance().resetContext();
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		TimeController.resetSingleton();
+		TestCaseExecutor.initExecutor();
+		ParallelTestCaseExecutor.pullDown();
+		TestCaseLegitimizer.resetSingleton();
+
+		ClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		sut = classLoader.loadClass(Properties.TARGET_CLASS);
+		BytecodeInstruction jump = new BytecodeInstruction(classLoader, Properties.TARGET_CLASS,
+				Properties.TARGET_METHOD, 0, 0, new JumpInsnNode(Opcodes.IFEQ, new LabelNode()));
+		branch = new Branch(jump, 1);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		sut.getField("failing").setBoolean(null, false);
+		ParallelTestCaseExecutor.pullDown();
+		TestCaseLegitimizer.resetSingleton();
+		Properties.TARGET_CLASS = DEFAULT_TARGET_CLASS;
+		Properties.TARGET_METHOD = DEFAULT_TARGET_METHOD;
+		Properties.LEGITIMIZATION_MAX_EXECUTIONS = DEFAULT_MAX_EXECUTIONS;
+	}
+
+	private TestCase createTargetTest() throws NoSuchMethodException {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference callee = test.addStatement(new ConstructorStatement(test,
+				new GenericConstructor(sut.getConstructor(), sut), Collections.<VariableReference> emptyList()));
+		test.addStatement(new MethodStatement(test, new GenericMethod(sut.getMethod("target"), sut), callee,
+				Collections.<VariableReference> emptyList()));
+		return test;
+	}
+
+	private TestCase createNullCalleeTest() throws NoSuchMethodException {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference callee = test.addStatement(new NullStatement(test, sut));
+		test.addStatement(new MethodStatement(test, new GenericMethod(sut.getMethod("target"), sut), callee,
+				Collections.<VariableReference> emptyList()));
+		return test;
+	}
+
+	private TestCase legitimize(TestCase test, PartialGraph graph) {
+		return TestCaseLegitimizer.getInstance().legitimize(test, graph,
+				new HashMap<DepVariable, List<VariableReference>>(), branch);
+	}
+
+	@Test
+	public void testBudgetOfExecutionsIsUsedUp() throws Exception {
+		sut.getField("failing").setBoolean(null, true);
+		Properties.LEGITIMIZATION_MAX_EXECUTIONS = 1;
+
+		PartialGraph graph = new PartialGraph();
+		TestCase legitimized = legitimize(createTargetTest(), graph);
+
+		// the search stops before the first generation is bred
+		Assert.assertNotNull(legitimized);
+		Assert.assertEquals(1, TestCaseLegitimizer.getInstance().getNumberOfExecutions());
+		Assert.assertNull(TestCaseLegitimizer.getInstance().getTemplate(branch, graph.getShape()));
+	}
+
+	@Test
+	public void testTemplateIsReused() throws Exception {
+		PartialGraph graph = new PartialGraph();
+		TestCase test = createTargetTest();
+		Assert.assertSame(test, legitimize(test, graph));
+		Assert.assertNotNull(TestCaseLegitimizer.getInstance().getTemplate(branch, graph.getShape()));
+
+		// the template of the same shape is returned instead of searching for the new test
+		TestCase legitimized = legitimize(createNullCalleeTest(), new PartialGraph());
+		Assert.assertEquals(test.toCode(), legitimized.toCode());
+		Assert.assertEquals(1, TestCaseLegitimizer.getInstance().getNumberOfExecutions());
+	}
+
+	@Test
+	public void testStaleTemplateIsEvicted() throws Exception {
+		PartialGraph graph = new PartialGraph();
+		legitimize(createTargetTest(), graph);
+		Assert.assertNotNull(TestCaseLegitimizer.getInstance().getTemplate(branch, graph.getShape()));
+
+		// the template no longer reaches the target call
+		sut.getField("failing").setBoolean(null, true);
+		Properties.LEGITIMIZATION_MAX_EXECUTIONS = 2;
+		legitimize(createTargetTest(), graph);
+
+		Assert.assertEquals(2, TestCaseLegitimizer.getInstance().getNumberOfExecutions());
+		Assert.assertNull(TestCaseLegitimizer.getInstance().getTemplate(branch, graph.getShape()));
+	}
+
+	@Test
+	public void testResetContextDropsTemplates() throws Exception {
+		PartialGraph graph = new PartialGraph();
+		legitimize(createTargetTest(), graph);
+		Assert.assertNotNull(TestCaseLegitimizer.getInstance().getTemplate(branch, graph.getShape()));
+
+		// the branch of the next context is equal to this one, but its classes are not
+		TestGenerationContext.getInstance().resetContext();
+
+		Assert.assertNull(TestCaseLegitimizer.getInstance().getTemplate(branch, graph.getShape()));
+	}
+}
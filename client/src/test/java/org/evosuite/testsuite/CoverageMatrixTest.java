@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class CoverageMatrixTest {
+
+    /**
+     * Goal covered by a fixed set of tests, without executing them
+     */
+    private static class DummyGoal extends TestFitnessFunction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+
+        private final Set<TestChromosome> coveringTests = new LinkedHashSet<TestChromosome>();
+
+        private int checks = 0;
+
+        public DummyGoal(int id, TestChromosome... coveringTests) {
+            this.id = id;
+            this.coveringTests.addAll(Arrays.asList(coveringTests));
+        }
+
+        @Override
+        public boolean isCovered(TestChromosome tc) {
+            checks++;
+            return coveringTests.contains(tc);
+        }
+
+        @Override
+        public double getFitness(TestChromosome individual, ExecutionResult result) {
+            return coveringTests.contains(individual) ? 0.0 : 1.0;
+        }
+
+        @Override
+        public int compareTo(TestFitnessFunction other) {
+            return Integer.compare(id, ((DummyGoal) other).id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof DummyGoal && ((DummyGoal) other).id == id;
+        }
+
+        @Override
+        public String getTargetClass() {
+            return "Dummy";
+        }
+
+        @Override
+        public String getTargetMethod() {
+            return "goal" + id;
+        }
+    }
+
+    private static final Comparator<TestChromosome> BY_SIZE = new Comparator<TestChromosome>() {
+        @Override
+        public int compare(TestChromosome test1, TestChromosome test2) {
+            return Integer.compare(test1.size(), test2.size());
+        }
+    };
+
+    private static TestChromosome createTest(int size) {
+        DefaultTestCase test = new DefaultTestCase();
+        for (int i = 0; i < size; i++) {
+            test.addStatement(new IntPrimitiveStatement(test, i));
+        }
+        TestChromosome chromosome = new TestChromosome();
+        chromosome.setTestCase(test);
+        return chromosome;
+    }
+
+    @Test
+    public void testEachGoalCheckedOncePerTest() {
+        TestChromosome test1 = createTest(1);
+        TestChromosome test2 = createTest(2);
+        DummyGoal goal1 = new DummyGoal(1, test1);
+        DummyGoal goal2 = new DummyGoal(2, test1, test2);
+        DummyGoal goal3 = new DummyGoal(3);
+        List<TestFitnessFunction> goals = new ArrayList<TestFitnessFunction>(Arrays.asList(goal1, goal2, goal3));
+
+        CoverageMatrix matrix = new CoverageMatrix(goals);
+        Assert.assertEquals(0, matrix.addTest(test1));
+        Assert.assertEquals(1, matrix.addTest(test2));
+
+        BitSet expected1 = new BitSet();
+        expected1.set(0, 2);
+        Assert.assertEquals(expected1, matrix.getCoveredGoals(0));
+        BitSet expected2 = new BitSet();
+        expected2.set(1);
+        Assert.assertEquals(expected2, matrix.getCoveredGoals(1));
+        Assert.assertEquals(expected1, matrix.getCoveredGoals());
+        Assert.assertEquals(Arrays.asList(goal1, goal2), matrix.getGoals(matrix.getCoveredGoals()));
+
+        Assert.assertEquals(2, goal1.checks);
+        Assert.assertEquals(2, goal2.checks);
+        Assert.assertEquals(2, goal3.checks);
+    }
+
+    @Test
+    public void testGreedyCover() {
+        TestChromosome small = createTest(1);
+        TestChromosome large = createTest(5);
+        TestChromosome other = createTest(3);
+        List<TestFitnessFunction> goals = new ArrayList<TestFitnessFunction>();
+        goals.add(new DummyGoal(0, small, large));
+        goals.add(new DummyGoal(1, large));
+        goals.add(new DummyGoal(2, large, other));
+        goals.add(new DummyGoal(3, other));
+
+        CoverageMatrix matrix = new CoverageMatrix(goals);
+        matrix.addTest(small);
+        matrix.addTest(large);
+        matrix.addTest(other);
+
+        BitSet remaining = matrix.getCoveredGoals();
+        Assert.assertEquals(1, matrix.getBestTest(remaining, BY_SIZE));
+        remaining.andNot(matrix.getCoveredGoals(1));
+        Assert.assertEquals(2, matrix.getBestTest(remaining, BY_SIZE));
+        remaining.andNot(matrix.getCoveredGoals(2));
+        Assert.assertEquals(-1, matrix.getBestTest(remaining, BY_SIZE));
+
+        // same number of goals: the preferred test is chosen
+        BitSet first = new BitSet();
+        first.set(0);
+        Assert.assertEquals(0, matrix.getBestTest(first, BY_SIZE));
+    }
+}
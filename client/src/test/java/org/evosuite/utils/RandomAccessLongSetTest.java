@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class RandomAccessLongSetTest {
+
+	@Test
+	public void testInsertionOrderAndDuplicates() {
+		RandomAccessLongSet set = new RandomAccessLongSet();
+		assertTrue(set.add(5L));
+		assertTrue(set.add(-1L));
+		assertFalse(set.add(5L));
+		assertTrue(set.add(Long.MAX_VALUE));
+
+		assertEquals(3, set.size());
+		assertArrayEquals(new long[] { 5L, -1L, Long.MAX_VALUE }, set.toArray());
+		assertEquals(-1L, set.get(1));
+		assertTrue(set.contains(Long.MAX_VALUE));
+		assertFalse(set.contains(0L));
+	}
+
+	@Test
+	public void testFloatingPointBitPatterns() {
+		RandomAccessLongSet set = new RandomAccessLongSet();
+		assertTrue(set.add(Double.doubleToLongBits(0.0)));
+		assertTrue(set.add(Double.doubleToLongBits(-0.0)));
+		assertTrue(set.add(Double.doubleToLongBits(Double.NaN)));
+		assertFalse(set.add(Double.doubleToLongBits(0.0 / 0.0)));
+		assertEquals(3, set.size());
+	}
+
+	@Test
+	public void testRemoveFirstAgainstReference() {
+		RandomAccessLongSet set = new RandomAccessLongSet();
+		Set<Long> members = new HashSet<Long>();
+		ArrayDeque<Long> order = new ArrayDeque<Long>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 20_000; i++) {
+			long value = random.nextInt(500);
+			assertEquals(members.add(value), set.add(value));
+			if (members.size() > order.size())
+				order.add(value);
+			if (order.size() > 100) {
+				long oldest = order.poll();
+				members.remove(oldest);
+				assertEquals(oldest, set.removeFirst());
+			}
+		}
+
+		assertEquals(order.size(), set.size());
+		int index = 0;
+		for (long value : order) {
+			assertEquals(value, set.get(index++));
+		}
+		for (long value = 0; value < 500; value++) {
+			assertEquals(members.contains(value), set.contains(value));
+		}
+	}
+}
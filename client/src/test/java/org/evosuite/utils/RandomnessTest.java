@@ -19,7 +19,12 @@
  */
 package org.evosuite.utils;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 import org.junit.Test;
 
 /**
@@ -40,4 +45,26 @@ public class RandomnessTest {
 					(Double.compare(r, min) >= 0) && (Double.compare(r, max) <= 0));
 		}
 	}
+
+	@Test
+	public void testChoiceFromSetsIsConsistent() {
+		Set<Integer> linked = new LinkedHashSet<Integer>();
+		RandomAccessSet<Integer> indexed = new RandomAccessSet<Integer>();
+		for (int i = 0; i < 100; i++) {
+			linked.add(i * 7 % 100);
+			indexed.add(i * 7 % 100);
+		}
+
+		long seed = Randomness.getSeed();
+		Randomness.setSeed(1234);
+		int[] fromLinked = new int[50];
+		for (int i = 0; i < fromLinked.length; i++) {
+			fromLinked[i] = Randomness.choice(linked);
+		}
+		Randomness.setSeed(1234);
+		for (int i = 0; i < fromLinked.length; i++) {
+			assertEquals(fromLinked[i], (int) Randomness.choice(indexed));
+		}
+		Randomness.setSeed(seed);
+	}
 }
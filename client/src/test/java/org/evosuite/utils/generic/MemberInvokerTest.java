@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils.generic;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MemberInvokerTest {
+
+	public static class FailingInitialization {
+		static {
+			if (true) {
+				throw new IllegalStateException();
+			}
+		}
+
+		public static void foo() {
+		}
+	}
+
+	@Test
+	public void testInvokeMethod() throws Exception {
+		GenericMethod concat = new GenericMethod(String.class.getMethod("concat", String.class), String.class);
+		// the first call goes through reflection, the following ones through the handle
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals("foobar", concat.invoke("foo", new Object[] { "bar" }));
+		}
+
+		GenericMethod max = new GenericMethod(Math.class.getMethod("max", int.class, int.class), Math.class);
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals(7, max.invoke(null, new Object[] { 3, 7 }));
+		}
+	}
+
+	@Test
+	public void testExceptionIsWrapped() throws Exception {
+		GenericMethod parseInt = new GenericMethod(Integer.class.getMethod("parseInt", String.class), Integer.class);
+		for (int i = 0; i < 3; i++) {
+			try {
+				parseInt.invoke(null, new Object[] { "foo" });
+				Assert.fail();
+			} catch (InvocationTargetException e) {
+				Assert.assertTrue(e.getCause() instanceof NumberFormatException);
+			}
+		}
+	}
+
+	@Test
+	public void testReflectionConversionsAreKept() throws Exception {
+		GenericMethod abs = new GenericMethod(Math.class.getMethod("abs", long.class), Math.class);
+		for (int i = 0; i < 3; i++) {
+			// int to long widening
+			Assert.assertEquals(5L, abs.invoke(null, new Object[] { -5 }));
+		}
+
+		GenericMethod concat = new GenericMethod(String.class.getMethod("concat", String.class), String.class);
+		concat.invoke("foo", new Object[] { "bar" });
+		try {
+			concat.invoke(new Object(), new Object[] { "bar" });
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// not an instance of the declaring class
+		}
+		try {
+			concat.invoke("foo", new Object[] { 42 });
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// argument type mismatch
+		}
+	}
+
+	@Test
+	public void testStaticInitializationError() throws Exception {
+		GenericMethod foo = new GenericMethod(FailingInitialization.class.getMethod("foo"),
+				FailingInitialization.class);
+		try {
+			foo.invoke(null, new Object[0]);
+			Assert.fail();
+		} catch (ExceptionInInitializerError e) {
+			// as with reflection, not wrapped in an InvocationTargetException
+		}
+	}
+
+	@Test
+	public void testNewInstance() throws Exception {
+		GenericConstructor constructor = new GenericConstructor(ArrayList.class.getConstructor(int.class),
+				ArrayList.class);
+		for (int i = 0; i < 3; i++) {
+			Assert.assertTrue(constructor.newInstance(new Object[] { 10 }) instanceof ArrayList);
+			try {
+				constructor.newInstance(new Object[] { -1 });
+				Assert.fail();
+			} catch (InvocationTargetException e) {
+				Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+			}
+		}
+	}
+}
@@ -26,15 +26,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.evosuite.ClientProcess;
 import org.evosuite.Properties;
 import org.evosuite.Properties.NoSuchParameterException;
-import org.evosuite.ga.Chromosome;
 import org.evosuite.result.TestGenerationResult;
+import org.evosuite.statistics.IndividualStatistics;
+import org.evosuite.statistics.IndividualStatisticsBatch;
 import org.evosuite.statistics.SearchStatistics;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.utils.Listener;
@@ -165,8 +165,11 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 	}
 
 	@Override
-	public void evosuite_collectStatistics(String clientRmiIdentifier, Chromosome individual) {
-		SearchStatistics.getInstance(clientRmiIdentifier).currentIndividual(individual);
+	public void evosuite_collectStatistics(String clientRmiIdentifier, IndividualStatisticsBatch individuals) {
+		SearchStatistics statistics = SearchStatistics.getInstance(clientRmiIdentifier);
+		for (IndividualStatistics individual : individuals.getIndividuals()) {
+			statistics.currentIndividual(individual);
+		}
 	}
 
 	@Override
@@ -195,7 +198,7 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 	}
 
     @Override
-    public void evosuite_migrate(String clientRmiIdentifier, Set<? extends Chromosome> migrants)
+    public void evosuite_migrate(String clientRmiIdentifier, ChromosomeBatch migrants)
             throws RemoteException {
         //implements ring topology
         int idSender = Integer.parseInt(clientRmiIdentifier.replaceAll("[^0-9]", ""));
@@ -212,7 +215,7 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
     }
 
     @Override
-    public void evosuite_collectBestSolutions(String clientRmiIdentifier, Set<? extends Chromosome> solutions) {
+    public void evosuite_collectBestSolutions(String clientRmiIdentifier, ChromosomeBatch solutions) {
         try {
             ClientNodeRemote node = clients.get(ClientProcess.DEFAULT_CLIENT_NAME);
             node.collectBestSolutions(solutions);
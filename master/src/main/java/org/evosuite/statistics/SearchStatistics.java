@@ -35,12 +35,10 @@ import org.evosuite.coverage.mutation.OnlyMutationSuiteFitness;
 import org.evosuite.coverage.mutation.WeakMutationSuiteFitness;
 import org.evosuite.coverage.io.output.OutputCoverageSuiteFitness;
 import org.evosuite.coverage.rho.RhoCoverageSuiteFitness;
-import org.evosuite.ga.Chromosome;
 import org.evosuite.result.TestGenerationResult;
 import org.evosuite.rmi.MasterServices;
 import org.evosuite.rmi.service.ClientState;
 import org.evosuite.rmi.service.ClientStateInformation;
-import org.evosuite.runtime.util.AtMostOnceLogger;
 import org.evosuite.statistics.backend.*;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.utils.Listener;
@@ -68,7 +66,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 	private static final Logger logger = LoggerFactory.getLogger(SearchStatistics.class);
 
 	/** Map of client id to best individual received from that client so far */
-	private TestSuiteChromosome bestIndividual = null;
+	private IndividualStatistics bestIndividual = null;
 
 	/** Backend used to output the data */
 	private StatisticsBackend backend = null;
@@ -179,22 +177,17 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 	 * 
 	 * @param individual best individual of current generation
 	 */
-	public void currentIndividual(Chromosome individual) {
+	public void currentIndividual(IndividualStatistics individual) {
 		if(backend == null)
 			return;
 
-		if(!(individual instanceof TestSuiteChromosome)) {
-			AtMostOnceLogger.warn(logger, "searchStatistics expected a TestSuiteChromosome");
-			return;
-		}
-
 		logger.debug("Received individual");
-		bestIndividual = (TestSuiteChromosome) individual;
+		bestIndividual = individual;
         for(ChromosomeOutputVariableFactory<?> v : variableFactories.values()) {
-            setOutputVariable(v.getVariable((TestSuiteChromosome) individual));
+            setOutputVariable(v.getVariable(individual));
         }
 		for(SequenceOutputVariableFactory<?> v : sequenceOutputVariableFactories.values()) {
-			v.update((TestSuiteChromosome) individual);
+			v.update(individual);
 		}
 	}
 
@@ -286,7 +279,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 	/**
 	 * Shorthand for getOutputVariables(individual, false)
 	 */
-	private Map<String, OutputVariable<?>> getOutputVariables(TestSuiteChromosome individual) {
+	private Map<String, OutputVariable<?>> getOutputVariables(IndividualStatistics individual) {
 		return getOutputVariables(individual, false);
 	}
 
@@ -298,7 +291,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 	 * @param skip_missing whether or not to skip missing output variables
 	 * @return <code>null</code> if some data is missing
 	 */
-	private Map<String, OutputVariable<?>> getOutputVariables(TestSuiteChromosome individual, boolean skip_missing) {
+	private Map<String, OutputVariable<?>> getOutputVariables(IndividualStatistics individual, boolean skip_missing) {
 		Map<String, OutputVariable<?>> variables = new LinkedHashMap<String, OutputVariable<?>>();
 		
 		for(String variableName : getOutputVariableNames()) {
@@ -348,7 +341,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 			return false;
 		}	
 
-		TestSuiteChromosome individual = bestIndividual;
+		IndividualStatistics individual = bestIndividual;
 
 		Map<String,OutputVariable<?>> map = getOutputVariables(individual);
 		if(map==null){
@@ -413,7 +406,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 
 		outputVariables.put(RuntimeVariable.Total_Time.name(), new OutputVariable<Object>(RuntimeVariable.Total_Time.name(), System.currentTimeMillis() - startTime));
 
-		TestSuiteChromosome individual = new TestSuiteChromosome();
+		IndividualStatistics individual = IndividualStatistics.of(new TestSuiteChromosome());
 		Map<String,OutputVariable<?>> map = getOutputVariables(individual);
 		if(map==null){
 			logger.error("Not going to write down statistics data, as some are missing");
@@ -470,7 +463,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		protected Integer getData(TestSuiteChromosome individual) {
+		protected Integer getData(IndividualStatistics individual) {
 			return individual.totalLengthOfTestCases();
 		}
 	}
@@ -484,7 +477,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		protected Integer getData(TestSuiteChromosome individual) {
+		protected Integer getData(IndividualStatistics individual) {
 			return individual.size();
 		}
 	}
@@ -498,7 +491,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		protected Double getData(TestSuiteChromosome individual) {
+		protected Double getData(IndividualStatistics individual) {
 			return individual.getFitness();
 		}
 	}
@@ -512,7 +505,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		protected Double getData(TestSuiteChromosome individual) {
+		protected Double getData(IndividualStatistics individual) {
 			return individual.getCoverage();
 		}
 	}
@@ -527,7 +520,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		protected Double getValue(TestSuiteChromosome individual) {
+		protected Double getValue(IndividualStatistics individual) {
 			return individual.getFitness();
 		}
 	}
@@ -542,7 +535,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		public Double getValue(TestSuiteChromosome individual) {
+		public Double getValue(IndividualStatistics individual) {
 			return individual.getCoverage();
 		}
 	}
@@ -557,7 +550,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		public Integer getValue(TestSuiteChromosome individual) {
+		public Integer getValue(IndividualStatistics individual) {
 			return individual.size();
 		}
 	}
@@ -572,7 +565,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		public Integer getValue(TestSuiteChromosome individual) {
+		public Integer getValue(IndividualStatistics individual) {
 			return individual.totalLengthOfTestCases();
 		}
 	}
@@ -587,7 +580,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Integer getValue(TestSuiteChromosome individual) {
+        public Integer getValue(IndividualStatistics individual) {
             return (Integer) this.value;
         }
 
@@ -607,7 +600,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		public Double getValue(TestSuiteChromosome individual) {
+		public Double getValue(IndividualStatistics individual) {
 			return (Double) this.value;
 		}
 
@@ -627,7 +620,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Integer getValue(TestSuiteChromosome individual) {
+        public Integer getValue(IndividualStatistics individual) {
             return individual.getNumOfNotCoveredGoals();
         }
     }
@@ -639,7 +632,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(BranchCoverageSuiteFitness.class);
         }
     }
@@ -651,7 +644,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(OnlyBranchCoverageSuiteFitness.class);
         }
     }
@@ -663,7 +656,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(OnlyBranchCoverageSuiteFitness.class);
         }
     }
@@ -675,7 +668,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(CBranchSuiteFitness.class);
         }
     }
@@ -687,7 +680,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(CBranchSuiteFitness.class);
         }
     }
@@ -699,7 +692,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(MethodTraceCoverageSuiteFitness.class);
         }
     }
@@ -711,7 +704,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(MethodTraceCoverageSuiteFitness.class);
         }
     }
@@ -723,7 +716,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(MethodCoverageSuiteFitness.class);
         }
     }
@@ -735,7 +728,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(MethodCoverageSuiteFitness.class);
         }
     }
@@ -747,7 +740,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(MethodNoExceptionCoverageSuiteFitness.class);
         }
     }
@@ -759,7 +752,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(MethodNoExceptionCoverageSuiteFitness.class);
         }
     }
@@ -771,7 +764,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             Double d = individual.getFitnessInstanceOf(RhoCoverageSuiteFitness.class);
             return d > 1.0 ? 0.0 : d;
         }
@@ -784,7 +777,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(AmbiguityCoverageSuiteFitness.class);
         }
     }
@@ -796,7 +789,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(LineCoverageSuiteFitness.class);
         }
     }
@@ -808,7 +801,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(LineCoverageSuiteFitness.class);
         }
     }
@@ -820,7 +813,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(OutputCoverageSuiteFitness.class);
         }
     }
@@ -832,7 +825,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(OutputCoverageSuiteFitness.class);
         }
     }
@@ -844,7 +837,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(InputCoverageSuiteFitness.class);
         }
     }
@@ -856,7 +849,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(InputCoverageSuiteFitness.class);
         }
     }
@@ -868,7 +861,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(ExceptionCoverageSuiteFitness.class);
         }
     }
@@ -880,7 +873,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(ExceptionCoverageSuiteFitness.class);
         }
     }
@@ -892,7 +885,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(WeakMutationSuiteFitness.class);
         }
     }
@@ -904,7 +897,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(OnlyMutationSuiteFitness.class);
         }
     }
@@ -916,7 +909,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(OnlyMutationSuiteFitness.class);
         }
     }
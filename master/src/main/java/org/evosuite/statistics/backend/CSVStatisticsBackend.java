@@ -28,7 +28,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import org.evosuite.Properties;
-import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.IndividualStatistics;
 import org.evosuite.statistics.OutputVariable;
 import org.evosuite.utils.FileIOUtils;
 import org.slf4j.Logger;
@@ -102,7 +102,7 @@ public class CSVStatisticsBackend implements StatisticsBackend {
 	}
 	
 	@Override
-	public void writeData(Chromosome result, Map<String, OutputVariable<?>> data) {
+	public void writeData(IndividualStatistics result, Map<String, OutputVariable<?>> data) {
 		// Write to evosuite-report/statistics.csv
 		BufferedWriter out = null;
 		try {
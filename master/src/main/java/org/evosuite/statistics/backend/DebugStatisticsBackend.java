@@ -22,7 +22,7 @@ package org.evosuite.statistics.backend;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
-import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.IndividualStatistics;
 import org.evosuite.statistics.OutputVariable;
 
 /**
@@ -36,7 +36,7 @@ public class DebugStatisticsBackend  extends ConsoleStatisticsBackend{
 	private static Map<String, OutputVariable<?>> latestWritten;
 	
 	@Override
-	public void writeData(Chromosome result, Map<String, OutputVariable<?>> data) {
+	public void writeData(IndividualStatistics result, Map<String, OutputVariable<?>> data) {
 		super.writeData(result, data);
 		latestWritten = new LinkedHashMap<>();
 		latestWritten.putAll(data);
@@ -39,12 +39,9 @@ import java.util.Set;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.evosuite.Properties;
-import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.IndividualStatistics;
 import org.evosuite.statistics.OutputVariable;
 import org.evosuite.statistics.RuntimeVariable;
-import org.evosuite.testcase.TestCase;
-import org.evosuite.testcase.TestChromosome;
-import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.utils.HtmlAnalyzer;
 import org.evosuite.utils.FileIOUtils;
 import org.slf4j.Logger;
@@ -59,7 +56,7 @@ public class HTMLStatisticsBackend implements StatisticsBackend {
 	protected static final HtmlAnalyzer html_analyzer = new HtmlAnalyzer();
 
 	@Override
-	public void writeData(Chromosome result, Map<String, OutputVariable<?>> data) {
+	public void writeData(IndividualStatistics result, Map<String, OutputVariable<?>> data) {
 
 		new File(getReportDir().getAbsolutePath() + "/img").mkdirs();
 		new File(getReportDir().getAbsolutePath() + "/html/files/").mkdirs();
@@ -124,7 +121,7 @@ public class HTMLStatisticsBackend implements StatisticsBackend {
 			// report.append("<td></td>");
 			report.append("</tr>\n");
 		}
-		writeRunTable((TestSuiteChromosome)result, data, report);
+		writeRunTable(result, data, report);
 		report.append("</div></div></div></div></div></div>");
 
 		writeHTMLFooter(report);
@@ -239,7 +236,7 @@ public class HTMLStatisticsBackend implements StatisticsBackend {
 	 * @param buffer
 	 *            a {@link java.lang.StringBuffer} object.
 	 */
-	protected void writeRunTable(TestSuiteChromosome suite, Map<String, OutputVariable<?>> data, StringBuffer buffer) {
+	protected void writeRunTable(IndividualStatistics suite, Map<String, OutputVariable<?>> data, StringBuffer buffer) {
 		SimpleDateFormat sdf = new SimpleDateFormat(DATE_FORMAT_NOW);
 
 		buffer.append("<tr>");
@@ -279,7 +276,7 @@ public class HTMLStatisticsBackend implements StatisticsBackend {
 	 * @return a {@link java.lang.String} object.
 	 */
 	@SuppressWarnings("deprecation")
-	protected String writeRunPage(TestSuiteChromosome suite, Map<String, OutputVariable<?>> data) {
+	protected String writeRunPage(IndividualStatistics suite, Map<String, OutputVariable<?>> data) {
 
 		StringBuffer sb = new StringBuffer();
 		String className = (String)data.get("TARGET_CLASS").getValue();
@@ -308,8 +305,7 @@ public class HTMLStatisticsBackend implements StatisticsBackend {
 		sb.append("<div class=tests>\n");
 		int num = 0;
 		
-		for (TestChromosome testChromosome : suite.getTestChromosomes()) {
-			TestCase test = testChromosome.getTestCase();
+		for (String code : suite.getTestCode()) {
 			sb.append("<h3>Test case ");
 			sb.append(++num);
 			sb.append("</h3>\n");
@@ -319,13 +315,6 @@ public class HTMLStatisticsBackend implements StatisticsBackend {
 			 */
 			sb.append("<pre class=\"prettyprint\" style=\"border: 1px solid #888;padding: 2px\">\n");
 			int linecount = 1;
-			String code = null;
-			if (testChromosome.getLastExecutionResult() != null) {
-				code = test.toCode(testChromosome.getLastExecutionResult().exposeExceptionMapping());
-			}
-			else
-				code = test.toCode();
-
 			for (String line : code.split("\n")) {
 				sb.append(String.format("<span class=\"nocode\"><a name=\"%d\">%3d: </a></span>",
 						linecount, linecount));
@@ -431,7 +420,7 @@ public class HTMLStatisticsBackend implements StatisticsBackend {
 	 *            a {@link org.evosuite.utils.ReportGenerator.StatisticEntry}
 	 *            object.
 	 */
-	protected void writeResultTable(TestSuiteChromosome suite, StringBuffer buffer, Map<String, OutputVariable<?>> data) {
+	protected void writeResultTable(IndividualStatistics suite, StringBuffer buffer, Map<String, OutputVariable<?>> data) {
 
 		//buffer.append("<h2>Statistics</h2>\n");
 		buffer.append("<ul>\n");
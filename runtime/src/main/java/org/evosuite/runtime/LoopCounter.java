@@ -71,12 +71,27 @@ public class LoopCounter {
      *
      * @return the next valid index for a new loop
      */
-    public int getNewIndex(){
+    public synchronized int getNewIndex(){
         int index = counters.size();
         counters.add(0l);
         return index;
     }
 
+    /**
+     * Assign consecutive indices to several loops at once, e.g. to the loops
+     * of a class whose instrumentation is taken from a cache
+     *
+     * @param count the number of loops
+     * @return the index of the first loop
+     */
+    public synchronized int getNewIndices(int count){
+        int index = counters.size();
+        for(int i = 0; i < count; i++){
+            counters.add(0l);
+        }
+        return index;
+    }
+
 
     /**
      * This is added directly in the instrumented CUT after each loop statement
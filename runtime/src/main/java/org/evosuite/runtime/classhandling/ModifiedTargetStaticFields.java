@@ -21,6 +21,8 @@ package org.evosuite.runtime.classhandling;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +65,12 @@ public class ModifiedTargetStaticFields {
 
 	private final ArrayList<String> finalFields = new ArrayList<>();
 
+	/**
+	 * Final fields added by the current thread since
+	 * {@link #startRecordingFinalFields()}, if recording
+	 */
+	private static final ThreadLocal<List<String>> recordedFinalFields = new ThreadLocal<>();
+
 	/**
 	 * Adds a collection of final fields whose final modifier was removed by our
 	 * instrumentation
@@ -70,6 +78,10 @@ public class ModifiedTargetStaticFields {
 	 * @param newFinalFields
 	 */
 	public void addFinalFields(Collection<String> newFinalFields) {
+		List<String> recorded = recordedFinalFields.get();
+		if (recorded != null) {
+			recorded.addAll(newFinalFields);
+		}
 		for (String finalField : newFinalFields) {
 			if (!finalFields.contains(finalField)) {
 				// logger.debug("Adding new field to ModifiedTargetStaticFields:" + newFinalFields);
@@ -78,6 +90,24 @@ public class ModifiedTargetStaticFields {
 		}
 	}
 
+	/**
+	 * Keep track of the final fields added by the current thread, e.g. to be
+	 * able to add them again when the instrumentation of a class is skipped
+	 */
+	public static void startRecordingFinalFields() {
+		recordedFinalFields.set(new ArrayList<String>());
+	}
+
+	/**
+	 * @return the final fields added by the current thread since
+	 *         {@link #startRecordingFinalFields()}
+	 */
+	public static List<String> stopRecordingFinalFields() {
+		List<String> recorded = recordedFinalFields.get();
+		recordedFinalFields.remove();
+		return recorded == null ? Collections.<String> emptyList() : recorded;
+	}
+
 	/**
 	 * Checks if a given field is contained or not in this collection
 	 * 
@@ -60,6 +60,36 @@ public class NativeMockedIO {
 		return b; 
 	}
 
+	/**
+	 * Bulk version of {@link #read(String, AtomicInteger)}, with the same
+	 * effect as calling it up to {@code len} times until the end of the file
+	 * is reached. Note: as for the single byte version, the read that hits
+	 * the end of the file still moves the position forward
+	 * 
+	 * @return the number of bytes read, or -1 if already at the end of the file
+	 */
+	public static int read(String path, AtomicInteger position, byte b[], int off, int len) throws IOException{
+		if(len <= 0){
+			return 0;
+		}
+
+		VFile vf = NativeMockedIO.getFileForReading(path);
+		if(vf==null){
+			throw new MockIOException();
+		}
+
+		VirtualFileSystem.getInstance().throwSimuledIOExceptionIfNeeded(path);
+
+		int read = vf.readBytes(position.get(), b, off, len);
+		if(read < 0){
+			position.incrementAndGet();
+			return -1;
+		}
+
+		position.addAndGet(read < len ? read + 1 : read);
+		return read;
+	}
+
 	
 	public static VFile getFileForWriting(String path){
 		FSObject target = VirtualFileSystem.getInstance().findFSObject(path);
@@ -39,8 +39,11 @@ import java.sql.SQLPermission;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.PropertyPermission;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.logging.FileHandler;
 import java.util.logging.LoggingPermission;
@@ -185,6 +188,20 @@ public class MSecurityManager extends SecurityManager {
 	 */
 	private final Set<Permission>  unrecognizedPermissions;
 
+	/**
+	 * Decisions taken for SUT permission checks during the current test case
+	 * execution, keyed on permission class, name and actions. Decisions that
+	 * depended on the call stack, or that have side effects (e.g. properties),
+	 * are not cached.
+	 */
+	private final Map<PermissionKey, Boolean> decisionCache;
+
+	/**
+	 * Flag set when a permission decision on the current thread had to look at
+	 * the call stack, which makes that decision not cacheable
+	 */
+	private final ThreadLocal<boolean[]> stackInspected;
+
 	/**
 	 * Create a custom security manager for the SUT. The thread that create this
 	 * instance is automatically added as "privileged"
@@ -198,6 +215,22 @@ public class MSecurityManager extends SecurityManager {
 		unrecognizedPermissions = new CopyOnWriteArraySet<>();
 
 		filesToDelete = new CopyOnWriteArraySet<>();
+
+		decisionCache = new ConcurrentHashMap<>();
+		stackInspected = new ThreadLocal<boolean[]>() {
+			@Override
+			protected boolean[] initialValue() {
+				return new boolean[1];
+			}
+		};
+		/*
+		 * make sure all the classes used by the cache are loaded before the
+		 * security manager is on, otherwise loading them during a check would
+		 * lead to a recursion
+		 */
+		decisionCache.put(new PermissionKey(new RuntimePermission("getStackTrace")), true);
+		decisionCache.clear();
+		stackInspected.get();
 	}
 
     /**
@@ -348,6 +381,7 @@ public class MSecurityManager extends SecurityManager {
 			throw new IllegalStateException("Trying to set up the sandbox while executing a test case");
 		}
 		
+		decisionCache.clear();
 		executingTestCase = true;
 	}
 
@@ -430,16 +464,6 @@ public class MSecurityManager extends SecurityManager {
 	public void checkPermission(Permission perm) throws SecurityException {
 		// check access
 		if (!allowPermission(perm)) {
-			String stack = "\n";
-			for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
-				if (e.toString().contains(
-						//FIXME use ObjectFields.class, but without adding Maven dependency (which would create a cycle)
-						PackageInfo.getEvoSuitePackage()+".regression.ObjectFields")) {
-					statistics.permissionAllowed(perm);
-					return;
-				}
-				stack += e + "\n";
-			}
 			if (executingTestCase) {
 				/*
 				 * report statistics only during test case execution, although still log them. The reason is to avoid EvoSuite threads which might not
@@ -447,9 +471,15 @@ public class MSecurityManager extends SecurityManager {
 				 */
 				statistics.permissionDenied(perm);
 			}
-			logger.debug("Security manager blocks permission " + perm + stack);
+			/*
+			 * the call stack is in the exception, and is only printed if debug
+			 * logging is on. Denials are frequent, e.g. when they come from the
+			 * decision cache, so no string is built for them
+			 */
+			SecurityException exception = new SecurityException("Security manager blocks " + perm);
+			logger.debug("Security manager blocks permission {}", perm, exception);
 
-			throw new SecurityException("Security manager blocks " + perm + stack);
+			throw exception;
 		} else {
 			if (executingTestCase) {
 				statistics.permissionAllowed(perm);
@@ -461,8 +491,41 @@ public class MSecurityManager extends SecurityManager {
 
 	// ------------------------------------------------------------------------------------------
 
-	private boolean isAWTThread() {
+	/**
+	 * Stack inspection for permission decisions on SUT threads. Decisions
+	 * based on it are specific to the current caller, and so are not cached.
+	 */
+	private StackTraceElement[] getCurrentStackTrace() {
+		stackInspected.get()[0] = true;
+		return Thread.currentThread().getStackTrace();
+	}
+
+	/**
+	 * The regression analysis inspects the fields of SUT objects on the
+	 * threads that execute the tests
+	 */
+	private static boolean isCalledFromObjectFields() {
+		//FIXME use ObjectFields.class, but without adding Maven dependency (which would create a cycle)
+		String objectFields = PackageInfo.getEvoSuitePackage() + ".regression.ObjectFields";
 		for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
+			if (e.getClassName().startsWith(objectFields)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if the permission may be needed to inspect the fields of an
+	 *         object
+	 */
+	private static boolean isReflectionPermission(Permission perm) {
+		return perm instanceof ReflectPermission || (perm instanceof RuntimePermission
+				&& "accessDeclaredMembers".equals(perm.getName()));
+	}
+
+	private boolean isAWTThread() {
+		for (StackTraceElement e : getCurrentStackTrace()) {
 			if (e.getClassName().startsWith("java.awt"))
 				return true;
 
@@ -519,13 +582,69 @@ public class MSecurityManager extends SecurityManager {
 					try {
 						defaultManager.checkPermission(perm); // if not allowed, it will throw exception
 					} catch (SecurityException e) {
-						return false;
+						return isCalledFromObjectFields();
 					}
 					return true;
 				}
 			}
 		}
 
+		if (!executingTestCase) {
+			return allowSUTPermission(perm) || isCalledFromObjectFields();
+		}
+
+		/*
+		 * SUT code can check the same permissions over and over again, e.g. in
+		 * loops accessing files or properties. As the settings do not change
+		 * during a test case execution, the decision can be reused unless it
+		 * depended on who is on the call stack. A cached decision is final,
+		 * and does not look at the call stack again
+		 */
+		PermissionKey key = new PermissionKey(perm);
+		Boolean cached = decisionCache.get(key);
+		if (cached != null) {
+			statistics.decisionCacheHit(cached);
+			return cached;
+		}
+
+		boolean[] inspected = stackInspected.get();
+		boolean outerInspected = inspected[0];
+		inspected[0] = false;
+		boolean allowed;
+		boolean dependsOnStack;
+		try {
+			allowed = allowSUTPermission(perm);
+		} finally {
+			dependsOnStack = inspected[0];
+			inspected[0] = outerInspected || dependsOnStack;
+		}
+
+		statistics.decisionCacheMiss();
+		if (!allowed && isCalledFromObjectFields()) {
+			// allowed for this caller only
+			return true;
+		}
+		/*
+		 * property checks have side effects, see System.handlePropertyPermission.
+		 * Denied reflection is not cached, as the regression analysis might
+		 * need it later in the same test
+		 */
+		if (!dependsOnStack && !(perm instanceof PropertyPermission)
+				&& (allowed || !isReflectionPermission(perm))) {
+			decisionCache.put(key, allowed);
+		}
+		return allowed;
+	}
+
+	/**
+	 * Decide on a permission requested by (potentially) SUT code, i.e. from a
+	 * thread that is not privileged
+	 * 
+	 * @param perm
+	 * @return false if access is forbidden, true otherwise
+	 */
+	private boolean allowSUTPermission(Permission perm) {
+
 
 
 		if (RuntimeSettings.sandboxMode.equals(Sandbox.SandboxMode.IO)) {
@@ -1028,13 +1147,13 @@ public class MSecurityManager extends SecurityManager {
 
 		// AWT needs to be treated specially
 		//FIXME handling of awt read permission
-		if ("true".equals(AWT_HEADLESS) && isAWTThread()) {
-			if (name.equals("shutdownHooks"))
-				return true;
-			if (name.equals("modifyThreadGroup"))
-				return true;
-			if (name.equals("modifyThread"))
-				return true;
+		if ("true".equals(AWT_HEADLESS) && name.equals("shutdownHooks") && isAWTThread()) {
+			/*
+			 * "modifyThreadGroup" and "modifyThread" are granted to AWT as well,
+			 * but they are allowed to any thread further below, so there is no
+			 * need to inspect the stack for them
+			 */
+			return true;
 		}
 
 		/*
@@ -1233,7 +1352,7 @@ public class MSecurityManager extends SecurityManager {
 		if(fp.getName().contains(FILE_HANDLER_NAME_PATTERN))
 			return true;
 		if (fp.getActions().equals("write")) {
-			for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
+			for (StackTraceElement e : getCurrentStackTrace()) {
 				if(e.getClassName().equals(FileHandler.class.getName()) && e.getMethodName().equals("isParentWritable")) {
 						return true;
 				}
@@ -1319,7 +1438,7 @@ public class MSecurityManager extends SecurityManager {
 				 * This is not 100% secure, but Jacoco support
 				 * is important
 				 */
-				for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
+				for (StackTraceElement e : getCurrentStackTrace()) {
 					if(e.getClassName().startsWith("org.jacoco.")) {
 						return true;
 					}
@@ -1329,7 +1448,7 @@ public class MSecurityManager extends SecurityManager {
 				 * This is not 100% secure, but GZoltar support
 				 * is also important
 				 */
-				for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
+				for (StackTraceElement e : getCurrentStackTrace()) {
 					if(e.getClassName().startsWith("com.gzoltar.")) {
 						return true;
 					}
@@ -1339,7 +1458,7 @@ public class MSecurityManager extends SecurityManager {
 				 * To make sure this is really clover trying to write a report
 				 * we also check that this is invoked by clover
 				 */
-				for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
+				for (StackTraceElement e : getCurrentStackTrace()) {
 					if(e.getClassName().startsWith("com.atlassian.clover.")) {
 						return true;
 					}
@@ -1351,7 +1470,7 @@ public class MSecurityManager extends SecurityManager {
 				 * To make sure this is really clover trying to write a report
 				 * we also check that this is invoked by clover
 				 */
-				for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
+				for (StackTraceElement e : getCurrentStackTrace()) {
 					if(e.getClassName().startsWith("com.atlassian.clover.")) {
 						return true;
 					}
@@ -1361,4 +1480,42 @@ public class MSecurityManager extends SecurityManager {
 
 		return false;
 	}
+
+	/**
+	 * Key of a cached permission decision
+	 */
+	private static final class PermissionKey {
+
+		private final Class<?> type;
+
+		private final String name;
+
+		private final String actions;
+
+		private final int hashCode;
+
+		public PermissionKey(Permission perm) {
+			type = perm.getClass();
+			name = perm.getName();
+			actions = perm.getActions();
+			hashCode = 31 * (31 * type.hashCode() + Objects.hashCode(name)) + Objects.hashCode(actions);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof PermissionKey))
+				return false;
+			PermissionKey other = (PermissionKey) obj;
+			return type == other.type && Objects.equals(name, other.name)
+					&& Objects.equals(actions, other.actions);
+		}
+	}
+
 }
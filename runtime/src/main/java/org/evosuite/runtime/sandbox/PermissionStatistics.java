@@ -27,9 +27,11 @@ import java.security.Permission;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 
@@ -66,7 +68,22 @@ public class PermissionStatistics {
 	private final Set<String> recentAccess;
 	private int maxThreads;
 
-	private boolean hasNewExceptions = false;
+	/**
+	 * Counters of the permission decision cache in the security manager
+	 */
+	private final AtomicLong decisionCacheHits;
+	private final AtomicLong decisionCacheDeniedHits;
+	private final AtomicLong decisionCacheMisses;
+
+	private volatile boolean hasNewExceptions = false;
+
+	/**
+	 * Thread groups whose threads were denied a permission since the last
+	 * call of {@link #getAndResetExceptionInfo(ThreadGroup)}, so that tests
+	 * executed concurrently in different groups do not see each other's
+	 * exceptions
+	 */
+	private final Set<ThreadGroup> groupsWithNewExceptions;
 
 
     private String threadGroupToMonitor;
@@ -79,6 +96,10 @@ public class PermissionStatistics {
 		deniedClassCount = new ConcurrentHashMap<Class<?>, Integer>();
 		recentAccess = Collections.synchronizedSet(new HashSet<String>());
 		maxThreads = 1;
+		decisionCacheHits = new AtomicLong();
+		decisionCacheDeniedHits = new AtomicLong();
+		decisionCacheMisses = new AtomicLong();
+		groupsWithNewExceptions = Collections.newSetFromMap(new ConcurrentHashMap<ThreadGroup, Boolean>());
 	}
 
    
@@ -197,6 +218,9 @@ public class PermissionStatistics {
 			deniedCount.get(permissionClassName).put(type, 1);
 		}
 		hasNewExceptions = true;
+		ThreadGroup group = Thread.currentThread().getThreadGroup();
+		if (group != null)
+			groupsWithNewExceptions.add(group);
 	}
 
 	/**
@@ -522,7 +546,43 @@ public class PermissionStatistics {
 		return maxThreads;
 	}
 
+	/**
+	 * A permission check of the SUT was answered from the decision cache
+	 * 
+	 * @param allowed
+	 *            the cached decision
+	 */
+	public void decisionCacheHit(boolean allowed) {
+		decisionCacheHits.incrementAndGet();
+		if (!allowed) {
+			decisionCacheDeniedHits.incrementAndGet();
+		}
+	}
+
+	/**
+	 * A permission check of the SUT had to be evaluated
+	 */
+	public void decisionCacheMiss() {
+		decisionCacheMisses.incrementAndGet();
+	}
+
+	public long getDecisionCacheHits() {
+		return decisionCacheHits.get();
+	}
+
+	/**
+	 * @return how many of the cache hits were denied permissions
+	 */
+	public long getDecisionCacheDeniedHits() {
+		return decisionCacheDeniedHits.get();
+	}
+
+	public long getDecisionCacheMisses() {
+		return decisionCacheMisses.get();
+	}
+
 	public boolean getAndResetExceptionInfo() {
+		groupsWithNewExceptions.clear();
 		if (hasNewExceptions) {
 			hasNewExceptions = false;
 			return true;
@@ -530,6 +590,25 @@ public class PermissionStatistics {
 		return false;
 	}
 
+	/**
+	 * Check whether a permission was denied to a thread of the given group,
+	 * or of one of its subgroups, since the last call for this group
+	 * 
+	 * @param group
+	 *            the thread group the test was executed in
+	 * @return true if a permission was denied
+	 */
+	public boolean getAndResetExceptionInfo(ThreadGroup group) {
+		boolean found = false;
+		for (Iterator<ThreadGroup> iterator = groupsWithNewExceptions.iterator(); iterator.hasNext();) {
+			if (group.parentOf(iterator.next())) {
+				iterator.remove();
+				found = true;
+			}
+		}
+		return found;
+	}
+
     public void setThreadGroupToMonitor(String threadGroupToMonitor) {
         this.threadGroupToMonitor = threadGroupToMonitor;
     }
@@ -20,15 +20,15 @@
 package org.evosuite.runtime.util;
 
 import java.io.IOException;
-import java.io.InputStream;
 
-import org.objectweb.asm.ClassReader;
+import org.evosuite.runtime.util.TypeHierarchyCache.TypeInfo;
 import org.objectweb.asm.ClassWriter;
-import org.objectweb.asm.Opcodes;
 
 /**
  * A ClassWriter that computes the common super class of two classes without
  * actually loading them with a ClassLoader.
+ * The type hierarchy is read through the shared {@link TypeHierarchyCache},
+ * so the bytecode of each ancestor is parsed only once.
  *
  * @author Eric Bruneton
  */
@@ -42,9 +42,19 @@ public class ComputeClassWriter extends ClassWriter {
     
     @Override
     protected String getCommonSuperClass(final String type1, final String type2) {
+        TypeHierarchyCache cache = TypeHierarchyCache.getInstance();
+        String commonSuperClass = cache.getCommonSuperClass(type1, type2);
+        if (commonSuperClass == null) {
+            commonSuperClass = computeCommonSuperClass(type1, type2);
+            cache.putCommonSuperClass(type1, type2, commonSuperClass);
+        }
+        return commonSuperClass;
+    }
+
+    private String computeCommonSuperClass(final String type1, final String type2) {
         try {
-        	ClassReader info1;
-        	ClassReader info2;
+        	TypeInfo info1;
+        	TypeInfo info2;
         	try {
         		info1 = typeInfo(type1);
             } catch (NullPointerException e) {
@@ -58,18 +68,18 @@ public class ComputeClassWriter extends ClassWriter {
                 throw new RuntimeException("Class not found: "+type2+": "+e.toString(), e);
         	}
 
-            if ((info1.getAccess() & Opcodes.ACC_INTERFACE) != 0) {
+            if (info1.isInterface()) {
                 if (typeImplements(type2, info2, type1)) {
                     return type1;
                 }
-                if ((info2.getAccess() & Opcodes.ACC_INTERFACE) != 0) {
+                if (info2.isInterface()) {
                     if (typeImplements(type1, info1, type2)) {
                         return type2;
                     }
                 }
                 return "java/lang/Object";
             }
-            if ((info2.getAccess() & Opcodes.ACC_INTERFACE) != 0) {
+            if (info2.isInterface()) {
                 if (typeImplements(type1, info1, type2)) {
                     return type2;
                 } else {
@@ -113,7 +123,7 @@ public class ComputeClassWriter extends ClassWriter {
      * @param type
      *            the internal name of a class or interface.
      * @param info
-     *            the ClassReader corresponding to 'type'.
+     *            the type information corresponding to 'type'.
      * @return a StringBuilder containing the ancestor classes of 'type',
      *         separated by ';'. The returned string has the following format:
      *         ";type1;type2 ... ;typeN", where type1 is 'type', and typeN is a
@@ -123,7 +133,7 @@ public class ComputeClassWriter extends ClassWriter {
      *             if the bytecode of 'type' or of some of its ancestor class
      *             cannot be loaded.
      */
-    private StringBuilder typeAncestors(String type, ClassReader info)
+    private StringBuilder typeAncestors(String type, TypeInfo info)
             throws IOException {
         StringBuilder b = new StringBuilder();
         while (!"java/lang/Object".equals(type)) {
@@ -140,7 +150,7 @@ public class ComputeClassWriter extends ClassWriter {
      * @param type
      *            the internal name of a class or interface.
      * @param info
-     *            the ClassReader corresponding to 'type'.
+     *            the type information corresponding to 'type'.
      * @param itf
      *            the internal name of a interface.
      * @return true if 'type' implements directly or indirectly 'itf'
@@ -148,17 +158,18 @@ public class ComputeClassWriter extends ClassWriter {
      *             if the bytecode of 'type' or of some of its ancestor class
      *             cannot be loaded.
      */
-    private boolean typeImplements(String type, ClassReader info, String itf)
+    private boolean typeImplements(String type, TypeInfo info, String itf)
             throws IOException {
         while (!"java/lang/Object".equals(type)) {
-            String[] itfs = info.getInterfaces();
-            for (int i = 0; i < itfs.length; ++i) {
-                if (itfs[i].equals(itf)) {
+            int numInterfaces = info.getNumInterfaces();
+            for (int i = 0; i < numInterfaces; ++i) {
+                if (info.getInterface(i).equals(itf)) {
                     return true;
                 }
             }
-            for (int i = 0; i < itfs.length; ++i) {
-                if (typeImplements(itfs[i], typeInfo(itfs[i]), itf)) {
+            for (int i = 0; i < numInterfaces; ++i) {
+                String superItf = info.getInterface(i);
+                if (typeImplements(superItf, typeInfo(superItf), itf)) {
                     return true;
                 }
             }
@@ -169,25 +180,17 @@ public class ComputeClassWriter extends ClassWriter {
     }
     
     /**
-     * Returns a ClassReader corresponding to the given class or interface.
+     * Returns the type information corresponding to the given class or interface.
      *
      * @param type
      *            the internal name of a class or interface.
-     * @return the ClassReader corresponding to 'type'.
+     * @return the type information corresponding to 'type'.
      * @throws IOException
      *             if the bytecode of 'type' cannot be loaded.
      * @throws NullPointerException
      *             if the bytecode of 'type' cannot be found.
      */
-    private ClassReader typeInfo(final String type) throws IOException, NullPointerException {
-        InputStream is = l.getResourceAsStream(type + ".class");
-        try {
-        	if(is == null)
-        		throw new NullPointerException("Class not found "+type);
-            return new ClassReader(is);
-        } finally {
-        	if(is != null)
-        		is.close();
-        }
+    private TypeInfo typeInfo(final String type) throws IOException, NullPointerException {
+        return TypeHierarchyCache.getInstance().getTypeInfo(type, l);
     }
 }
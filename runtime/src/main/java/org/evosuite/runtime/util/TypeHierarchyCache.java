@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Thread-safe cache of the super type information (access flags, super class
+ * and interfaces) of classes, keyed by internal class name.
+ *
+ * <p>
+ * Computing stack map frames requires the common super class of many pairs
+ * of types, and each of these queries used to parse the bytecode of all the
+ * ancestors involved. Here every type is parsed at most once, and entries can
+ * also be registered directly by code that has already analysed the bytecode
+ * (e.g. the inheritance tree generation on the client). Types that cannot be
+ * found are not cached, as they may become available later when the
+ * classpath is extended.
+ */
+public class TypeHierarchyCache {
+
+	/**
+	 * Upper bound on the number of memoised common super class queries
+	 */
+	private static final int COMMON_SUPER_CLASS_LIMIT = 100_000;
+
+	private static final TypeHierarchyCache instance = new TypeHierarchyCache();
+
+	private final Map<String, TypeInfo> types = new ConcurrentHashMap<>();
+
+	private final Map<String, String> commonSuperClasses = new ConcurrentHashMap<>();
+
+	/**
+	 * The super type information of a single class or interface
+	 */
+	public static final class TypeInfo {
+
+		private final int access;
+
+		private final String superName;
+
+		private final String[] interfaces;
+
+		public TypeInfo(int access, String superName, String[] interfaces) {
+			this.access = access;
+			this.superName = superName;
+			this.interfaces = interfaces == null ? new String[0] : interfaces.clone();
+		}
+
+		public int getAccess() {
+			return access;
+		}
+
+		public boolean isInterface() {
+			return (access & Opcodes.ACC_INTERFACE) != 0;
+		}
+
+		/**
+		 * @return the internal name of the super class, or null for java/lang/Object
+		 */
+		public String getSuperName() {
+			return superName;
+		}
+
+		public String[] getInterfaces() {
+			return interfaces.clone();
+		}
+
+		int getNumInterfaces() {
+			return interfaces.length;
+		}
+
+		String getInterface(int i) {
+			return interfaces[i];
+		}
+	}
+
+	protected TypeHierarchyCache() {
+	}
+
+	public static TypeHierarchyCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Register the super type information of a class that has already been
+	 * analysed. An existing entry for the same class is kept.
+	 *
+	 * @param type internal name of the class, e.g. java/lang/String
+	 * @param access access flags of the class
+	 * @param superName internal name of the super class, null for java/lang/Object
+	 * @param interfaces internal names of the directly implemented interfaces
+	 */
+	public void register(String type, int access, String superName, String[] interfaces) {
+		if (type == null) {
+			throw new IllegalArgumentException("Null type");
+		}
+		types.putIfAbsent(type, new TypeInfo(access, superName, interfaces));
+	}
+
+	public boolean isCached(String type) {
+		return types.containsKey(type);
+	}
+
+	/**
+	 * Returns the super type information of the given type, reading its
+	 * bytecode from the given class loader if it is not cached yet.
+	 *
+	 * @param type internal name of a class or interface
+	 * @param loader class loader used to find the bytecode of 'type'
+	 * @return the type information of 'type'
+	 * @throws IOException if the bytecode of 'type' cannot be read
+	 * @throws NullPointerException if the bytecode of 'type' cannot be found
+	 */
+	public TypeInfo getTypeInfo(String type, ClassLoader loader) throws IOException, NullPointerException {
+		TypeInfo info = types.get(type);
+		if (info != null) {
+			return info;
+		}
+		InputStream is = loader.getResourceAsStream(type + ".class");
+		try {
+			if (is == null)
+				throw new NullPointerException("Class not found " + type);
+			ClassReader reader = new ClassReader(is);
+			info = new TypeInfo(reader.getAccess(), reader.getSuperName(), reader.getInterfaces());
+		} finally {
+			if (is != null)
+				is.close();
+		}
+		TypeInfo previous = types.putIfAbsent(type, info);
+		return previous == null ? info : previous;
+	}
+
+	/**
+	 * @return the memoised common super class of the two types, or null if
+	 *         it has not been computed yet
+	 */
+	public String getCommonSuperClass(String type1, String type2) {
+		return commonSuperClasses.get(pairKey(type1, type2));
+	}
+
+	public void putCommonSuperClass(String type1, String type2, String superClass) {
+		if (commonSuperClasses.size() >= COMMON_SUPER_CLASS_LIMIT) {
+			commonSuperClasses.clear();
+		}
+		commonSuperClasses.put(pairKey(type1, type2), superClass);
+	}
+
+	/**
+	 * Drop all cached information
+	 */
+	public void reset() {
+		types.clear();
+		commonSuperClasses.clear();
+	}
+
+	private static String pairKey(String type1, String type2) {
+		return type1 + ';' + type2;
+	}
+}
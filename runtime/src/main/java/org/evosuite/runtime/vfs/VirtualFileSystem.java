@@ -25,7 +25,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -102,6 +104,25 @@ public final class VirtualFileSystem {
 	 * 
 	 */
 	private final Set<LeakingResource> leakingResources;
+
+	/**
+	 * Maximum number of entries in the lookup cache, to avoid a SUT
+	 * creating huge amounts of files to blow up memory
+	 */
+	private static final int LOOKUP_CACHE_LIMIT = 10_000;
+
+	/**
+	 * Cache from normalized absolute paths to existing VFS objects, to avoid
+	 * walking the folder tree on each lookup. It is cleared on any structural
+	 * change (creation, deletion, renaming)
+	 */
+	private final Map<String, FSObject> lookupCache;
+
+	/**
+	 * Incremented on any structural change, used to avoid caching lookups
+	 * that raced with a change
+	 */
+	private final AtomicInteger structureVersion;
 	
 	//--------------------------------------------------------------------------
 
@@ -113,6 +134,8 @@ public final class VirtualFileSystem {
 		accessedFiles = new CopyOnWriteArraySet<>(); //we only add during test execution, and read after
 		leakingResources =  new CopyOnWriteArraySet<>();
 		classesThatShouldThrowIOException = new CopyOnWriteArraySet<>(); //should only contain very few values
+		lookupCache = new ConcurrentHashMap<>();
+		structureVersion = new AtomicInteger(0);
 	}
 
 	/**
@@ -129,6 +152,7 @@ public final class VirtualFileSystem {
 	 */
 	public void resetSingleton() {
 		root = null;
+		structureChanged();
 		tmpFileCounter.set(0);
 		accessedFiles.clear();
 		shouldAllThrowIOException = false;
@@ -222,6 +246,7 @@ public final class VirtualFileSystem {
 	public void init() {
 
 		root = new VFolder(null, null);
+		structureChanged();
 
 		String workingDir = getWorkingDirPath();
 		createFolder(workingDir);
@@ -313,10 +338,38 @@ public final class VirtualFileSystem {
 	 */
 	public FSObject findFSObject(String rawPath) {
 		String path = new File(rawPath).getAbsolutePath();
-		String[] tokens = tokenize(path);
 
 		markAccessedFile(path);
 
+		FSObject cached = lookupCache.get(path);
+		if (cached != null && !cached.isDeleted()) {
+			return cached;
+		}
+
+		int version = structureVersion.get();
+		FSObject found = lookup(path);
+		if (found != null && lookupCache.size() < LOOKUP_CACHE_LIMIT) {
+			lookupCache.put(path, found);
+			if (structureVersion.get() != version) {
+				// the tree changed while we were walking it
+				lookupCache.remove(path);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Needs to be called after any change of the folder tree, so that no stale
+	 * lookup is returned
+	 */
+	private void structureChanged() {
+		structureVersion.incrementAndGet();
+		lookupCache.clear();
+	}
+
+	private FSObject lookup(String path) {
+		String[] tokens = tokenize(path);
+
 		VFolder parent = root;
 		for (int i = 0; i < tokens.length; i++) {
 			String name = tokens[i];
@@ -347,7 +400,9 @@ public final class VirtualFileSystem {
 		if (obj == null || !obj.isWritePermission()) {
 			return false;
 		}
-		return obj.delete();
+		boolean deleted = obj.delete();
+		structureChanged();
+		return deleted;
 	}
 
 	public boolean createFile(String rawPath) {
@@ -364,6 +419,7 @@ public final class VirtualFileSystem {
 		VFolder folder = (VFolder) findFSObject(parent);
 		VFile file = new VFile(rawPath, folder);
 		folder.addChild(file);
+		structureChanged();
 
 		if (!tmp) {
 			markAccessedFile(file.getPath());
@@ -395,7 +451,9 @@ public final class VirtualFileSystem {
 			return false;
 		}
 
-		return src.rename(destination);
+		boolean renamed = src.rename(destination);
+		structureChanged();
+		return renamed;
 	}
 
 	public boolean createFolder(String rawPath) {
@@ -420,6 +478,8 @@ public final class VirtualFileSystem {
 					path = name;
 				}
 				folder = new VFolder(path, parent);
+				parent.addChild(folder);
+				structureChanged();
 			} else {
 				FSObject child = parent.getChild(name);
 				if (!child.isFolder()) {
@@ -428,7 +488,6 @@ public final class VirtualFileSystem {
 				folder = (VFolder) child;
 			}
 
-			parent.addChild(folder);
 			parent = folder;
 		}
 
@@ -27,10 +27,12 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.lang.reflect.ReflectPermission;
 import java.net.InetAddress;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.UnknownHostException;
+import java.sql.SQLPermission;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -350,6 +352,35 @@ public class MSecurityManagerTest {
 		});	
 		future.get(1000, TimeUnit.MILLISECONDS);
 	}
+
+	@Test
+	public void testRepeatedPermissionChecksAreCached() throws Exception {
+		final PermissionStatistics statistics = PermissionStatistics.getInstance();
+		final long hits = statistics.getDecisionCacheHits();
+		final long deniedHits = statistics.getDecisionCacheDeniedHits();
+
+		Future<?> future = executor.submit(new Runnable(){
+			@Override
+			public void run() {
+				for (int i = 0; i < 3; i++) {
+					securityManager.checkPermission(new ReflectPermission("suppressAccessChecks"));
+					try {
+						securityManager.checkPermission(new SQLPermission("setLog"));
+						Assert.fail();
+					} catch (SecurityException e) {
+						// expected, and it has to stay denied when cached,
+						// without walking the stack into the message
+						Assert.assertEquals("Security manager blocks " + new SQLPermission("setLog"),
+								e.getMessage());
+					}
+				}
+			}
+		});
+		future.get(1000, TimeUnit.MILLISECONDS);
+
+		Assert.assertTrue(statistics.getDecisionCacheHits() >= hits + 4);
+		Assert.assertTrue(statistics.getDecisionCacheDeniedHits() >= deniedHits + 2);
+	}
 	
 	
 }
@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import static org.junit.Assert.*;
+
+public class TypeHierarchyCacheTest {
+
+	@Before
+	public void init() {
+		TypeHierarchyCache.getInstance().reset();
+	}
+
+	@After
+	public void tearDown() {
+		TypeHierarchyCache.getInstance().reset();
+	}
+
+	@Test
+	public void testCommonSuperClass() {
+		ComputeClassWriter writer = new ComputeClassWriter(ClassWriter.COMPUTE_FRAMES);
+		assertEquals("java/util/AbstractList", writer.getCommonSuperClass("java/util/ArrayList", "java/util/LinkedList"));
+		assertEquals("java/util/List", writer.getCommonSuperClass("java/util/List", "java/util/ArrayList"));
+		assertEquals("java/lang/Object", writer.getCommonSuperClass("java/lang/String", "java/lang/Integer"));
+
+		TypeHierarchyCache cache = TypeHierarchyCache.getInstance();
+		assertTrue(cache.isCached("java/util/AbstractList"));
+		assertEquals("java/util/AbstractList", cache.getCommonSuperClass("java/util/ArrayList", "java/util/LinkedList"));
+	}
+
+	@Test
+	public void testRegisteredTypeIsNotLoaded() {
+		// there is no bytecode for this class, so it can only be resolved from the cache
+		TypeHierarchyCache.getInstance().register("foo/Bar", Opcodes.ACC_PUBLIC, "java/util/ArrayList", new String[0]);
+
+		ComputeClassWriter writer = new ComputeClassWriter(ClassWriter.COMPUTE_FRAMES);
+		assertEquals("java/util/AbstractList", writer.getCommonSuperClass("foo/Bar", "java/util/LinkedList"));
+		assertEquals("java/util/List", writer.getCommonSuperClass("java/util/List", "foo/Bar"));
+	}
+
+	@Test
+	public void testMissingClassIsNotCached() {
+		ComputeClassWriter writer = new ComputeClassWriter(ClassWriter.COMPUTE_FRAMES);
+		try {
+			writer.getCommonSuperClass("foo/DoesNotExist", "java/lang/String");
+			fail();
+		} catch (RuntimeException e) {
+			// expected
+		}
+		assertFalse(TypeHierarchyCache.getInstance().isCached("foo/DoesNotExist"));
+	}
+}
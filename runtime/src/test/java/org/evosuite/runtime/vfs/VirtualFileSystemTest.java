@@ -254,4 +254,60 @@ public class VirtualFileSystemTest {
 		Assert.assertFalse(folder.exists());		
 	}
 
+	@Test
+	public void testBulkReadAndWriteOfLargeFile() throws IOException{
+		File file = MockFile.createTempFile("foo", ".tmp");
+
+		byte[] data = new byte[10_000];
+		for(int i=0; i<data.length; i++){
+			data[i] = (byte) i;
+		}
+		MockFileOutputStream out = new MockFileOutputStream(file);
+		out.write(data);
+		out.write(data, 5, 3);
+		out.close();
+
+		Assert.assertEquals(data.length + 3, file.length());
+
+		MockFileInputStream in = new MockFileInputStream(file);
+		byte[] buffer = new byte[data.length];
+		Assert.assertEquals(data.length, in.read(buffer));
+		Assert.assertArrayEquals(data, buffer);
+
+		//only 3 bytes are left
+		Assert.assertEquals(3, in.read(buffer, 0, 100));
+		Assert.assertEquals(5, buffer[0]);
+		Assert.assertEquals(7, buffer[2]);
+		Assert.assertEquals(-1, in.read(buffer));
+		in.close();
+	}
+
+	@Test
+	public void testLookupAfterDeleteAndRecreate() throws IOException{
+		File file = new MockFile("foo/bar.txt");
+		Assert.assertTrue(file.getParentFile().mkdirs());
+		Assert.assertTrue(file.createNewFile());
+
+		FSObject first = VirtualFileSystem.getInstance().findFSObject(file.getAbsolutePath());
+		Assert.assertNotNull(first);
+		Assert.assertSame(first, VirtualFileSystem.getInstance().findFSObject(file.getAbsolutePath()));
+
+		Assert.assertTrue(file.delete());
+		Assert.assertFalse(file.exists());
+
+		Assert.assertTrue(file.createNewFile());
+		FSObject second = VirtualFileSystem.getInstance().findFSObject(file.getAbsolutePath());
+		Assert.assertNotNull(second);
+		Assert.assertNotSame(first, second);
+
+		//the parent folder is listed only once
+		int count = 0;
+		for(String name : new MockFile(VirtualFileSystem.getWorkingDirPath()).list()){
+			if(name.equals("foo")){
+				count++;
+			}
+		}
+		Assert.assertEquals(1, count);
+	}
+
 }